@@ -3,8 +3,10 @@ package me.minsic.springbootdeveloper;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableJpaAuditing  // created_at, updated_at 자동 업데이트
+@EnableScheduling   // @Scheduled 백그라운드 작업 실행 (아카이브 이동, 컴팩션, 아웃박스 이벤트 전달)
 @SpringBootApplication
 public class SpringBootDeveloperApplication {
     public static void main(String[] args) {
@@ -0,0 +1,20 @@
+package me.minsic.springbootdeveloper.archive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("archive") // application.yml의 archive 값을 가져온다.
+public class ArchiveProperties {
+    private boolean enabled = false;
+    private String directory = "./data/archive";       // 세그먼트 파일을 저장할 디렉터리
+    private Duration coldAfter = Duration.ofDays(365); // 이 기간 동안 수정되지 않은 글을 아카이브로 옮긴다.
+    private int segmentSize = 64 * 1024 * 1024;         // 세그먼트 파일 하나의 크기(바이트)
+    private double compactionRatio = 0.5;               // 삭제/덮어쓴 레코드 비율이 이 값을 넘으면 컴팩션
+}
@@ -0,0 +1,70 @@
+package me.minsic.springbootdeveloper.archive;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+* 메모리 매핑된 세그먼트 파일 하나
+* 파일 이름은 segment-{순번}-{세대}.log 이며, 컴팩션으로 다시 쓴 세그먼트는 같은 순번에 세대만 1 올라간다.
+* 읽기는 매핑된 버퍼의 절대 위치(slice)로만 하기 때문에 여러 스레드가 동시에 읽어도 된다.
+* 쓰기(position 변경)는 ArticleArchive의 writeLock 안에서만 한다.
+* */
+@Getter
+class ArchiveSegment {
+
+    private static final String PREFIX = "segment-";
+    static final String SUFFIX = ".log";
+
+    private final Path path;
+    private final long sequence;
+    private final int generation;
+    private final MappedByteBuffer buffer;
+    int position;
+
+    private ArchiveSegment(Path path, long sequence, int generation, MappedByteBuffer buffer) {
+        this.path = path;
+        this.sequence = sequence;
+        this.generation = generation;
+        this.buffer = buffer;
+    }
+
+    // capacity 만큼 파일을 매핑 (파일이 더 작으면 0으로 채워진 상태로 늘어난다)
+    static ArchiveSegment open(Path path, long sequence, int generation, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int size = (int) Math.max(channel.size(), capacity);
+            return new ArchiveSegment(path, sequence, generation, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+
+    static String fileName(long sequence, int generation) {
+        return String.format("%s%016d-%04d%s", PREFIX, sequence, generation, SUFFIX);
+    }
+
+    // segment-{순번}-{세대}.log 형식이 아니면 null
+    static long[] parseFileName(String fileName) {
+        if (!fileName.startsWith(PREFIX) || !fileName.endsWith(SUFFIX)) {
+            return null;
+        }
+        String[] parts = fileName.substring(PREFIX.length(), fileName.length() - SUFFIX.length()).split("-");
+        try {
+            return parts.length == 2 ? new long[]{Long.parseLong(parts[0]), Integer.parseInt(parts[1])} : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    void force(int from, int to) {
+        if (to > from) {
+            buffer.force(from, to - from);
+        }
+    }
+}
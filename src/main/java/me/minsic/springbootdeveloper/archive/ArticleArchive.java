@@ -0,0 +1,633 @@
+package me.minsic.springbootdeveloper.archive;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.dto.ArticleLastModified;
+import me.minsic.springbootdeveloper.dto.ArticleTitle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/*
+* 오래된 글을 보관하는 로그 구조(append-only) 콜드 스토리지
+* - 글은 메모리 매핑된 세그먼트 파일 끝에 레코드로 추가하고, 메모리에는 id -> (세그먼트, 위치) 인덱스만 둔다.
+* - 삭제는 삭제 기록(tombstone)을 추가하는 방식이며, 쓸모없어진 레코드는 컴팩션으로 정리한다.
+* - 레코드 구조 : [타입 4바이트][본문 길이 4바이트][CRC32 4바이트][본문]
+*   글 본문 : [id][created_at][update_at][작성자 id][작성자 길이][작성자][제목 길이][제목][내용 길이][내용], 삭제 기록 본문 : [id]
+*   (작성자 필드가 없는 이전 형식(ART1)의 레코드도 그대로 읽는다. 작성자 id가 0이면 작성자 없음)
+* - 시작할 때 모든 세그먼트를 처음부터 읽어 인덱스를 다시 만든다. CRC가 맞지 않는 레코드(쓰다가 끊긴 레코드)에서 멈추고
+*   그 뒤는 0으로 지운 뒤 이어서 쓴다.
+* - 읽기는 락 없이 매핑된 버퍼에서 바로 읽고, 쓰기(추가, 삭제, 컴팩션)는 writeLock 하나로 직렬화한다.
+* */
+@RequiredArgsConstructor
+@Component
+public class ArticleArchive {
+
+    private static final int RECORD_V1 = 0x41525431; // "ART1" (작성자 없음)
+    private static final int RECORD = 0x41525432;    // "ART2"
+    private static final long NO_AUTHOR = 0L;
+    private static final int TOMBSTONE = 0x44454C31; // "DEL1"
+    private static final int HEADER_LENGTH = 12;
+    private static final long NULL_DATE_TIME = Long.MIN_VALUE;
+    private static final String COMPACTING_SUFFIX = ".compacting";
+
+    private final ArchiveProperties archiveProperties;
+
+    private final Map<Long, Location> index = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final List<ArchiveSegment> segments = new ArrayList<>(); // 오래된 순서, 마지막이 현재 쓰고 있는 세그먼트
+    private Path directory;
+    private long liveBytes;
+    private long deadBytes;
+
+    // 인덱스 값 : 레코드가 저장된 세그먼트와 위치
+    private record Location(ArchiveSegment segment, int offset, int length) {
+    }
+
+    // 작성자별 조회에서 레코드를 읽기 전에 헤더만으로 거르고 정렬할 때 사용
+    private record AuthorEntry(long id, LocalDateTime createdAt, Location location) {
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!archiveProperties.isEnabled()) {
+            return;
+        }
+
+        writeLock.lock();
+        try {
+            directory = Path.of(archiveProperties.getDirectory());
+            Files.createDirectories(directory);
+            List<ArchiveSegment> recovered = recoverSegments();
+            for (int i = 0; i < recovered.size(); i++) {
+                replay(recovered.get(i), i == recovered.size() - 1);
+            }
+            segments.addAll(recovered);
+            if (segments.isEmpty()) {
+                segments.add(ArchiveSegment.open(directory.resolve(ArchiveSegment.fileName(1, 0)), 1, 0,
+                        archiveProperties.getSegmentSize()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        writeLock.lock();
+        try {
+            if (!segments.isEmpty()) {
+                ArchiveSegment active = active();
+                active.force(0, active.position);
+            }
+            index.clear();
+            segments.clear();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        return index.containsKey(id);
+    }
+
+    public Optional<Article> find(long id) {
+        Location location = index.get(id);
+        return location == null ? Optional.empty() : Optional.of(read(location));
+    }
+
+    public List<Article> findAll() {
+        List<Article> articles = new ArrayList<>();
+        forEachChunk(Integer.MAX_VALUE, articles::addAll);
+        return articles;
+    }
+
+    // after 다음 글을 id 순서로 최대 size 개 조회 (커서 페이징)
+    public List<Article> findAfter(long after, int size) {
+        return index.keySet().stream()
+                .filter(id -> id > after)
+                .sorted()
+                .limit(size)
+                .map(this::find)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    /*
+    * after 다음 글의 id, 제목을 id 순서로 읽는 반복자 (제목 자동 완성 색인을 만들 때 사용)
+    * 만들 때 id를 한 번만 정렬해 두고, 레코드에서는 제목까지만 읽는다. (내용은 디코딩하지 않는다)
+    * 만든 뒤에 삭제된 글은 건너뛰고, 추가된 글은 포함하지 않는다.
+    * */
+    public Iterator<ArticleTitle> titles(long after) {
+        return iterate(after, (id, location) -> new ArticleTitle(id, titleOf(location)));
+    }
+
+    // after 다음 글을 id 순서로 하나씩 읽는 반복자 (titles()처럼 id를 한 번만 정렬하고, 글은 꺼낼 때 읽는다)
+    public Iterator<Article> articles(long after) {
+        return iterate(after, (id, location) -> read(location));
+    }
+
+    private <T> Iterator<T> iterate(long after, BiFunction<Long, Location, T> reader) {
+        long[] ids = index.keySet().stream().mapToLong(Long::longValue).filter(id -> id > after).sorted().toArray();
+        return new Iterator<>() {
+            private int position;
+            private T next; // hasNext()에서 미리 읽은 값
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    next = advance();
+                }
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T current = next;
+                next = null;
+                return current;
+            }
+
+            private T advance() {
+                while (position < ids.length) {
+                    long id = ids[position++];
+                    Location location = index.get(id);
+                    if (location != null) {
+                        return reader.apply(id, location);
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    // 보관 중인 글의 id를 순서대로 (레코드는 읽지 않는다)
+    public List<Long> findIds() {
+        return index.keySet().stream().sorted().toList();
+    }
+
+    // 글의 id, 수정 시각 (레코드의 수정 시각만 매핑된 버퍼에서 읽고 본문은 읽지 않는다)
+    public Optional<ArticleLastModified> findLastModified(long id) {
+        Location location = index.get(id);
+        return location == null ? Optional.empty() : Optional.of(new ArticleLastModified(id, updatedAtOf(location)));
+    }
+
+    // after 다음 글의 id, 수정 시각을 id 순서로 최대 size 개 조회 (본문은 읽지 않는다)
+    public List<ArticleLastModified> findLastModifiedAfter(long after, int size) {
+        return index.keySet().stream()
+                .filter(id -> id > after)
+                .sorted()
+                .limit(size)
+                .map(this::findLastModified)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    // 작성일이 from 이상, to 미만인 글의 id (레코드의 작성일만 매핑된 버퍼에서 읽고 본문은 읽지 않는다)
+    public List<Long> findIdsCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        List<Long> ids = new ArrayList<>();
+        index.forEach((id, location) -> {
+            LocalDateTime createdAt = createdAtOf(location);
+            if (createdAt != null && !createdAt.isBefore(from) && createdAt.isBefore(to)) {
+                ids.add(id);
+            }
+        });
+        ids.sort(Comparator.naturalOrder());
+        return ids;
+    }
+
+    /*
+    * 작성자의 글 중 (createdAt, id)가 커서보다 앞선(오래된) 글을 최신순으로 최대 size 개 조회
+    * 아카이브에는 작성자 인덱스가 없어서 레코드의 작성자 id, 작성일만 매핑된 버퍼에서 읽어 거르고 정렬한 뒤
+    * 반환할 size 개만 글로 읽는다.
+    * */
+    public List<Article> findByAuthor(long authorId, LocalDateTime createdAt, Long id, int size) {
+        Comparator<AuthorEntry> newestFirst = Comparator.comparing(AuthorEntry::createdAt)
+                .thenComparing(AuthorEntry::id)
+                .reversed();
+        return index.entrySet().stream()
+                .filter(entry -> authorIdOf(entry.getValue()) == authorId)
+                .map(entry -> new AuthorEntry(entry.getKey(), createdAtOf(entry.getValue()), entry.getValue()))
+                .filter(entry -> createdAt == null || entry.createdAt().isBefore(createdAt)
+                        || (entry.createdAt().isEqual(createdAt) && entry.id() < id))
+                .sorted(newestFirst)
+                .limit(size)
+                .map(entry -> read(entry.location()))
+                .toList();
+    }
+
+    // 작성자 id (작성자가 없는 글, 없는 글이면 null)
+    public Long findAuthorId(long id) {
+        Location location = index.get(id);
+        long authorId = location == null ? NO_AUTHOR : authorIdOf(location);
+        return authorId == NO_AUTHOR ? null : authorId;
+    }
+
+    // id 순서로 chunkSize 개씩 읽어서 넘긴다. (메모리에는 한 묶음만 올라간다)
+    public void forEachChunk(int chunkSize, Consumer<List<Article>> consumer) {
+        long[] ids = index.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        List<Article> chunk = new ArrayList<>(Math.min(chunkSize, ids.length));
+        for (long id : ids) {
+            find(id).ifPresent(chunk::add);
+            if (chunk.size() == chunkSize) {
+                consumer.accept(chunk);
+                chunk = new ArrayList<>(Math.min(chunkSize, ids.length));
+            }
+        }
+        if (!chunk.isEmpty()) {
+            consumer.accept(chunk);
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    // 글을 세그먼트에 추가하고 디스크에 기록(force)한 뒤에 인덱스에 반영한다.
+    public void appendAll(List<Article> articles) {
+        writeLock.lock();
+        try {
+            checkOpen();
+            List<Long> ids = new ArrayList<>(articles.size());
+            List<Location> locations = new ArrayList<>(articles.size());
+            int forcedFrom = active().position;
+            for (Article article : articles) {
+                byte[] title = article.getTitle().getBytes(StandardCharsets.UTF_8);
+                byte[] content = article.getContent().getBytes(StandardCharsets.UTF_8);
+                byte[] author = article.getAuthor() == null ? new byte[0] : article.getAuthor().getBytes(StandardCharsets.UTF_8);
+                int length = 8 + 12 + 12 + 8 + 4 + author.length + 4 + title.length + 4 + content.length;
+
+                if (rollIfFull(HEADER_LENGTH + length, forcedFrom)) {
+                    forcedFrom = 0;
+                }
+                ByteBuffer body = startRecord(RECORD, length);
+                body.putLong(article.getId());
+                putDateTime(body, article.getCreatedAt());
+                putDateTime(body, article.getUpdatedAt());
+                body.putLong(article.getAuthorId() == null ? NO_AUTHOR : article.getAuthorId());
+                body.putInt(author.length).put(author);
+                body.putInt(title.length).put(title);
+                body.putInt(content.length).put(content);
+
+                ids.add(article.getId());
+                locations.add(finishRecord(length));
+            }
+            active().force(forcedFrom, active().position);
+
+            for (int i = 0; i < ids.size(); i++) {
+                Location previous = index.put(ids.get(i), locations.get(i));
+                liveBytes += locations.get(i).length();
+                discard(previous);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // 보관된 글이면 삭제 기록을 추가하고 true, 없으면 false 반환
+    public boolean delete(long id) {
+        writeLock.lock();
+        try {
+            if (!index.containsKey(id)) {
+                return false;
+            }
+            rollIfFull(HEADER_LENGTH + 8, active().position);
+            int from = active().position;
+            startRecord(TOMBSTONE, 8).putLong(id);
+            Location tombstone = finishRecord(8);
+            active().force(from, active().position);
+
+            discard(index.remove(id));
+            deadBytes += tombstone.length();
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean needsCompaction() {
+        writeLock.lock();
+        try {
+            return segments.size() > 1
+                    && deadBytes > (liveBytes + deadBytes) * archiveProperties.getCompactionRatio();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /*
+    * 현재 쓰고 있는 세그먼트를 제외한 모든 세그먼트의 살아있는 레코드만 새 세그먼트(마지막 순번, 다음 세대)로 옮긴다.
+    * 1. .compacting 임시 파일에 복사하고 디스크에 기록
+    * 2. 이름을 바꿔(atomic move) 새 세그먼트를 확정
+    * 3. 인덱스를 새 세그먼트로 바꾸고 이전 세그먼트 파일 삭제
+    * 2번 이후에 멈추더라도 시작할 때 recoverSegments()가 새 세대보다 이전의 세그먼트를 지우므로 결과가 같다.
+    * */
+    public void compact() {
+        writeLock.lock();
+        try {
+            checkOpen();
+            List<ArchiveSegment> sealed = new ArrayList<>(segments.subList(0, segments.size() - 1));
+            if (sealed.isEmpty()) {
+                return;
+            }
+            Set<ArchiveSegment> sealedSet = new HashSet<>(sealed);
+            ArchiveSegment last = sealed.get(sealed.size() - 1);
+            long sequence = last.getSequence();
+            int generation = last.getGeneration() + 1;
+            Path target = directory.resolve(ArchiveSegment.fileName(sequence, generation));
+            Path temporary = directory.resolve(target.getFileName() + COMPACTING_SUFFIX);
+
+            List<Map.Entry<Long, Location>> live = index.entrySet().stream()
+                    .filter(entry -> sealedSet.contains(entry.getValue().segment()))
+                    .sorted(Map.Entry.comparingByKey())
+                    .toList();
+            int size = 0;
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                for (Map.Entry<Long, Location> entry : live) {
+                    Location location = entry.getValue();
+                    // 매핑된 버퍼를 그대로 파일에 쓴다. (힙으로 복사하지 않음)
+                    channel.write(location.segment().getBuffer().slice(location.offset(), location.length()));
+                    size += location.length();
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory();
+
+            ArchiveSegment compacted = ArchiveSegment.open(target, sequence, generation, size);
+            compacted.position = size;
+            int offset = 0;
+            for (Map.Entry<Long, Location> entry : live) {
+                index.put(entry.getKey(), new Location(compacted, offset, entry.getValue().length()));
+                offset += entry.getValue().length();
+            }
+
+            segments.removeAll(sealed);
+            segments.add(0, compacted);
+            liveBytes = index.values().stream().mapToLong(Location::length).sum();
+            deadBytes = segments.stream().mapToLong(segment -> segment.position).sum() - liveBytes;
+            for (ArchiveSegment segment : sealed) {
+                deleteQuietly(segment.getPath());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Article read(Location location) {
+        // 매핑된 버퍼에서 바로 읽는다. (read 시스템 콜, 중간 버퍼 복사 없음)
+        ByteBuffer body = location.segment().getBuffer()
+                .slice(location.offset() + HEADER_LENGTH, location.length() - HEADER_LENGTH);
+        long id = body.getLong();
+        LocalDateTime createdAt = getDateTime(body);
+        LocalDateTime updatedAt = getDateTime(body);
+        Long authorId = null;
+        String author = null;
+        if (location.segment().getBuffer().getInt(location.offset()) == RECORD) {
+            long storedAuthorId = body.getLong();
+            String storedAuthor = getString(body);
+            if (storedAuthorId != NO_AUTHOR) {
+                authorId = storedAuthorId;
+                author = storedAuthor;
+            }
+        }
+        String title = getString(body);
+        String content = getString(body);
+        return Article.restore(id, title, content, authorId, author, createdAt, updatedAt);
+    }
+
+    // 레코드에서 제목까지만 읽는다. (read()와 같은 순서로 앞 필드를 건너뛴다)
+    private static String titleOf(Location location) {
+        ByteBuffer body = location.segment().getBuffer()
+                .slice(location.offset() + HEADER_LENGTH, location.length() - HEADER_LENGTH);
+        body.position(8 + 12 + 12); // id, created_at, update_at
+        if (location.segment().getBuffer().getInt(location.offset()) == RECORD) {
+            body.position(body.position() + 8); // 작성자 id
+            body.position(body.position() + 4 + body.getInt(body.position())); // 작성자
+        }
+        return getString(body);
+    }
+
+    private static LocalDateTime createdAtOf(Location location) {
+        return getDateTime(location.segment().getBuffer().slice(location.offset() + HEADER_LENGTH + 8, 12));
+    }
+
+    private static LocalDateTime updatedAtOf(Location location) {
+        return getDateTime(location.segment().getBuffer().slice(location.offset() + HEADER_LENGTH + 8 + 12, 12));
+    }
+
+    private static long authorIdOf(Location location) {
+        ByteBuffer buffer = location.segment().getBuffer();
+        if (buffer.getInt(location.offset()) != RECORD) {
+            return NO_AUTHOR;
+        }
+        return buffer.getLong(location.offset() + HEADER_LENGTH + 8 + 12 + 12);
+    }
+
+    // 디렉터리의 세그먼트 파일을 순서대로 열고, 컴팩션으로 대체된 세그먼트와 임시 파일은 지운다.
+    private List<ArchiveSegment> recoverSegments() throws IOException {
+        List<long[]> names = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String fileName = file.getFileName().toString();
+                if (fileName.endsWith(COMPACTING_SUFFIX)) {
+                    deleteQuietly(file);
+                    continue;
+                }
+                long[] name = ArchiveSegment.parseFileName(fileName);
+                if (name != null) {
+                    names.add(name);
+                }
+            }
+        }
+
+        // 컴팩션으로 만든(세대 > 0) 세그먼트 중 가장 최근 것이 그 순번까지의 모든 세그먼트를 대체한다.
+        long[] latestCompacted = names.stream()
+                .filter(name -> name[1] > 0)
+                .max(Comparator.<long[]>comparingLong(name -> name[0]).thenComparingLong(name -> name[1]))
+                .orElse(null);
+        names.sort(Comparator.<long[]>comparingLong(name -> name[0]).thenComparingLong(name -> name[1]));
+
+        List<ArchiveSegment> recovered = new ArrayList<>();
+        for (long[] name : names) {
+            Path path = directory.resolve(ArchiveSegment.fileName(name[0], (int) name[1]));
+            if (latestCompacted != null && !Arrays.equals(name, latestCompacted) && name[0] <= latestCompacted[0]) {
+                deleteQuietly(path);
+                continue;
+            }
+            recovered.add(ArchiveSegment.open(path, name[0], (int) name[1], 0));
+        }
+
+        // 마지막 세그먼트는 이어서 쓸 수 있도록 세그먼트 크기만큼 다시 매핑
+        if (!recovered.isEmpty()) {
+            ArchiveSegment last = recovered.remove(recovered.size() - 1);
+            recovered.add(ArchiveSegment.open(last.getPath(), last.getSequence(), last.getGeneration(),
+                    archiveProperties.getSegmentSize()));
+        }
+        return recovered;
+    }
+
+    private void replay(ArchiveSegment segment, boolean active) {
+        ByteBuffer buffer = segment.getBuffer();
+        int position = 0;
+        while (position + HEADER_LENGTH <= segment.capacity()) {
+            int type = buffer.getInt(position);
+            int length = buffer.getInt(position + 4);
+            if ((type != RECORD && type != RECORD_V1 && type != TOMBSTONE) || length < 8
+                    || length > segment.capacity() - position - HEADER_LENGTH
+                    || buffer.getInt(position + 8) != crc(buffer, position + HEADER_LENGTH, length)) {
+                break; // 세그먼트의 끝이거나 쓰다가 끊긴 레코드
+            }
+
+            long id = buffer.getLong(position + HEADER_LENGTH);
+            Location location = new Location(segment, position, HEADER_LENGTH + length);
+            if (type != TOMBSTONE) {
+                discard(index.put(id, location));
+                liveBytes += location.length();
+            } else {
+                discard(index.remove(id));
+                deadBytes += location.length();
+            }
+            position += location.length();
+        }
+        segment.position = position;
+
+        if (active) {
+            // 끊긴 레코드가 남아있으면 다음 레코드와 섞이지 않도록 0으로 지운다.
+            int end = position;
+            while (end < segment.capacity() && (end < position + HEADER_LENGTH || buffer.get(end) != 0)) {
+                end++;
+            }
+            for (int i = position; i < end; i++) {
+                buffer.put(i, (byte) 0);
+            }
+            segment.force(position, end);
+        }
+    }
+
+    // 남은 공간이 부족하면 현재 세그먼트를 디스크에 기록하고 다음 순번의 세그먼트를 연다.
+    private boolean rollIfFull(int recordLength, int forcedFrom) {
+        ArchiveSegment active = active();
+        if (active.position + recordLength <= active.capacity()) {
+            return false;
+        }
+        try {
+            active.force(forcedFrom, active.position);
+            long sequence = active.getSequence() + 1;
+            segments.add(ArchiveSegment.open(directory.resolve(ArchiveSegment.fileName(sequence, 0)), sequence, 0,
+                    Math.max(archiveProperties.getSegmentSize(), recordLength)));
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ByteBuffer startRecord(int type, int length) {
+        ArchiveSegment active = active();
+        ByteBuffer record = active.getBuffer().slice(active.position, HEADER_LENGTH + length);
+        record.putInt(type).putInt(length).putInt(0);
+        return record;
+    }
+
+    private Location finishRecord(int length) {
+        ArchiveSegment active = active();
+        int offset = active.position;
+        active.getBuffer().putInt(offset + 8, crc(active.getBuffer(), offset + HEADER_LENGTH, length));
+        active.position += HEADER_LENGTH + length;
+        return new Location(active, offset, HEADER_LENGTH + length);
+    }
+
+    private void discard(Location previous) {
+        if (previous != null) {
+            liveBytes -= previous.length();
+            deadBytes += previous.length();
+        }
+    }
+
+    private ArchiveSegment active() {
+        return segments.get(segments.size() - 1);
+    }
+
+    private void checkOpen() {
+        if (segments.isEmpty()) {
+            throw new IllegalStateException("Article archive is not enabled");
+        }
+    }
+
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) { // 디렉터리 fsync를 지원하지 않는 OS
+        }
+    }
+
+    // 매핑이 남아있어 지우지 못하는 OS에서는 다음 시작 때 recoverSegments()에서 다시 지운다.
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static int crc(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private static void putDateTime(ByteBuffer buffer, LocalDateTime dateTime) {
+        if (dateTime == null) {
+            buffer.putLong(NULL_DATE_TIME).putInt(0);
+        } else {
+            buffer.putLong(dateTime.toEpochSecond(ZoneOffset.UTC)).putInt(dateTime.getNano());
+        }
+    }
+
+    private static LocalDateTime getDateTime(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return seconds == NULL_DATE_TIME ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        String value = StandardCharsets.UTF_8.decode(buffer.slice(buffer.position(), length)).toString();
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
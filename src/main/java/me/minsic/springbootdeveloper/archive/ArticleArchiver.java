@@ -0,0 +1,63 @@
+package me.minsic.springbootdeveloper.archive;
+
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.repository.BlogRepository;
+import me.minsic.springbootdeveloper.shard.ShardTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+* archive.cold-after 동안 수정되지 않은 글을 테이블에서 아카이브로 옮기는 백그라운드 작업
+* 아카이브에 먼저 기록(디스크 반영)한 뒤에 테이블에서 지우기 때문에 중간에 멈춰도 글이 사라지지 않는다.
+* (양쪽에 모두 남은 글은 테이블 쪽을 먼저 조회하고, 다음 실행 때 다시 옮겨진다)
+* */
+@RequiredArgsConstructor
+@Component
+@ConditionalOnProperty(name = "archive.enabled", havingValue = "true")
+public class ArticleArchiver {
+
+    private final ArchiveProperties archiveProperties;
+    private final ArticleArchive articleArchive;
+    private final BlogRepository blogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardTemplate shardTemplate;
+
+    @Scheduled(initialDelayString = "${archive.interval}", fixedDelayString = "${archive.interval}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(archiveProperties.getColdAfter());
+        for (int shard = 0; shard < shardTemplate.shardCount(); shard++) {
+            shardTemplate.execute(shard, () -> archiveShard(cutoff));
+        }
+
+        if (articleArchive.needsCompaction()) {
+            articleArchive.compact();
+        }
+    }
+
+    // 현재 샤드의 오래된 글을 아카이브로 옮긴다.
+    private void archiveShard(LocalDateTime cutoff) {
+        long lastId = 0;
+        List<Article> articles;
+        while (!(articles = blogRepository.findTop100ByUpdatedAtBeforeOrderByIdAsc(cutoff)).isEmpty()
+                && articles.get(articles.size() - 1).getId() > lastId) {
+            lastId = articles.get(articles.size() - 1).getId();
+            articleArchive.appendAll(articles);
+
+            List<Long> ids = articles.stream().map(Article::getId).toList();
+            transactionTemplate.executeWithoutResult(status -> blogRepository.deleteArchived(ids, cutoff));
+
+            // 조회한 뒤에 수정되어 지워지지 않은 글은 아카이브 쪽 사본을 지운다.
+            Set<Long> remaining = new HashSet<>();
+            blogRepository.findAllById(ids).forEach(article -> remaining.add(article.getId()));
+            remaining.forEach(articleArchive::delete);
+        }
+    }
+}
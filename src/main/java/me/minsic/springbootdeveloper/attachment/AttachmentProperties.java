@@ -0,0 +1,19 @@
+package me.minsic.springbootdeveloper.attachment;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("attachment") // application.yml의 attachment 값을 가져온다.
+public class AttachmentProperties {
+    private String directory = "./data/attachments";    // 해시를 이름으로 파일을 저장할 디렉터리
+    private DataSize maxSize = DataSize.ofMegabytes(32); // 첨부 파일 하나의 최대 크기, 넘으면 413
+    private Duration cacheMaxAge = Duration.ofDays(365); // 내용이 바뀌지 않으므로 브라우저가 다시 확인하지 않는 기간
+}
@@ -0,0 +1,128 @@
+package me.minsic.springbootdeveloper.attachment;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.domain.ArticleAttachment;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+
+/*
+* 첨부 파일을 응답으로 보내는 클래스 (파일 내용을 힙에 올리지 않는다)
+* - Tomcat이 sendfile을 지원하면 파일 경로와 범위만 요청 속성으로 넘기고, 요청 처리가 끝난 뒤 Tomcat이 커널에서 바로 소켓으로 보낸다.
+* - 지원하지 않으면(테스트의 MockMvc 등) FileChannel.transferTo()로 응답 스트림에 복사한다.
+* - ETag는 내용의 해시라서 바뀌지 않으므로 If-None-Match가 맞으면 304, Cache-Control은 immutable
+* - Range는 범위 하나(bytes=0-99, bytes=100-, bytes=-100)만 206으로 보낸다.
+*   여러 범위나 잘못된 형식은 무시하고 전체를 보내고, 파일 밖의 범위는 416
+* - 브라우저가 바로 실행할 수 있는 형식(html 등)은 inline으로 보내지 않는다.
+* */
+@RequiredArgsConstructor
+@Component
+public class AttachmentSender {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final Set<String> INLINE_TYPES = Set.of("image/png", "image/jpeg", "image/gif", "image/webp",
+            "video/mp4", "video/webm", "audio/mpeg", "audio/ogg", "application/pdf", "text/plain");
+
+    private final AttachmentProperties attachmentProperties;
+
+    public void send(ArticleAttachment attachment, Path file, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                "public, max-age=" + attachmentProperties.getCacheMaxAge().toSeconds() + ", immutable");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        String etag = "\"" + attachment.getHash() + "\"";
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return; // 304 (ETag 헤더도 같이 설정된다)
+        }
+
+        long size = attachment.getSize();
+        long start = 0;
+        long end = size; // 미포함
+        HttpRange range = range(request, etag);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(size);
+                end = range.getRangeEnd(size) + 1;
+                if (start >= size) {
+                    throw new IllegalArgumentException("range starts after the end of the file");
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + size);
+        }
+
+        response.setContentType(attachment.getContentType());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition(attachment));
+        response.setContentLengthLong(end - start);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || end == start) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, out);
+                if (sent <= 0) {
+                    throw new IOException("attachment file is shorter than expected: " + file);
+                }
+                position += sent;
+            }
+        }
+    }
+
+    // If-Range가 있으면 ETag가 같을 때만 Range를 따른다.
+    private static HttpRange range(HttpServletRequest request, String etag) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null || !HttpMethod.GET.matches(request.getMethod())) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String disposition(ArticleAttachment attachment) {
+        MediaType type = MediaType.parseMediaType(attachment.getContentType());
+        ContentDisposition.Builder builder = INLINE_TYPES.contains(type.getType() + "/" + type.getSubtype())
+                ? ContentDisposition.inline() : ContentDisposition.attachment();
+        return builder.filename(attachment.getFileName(), StandardCharsets.UTF_8).build().toString();
+    }
+}
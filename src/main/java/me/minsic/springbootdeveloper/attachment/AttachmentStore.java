@@ -0,0 +1,143 @@
+package me.minsic.springbootdeveloper.attachment;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/*
+* 첨부 파일 내용을 SHA-256 해시를 이름으로 디스크에 저장하는 클래스 (content-addressed)
+* - 경로 : {directory}/ab/cd/abcd...(해시 64자), 같은 내용은 한 번만 저장된다.
+* - write() : 요청 스트림을 임시 파일에 BUFFER_SIZE 씩 쓰면서 해시를 같이 계산한다. (파일 전체를 메모리에 올리지 않는다)
+* - commit() : fsync 한 임시 파일을 해시 경로로 옮긴다. 이미 같은 파일이 있으면 임시 파일만 지운다.
+* - 같은 해시의 저장(commit + 행 추가)과 삭제(참조 수 확인 + 파일 삭제)는 withLock()으로 직렬화해서
+*   참조가 남은 파일을 지우지 않는다. (서버 한 대 기준)
+* */
+@RequiredArgsConstructor
+@Component
+public class AttachmentStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int LOCK_STRIPES = 64;
+    private static final String TEMPORARY_DIRECTORY = "tmp";
+
+    private final AttachmentProperties attachmentProperties;
+
+    private final ReentrantLock[] locks = newLocks();
+    private Path directory;
+    private Path temporary;
+
+    // 해시를 계산하고 아직 해시 경로로 옮기지 않은 파일
+    public record Upload(String hash, long size, Path file) {
+    }
+
+    @PostConstruct
+    public void open() {
+        try {
+            directory = Path.of(attachmentProperties.getDirectory()).toAbsolutePath();
+            temporary = directory.resolve(TEMPORARY_DIRECTORY);
+            Files.createDirectories(temporary);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Upload write(InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        Path file = Files.createTempFile(temporary, "upload-", ".tmp");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long size = 0;
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+                ByteBuffer source = ByteBuffer.wrap(buffer, 0, read);
+                while (source.hasRemaining()) {
+                    channel.write(source);
+                }
+                size += read;
+            }
+            channel.force(false);
+            return new Upload(HexFormat.of().formatHex(digest.digest()), size, file);
+        } catch (IOException | RuntimeException e) {
+            discard(file);
+            throw e;
+        }
+    }
+
+    // withLock() 안에서 호출
+    public void commit(Upload upload) throws IOException {
+        Path target = path(upload.hash());
+        if (Files.exists(target)) {
+            discard(upload.file());
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(upload.file(), target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            discard(upload.file());
+        }
+    }
+
+    // 옮기지 못한(실패한) 업로드의 임시 파일 삭제
+    public void discard(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) { // 남은 임시 파일은 tmp 디렉터리에서 직접 지운다.
+        }
+    }
+
+    // withLock() 안에서 호출
+    public void delete(String hash) {
+        discard(path(hash));
+    }
+
+    public Path path(String hash) {
+        if (hash.length() != 64 || !hash.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+            throw new IllegalArgumentException("invalid hash: " + hash);
+        }
+        return directory.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    public <T> T withLock(String hash, Supplier<T> action) {
+        ReentrantLock lock = locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static ReentrantLock[] newLocks() {
+        ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package me.minsic.springbootdeveloper.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.domain.ArticleEventType;
+import me.minsic.springbootdeveloper.domain.ArticleOutboxEvent;
+import me.minsic.springbootdeveloper.dto.ArticleLastModified;
+import me.minsic.springbootdeveloper.dto.ArticleResponse;
+import me.minsic.springbootdeveloper.outbox.ArticleEventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/*
+* 글 응답(ArticleResponse)을 JSON(UTF-8) 바이트로 직렬화해 두는 캐시
+* - 키는 글 id, 값은 (updatedAt, 바이트). 조회한 글의 updatedAt이 다르면 다시 직렬화해서 바꾼다.
+*   글을 수정하면 updatedAt이 바뀌므로 수정 전의 바이트를 내보내지 않는다.
+* - 목록 응답은 글마다 캐시된 바이트를 한 배열에 복사해서 만든다. ([a,b,c])
+* - 캐시에 있는 글은 (id, updatedAt)만 조회해서 확인하고, 없거나 바뀐 글만 본문(CLOB)까지 읽는다.
+* - 삭제된 글은 아웃박스의 DELETED 이벤트를 받아서 지운다.
+* - 바이트의 합이 max-size를 넘으면 RateLimiter처럼 한 스레드가 임의의 항목을 지워 90%까지 줄인다.
+* - max-entry-size보다 큰 글은 보관하지 않는다. (본문이 긴 글 몇 개가 캐시를 다 차지하지 않도록)
+* */
+@Component
+public class ArticleJsonCache implements ArticleEventListener {
+
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PAGE_START = "{\"articles\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PAGE_NEXT = ",\"next\":".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectWriter writer;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong(); // 보관 중인 바이트의 합 (entries를 바꿀 때마다 바뀐 만큼 더한다)
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ArticleJsonCache(ObjectMapper objectMapper, JsonCacheProperties properties) {
+        this.writer = objectMapper.writerFor(ArticleResponse.class);
+        this.maxBytes = properties.getMaxSize().toBytes();
+        this.maxEntryBytes = properties.getMaxEntrySize().toBytes();
+    }
+
+    // 글 하나의 응답 바이트 (반환한 배열은 캐시와 공유하므로 수정하면 안 된다)
+    public byte[] response(Article article) {
+        Entry entry = entries.get(article.getId());
+        if (entry != null && Objects.equals(entry.updatedAt(), article.getUpdatedAt())) {
+            hits.increment();
+            return entry.json();
+        }
+        misses.increment();
+        return put(article);
+    }
+
+    // 수정 시각이 같은 글의 바이트가 캐시에 있으면 반환, 없으면 null (본문을 읽기 전에 수정 시각만 조회해서 확인할 때 사용)
+    public byte[] cached(long id, LocalDateTime updatedAt) {
+        Entry entry = entries.get(id);
+        if (entry != null && Objects.equals(entry.updatedAt(), updatedAt)) {
+            hits.increment();
+            return entry.json();
+        }
+        return null;
+    }
+
+    public boolean contains(long id) {
+        return entries.containsKey(id);
+    }
+
+    // 글을 추가, 수정한 직후에 호출해서 다음 조회가 바로 캐시를 사용하게 한다.
+    public byte[] put(Article article) {
+        byte[] json = serialize(article);
+        if (json.length > maxEntryBytes) {
+            remove(article.getId()); // 수정해서 커진 글의 이전 바이트
+            return json;
+        }
+        Entry previous = entries.put(article.getId(), new Entry(article.getUpdatedAt(), json));
+        if (bytes.addAndGet(json.length - (previous == null ? 0 : previous.json().length)) > maxBytes) {
+            evict();
+        }
+        return json;
+    }
+
+    // [글1,글2,...]
+    public byte[] responses(List<Article> articles) {
+        byte[][] fragments = new byte[articles.size()][];
+        for (int i = 0; i < fragments.length; i++) {
+            fragments[i] = response(articles.get(i));
+        }
+        return array(fragments);
+    }
+
+    // ArticlePageResponse와 같은 모양 : {"articles":[글1,글2,...],"next":id}
+    public byte[] page(List<Article> articles, Long next) {
+        return page(responses(articles), next);
+    }
+
+    /*
+    * 글의 id, 수정 시각 목록으로 page()와 같은 응답을 만든다.
+    * 캐시에 없거나 수정 시각이 다른 글만 loader로 본문까지 읽는다. (그 사이에 삭제된 글은 빠진다)
+    * */
+    public byte[] page(List<ArticleLastModified> versions, Function<List<Long>, List<Article>> loader, Long next) {
+        byte[][] fragments = new byte[versions.size()][];
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < fragments.length; i++) {
+            fragments[i] = cached(versions.get(i).id(), versions.get(i).updatedAt());
+            if (fragments[i] == null) {
+                missing.add(versions.get(i).id());
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<Long, byte[]> loaded = new HashMap<>();
+            for (Article article : loader.apply(missing)) {
+                misses.increment();
+                loaded.put(article.getId(), put(article));
+            }
+            for (int i = 0; i < fragments.length; i++) {
+                if (fragments[i] == null) {
+                    fragments[i] = loaded.get(versions.get(i).id());
+                }
+            }
+        }
+        return page(array(Arrays.stream(fragments).filter(Objects::nonNull).toArray(byte[][]::new)), next);
+    }
+
+    private static byte[] page(byte[] array, Long next) {
+        byte[] nextValue = next == null ? NULL : Long.toString(next).getBytes(StandardCharsets.US_ASCII);
+        byte[] json = new byte[PAGE_START.length + array.length + PAGE_NEXT.length + nextValue.length + 1];
+        int position = copy(PAGE_START, json, 0);
+        position = copy(array, json, position);
+        position = copy(PAGE_NEXT, json, position);
+        position = copy(nextValue, json, position);
+        json[position] = '}';
+        return json;
+    }
+
+    @Override
+    public void onEvent(ArticleOutboxEvent event) {
+        if (event.getType() == ArticleEventType.DELETED) {
+            remove(event.getArticleId());
+        }
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(hits.sum(), misses.sum(), entries.size(), bytes.get());
+    }
+
+    private void remove(Long articleId) {
+        Entry removed = entries.remove(articleId);
+        if (removed != null) {
+            bytes.addAndGet(-removed.json().length);
+        }
+    }
+
+    private byte[] serialize(Article article) {
+        try {
+            return writer.writeValueAsBytes(new ArticleResponse(article));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("failed to serialize article " + article.getId(), e);
+        }
+    }
+
+    private static byte[] array(byte[][] fragments) {
+        int length = 2 + Math.max(0, fragments.length - 1);
+        for (byte[] fragment : fragments) {
+            length += fragment.length;
+        }
+        byte[] json = new byte[length];
+        writeArray(json, 0, fragments);
+        return json;
+    }
+
+    private static void writeArray(byte[] target, int position, byte[][] fragments) {
+        target[position++] = '[';
+        for (int i = 0; i < fragments.length; i++) {
+            if (i > 0) {
+                target[position++] = ',';
+            }
+            position = copy(fragments[i], target, position);
+        }
+        target[position] = ']';
+    }
+
+    private static int copy(byte[] source, byte[] target, int position) {
+        System.arraycopy(source, 0, target, position, source.length);
+        return position + source.length;
+    }
+
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return; // 다른 스레드가 정리 중이면 기다리지 않는다.
+        }
+        try {
+            long target = maxBytes - maxBytes / 10;
+            Iterator<Long> iterator = entries.keySet().iterator();
+            while (bytes.get() > target && iterator.hasNext()) {
+                remove(iterator.next());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private record Entry(LocalDateTime updatedAt, byte[] json) {
+    }
+
+    public record Snapshot(long hits, long misses, int entries, long bytes) {
+    }
+}
@@ -0,0 +1,16 @@
+package me.minsic.springbootdeveloper.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("json-cache") // application.yml의 json-cache 값을 가져온다.
+public class JsonCacheProperties {
+    private DataSize maxSize = DataSize.ofMegabytes(64);      // 보관할 직렬화한 바이트의 합
+    private DataSize maxEntrySize = DataSize.ofKilobytes(64); // 이보다 큰 글은 보관하지 않고 요청마다 직렬화한다.
+}
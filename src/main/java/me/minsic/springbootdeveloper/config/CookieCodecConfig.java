@@ -0,0 +1,36 @@
+package me.minsic.springbootdeveloper.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.util.CookieCodec;
+import me.minsic.springbootdeveloper.util.JsonCookieCodec;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.jackson2.SecurityJackson2Modules;
+
+import java.nio.charset.StandardCharsets;
+
+/*
+* 객체를 쿠키 값으로 바꾸는 코덱 설정 (쿠키에 객체를 저장하는 곳에서 CookieCodec 빈을 주입받아 쓴다)
+* 스프링 시큐리티의 Jackson 모듈을 등록해서 OAuth2AuthorizationRequest 같은 시큐리티 객체를 JSON으로 변환할 수 있게 하고,
+* 모듈이 켜주는 허용 목록(allowlist) 기반 타입 정보 덕분에 허용되지 않은 클래스는 역직렬화되지 않는다.
+* 지금은 쿠키에 객체를 저장하는 곳이 없어 주입받는 곳이 없다. (토큰 쿠키는 문자열이다)
+* OAuth2 로그인(oauth2Login)을 켜면 인가 요청을 쿠키에 저장하는 AuthorizationRequestRepository가 이 빈을 쓴다.
+* */
+@RequiredArgsConstructor
+@Configuration
+public class CookieCodecConfig {
+
+    private final CookieCodecProperties cookieCodecProperties;
+
+    @Bean
+    public CookieCodec cookieCodec(ObjectMapper objectMapper) {
+        ObjectMapper cookieObjectMapper = objectMapper.copy()
+                .registerModules(SecurityJackson2Modules.getModules(getClass().getClassLoader()));
+
+        return new JsonCookieCodec(cookieObjectMapper,
+                cookieCodecProperties.getSecretKey().getBytes(StandardCharsets.UTF_8),
+                cookieCodecProperties.getCompressThreshold(),
+                cookieCodecProperties.getMaxLength());
+    }
+}
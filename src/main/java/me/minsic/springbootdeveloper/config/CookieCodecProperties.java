@@ -0,0 +1,16 @@
+package me.minsic.springbootdeveloper.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("cookie-codec") // application.yml의 cookie-codec 값을 가져온다.
+public class CookieCodecProperties {
+    private String secretKey;                 // 쿠키 값 HMAC 서명에 사용하는 비밀값
+    private int compressThreshold = 256;      // 이 크기(바이트)보다 큰 본문만 압축
+    private int maxLength = 4096;             // 인코딩된 쿠키 값의 최대 길이 (브라우저 쿠키 크기 제한)
+}
@@ -0,0 +1,62 @@
+package me.minsic.springbootdeveloper.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.util.regex.Pattern;
+
+/*
+* 정적 리소스(js, css) 설정
+* 1. VersionResourceResolver가 파일 내용의 해시를 파일 이름에 붙인다. (article.js -> article-{md5}.js)
+*    템플릿의 th:src, th:href 링크는 ResourceUrlEncodingFilter가 해시가 붙은 경로로 바꿔준다.
+* 2. EncodedResourceResolver가 요청의 Accept-Encoding을 보고 빌드할 때 미리 압축해 둔 .br, .gz 파일을 골라 보낸다.
+*    (build.gradle의 processResources 참고, 요청마다 압축하지 않음)
+* 3. 해시가 붙은 경로는 내용이 바뀌면 경로도 바뀌기 때문에 1년 동안 다시 확인하지 않도록(immutable) 응답한다.
+* */
+@Configuration
+public class StaticResourceConfig implements WebMvcConfigurer {
+
+    private static final String[] ASSET_DIRECTORIES = {"js", "css"};
+    private static final Pattern VERSIONED_PATH = Pattern.compile(".*-[0-9a-f]{32}\\.[a-z0-9]+$");
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE = "no-cache";
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (String directory : ASSET_DIRECTORIES) {
+            registry.addResourceHandler("/" + directory + "/**")
+                    .addResourceLocations("classpath:/static/" + directory + "/")
+                    .resourceChain(true) // 해시 계산, 압축 파일 조회 결과를 캐시
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                boolean versioned = VERSIONED_PATH.matcher(request.getRequestURI()).matches();
+                response.setHeader(HttpHeaders.CACHE_CONTROL, versioned ? IMMUTABLE : REVALIDATE);
+                return true;
+            }
+        }).addPathPatterns("/js/**", "/css/**");
+    }
+
+    // 템플릿에서 만든 링크(response.encodeURL)를 해시가 붙은 경로로 바꾸는 필터
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+}
@@ -7,12 +7,17 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import me.minsic.springbootdeveloper.config.jwt.TokenProvider;
+import me.minsic.springbootdeveloper.config.timing.Phase;
+import me.minsic.springbootdeveloper.config.timing.ServerTiming;
+import me.minsic.springbootdeveloper.util.CookieUtil;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+import static me.minsic.springbootdeveloper.config.TokenLoginSuccessHandler.ACCESS_TOKEN_COOKIE_NAME;
+
 
 @RequiredArgsConstructor
 public class TokenAutenticationFilter extends OncePerRequestFilter {
@@ -22,17 +27,30 @@ public class TokenAutenticationFilter extends OncePerRequestFilter {
     private final static String TOKEN_PREFIX = "Bearer ";
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        ServerTiming.start(Phase.AUTH); // 토큰 검증 시간을 Server-Timing의 auth 단계로 기록
+        try {
+            authenticate(request);
+        } finally {
+            ServerTiming.stop(Phase.AUTH);
+        }
+
+        filterChain.doFilter(request,response);
+    }
+
+    private void authenticate(HttpServletRequest request) {
         // 요청 헤더의 Authorization 키의 값 조회
         String authorizationHeader = request.getHeader(HEADER_AUTHORIZATION);
         // 가져온 값에서 접두사 제거
         String token = getAccessToken(authorizationHeader);
+        // 헤더에 토큰이 없으면 (브라우저에서 보낸 뷰 요청) 쿠키에서 조회
+        if (token == null) {
+            token = getAccessTokenFromCookie(request);
+        }
         // 가져온 토큰이 유효한지 확인하고, 유효한 때는 인증 정보 설정
         if (tokenProvider.validToken((token))) {
             Authentication authentication = tokenProvider.getAuthentication(token);
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
-
-        filterChain.doFilter(request,response);
     }
     //만약 값이 null 이거나 Bearer로 시작하지 않으면 null 반환
     private String getAccessToken(String authorizationHeader) {
@@ -41,5 +59,14 @@ public class TokenAutenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
+
+    /*
+    * 엑세스 토큰 쿠키 조회
+    * 만료됐으면 인증하지 않는다. 화면 요청은 TokenRefreshEntryPoint가 /api/token/refresh로 보내서
+    * 리프레시 토큰 쿠키(그 경로에만 실린다)로 새로 발급받은 뒤 원래 화면으로 돌아온다.
+    * */
+    private String getAccessTokenFromCookie(HttpServletRequest request) {
+        return CookieUtil.getCookieValue(request, ACCESS_TOKEN_COOKIE_NAME);
+    }
 }
 
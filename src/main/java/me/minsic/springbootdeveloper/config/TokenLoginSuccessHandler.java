@@ -0,0 +1,61 @@
+package me.minsic.springbootdeveloper.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.config.jwt.TokenProvider;
+import me.minsic.springbootdeveloper.domain.User;
+import me.minsic.springbootdeveloper.service.RefreshTokenService;
+import me.minsic.springbootdeveloper.util.CookieUtil;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+import static me.minsic.springbootdeveloper.service.TokenService.ACCESS_TOKEN_DURATION;
+import static me.minsic.springbootdeveloper.service.TokenService.REFRESH_TOKEN_DURATION;
+
+/*
+* 폼 로그인에 성공하면 세션 대신 엑세스 토큰과 리프레시 토큰을 HttpOnly 쿠키로 발급하는 핸들러
+* 리프레시 토큰은 DB에 저장해 두고, 엑세스 토큰이 만료되면 /api/token/refresh에서 재발급에 사용한다.
+* 리프레시 토큰 쿠키는 /api/token 아래의 요청에만 실린다. (다른 요청에서 새어 나가지 않도록)
+* */
+@RequiredArgsConstructor
+@Component
+public class TokenLoginSuccessHandler extends SimpleUrlAuthenticationSuccessHandler {
+
+    public static final String ACCESS_TOKEN_COOKIE_NAME = "access_token";
+    public static final String REFRESH_TOKEN_COOKIE_NAME = "refresh_token";
+    public static final String REFRESH_TOKEN_COOKIE_PATH = "/api/token";
+    private static final String REDIRECT_PATH = "/articles";
+
+    private final TokenProvider tokenProvider;
+    private final RefreshTokenService refreshTokenService;
+
+    @Override
+    public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response, Authentication authentication) throws IOException {
+        User user = (User) authentication.getPrincipal();
+
+        // 리프레시 토큰 생성 -> 저장, 엑세스 토큰 생성 -> 둘 다 쿠키에 저장
+        String refreshToken = tokenProvider.generateToken(user, REFRESH_TOKEN_DURATION);
+        refreshTokenService.saveRefreshToken(user.getId(), refreshToken);
+        String accessToken = tokenProvider.generateToken(user, ACCESS_TOKEN_DURATION);
+        addTokenCookies(response, accessToken, refreshToken);
+
+        getRedirectStrategy().sendRedirect(request, response, REDIRECT_PATH);
+    }
+
+    // 로그인, 재발급에서 새로 발급한 두 토큰을 쿠키로 내려보낸다.
+    public static void addTokenCookies(HttpServletResponse response, String accessToken, String refreshToken) {
+        CookieUtil.addHttpOnlyCookie(response, ACCESS_TOKEN_COOKIE_NAME, accessToken,
+                (int) ACCESS_TOKEN_DURATION.toSeconds());
+        CookieUtil.addHttpOnlyCookie(response, REFRESH_TOKEN_COOKIE_NAME, refreshToken,
+                (int) REFRESH_TOKEN_DURATION.toSeconds(), REFRESH_TOKEN_COOKIE_PATH);
+    }
+
+    public static void deleteTokenCookies(HttpServletRequest request, HttpServletResponse response) {
+        CookieUtil.deleteCookie(request, response, ACCESS_TOKEN_COOKIE_NAME);
+        CookieUtil.deleteCookie(request, response, REFRESH_TOKEN_COOKIE_NAME, REFRESH_TOKEN_COOKIE_PATH);
+    }
+}
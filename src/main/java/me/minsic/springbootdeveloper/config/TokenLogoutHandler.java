@@ -0,0 +1,34 @@
+package me.minsic.springbootdeveloper.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.config.jwt.TokenProvider;
+import me.minsic.springbootdeveloper.service.RefreshTokenService;
+import me.minsic.springbootdeveloper.util.CookieUtil;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.logout.LogoutHandler;
+import org.springframework.stereotype.Component;
+
+/*
+* 로그아웃하면 쿠키만 지우지 않고 저장된 리프레시 토큰도 지운다. (쿠키를 빼앗겼어도 더는 재발급받지 못한다)
+* 엑세스 토큰이 유효하면 그 사용자의 토큰을, 리프레시 토큰 쿠키가 실려 왔으면(/api/token/logout) 그 값을 지운다.
+* */
+@RequiredArgsConstructor
+@Component
+public class TokenLogoutHandler implements LogoutHandler {
+
+    private final TokenProvider tokenProvider;
+    private final RefreshTokenService refreshTokenService;
+
+    @Override
+    public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+        Long userId = null;
+        if (authentication != null && authentication.getCredentials() instanceof String token && tokenProvider.validToken(token)) {
+            userId = tokenProvider.getUserId(token);
+        }
+        String refreshToken = CookieUtil.getCookieValue(request, TokenLoginSuccessHandler.REFRESH_TOKEN_COOKIE_NAME);
+        refreshTokenService.delete(userId, refreshToken);
+        TokenLoginSuccessHandler.deleteTokenCookies(request, response);
+    }
+}
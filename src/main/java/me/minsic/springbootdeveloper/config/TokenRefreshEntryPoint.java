@@ -0,0 +1,37 @@
+package me.minsic.springbootdeveloper.config;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/*
+* 인증 없이 들어온 요청 처리
+* 화면(GET, /api/ 밖) 요청은 /api/token/refresh로 보내서 리프레시 토큰 쿠키로 엑세스 토큰을 다시 발급받고 원래 화면으로 돌아오게 한다.
+* 리프레시 토큰도 없거나 쓸 수 없으면 그쪽에서 /login으로 보낸다. 나머지 요청은 이전처럼 /login으로 보낸다.
+* */
+public class TokenRefreshEntryPoint implements AuthenticationEntryPoint {
+
+    public static final String REFRESH_PATH = "/api/token/refresh";
+
+    private final AuthenticationEntryPoint loginEntryPoint = new LoginUrlAuthenticationEntryPoint("/login");
+
+    @Override
+    public void commence(HttpServletRequest request, HttpServletResponse response,
+                         AuthenticationException authException) throws IOException, ServletException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!"GET".equals(request.getMethod()) || path.startsWith("/api/")) {
+            loginEntryPoint.commence(request, response, authException);
+            return;
+        }
+        String target = request.getQueryString() == null ? path : path + "?" + request.getQueryString();
+        response.sendRedirect(request.getContextPath() + REFRESH_PATH + "?redirect="
+                + URLEncoder.encode(target, StandardCharsets.UTF_8));
+    }
+}
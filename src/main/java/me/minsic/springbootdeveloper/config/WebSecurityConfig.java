@@ -1,6 +1,11 @@
 package me.minsic.springbootdeveloper.config;
 
 import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.config.jwt.TokenProvider;
+import me.minsic.springbootdeveloper.config.ratelimit.RateLimitFilter;
+import me.minsic.springbootdeveloper.config.ratelimit.RateLimitProperties;
+import me.minsic.springbootdeveloper.config.ratelimit.RateLimiter;
+import me.minsic.springbootdeveloper.profiling.ProfiledBCryptPasswordEncoder;
 import me.minsic.springbootdeveloper.service.UserDetailService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,8 +13,12 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
 
 import static org.springframework.boot.autoconfigure.security.servlet.PathRequest.toH2Console;
 
@@ -22,33 +31,63 @@ import static org.springframework.boot.autoconfigure.security.servlet.PathReques
 public class WebSecurityConfig {
 
     private final UserDetailService userService;
+    private final RateLimitProperties rateLimitProperties;
+    private final TokenProvider tokenProvider;
+    private final TokenLoginSuccessHandler tokenLoginSuccessHandler;
+    private final TokenLogoutHandler tokenLogoutHandler;
 
     // 스프링 시큐리티 기능 비활성 (스프링 시큐리티 모든 기능을 비활성화)
     @Bean
     public WebSecurityCustomizer configure() {
         return (web) -> web.ignoring()
                 .requestMatchers(toH2Console())
-                .requestMatchers("/static/**");
+                .requestMatchers("/static/**")
+                .requestMatchers("/js/**", "/css/**"); // 정적 리소스는 인증 필터(JWT 검증)를 거치지 않음
     }
     
+    /*
+    * 세션을 사용하지 않는(STATELESS) 설정
+    * 로그인에 성공하면 TokenLoginSuccessHandler가 엑세스/리프레시 토큰을 HttpOnly 쿠키로 발급하고,
+    * 이후 요청은 뷰, REST API 모두 TokenAutenticationFilter가 헤더 또는 쿠키의 토큰으로 인증한다.
+    * 엑세스 토큰이 만료된 화면 요청은 TokenRefreshEntryPoint가 /api/token/refresh로 보내서 다시 발급받게 한다.
+    * 서버에 세션이 남지 않으므로 어느 서버가 요청을 받아도 같은 결과를 낸다.
+    * */
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        if (rateLimitProperties.isEnabled()) {
+            // 로그인(BCrypt), 토큰 재발급(HMAC) 처리 전에 요청 횟수 제한
+            http.addFilterBefore(new RateLimitFilter(rateLimiter()), UsernamePasswordAuthenticationFilter.class);
+        }
+
         return http
+                .sessionManagement()
+                .sessionCreationPolicy(SessionCreationPolicy.STATELESS) // 세션을 만들지도, 사용하지도 않음
+                .and()
+                .addFilterBefore(new TokenAutenticationFilter(tokenProvider), UsernamePasswordAuthenticationFilter.class)
                 .authorizeHttpRequests() // 인증, 인가 설정
                 //requestMatchers() 특정 요청과 일치하는 url에 대한 엑세스 설정
                 //permitAll() 누구나 접근이 가능하게 설정 ("/login", "/signup", "/user")의 요청은 인증/인가 없이 접근가능
                 .requestMatchers("/login", "/signup", "/user").permitAll()
+                .requestMatchers("/rss.xml", "/atom.xml", "/sitemap.xml", "/sitemap-*.xml").permitAll() // 피드 리더, 크롤러
+                .requestMatchers("/health/readiness").permitAll() // 로드 밸런서의 준비 상태 확인
+                .requestMatchers("/api/token", TokenRefreshEntryPoint.REFRESH_PATH).permitAll() // 리프레시 토큰이 인증 수단
                 .anyRequest().authenticated()
                 .and()
                 .formLogin()    // 폼 기반 로그인 설정 
                 .loginPage("/login") // 로그인 페이지 경로 설정
-                .defaultSuccessUrl("/articles") // 로그인이 완료되었을때 이동할 경로 설정
+                .successHandler(tokenLoginSuccessHandler) // 로그인이 완료되었을때 토큰 쿠키를 발급하고 /articles로 이동
+                .and()
+                .exceptionHandling()
+                .authenticationEntryPoint(new TokenRefreshEntryPoint()) // 엑세스 토큰이 만료된 화면 요청은 재발급을 거쳐서 돌아온다.
                 .and()
                 .logout()
+                // /api/token/logout에는 리프레시 토큰 쿠키가 실려 오므로 엑세스 토큰이 만료됐어도 저장된 토큰을 지울 수 있다.
+                .logoutRequestMatcher(new OrRequestMatcher(new AntPathRequestMatcher("/logout"),
+                        new AntPathRequestMatcher("/api/token/logout")))
                 .logoutSuccessUrl("/login") // 로그아웃 설정 (로그아웃이 완료 되었을때 이동할 경로 설정
-                .invalidateHttpSession(true) // 로그아웃 이후에 세션을 전체 삭제할지 여부를 설정
+                .addLogoutHandler(tokenLogoutHandler) // 로그아웃 이후에 저장된 리프레시 토큰과 토큰 쿠키 삭제
                 .and()
-                .csrf().disable() // csrf 비활성화
+                .csrf().disable() // csrf 비활성화 (토큰 쿠키는 SameSite=Lax로 발급)
                 .build();
     }
 
@@ -68,9 +107,15 @@ public class WebSecurityConfig {
                 .build();
     }
 
-    //패스워드 인코더로 사용할 빈 등록
+    //IP, 계정별 요청 횟수를 관리하는 빈 등록
+    @Bean
+    public RateLimiter rateLimiter() {
+        return new RateLimiter(rateLimitProperties);
+    }
+
+    //패스워드 인코더로 사용할 빈 등록 (해시 시간을 JFR 이벤트로 남기는 BCrypt 인코더)
     @Bean
     public BCryptPasswordEncoder bCryptPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new ProfiledBCryptPasswordEncoder();
     }
 }
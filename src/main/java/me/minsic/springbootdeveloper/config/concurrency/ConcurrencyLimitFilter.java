@@ -0,0 +1,64 @@
+package me.minsic.springbootdeveloper.config.concurrency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+* 글 REST API(/api/articles)의 동시 처리 수를 조회와 쓰기로 나눠 제한하는 필터
+* 한도를 넘은 요청은 톰캣 스레드에서 기다리게 하지 않고 바로 503과 Retry-After로 돌려보낸다.
+* 예외로 끝난 요청은 응답 시간을 한도 계산에 반영하지 않는다.
+* */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String LIMITED_PATH = "/api/articles";
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final ConcurrencyLimiter readLimiter;
+    private final ConcurrencyLimiter writeLimiter;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties) {
+        this.readLimiter = new ConcurrencyLimiter(properties.getRead(), properties);
+        this.writeLimiter = new ConcurrencyLimiter(properties.getWrite(), properties);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + LIMITED_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        ConcurrencyLimiter limiter = read ? readLimiter : writeLimiter;
+        if (!limiter.tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+            return;
+        }
+
+        long start = System.nanoTime();
+        long latency = -1;
+        try {
+            filterChain.doFilter(request, response);
+            latency = System.nanoTime() - start;
+        } finally {
+            limiter.release(latency);
+        }
+    }
+
+    public Map<String, ConcurrencyLimiter.Snapshot> snapshot() {
+        Map<String, ConcurrencyLimiter.Snapshot> snapshot = new LinkedHashMap<>();
+        snapshot.put("read", readLimiter.snapshot());
+        snapshot.put("write", writeLimiter.snapshot());
+        return snapshot;
+    }
+}
@@ -0,0 +1,38 @@
+package me.minsic.springbootdeveloper.config.concurrency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("concurrency-limit") // application.yml의 concurrency-limit 값을 가져온다.
+public class ConcurrencyLimitProperties {
+    private boolean enabled = true;
+    private Duration window = Duration.ofMillis(500); // 응답 시간을 모아서 한도를 다시 계산하는 주기
+    private int minWindowSamples = 10;                // 주기 안의 요청이 이보다 적으면 한도를 바꾸지 않는다.
+    private double tolerance = 1.5;                   // 최근 응답 시간이 평소의 이 배수를 넘으면 한도를 줄인다.
+    private Limit read = new Limit(20, 4, 200);      // 조회 (GET, HEAD)
+    private Limit write = new Limit(10, 2, 50);      // 추가, 수정, 삭제
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int initial; // 처음 한도
+        private int min;
+        private int max;
+
+        public Limit() {
+        }
+
+        public Limit(int initial, int min, int max) {
+            this.initial = initial;
+            this.min = min;
+            this.max = max;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package me.minsic.springbootdeveloper.config.concurrency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+* 응답 시간을 보고 동시에 처리할 요청 수(한도)를 스스로 조절하는 클래스 (gradient 방식)
+* - longRtt : 평소 응답 시간 (주기별 평균의 지수 이동 평균), shortRtt : 이번 주기의 평균 응답 시간
+* - gradient = tolerance * longRtt / shortRtt (0.5 ~ 1.0)
+*   새 한도 = 한도 * gradient + sqrt(한도), 줄일 때는 바로 반영하고 늘릴 때는 기존 한도와 섞어서 천천히 늘린다.
+*   DB가 느려져 shortRtt가 평소의 tolerance 배를 넘으면 한도가 줄고, 평소와 같으면 sqrt(한도)씩 늘어난다.
+* - 한도의 절반도 쓰지 않은 주기는 한도를 바꾸지 않는다. (요청이 적어서 빠른 것과 구분)
+* - tryAcquire()는 락 없이 CAS로 자리를 차지하고, 한도를 넘으면 기다리지 않고 false를 반환한다.
+* */
+public class ConcurrencyLimiter {
+
+    private static final int LONG_WINDOWS = 20;   // longRtt에 반영하는 비율 1/20
+    private static final double SMOOTHING = 0.2;  // 한도를 늘릴 때 새 한도를 반영하는 비율
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final LongAdder windowLatency = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicLong windowStart;
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile int limit;
+    private double estimatedLimit; // 한도 계산은 주기를 넘긴 스레드 하나만 한다. (windowStart CAS)
+    private volatile long shortRtt;
+    private volatile long longRtt;
+
+    public ConcurrencyLimiter(ConcurrencyLimitProperties.Limit limit, ConcurrencyLimitProperties properties) {
+        this.minLimit = limit.getMin();
+        this.maxLimit = limit.getMax();
+        this.windowNanos = properties.getWindow().toNanos();
+        this.minWindowSamples = properties.getMinWindowSamples();
+        this.tolerance = properties.getTolerance();
+        this.estimatedLimit = Math.min(Math.max(limit.getInitial(), minLimit), maxLimit);
+        this.limit = (int) estimatedLimit;
+        this.windowStart = new AtomicLong(System.nanoTime());
+    }
+
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+        return true;
+    }
+
+    // tryAcquire()가 true였던 요청이 끝나면 호출 (latencyNanos < 0 이면 응답 시간을 반영하지 않는다)
+    public void release(long latencyNanos) {
+        release(latencyNanos, System.nanoTime());
+    }
+
+    void release(long latencyNanos, long now) {
+        inFlight.decrementAndGet();
+        if (latencyNanos >= 0) {
+            windowLatency.add(latencyNanos);
+            windowSamples.increment();
+        }
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowSamples.sum() >= minWindowSamples
+                && windowStart.compareAndSet(start, now)) {
+            update();
+        }
+    }
+
+    private void update() {
+        long samples = windowSamples.sumThenReset();
+        long latency = windowLatency.sumThenReset();
+        int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+        if (samples == 0) {
+            return;
+        }
+        long rtt = Math.max(1, latency / samples);
+        long average = longRtt == 0 ? rtt : longRtt + (rtt - longRtt) / LONG_WINDOWS;
+        if (average > 2 * rtt) {
+            average = average * 95 / 100; // 응답 시간이 크게 줄었으면 기준을 빨리 따라 내린다.
+        }
+        shortRtt = rtt;
+        longRtt = average;
+
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * average / rtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        if (newLimit > estimatedLimit) {
+            newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(limit, inFlight.get(), rejected.sum(),
+                TimeUnit.NANOSECONDS.toMicros(shortRtt), TimeUnit.NANOSECONDS.toMicros(longRtt));
+    }
+
+    public record Snapshot(int limit, int inFlight, long rejected, long shortRttMicros, long longRttMicros) {
+    }
+}
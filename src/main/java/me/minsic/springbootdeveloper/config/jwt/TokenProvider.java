@@ -6,6 +6,7 @@ import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import lombok.RequiredArgsConstructor;
 import me.minsic.springbootdeveloper.domain.User;
+import me.minsic.springbootdeveloper.profiling.TokenVerificationEvent;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -16,6 +17,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 
 import static io.jsonwebtoken.Jwts.parser;
 
@@ -48,6 +50,7 @@ public class TokenProvider {
                 .setIssuedAt(now)   // 내용 iat : 현재시간
                 .setExpiration(expiry) // 내용 exp : expiry 멤버 변숫값
                 .setSubject(user.getEmail()) // 내용 sub : 유저의 이메일
+                .setId(UUID.randomUUID().toString()) // 내용 jti : 같은 초에 발급해도 토큰 값이 겹치지 않게 (리프레시 토큰 교체)
                 .claim("id", user.getId())  // 클레임 id : 유저의 Id
                 .signWith(SignatureAlgorithm.HS256, jwtProperties.getSecretKey()) // 서명 : 비밀값과 함께 해시값을 HS256 방식으로 암호화
                 .compact();
@@ -60,6 +63,10 @@ public class TokenProvider {
     * */
     //JWT 토근 유효성 검증 메소드
     public boolean validToken(String token) {
+        return TokenVerificationEvent.record(() -> verify(token)); // 검증 시간을 JFR 이벤트로 남긴다. (기록 중일 때만)
+    }
+
+    private boolean verify(String token) {
         try {
             parser()
                     .setSigningKey(jwtProperties.getSecretKey()) // 비밀값으로 복호화
@@ -0,0 +1,59 @@
+package me.minsic.springbootdeveloper.config.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "async-logging.enabled", havingValue = "true", matchIfMissing = true)
+public class AsyncLoggingConfig {
+
+    /*
+    * 루트 로거에 붙어 있는 Appender(스프링 부트의 콘솔 등)를 AsyncRingBufferAppender 뒤로 옮긴다.
+    * 이미 옮겨져 있으면(같은 JVM에서 컨텍스트를 여러 번 띄우는 테스트) 그것을 그대로 사용한다.
+    * 멈추는 것은 로그백이 종료, 재설정할 때 하므로 컨텍스트가 닫힐 때는 멈추지 않는다.
+    * */
+    @Bean(destroyMethod = "")
+    public AsyncRingBufferAppender asyncRingBufferAppender(AsyncLoggingProperties properties) {
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        synchronized (root) {
+            if (root.getAppender(AsyncRingBufferAppender.NAME) instanceof AsyncRingBufferAppender installed
+                    && installed.isStarted()) {
+                return installed;
+            }
+
+            AsyncRingBufferAppender appender = new AsyncRingBufferAppender(
+                    properties.getBufferSize(), properties.getBatchSize(), properties.getDropPolicy());
+            appender.setContext(loggerContext);
+            appender.setName(AsyncRingBufferAppender.NAME);
+
+            List<Appender<ILoggingEvent>> targets = new ArrayList<>();
+            for (Iterator<Appender<ILoggingEvent>> it = root.iteratorForAppenders(); it.hasNext(); ) {
+                targets.add(it.next());
+            }
+            for (Appender<ILoggingEvent> target : targets) {
+                if (target instanceof OutputStreamAppender<ILoggingEvent> output) {
+                    output.setImmediateFlush(false); // 출력 스레드가 묶음마다 flush 한다.
+                }
+                appender.addAppender(target);
+            }
+            appender.start();
+
+            // 새 Appender를 먼저 붙이고 기존 것을 떼어서 그 사이의 로그가 사라지지 않게 한다.
+            root.addAppender(appender);
+            targets.forEach(root::detachAppender);
+            return appender;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package me.minsic.springbootdeveloper.config.logging;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("async-logging") // application.yml의 async-logging 값을 가져온다.
+public class AsyncLoggingProperties {
+    private boolean enabled = true;
+    private int bufferSize = 8192;                            // 버퍼에 쌓아 둘 수 있는 로그 수 (2의 거듭제곱)
+    private int batchSize = 256;                              // 한 번에 출력하고 flush 하는 로그 수
+    private DropPolicy dropPolicy = DropPolicy.DISCARD_BELOW_WARN; // 버퍼가 가득 찼을 때
+}
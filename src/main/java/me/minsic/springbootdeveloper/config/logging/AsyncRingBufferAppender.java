@@ -0,0 +1,183 @@
+package me.minsic.springbootdeveloper.config.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+* 로그를 LogRingBuffer에 넣기만 하고, 실제 출력(콘솔 등)은 별도 스레드에서 하는 로그백 Appender
+* - 요청 스레드는 콘솔 출력의 락과 I/O를 기다리지 않는다.
+* - 출력 스레드는 batchSize개씩 꺼내서 붙어 있는 Appender로 보내고, 묶음마다 한 번만 flush 한다.
+* - 버퍼가 가득 차면 DropPolicy에 따라 버리거나 자리가 날 때까지 기다린다. (버린 수는 snapshot())
+* */
+public class AsyncRingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    public static final String NAME = "ASYNC_RING_BUFFER";
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final LogRingBuffer<ILoggingEvent> buffer;
+    private final int batchSize;
+    private final DropPolicy dropPolicy;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile Thread writer;
+    private volatile boolean running;
+    private volatile boolean writerParked;
+
+    public AsyncRingBufferAppender(int bufferSize, int batchSize, DropPolicy dropPolicy) {
+        this.buffer = new LogRingBuffer<>(bufferSize);
+        this.batchSize = batchSize;
+        this.dropPolicy = dropPolicy;
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::writeLoop, "async-log-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+        super.start();
+    }
+
+    // 남은 로그를 모두 출력한 뒤 붙어 있는 Appender까지 멈춘다. (로그백이 종료, 재설정할 때 호출)
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        Thread thread = writer;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (Thread.currentThread() == writer) {
+            appenders.appendLoopOnAppenders(event); // 출력 중에 생긴 로그는 바로 출력 (자기 자신을 기다리지 않도록)
+            return;
+        }
+        event.prepareForDeferredProcessing(); // 메시지, MDC, 스레드 이름을 지금 값으로 고정
+        if (buffer.offer(event)) {
+            wakeWriter();
+            return;
+        }
+        if (dropPolicy.waits(event.getLevel())) {
+            while (running) {
+                wakeWriter();
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+                if (buffer.offer(event)) {
+                    wakeWriter();
+                    return;
+                }
+            }
+        }
+        dropped.increment();
+    }
+
+    private void wakeWriter() {
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            int count = buffer.drain(appenders::appendLoopOnAppenders, batchSize);
+            if (count > 0) {
+                written.add(count);
+                flush();
+                continue;
+            }
+            if (!running) {
+                return;
+            }
+            writerParked = true;
+            if (buffer.isEmpty()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            writerParked = false;
+        }
+    }
+
+    // immediateFlush를 끈 출력 Appender는 묶음이 끝날 때 한 번만 flush 한다.
+    private void flush() {
+        for (Iterator<Appender<ILoggingEvent>> it = appenders.iteratorForAppenders(); it.hasNext(); ) {
+            if (it.next() instanceof OutputStreamAppender<ILoggingEvent> output && !output.isImmediateFlush()
+                    && output.getOutputStream() != null) {
+                try {
+                    output.getOutputStream().flush();
+                } catch (IOException e) {
+                    addError("Failed to flush " + output.getName(), e);
+                }
+            }
+        }
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(written.sum(), dropped.sum(), buffer.size(), buffer.capacity());
+    }
+
+    public record Snapshot(long written, long dropped, int pending, int capacity) {
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
@@ -0,0 +1,14 @@
+package me.minsic.springbootdeveloper.config.logging;
+
+import ch.qos.logback.classic.Level;
+
+// 로그 버퍼가 가득 찼을 때 로그를 남긴 스레드가 할 일
+public enum DropPolicy {
+    DROP,               // 새 로그를 버린다. (요청 스레드는 기다리지 않는다)
+    DISCARD_BELOW_WARN, // WARN, ERROR는 자리가 날 때까지 기다리고 나머지는 버린다.
+    BLOCK;              // 모든 로그가 자리가 날 때까지 기다린다.
+
+    boolean waits(Level level) {
+        return this == BLOCK || (this == DISCARD_BELOW_WARN && level.isGreaterOrEqual(Level.WARN));
+    }
+}
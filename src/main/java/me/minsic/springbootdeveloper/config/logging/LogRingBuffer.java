@@ -0,0 +1,88 @@
+package me.minsic.springbootdeveloper.config.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/*
+* 크기가 고정된 락 없는 링 버퍼 (여러 스레드가 넣고, 한 스레드가 꺼낸다)
+* - 칸마다 순번(sequence)을 두고, 넣는 쪽은 tail을 CAS로 하나씩 차지한다.
+*   칸의 순번 == 위치 : 비어 있음, 위치 + 1 : 값이 들어 있음, 위치 + 크기 : 다음 바퀴에 다시 비어 있음
+* - 가득 차면 offer()는 기다리지 않고 false를 반환한다. (버릴지 기다릴지는 호출하는 쪽이 정한다)
+* - drain()은 꺼내는 스레드 하나에서만 호출해야 한다.
+* */
+class LogRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong(); // 다음에 넣을 위치
+    private volatile long head;                       // 다음에 꺼낼 위치 (꺼내는 스레드만 변경)
+
+    LogRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    sequences.set(index, position + 1); // 값을 넣은 뒤에 순번을 바꿔야 꺼내는 쪽이 값을 본다.
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false; // 한 바퀴 전의 값을 아직 꺼내지 않았다. (가득 참)
+            } else {
+                position = tail.get(); // 다른 스레드가 먼저 차지했다.
+            }
+        }
+    }
+
+    // 최대 max개를 꺼내서 consumer에 넘기고, 꺼낸 개수를 반환한다.
+    int drain(Consumer<? super E> consumer, int max) {
+        long position = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            E element = slots.get(index);
+            slots.set(index, null);
+            sequences.set(index, position + capacity);
+            position++;
+            drained++;
+            consumer.accept(element);
+        }
+        head = position;
+        return drained;
+    }
+
+    boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+
+    int size() {
+        return (int) Math.max(0, Math.min(capacity, tail.get() - head));
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,64 @@
+package me.minsic.springbootdeveloper.config.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+* 로그인, 회원 가입, 토큰 재발급 요청을 인증 처리(BCrypt, HMAC) 전에 제한하는 필터
+* 클라이언트 IP와 요청에 담긴 계정 이메일을 각각 키로 사용한다.
+* */
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final static Set<String> LIMITED_PATHS = Set.of("/login", "/user", "/api/token");
+    private final static String[] ACCOUNT_PARAMETERS = {"username", "email"}; // 로그인 폼은 username, 회원 가입 폼은 email
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || !LIMITED_PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long waitNanos = rateLimiter.tryAcquire("ip:" + request.getRemoteAddr());
+
+        String account = getAccount(request);
+        if (waitNanos == 0 && account != null) {
+            waitNanos = rateLimiter.tryAcquire("account:" + account);
+        }
+
+        if (waitNanos > 0) {
+            // 429 응답과 함께 다시 시도할 수 있는 시간(초)을 알려준다.
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1)));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // 폼 요청의 이메일 값 조회 (JSON 요청은 본문을 읽지 않기 때문에 null)
+    private String getAccount(HttpServletRequest request) {
+        for (String name : ACCOUNT_PARAMETERS) {
+            String value = request.getParameter(name);
+            if (value != null && !value.isBlank()) {
+                return value.trim().toLowerCase(Locale.ROOT);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,19 @@
+package me.minsic.springbootdeveloper.config.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("rate-limit") // application.yml의 rate-limit 값을 가져온다.
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private int capacity = 10;                            // 버킷에 담을 수 있는 최대 토큰 수 (순간적으로 허용하는 요청 수)
+    private Duration refillInterval = Duration.ofSeconds(2); // 토큰 1개가 다시 채워지는 주기
+    private int maxKeys = 100_000;                         // 메모리에 유지할 최대 키(IP, 이메일) 개수
+}
@@ -0,0 +1,61 @@
+package me.minsic.springbootdeveloper.config.ratelimit;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+* 키(클라이언트 IP, 계정 이메일)별 토큰 버킷을 관리하는 클래스
+* 키가 maxKeys 개를 넘으면 한 스레드만 정리를 수행한다.
+* 먼저 가득 찬(한동안 요청이 없던) 버킷을 지우고, 그래도 많으면 임의의 버킷을 지워 전체 개수를 90%까지 줄인다.
+* ConcurrentHashMap의 순회 순서는 해시 순서라서 사실상 무작위 샘플링처럼 동작한다. (근사 eviction)
+* */
+public class RateLimiter {
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final long interval;
+    private final long burst;
+    private final int maxKeys;
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.interval = properties.getRefillInterval().toNanos();
+        this.burst = interval * properties.getCapacity();
+        this.maxKeys = properties.getMaxKeys();
+    }
+
+    // 허용되면 0, 거절되면 다시 시도할 수 있을 때까지 남은 시간(나노초)을 반환
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                evict(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+        }
+        return bucket.tryConsume(now, interval, burst);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return; // 다른 스레드가 정리 중이면 기다리지 않는다.
+        }
+        try {
+            int target = maxKeys - Math.max(1, maxKeys / 10);
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+
+            Iterator<String> iterator = buckets.keySet().iterator();
+            while (buckets.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package me.minsic.springbootdeveloper.config.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+* 락 없이 동작하는 토큰 버킷
+* 남은 토큰 수와 마지막 충전 시각을 따로 저장하지 않고, "버킷이 다시 가득 차는 시각(theoretical arrival time)" 하나만
+* AtomicLong에 저장한다. (GCRA 방식으로 토큰 버킷과 동일하게 동작)
+* 요청이 올 때마다 CAS로 이 값을 토큰 1개 분량(interval)만큼 미루고, 현재 시각보다 capacity 개 분량 이상 앞서게 되면 거절한다.
+* */
+public class TokenBucket {
+
+    private final AtomicLong fullAt;
+
+    public TokenBucket(long now) {
+        this.fullAt = new AtomicLong(now);
+    }
+
+    // 토큰 1개를 소비한다. 허용되면 0, 거절되면 다음 토큰이 생길 때까지 기다려야 하는 시간(나노초)을 반환
+    public long tryConsume(long now, long interval, long burst) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            long waitNanos = next - now - burst;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // 버킷이 가득 찬 상태(최근에 사용되지 않음)라면 지워도 제한 결과에 영향이 없다.
+    public boolean isFull(long now) {
+        return fullAt.get() - now <= 0;
+    }
+}
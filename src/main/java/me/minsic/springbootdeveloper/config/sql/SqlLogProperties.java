@@ -0,0 +1,21 @@
+package me.minsic.springbootdeveloper.config.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("sql-log") // application.yml의 sql-log 값을 가져온다.
+public class SqlLogProperties {
+    private boolean enabled = true;
+    private double sampleRate = 0.01;                      // 로그로 남길 SQL 문의 비율 (0 ~ 1)
+    private Duration slowThreshold = Duration.ofMillis(200); // 이보다 오래 걸린 SQL은 샘플링과 상관없이 WARN 로그
+    private boolean includeParameters = false;             // 바인딩한 파라미터 값도 남길지
+    private boolean maskStrings = true;                    // 문자열 파라미터는 값 대신 길이만 남긴다. (토큰, 비밀번호, 이메일)
+    private int maxParameterLength = 64;                   // mask-strings를 끄면 문자열 파라미터를 이 길이까지만 남긴다.
+}
@@ -0,0 +1,88 @@
+package me.minsic.springbootdeveloper.config.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+* 실행한 SQL을 로그로 남기는 클래스 (show-sql 대신 사용)
+* - Statement를 만들 때 sample-rate 확률로 샘플링을 정하고, 샘플링한 것만 파라미터를 모아서 INFO로 남긴다.
+* - slow-threshold보다 오래 걸린 SQL은 샘플링과 상관없이 WARN으로 남긴다. (샘플링하지 않았으면 파라미터 없이)
+* - 파라미터는 include-parameters를 켰을 때만 남기고, 문자열은 mask-strings를 끄지 않으면 길이만 남긴다.
+* - 형식 : key=value (elapsed, batch, params, statement)
+* 로그는 AsyncRingBufferAppender를 거쳐 별도 스레드에서 출력되므로 요청 스레드는 출력을 기다리지 않는다.
+* */
+@Slf4j
+@Component
+public class SqlLogger {
+
+    private final SqlLogProperties properties;
+    private final long slowThresholdNanos;
+
+    public SqlLogger(SqlLogProperties properties) {
+        this.properties = properties;
+        this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+    }
+
+    // Statement를 만들 때 호출, 로그를 끄면 null
+    StatementLog open(String sql) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        return new StatementLog(sql, sample(), properties.isIncludeParameters());
+    }
+
+    private boolean sample() {
+        double rate = properties.getSampleRate();
+        return rate > 0 && log.isInfoEnabled() && (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    // sql : 실행할 때 넘긴 SQL (PreparedStatement는 null이고 만들 때의 SQL을 사용)
+    void executed(StatementLog statement, String sql, long elapsedNanos) {
+        boolean slow = elapsedNanos >= slowThresholdNanos;
+        if (!slow && !statement.isSampled()) {
+            return;
+        }
+        String text = sql != null ? sql : statement.getSql();
+        String params = statement.hasParameters() ? format(statement) : "-";
+        String elapsed = String.format("%.3fms", elapsedNanos / 1_000_000.0);
+        if (slow) {
+            log.warn("slow sql elapsed={} batch={} params={} statement=\"{}\"", elapsed, statement.getBatchCount(), params, text);
+        } else {
+            log.info("sql elapsed={} batch={} params={} statement=\"{}\"", elapsed, statement.getBatchCount(), params, text);
+        }
+    }
+
+    String format(StatementLog statement) {
+        Object[] parameters = statement.getParameters();
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < statement.getParameterCount(); i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            append(builder, parameters[i]);
+        }
+        return builder.append(']').toString();
+    }
+
+    private void append(StringBuilder builder, Object value) {
+        if (value instanceof CharSequence text && properties.isMaskStrings()) {
+            builder.append('<').append(text.length()).append(" chars>");
+        } else if (value instanceof CharSequence text) {
+            int max = properties.getMaxParameterLength();
+            String shown = text.length() > max ? text.subSequence(0, max) + "..." : text.toString();
+            builder.append('\'').append(shown.replace("'", "''")).append('\'');
+        } else if (value instanceof byte[] bytes) {
+            builder.append('<').append(bytes.length).append(" bytes>");
+        } else if (value instanceof InputStream || value instanceof Reader || value instanceof Blob || value instanceof Clob) {
+            builder.append("<stream>");
+        } else {
+            builder.append(value);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package me.minsic.springbootdeveloper.config.sql;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+* 현재 스레드(요청)에서 실행한 SQL 문 개수, 읽은 행 수, DB 시간을 모으는 범위
+* SqlStatisticsDataSource가 실행할 때마다 현재 범위에 기록하고, 범위가 없으면 기록하지 않는다.
+*
+* try (SqlStatistics statistics = SqlStatistics.start()) {
+*     ...
+*     statistics.getStatements();
+* }
+*
+* 범위 안에서 다시 start() 하면 안쪽 범위가 닫힐 때 바깥 범위에 합산한다.
+* */
+public final class SqlStatistics implements AutoCloseable {
+
+    private static final ThreadLocal<SqlStatistics> current = new ThreadLocal<>();
+
+    private final SqlStatistics parent;
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    private SqlStatistics(SqlStatistics parent) {
+        this.parent = parent;
+    }
+
+    public static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics(current.get());
+        current.set(statistics);
+        return statistics;
+    }
+
+    static SqlStatistics current() {
+        return current.get();
+    }
+
+    // 현재 범위에서 지금까지 쓴 DB 시간 (범위가 없으면 0)
+    public static long currentElapsedNanos() {
+        SqlStatistics statistics = current.get();
+        return statistics == null ? 0 : statistics.getElapsedNanos();
+    }
+
+    // 다른 스레드에서 실행할 작업도 지금 범위에 기록되도록 감싼다. (샤드 동시 조회 등)
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        SqlStatistics captured = current.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            SqlStatistics previous = current.get();
+            current.set(captured);
+            try {
+                return task.get();
+            } finally {
+                if (previous == null) {
+                    current.remove();
+                } else {
+                    current.set(previous);
+                }
+            }
+        };
+    }
+
+    void recordStatement(long elapsedNanos) {
+        statements.increment();
+        nanos.add(elapsedNanos);
+    }
+
+    void recordRow() {
+        rows.increment();
+    }
+
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public long getElapsedNanos() {
+        return nanos.sum();
+    }
+
+    @Override
+    public void close() {
+        if (parent == null) {
+            current.remove();
+        } else {
+            current.set(parent);
+            parent.statements.add(getStatements());
+            parent.rows.add(getRows());
+            parent.nanos.add(getElapsedNanos());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("statements=%d, rows=%d, time=%.3fms", getStatements(), getRows(), getElapsedNanos() / 1_000_000.0);
+    }
+}
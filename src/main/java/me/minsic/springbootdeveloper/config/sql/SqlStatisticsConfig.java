@@ -0,0 +1,44 @@
+package me.minsic.springbootdeveloper.config.sql;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class SqlStatisticsConfig {
+
+    /*
+    * DataSource 빈을 SqlStatisticsDataSource로 감싼다.
+    * 샤드별 DataSource를 고르는 라우팅 DataSource는 ShardingConfig가 샤드 쪽을 직접 감싼다.
+    * (BeanPostProcessor는 다른 빈보다 먼저 만들어져야 하므로 static 메서드로 등록, SqlLogger는 DataSource를 감쌀 때 가져온다)
+    * */
+    @Bean
+    public static BeanPostProcessor sqlStatisticsDataSourcePostProcessor(ObjectProvider<SqlLogger> sqlLogger) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SqlStatisticsDataSource)
+                        && !(bean instanceof AbstractRoutingDataSource)) {
+                    return new SqlStatisticsDataSource(dataSource, sqlLogger.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    // 다른 필터(시큐리티, 요청 횟수 제한 등)에서 실행한 SQL도 포함하도록 바깥쪽에서 실행 (ServerTimingFilter 바로 안쪽)
+    @Bean
+    @ConditionalOnProperty(name = "sql-statistics.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<SqlStatisticsFilter> sqlStatisticsFilter(SqlStatisticsProperties properties) {
+        FilterRegistrationBean<SqlStatisticsFilter> registration = new FilterRegistrationBean<>(new SqlStatisticsFilter(properties));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
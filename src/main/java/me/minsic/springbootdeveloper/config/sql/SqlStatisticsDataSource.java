@@ -0,0 +1,118 @@
+package me.minsic.springbootdeveloper.config.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/*
+* 커넥션, Statement, ResultSet을 프록시로 감싸서 SqlStatistics에 기록하는 DataSource
+* - execute* 호출 : SQL 문 1개와 실행 시간
+* - ResultSet.next()가 true : 읽은 행 1개
+* 현재 스레드에 SqlStatistics 범위가 없으면 원래 객체를 그대로 호출한다.
+* 실행한 SQL은 SqlLogger에도 넘겨서 샘플링한 것과 느린 것을 로그로 남긴다. (PreparedStatement는 set* 파라미터 포함)
+* */
+public class SqlStatisticsDataSource extends DelegatingDataSource {
+
+    private final SqlLogger sqlLogger;
+
+    public SqlStatisticsDataSource(DataSource targetDataSource, SqlLogger sqlLogger) {
+        super(targetDataSource);
+        this.sqlLogger = sqlLogger;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, super.getConnection(), null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, super.getConnection(username, password), null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, T target, StatementLog statementLog) {
+        return (T) Proxy.newProxyInstance(SqlStatisticsDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> intercept(target, statementLog, method, args);
+                });
+    }
+
+    private Object intercept(Object target, StatementLog statementLog, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (statementLog != null) {
+            bind(target, statementLog, name, args);
+        }
+        SqlStatistics statistics = SqlStatistics.current();
+        boolean execute = target instanceof Statement && name.startsWith("execute");
+        long start = execute ? System.nanoTime() : 0;
+
+        Object result;
+        try {
+            result = method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            if (execute) {
+                long elapsed = System.nanoTime() - start;
+                if (statistics != null) {
+                    statistics.recordStatement(elapsed);
+                }
+                if (statementLog != null) {
+                    sqlLogger.executed(statementLog, args != null && args.length > 0 && args[0] instanceof String sql ? sql : null, elapsed);
+                    if ("executeBatch".equals(name)) {
+                        statementLog.clearBatch();
+                    }
+                }
+            }
+        }
+
+        if (result instanceof ResultSet resultSet && method.getReturnType() == ResultSet.class) {
+            return proxy(ResultSet.class, resultSet, null);
+        }
+        if (result instanceof Statement statement && method.getReturnType().isInterface()
+                && Statement.class.isAssignableFrom(method.getReturnType())) {
+            // prepareStatement(sql, ...), prepareCall(sql, ...)는 첫 번째 인자가 SQL
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            return proxy(cast(method.getReturnType()), statement, target instanceof Connection ? sqlLogger.open(sql) : null);
+        }
+        if (target instanceof ResultSet && "next".equals(name) && Boolean.TRUE.equals(result)) {
+            SqlStatistics current = SqlStatistics.current();
+            if (current != null) {
+                current.recordRow();
+            }
+        }
+        return result;
+    }
+
+    // PreparedStatement의 setXxx(index, value), setNull(index, type), clearParameters(), addBatch()
+    private static void bind(Object target, StatementLog statementLog, String name, Object[] args) {
+        if (!(target instanceof PreparedStatement)) {
+            return;
+        }
+        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+            statementLog.bind(index, "setNull".equals(name) ? null : args[1]);
+        } else if ("clearParameters".equals(name)) {
+            statementLog.clearParameters();
+        } else if ("addBatch".equals(name)) {
+            statementLog.addBatch();
+        } else if ("clearBatch".equals(name)) {
+            statementLog.clearBatch();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<Statement> cast(Class<?> type) {
+        return (Class<Statement>) type;
+    }
+}
@@ -0,0 +1,67 @@
+package me.minsic.springbootdeveloper.config.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.minsic.springbootdeveloper.config.timing.Phase;
+import me.minsic.springbootdeveloper.config.timing.ServerTiming;
+import me.minsic.springbootdeveloper.warmup.ApplicationWarmup;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/*
+* 요청마다 실행한 SQL 문 개수, 읽은 행 수, DB 시간을 로그로 남기는 필터
+* - DEBUG : 모든 요청, WARN : warnStatements 보다 많은 SQL을 실행한 요청 (N+1 의심)
+* - DB 시간은 Server-Timing의 db 단계로도 넘긴다.
+* - header가 켜져 있으면 응답이 커밋되기 직전까지의 값을 X-SQL-Statistics 헤더로 내보낸다.
+*   (스트리밍 응답은 본문을 보내기 시작한 뒤의 SQL이 헤더에 빠지므로 로그의 값을 본다)
+* - 워밍업 요청은 세지 않는다.
+* */
+@Slf4j
+@RequiredArgsConstructor
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_NAME = "X-SQL-Statistics";
+
+    private final SqlStatisticsProperties properties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return ApplicationWarmup.isWarmupRequest(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try (SqlStatistics statistics = SqlStatistics.start()) {
+            HttpServletResponse target = response;
+            if (properties.isHeader()) {
+                target = new OnCommittedResponseWrapper(response) {
+                    @Override
+                    protected void onResponseCommitted() {
+                        response.setHeader(HEADER_NAME, statistics.toString());
+                    }
+                };
+            }
+
+            try {
+                filterChain.doFilter(request, target);
+            } finally {
+                if (properties.isHeader() && !response.isCommitted()) {
+                    response.setHeader(HEADER_NAME, statistics.toString());
+                }
+                ServerTiming.add(Phase.DB, statistics.getElapsedNanos());
+                if (statistics.getStatements() > properties.getWarnStatements()) {
+                    log.warn("{} {} executed {}", request.getMethod(), request.getRequestURI(), statistics);
+                } else {
+                    log.debug("{} {} executed {}", request.getMethod(), request.getRequestURI(), statistics);
+                }
+            }
+        }
+    }
+}
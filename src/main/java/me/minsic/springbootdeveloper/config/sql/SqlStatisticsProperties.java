@@ -0,0 +1,16 @@
+package me.minsic.springbootdeveloper.config.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("sql-statistics") // application.yml의 sql-statistics 값을 가져온다.
+public class SqlStatisticsProperties {
+    private boolean enabled = true;
+    private boolean header = false;      // 응답 헤더(X-SQL-Statistics)로도 내보낼지 (개발용)
+    private int warnStatements = 20;    // 요청 하나가 이보다 많은 SQL을 실행하면 WARN 로그 (N+1 의심)
+}
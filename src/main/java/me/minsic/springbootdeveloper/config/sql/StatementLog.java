@@ -0,0 +1,70 @@
+package me.minsic.springbootdeveloper.config.sql;
+
+import java.util.Arrays;
+
+// SQL 문 하나(Statement)에 대해 로그로 남길 내용 : SQL, 샘플링 여부, 바인딩한 파라미터, 모아 둔 배치 수
+class StatementLog {
+
+    private static final Object[] NO_PARAMETERS = new Object[0];
+
+    private final String sql;
+    private final boolean sampled;
+    private final boolean captureParameters;
+    private Object[] parameters = NO_PARAMETERS;
+    private int parameterCount;
+    private int batchCount;
+
+    StatementLog(String sql, boolean sampled, boolean captureParameters) {
+        this.sql = sql;
+        this.sampled = sampled;
+        this.captureParameters = sampled && captureParameters; // 샘플링한 SQL 문만 파라미터를 모은다.
+    }
+
+    void bind(int index, Object value) {
+        if (!captureParameters || index < 1) {
+            return;
+        }
+        if (index > parameters.length) {
+            parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+        }
+        parameters[index - 1] = value;
+        parameterCount = Math.max(parameterCount, index);
+    }
+
+    void clearParameters() {
+        Arrays.fill(parameters, 0, parameterCount, null);
+        parameterCount = 0;
+    }
+
+    void addBatch() {
+        batchCount++;
+    }
+
+    void clearBatch() {
+        batchCount = 0;
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    boolean isSampled() {
+        return sampled;
+    }
+
+    boolean hasParameters() {
+        return captureParameters;
+    }
+
+    Object[] getParameters() {
+        return parameters;
+    }
+
+    int getParameterCount() {
+        return parameterCount;
+    }
+
+    int getBatchCount() {
+        return batchCount;
+    }
+}
@@ -0,0 +1,22 @@
+package me.minsic.springbootdeveloper.config.timing;
+
+// Server-Timing 헤더와 히스토그램에 나오는 요청 처리 단계
+public enum Phase {
+    AUTH("auth"),           // TokenAutenticationFilter (토큰 검증, 재발급)
+    SECURITY("security"),   // 컨트롤러 전까지의 필터 (스프링 시큐리티 필터 체인 등, auth 제외)
+    HANDLER("handler"),     // 컨트롤러, 서비스 (JSON 변환, 뷰 렌더링 제외)
+    DB("db"),               // SQL 실행 시간 (handler 등 다른 단계와 겹친다)
+    SERIALIZE("serialize"), // JSON 변환
+    RENDER("render"),       // 타임리프 뷰 렌더링
+    TOTAL("total");
+
+    private final String metricName;
+
+    Phase(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+}
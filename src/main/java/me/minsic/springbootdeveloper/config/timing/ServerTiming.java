@@ -0,0 +1,120 @@
+package me.minsic.springbootdeveloper.config.timing;
+
+import me.minsic.springbootdeveloper.config.sql.SqlStatistics;
+
+import java.util.Arrays;
+
+/*
+* 요청 하나의 단계별 처리 시간 (System.nanoTime 기준)
+* 스레드마다 객체 하나를 만들어 두고 요청마다 초기화해서 다시 쓴다. (기록할 때 객체를 만들지 않음)
+* ServerTimingFilter가 begin(), end() 하는 동안만 기록하고, 그 밖(백그라운드 스레드 등)에서는 아무것도 하지 않는다.
+* */
+public final class ServerTiming {
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final ThreadLocal<ServerTiming> current = ThreadLocal.withInitial(ServerTiming::new);
+
+    private final long[] elapsed = new long[PHASES.length];
+    private final long[] started = new long[PHASES.length]; // 0이면 진행 중이 아님
+    private boolean active;
+    private long requestStart;
+    private long handlerStart;
+    private long handlerEnd;
+
+    private ServerTiming() {
+    }
+
+    static ServerTiming begin() {
+        ServerTiming timing = current.get();
+        Arrays.fill(timing.elapsed, 0);
+        Arrays.fill(timing.started, 0);
+        timing.handlerStart = 0;
+        timing.handlerEnd = 0;
+        timing.requestStart = System.nanoTime();
+        timing.active = true;
+        return timing;
+    }
+
+    void end() {
+        active = false;
+    }
+
+    public static void start(Phase phase) {
+        ServerTiming timing = current.get();
+        if (timing.active) {
+            timing.started[phase.ordinal()] = System.nanoTime();
+        }
+    }
+
+    public static void stop(Phase phase) {
+        ServerTiming timing = current.get();
+        int index = phase.ordinal();
+        if (timing.active && timing.started[index] != 0) {
+            timing.elapsed[index] += System.nanoTime() - timing.started[index];
+            timing.started[index] = 0;
+        }
+    }
+
+    public static void add(Phase phase, long nanos) {
+        ServerTiming timing = current.get();
+        if (timing.active) {
+            timing.elapsed[phase.ordinal()] += nanos;
+        }
+    }
+
+    static void markHandlerStart() {
+        ServerTiming timing = current.get();
+        if (timing.active && timing.handlerStart == 0) {
+            timing.handlerStart = System.nanoTime();
+        }
+    }
+
+    static void markHandlerEnd() {
+        ServerTiming timing = current.get();
+        if (timing.active) {
+            timing.handlerEnd = System.nanoTime();
+        }
+    }
+
+    /*
+    * now 시점까지의 단계별 시간
+    * 진행 중인 단계는 now에 끝난 것으로 계산한다. (응답이 커밋되기 직전에 헤더를 만들 때)
+    * */
+    long nanos(Phase phase, long now) {
+        return switch (phase) {
+            case SECURITY -> Math.max(0, (handlerStart == 0 ? now : handlerStart) - requestStart - nanos(Phase.AUTH, now));
+            case HANDLER -> handlerStart == 0 ? 0
+                    : Math.max(0, (handlerEnd == 0 ? now : handlerEnd) - handlerStart
+                            - nanos(Phase.SERIALIZE, now) - nanos(Phase.RENDER, now));
+            // SQL 통계 범위가 열려 있으면(응답 커밋 전) 지금까지의 값, 닫혔으면 SqlStatisticsFilter가 add() 한 값
+            case DB -> elapsed[Phase.DB.ordinal()] + SqlStatistics.currentElapsedNanos();
+            case TOTAL -> now - requestStart;
+            default -> elapsed[phase.ordinal()] + (started[phase.ordinal()] == 0 ? 0 : now - started[phase.ordinal()]);
+        };
+    }
+
+    // Server-Timing 헤더 값 (예: auth;dur=0.120, security;dur=0.410, handler;dur=3.052, total;dur=4.100), 0인 단계는 생략
+    String toHeader(long now) {
+        StringBuilder header = new StringBuilder(160);
+        for (Phase phase : PHASES) {
+            long nanos = nanos(phase, now);
+            if (nanos == 0 && phase != Phase.TOTAL) {
+                continue;
+            }
+            if (!header.isEmpty()) {
+                header.append(", ");
+            }
+            long micros = nanos / 1_000;
+            header.append(phase.getMetricName()).append(";dur=").append(micros / 1_000).append('.');
+            long fraction = micros % 1_000;
+            if (fraction < 100) {
+                header.append('0');
+            }
+            if (fraction < 10) {
+                header.append('0');
+            }
+            header.append(fraction);
+        }
+        return header.toString();
+    }
+}
@@ -0,0 +1,58 @@
+package me.minsic.springbootdeveloper.config.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.warmup.ApplicationWarmup;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/*
+* 요청의 단계별 처리 시간을 재는 필터 (가장 바깥에서 실행)
+* - 응답이 커밋되기 직전에 그때까지의 시간을 Server-Timing 헤더로 내보낸다.
+* - 요청이 끝나면 엔드포인트별 히스토그램(ServerTimingMetrics)에 기록한다.
+* - 워밍업 요청은 재지 않는다. (기동 직후의 느린 요청이 분포를 흐리지 않도록)
+* */
+@RequiredArgsConstructor
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_NAME = "Server-Timing";
+
+    private final ServerTimingProperties properties;
+    private final ServerTimingMetrics metrics;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return ApplicationWarmup.isWarmupRequest(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ServerTiming timing = ServerTiming.begin();
+        HttpServletResponse target = response;
+        if (properties.isHeader()) {
+            target = new OnCommittedResponseWrapper(response) {
+                @Override
+                protected void onResponseCommitted() {
+                    response.setHeader(HEADER_NAME, timing.toHeader(System.nanoTime()));
+                }
+            };
+        }
+
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            long now = System.nanoTime();
+            if (properties.isHeader() && !response.isCommitted()) {
+                response.setHeader(HEADER_NAME, timing.toHeader(now));
+            }
+            metrics.record(request, timing, now);
+            timing.end();
+        }
+    }
+}
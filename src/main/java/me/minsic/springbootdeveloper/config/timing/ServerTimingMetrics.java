@@ -0,0 +1,85 @@
+package me.minsic.springbootdeveloper.config.timing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+* 엔드포인트(HTTP 메서드 + URL 패턴)별, 단계별 처리 시간 히스토그램
+* URL 패턴(/api/articles/{id})으로 묶기 때문에 엔드포인트 개수만큼만 늘어난다. (매핑되지 않은 요청은 하나로 묶는다)
+* 메서드는 GET, POST, PUT, DELETE 와 나머지(OTHER)로 묶는다. (요청이 보낸 임의의 메서드 문자열이 키로 쌓이지 않는다)
+* 기록할 때는 요청의 패턴 문자열을 키로 그대로 써서 객체를 만들지 않는다.
+* */
+@Component
+public class ServerTimingMetrics {
+
+    private static final String UNMATCHED = "UNMATCHED";
+    private static final Phase[] PHASES = Phase.values();
+    private static final Method[] METHODS = Method.values();
+
+    enum Method {
+        GET, POST, PUT, DELETE, OTHER;
+
+        static Method of(String method) {
+            return switch (method) {
+                case "GET" -> GET;
+                case "POST" -> POST;
+                case "PUT" -> PUT;
+                case "DELETE" -> DELETE;
+                default -> OTHER;
+            };
+        }
+    }
+
+    // 엔드포인트 -> 메서드 순번 -> 단계별 히스토그램 (요청이 온 메서드만 만든다)
+    private final Map<String, AtomicReferenceArray<TimingHistogram[]>> histograms = new ConcurrentHashMap<>();
+
+    void record(HttpServletRequest request, ServerTiming timing, long now) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = pattern instanceof String matched ? matched : UNMATCHED;
+        AtomicReferenceArray<TimingHistogram[]> methods = histograms
+                .computeIfAbsent(endpoint, key -> new AtomicReferenceArray<>(METHODS.length));
+        int method = Method.of(request.getMethod()).ordinal();
+        TimingHistogram[] phases = methods.get(method);
+        if (phases == null) {
+            methods.compareAndSet(method, null, newHistograms());
+            phases = methods.get(method);
+        }
+        for (Phase phase : PHASES) {
+            phases[phase.ordinal()].record(timing.nanos(phase, now) / 1_000);
+        }
+    }
+
+    private static TimingHistogram[] newHistograms() {
+        TimingHistogram[] phases = new TimingHistogram[PHASES.length];
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new TimingHistogram();
+        }
+        return phases;
+    }
+
+    // "GET /api/articles/{id}" -> 단계 -> 요약
+    public Map<String, Map<String, TimingHistogram.Snapshot>> snapshot() {
+        Map<String, Map<String, TimingHistogram.Snapshot>> result = new TreeMap<>();
+        histograms.forEach((endpoint, methods) -> {
+            for (Method method : METHODS) {
+                TimingHistogram[] phases = methods.get(method.ordinal());
+                if (phases == null) {
+                    continue;
+                }
+                Map<String, TimingHistogram.Snapshot> byPhase = new LinkedHashMap<>();
+                for (Phase phase : PHASES) {
+                    byPhase.put(phase.getMetricName(), phases[phase.ordinal()].snapshot());
+                }
+                result.put(method + " " + endpoint, byPhase);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,15 @@
+package me.minsic.springbootdeveloper.config.timing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("server-timing") // application.yml의 server-timing 값을 가져온다.
+public class ServerTimingProperties {
+    private boolean enabled = true;
+    private boolean header = true; // 단계별 시간을 Server-Timing 응답 헤더로 내보낼지
+}
@@ -0,0 +1,26 @@
+package me.minsic.springbootdeveloper.config.timing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+// 응답 객체를 JSON으로 쓰는 시간을 serialize 단계로 기록하는 컨버터
+public class TimedJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public TimedJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        ServerTiming.start(Phase.SERIALIZE);
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            ServerTiming.stop(Phase.SERIALIZE);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package me.minsic.springbootdeveloper.config.timing;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+* 락 없이 기록하는 로그-선형 히스토그램 (단위 : 마이크로초)
+* - 0~15µs는 1µs 단위, 그 위로는 2배 구간마다 8칸으로 나눈다. (상대 오차 12.5% 이하)
+* - 약 2^36µs(19시간)를 넘는 값은 마지막 칸에 넣는다.
+* - 기록은 배열 칸 하나를 증가시키는 것이 전부라서 객체를 만들지 않는다.
+* */
+public class TimingHistogram {
+
+    private static final int LINEAR_LIMIT = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 36;
+    private static final int BUCKETS = LINEAR_LIMIT + (MAX_EXPONENT - 4 + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long micros) {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(index(value));
+        count.increment();
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    static int index(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value); // 4 이상
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - 4) * SUB_BUCKETS + subBucket;
+    }
+
+    // index 칸에 들어가는 가장 큰 값
+    static long upperBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + 4;
+        int subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (subBucket + 1) * width - 1;
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        long recordedMax = max.get();
+        return new Snapshot(total, total == 0 ? 0 : sum.sum() / Math.max(1, count.sum()),
+                percentile(copy, total, 0.50, recordedMax),
+                percentile(copy, total, 0.90, recordedMax),
+                percentile(copy, total, 0.99, recordedMax),
+                recordedMax);
+    }
+
+    private static long percentile(long[] counts, long total, double quantile, long max) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    public record Snapshot(long count, long meanMicros, long p50Micros, long p90Micros, long p99Micros, long maxMicros) {
+    }
+}
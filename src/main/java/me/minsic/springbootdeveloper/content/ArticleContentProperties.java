@@ -0,0 +1,17 @@
+package me.minsic.springbootdeveloper.content;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("article-content") // application.yml의 article-content 값을 가져온다.
+public class ArticleContentProperties {
+    private DataSize maxSize = DataSize.ofMegabytes(16); // 스트리밍으로 받는 글 본문의 최대 크기(UTF-8 바이트)
+    private int bufferSize = 8192;                        // 본문을 읽고 쓸 때 한 번에 복사하는 문자 수
+    private int memoryLimit = 1 << 20;                    // 보내기 전에 메모리에 담아 두는 최대 문자 수 (넘으면 임시 파일)
+}
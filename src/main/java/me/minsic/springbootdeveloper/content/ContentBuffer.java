@@ -0,0 +1,85 @@
+package me.minsic.springbootdeveloper.content;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+* DB에서 읽은 글 본문을 클라이언트에 보내기 전에 담아 두는 버퍼 (느린 클라이언트가 샤드의 커넥션을 잡고 있지 않도록)
+* memoryLimit 문자까지는 메모리에 담고, 넘으면 지금까지 담은 내용과 나머지를 임시 파일(UTF-8)에 쓴다.
+* close()하면 임시 파일을 지운다.
+* */
+public class ContentBuffer extends Writer {
+
+    private final int memoryLimit;
+    private CharArrayWriter memory = new CharArrayWriter();
+    private Path file;
+    private Writer fileWriter;
+
+    public ContentBuffer(int memoryLimit) {
+        this.memoryLimit = memoryLimit;
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        if (fileWriter == null && memory.size() + len > memoryLimit) {
+            spill();
+        }
+        if (fileWriter != null) {
+            fileWriter.write(cbuf, off, len);
+        } else {
+            memory.write(cbuf, off, len);
+        }
+    }
+
+    // 담아 둔 내용을 처음부터 writer에 복사
+    public void writeTo(Writer writer, int bufferSize) throws IOException {
+        if (fileWriter == null) {
+            memory.writeTo(writer);
+        } else {
+            fileWriter.flush();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                char[] buffer = new char[bufferSize];
+                int read;
+                while ((read = reader.read(buffer)) >= 0) {
+                    writer.write(buffer, 0, read);
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    // 임시 파일을 썼는지 (테스트에서 확인)
+    boolean isSpilled() {
+        return file != null;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (fileWriter != null) {
+            fileWriter.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (fileWriter != null) {
+            try {
+                fileWriter.close();
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private void spill() throws IOException {
+        file = Files.createTempFile("article-content-", ".txt");
+        fileWriter = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        memory.writeTo(fileWriter);
+        memory = null;
+    }
+}
@@ -0,0 +1,13 @@
+package me.minsic.springbootdeveloper.content;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 글 본문이 article-content.max-size 보다 크면 413 Payload Too Large
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class ContentTooLargeException extends RuntimeException {
+
+    public ContentTooLargeException(long maxBytes) {
+        super("content exceeds " + maxBytes + " bytes");
+    }
+}
@@ -0,0 +1,69 @@
+package me.minsic.springbootdeveloper.content;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/*
+* 읽은 바이트 수를 세다가 maxBytes를 넘으면 더 읽지 않고 예외를 던지는 스트림
+* JDBC 드라이버가 읽는 도중에 던진 예외는 SQLException으로 감싸질 수 있으므로, 호출한 쪽은 isExceeded()로 원인을 확인한다.
+* */
+public class SizeLimitedInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+    private long count;
+    private boolean exceeded;
+
+    public SizeLimitedInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        // 한도를 한 바이트 넘는 곳까지만 읽어서 넘었는지 확인한다.
+        int allowed = (int) Math.min(length, maxBytes - count + 1);
+        int read = super.read(buffer, offset, Math.max(allowed, 1));
+        if (read > 0) {
+            count(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(Math.min(n, maxBytes - count + 1));
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long read) throws IOException {
+        count += read;
+        if (count > maxBytes) {
+            exceeded = true;
+            throw new IOException("content exceeds " + maxBytes + " bytes");
+        }
+    }
+
+    public boolean isExceeded() {
+        return exceeded;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,72 @@
+package me.minsic.springbootdeveloper.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.attachment.AttachmentSender;
+import me.minsic.springbootdeveloper.domain.ArticleAttachment;
+import me.minsic.springbootdeveloper.dto.AttachmentResponse;
+import me.minsic.springbootdeveloper.service.AttachmentService;
+import me.minsic.springbootdeveloper.service.UserService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.List;
+
+@RequiredArgsConstructor
+@RestController // HTTP Response Body에 객체 데이터를 JSON 형식으로 반환하는 컨트롤러
+public class AttachmentApiController {
+
+    private final AttachmentService attachmentService;
+    private final AttachmentSender attachmentSender;
+    private final UserService userService;
+
+    /*
+    * 첨부 파일 추가 : 파일 내용을 요청 본문 그대로 보내고, Content-Type은 파일 형식 (multipart 아님)
+    * POST /api/articles/{id}/attachments?name=photo.png
+    * */
+    @PostMapping("/api/articles/{id}/attachments")
+    public ResponseEntity<AttachmentResponse> addAttachment(@PathVariable long id, @RequestParam String name,
+                                                            HttpServletRequest request, Principal principal) throws IOException {
+        ArticleAttachment attachment = attachmentService.upload(id, name, request.getContentType(),
+                request.getInputStream(), request.getContentLengthLong(), editor(principal));
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new AttachmentResponse(attachment));
+    }
+
+    @GetMapping("/api/articles/{id}/attachments")
+    public ResponseEntity<List<AttachmentResponse>> findAllAttachments(@PathVariable long id) {
+        List<AttachmentResponse> attachments = attachmentService.findAll(id)
+                .stream()
+                .map(AttachmentResponse::new)
+                .toList();
+
+        return ResponseEntity.ok()
+                .body(attachments);
+    }
+
+    // 파일 내려받기 (Range, ETag 지원, 파일 내용을 힙에 올리지 않고 보낸다)
+    @GetMapping("/api/articles/{id}/attachments/{attachmentId}")
+    public void findAttachment(@PathVariable long id, @PathVariable long attachmentId,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ArticleAttachment attachment = attachmentService.find(id, attachmentId);
+        attachmentSender.send(attachment, attachmentService.path(attachment), request, response);
+    }
+
+    @DeleteMapping("/api/articles/{id}/attachments/{attachmentId}")
+    public ResponseEntity<Void> deleteAttachment(@PathVariable long id, @PathVariable long attachmentId, Principal principal) {
+        attachmentService.delete(id, attachmentId, editor(principal));
+
+        return ResponseEntity.ok()
+                .build();
+    }
+
+    // 로그인한 사용자의 id (작성자 확인에 사용)
+    private Long editor(Principal principal) {
+        return principal == null ? null : userService.findIdByEmail(principal.getName());
+    }
+}
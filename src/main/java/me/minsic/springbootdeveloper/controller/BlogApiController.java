@@ -1,15 +1,36 @@
 package me.minsic.springbootdeveloper.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.cache.ArticleJsonCache;
 import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.domain.User;
 import me.minsic.springbootdeveloper.dto.AddArticleRequest;
-import me.minsic.springbootdeveloper.dto.ArticleResponse;
+import me.minsic.springbootdeveloper.dto.ArticleContentResponse;
+import me.minsic.springbootdeveloper.dto.ArticleCursor;
+import me.minsic.springbootdeveloper.dto.ArticleLastModified;
+import me.minsic.springbootdeveloper.dto.ArticleTitle;
+import me.minsic.springbootdeveloper.dto.AuthorArticlePageResponse;
+import me.minsic.springbootdeveloper.dto.BulkArticleResponse;
+import me.minsic.springbootdeveloper.dto.BulkDeleteArticleRequest;
+import me.minsic.springbootdeveloper.dto.BulkUpdateArticleRequest;
+import me.minsic.springbootdeveloper.dto.TaggedArticlePage;
+import me.minsic.springbootdeveloper.dto.TrendingArticleResponse;
 import me.minsic.springbootdeveloper.dto.UpdateArticleRequest;
 import me.minsic.springbootdeveloper.service.BlogService;
+import me.minsic.springbootdeveloper.service.TagService;
+import me.minsic.springbootdeveloper.service.UserService;
+import me.minsic.springbootdeveloper.suggest.TitleSuggester;
+import me.minsic.springbootdeveloper.trending.TrendingArticles;
+import me.minsic.springbootdeveloper.trending.TrendingWindow;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.security.Principal;
 import java.util.List;
 
 @RequiredArgsConstructor
@@ -17,46 +38,106 @@ import java.util.List;
 public class BlogApiController {
 
     private final BlogService blogService;
+    private final UserService userService;
+    private final TagService tagService;
+    private final TrendingArticles trendingArticles;
+    private final TitleSuggester titleSuggester;
+    private final ArticleJsonCache articleJsonCache; // 글 응답을 직렬화해 둔 JSON 바이트
 
     // HTTP 메서드가 POST일 때 전달받은 URL과 동일하면 메서드로 매핑
     @PostMapping("/api/articles")
-    public ResponseEntity<Article> addArticle(@RequestBody AddArticleRequest request) {
-        Article saveArticle = blogService.save(request);
+    public ResponseEntity<Article> addArticle(@RequestBody AddArticleRequest request, Principal principal) {
+        Article saveArticle = blogService.save(request, author(principal)); // 로그인한 사용자를 작성자로 저장
+        articleJsonCache.put(saveArticle); // 다음 조회부터 바로 캐시 사용
         // body()는 응답코드로 201을 응답하고 테이블에 저장된 객체를 반환한다.
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(saveArticle);
     }
 
+    // 글마다 캐시해 둔 JSON 바이트를 이어 붙여서 응답 (Jackson 직렬화 없이)
     @GetMapping("/api/articles")
-    public ResponseEntity<List<ArticleResponse>> findAllArticles() {
-        List<ArticleResponse> articles = blogService.findAll()
-                .stream()
-                // 더블콜론의 의미(::) 람다의 간결한 버전중 하나,
-                // 왼쪽 객체의 오른쪽 메소드를 사용한다는 내용.
-                // :: 는 스트림을 사용할 경우 객체에서 특정 메소드를 호출하는 용도로 사용
-                .map(ArticleResponse::new)
-                .toList();
-
-        // 찍어보기(삭제예정)
-        for(ArticleResponse e : articles) {
-            System.out.println(e.getContent()+" "+ e.getTitle());
-        }
+    public ResponseEntity<byte[]> findAllArticles() {
+        byte[] articles = articleJsonCache.responses(blogService.findAll());
+
         return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
                 .body(articles);
     }
 
+    // 커서 페이징 : 응답의 next 값을 다음 요청의 after로 넘긴다. (next가 null이면 마지막 페이지)
+    @GetMapping("/api/articles/page")
+    // 응답 모양은 ArticlePageResponse와 같다.
+    public ResponseEntity<byte[]> findArticlePage(@RequestParam(required = false) Long after,
+                                                  @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.min(Math.max(size, 1), 100); // 한 번에 최대 100개
+        // id, 수정 시각만 먼저 조회하고 캐시에 없거나 바뀐 글만 본문까지 읽는다.
+        List<ArticleLastModified> versions = blogService.findLastModified((after == null ? 0 : after) + 1, Long.MAX_VALUE, pageSize);
+        Long next = versions.size() < pageSize ? null : versions.get(versions.size() - 1).id();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(articleJsonCache.page(versions, blogService::findAllById, next));
+    }
+
+    /*
+    * 인기 글 : 최근 5분(5m), 1시간(1h), 1일(1d) 동안 상세 조회가 많은 글
+    * GET /api/articles/trending?window=1h&size=10
+    * */
+    @GetMapping("/api/articles/trending")
+    public ResponseEntity<List<TrendingArticleResponse>> findTrendingArticles(@RequestParam(defaultValue = "1h") String window,
+                                                                              @RequestParam(defaultValue = "10") int size) {
+        int limit = Math.min(Math.max(size, 1), 100); // 한 번에 최대 100개
+        return ResponseEntity.ok()
+                .body(trendingArticles.find(TrendingWindow.of(window), limit));
+    }
+
+    /*
+    * 제목 자동 완성 : 검색어로 시작하는 제목(제목 안 단어의 시작 포함)을 인기순으로
+    * GET /api/articles/suggest?q=스프링&size=10 (한글은 자모 단위로 맞추므로 입력 중인 "슾", "스플"도 찾는다.)
+    * */
+    @GetMapping("/api/articles/suggest")
+    public ResponseEntity<List<ArticleTitle>> suggestTitles(@RequestParam String q,
+                                                            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok()
+                .body(titleSuggester.suggest(q, size));
+    }
+
+    /*
+    * 작성자별 글 목록 (최신순, 키셋 페이징)
+    * GET /api/users/{userId}/articles?size=20, 응답의 next를 다음 요청의 cursor로 넘긴다.
+    * */
+    @GetMapping("/api/users/{userId}/articles")
+    public ResponseEntity<AuthorArticlePageResponse> findAuthorArticles(@PathVariable long userId,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.min(Math.max(size, 1), 100); // 한 번에 최대 100개
+        List<Article> articles = blogService.findByAuthor(userId, cursor == null ? null : ArticleCursor.parse(cursor), pageSize);
+
+        return ResponseEntity.ok()
+                .body(new AuthorArticlePageResponse(articles, pageSize));
+    }
+
     @GetMapping("/api/articles/{id}")
     // URL 경로에서 값 추출
-    public ResponseEntity<ArticleResponse> findArticle(@PathVariable Long id){ // @PathVariable 애너테이션은 URL에서 값을 가져오는 애너테이션
-        Article article = blogService.findById(id);
+    public ResponseEntity<byte[]> findArticle(@PathVariable Long id){ // @PathVariable 애너테이션은 URL에서 값을 가져오는 애너테이션
+        // 캐시에 있는 글이면 수정 시각만 조회해서 같을 때 본문(CLOB)을 읽지 않고 캐시된 바이트를 보낸다.
+        byte[] json = !articleJsonCache.contains(id) ? null : blogService.findLastModified(id)
+                .map(version -> articleJsonCache.cached(id, version.updatedAt()))
+                .orElse(null);
+        if (json == null) {
+            // ArticleResponse를 직렬화한 바이트 (같은 updatedAt이면 캐시에서 그대로 복사)
+            json = articleJsonCache.response(blogService.findById(id));
+        }
+        trendingArticles.record(id); // 있는 글의 조회만 센다.
 
         return ResponseEntity.ok()
-                .body(new ArticleResponse(article));
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json);
     }
 
     @DeleteMapping("/api/articles/{id}")
-    public ResponseEntity<Void> deleteArticle(@PathVariable long id) {
-        blogService.delete(id);
+    public ResponseEntity<Void> deleteArticle(@PathVariable long id, Principal principal) {
+        blogService.delete(id, editor(principal));
 
         return ResponseEntity.ok()
                 .build();
@@ -64,10 +145,106 @@ public class BlogApiController {
 
     @PutMapping("/api/articles/{id}")
     public ResponseEntity<Article> updateArticle(@PathVariable long id,
-                                                 @RequestBody UpdateArticleRequest request) {
-        Article updateArticle = blogService.update(id,request);
+                                                 @RequestBody UpdateArticleRequest request, Principal principal) {
+        Article updateArticle = blogService.update(id, request, editor(principal));
+        articleJsonCache.put(updateArticle);
 
         return ResponseEntity.ok()
                 .body(updateArticle);
     }
+
+    // 여러 글 삭제 : {"ids": [1, 2, 3]} 또는 {"createdFrom": "...", "createdTo": "..."}
+    // 다른 사용자가 작성한 글은 빠진다. 삭제한 글의 캐시는 아웃박스의 DELETED 이벤트로 비운다.
+    @PostMapping("/api/articles/bulk-delete")
+    public ResponseEntity<BulkArticleResponse> deleteArticles(@RequestBody BulkDeleteArticleRequest request, Principal principal) {
+        int deleted = blogService.deleteAll(request, editor(principal));
+
+        return ResponseEntity.ok()
+                .body(new BulkArticleResponse(deleted));
+    }
+
+    // 여러 글 수정 : 대상은 bulk-delete와 같고 title, content 중 보낸 값만 바꾼다.
+    // 수정한 글은 update_at이 바뀌므로 캐시에 있던 JSON은 다음 조회에서 다시 만든다.
+    @PostMapping("/api/articles/bulk-update")
+    public ResponseEntity<BulkArticleResponse> updateArticles(@RequestBody BulkUpdateArticleRequest request, Principal principal) {
+        int updated = blogService.updateAll(request, editor(principal));
+
+        return ResponseEntity.ok()
+                .body(new BulkArticleResponse(updated));
+    }
+
+    /*
+    * 큰 글 추가 : 본문을 JSON 대신 text/plain(UTF-8) 요청 본문 그대로 보낸다. (POST /api/articles/content?title=제목)
+    * 요청 스트림을 DB까지 그대로 흘려보내므로 본문 크기만큼 메모리에 올리지 않는다.
+    * */
+    @PostMapping(value = "/api/articles/content", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<ArticleContentResponse> addArticleContent(@RequestParam String title, HttpServletRequest request,
+                                                                    Principal principal) throws IOException {
+        ArticleContentResponse saved = blogService.saveContent(title, author(principal), request.getInputStream(),
+                request.getContentLengthLong());
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(saved);
+    }
+
+    // 큰 글의 본문만 수정 (text/plain 요청 본문)
+    @PutMapping(value = "/api/articles/{id}/content", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<ArticleContentResponse> updateArticleContent(@PathVariable long id, HttpServletRequest request,
+                                                                       Principal principal) throws IOException {
+        blogService.checkEditable(id, editor(principal));
+        ArticleContentResponse updated = blogService.updateContent(id, request.getInputStream(), request.getContentLengthLong());
+
+        return ResponseEntity.ok()
+                .body(updated);
+    }
+
+    // 글 본문만 text/plain으로 스트리밍 조회 (JSON 캐시를 거치지 않는다)
+    @GetMapping("/api/articles/{id}/content")
+    public void findArticleContent(@PathVariable long id, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        blogService.writeContent(id, response.getWriter());
+    }
+
+    /*
+    * 태그 조회 : all의 태그가 모두 있고, any 중 하나 이상 있고, none은 없는 글을 최신순으로
+    * GET /api/articles/tagged?all=java,spring&none=draft&size=20
+    * 응답 모양은 ArticlePageResponse와 같고, next 값을 다음 요청의 before로 넘긴다.
+    * */
+    @GetMapping("/api/articles/tagged")
+    public ResponseEntity<byte[]> findTaggedArticles(@RequestParam(required = false) List<String> all,
+                                                     @RequestParam(required = false) List<String> any,
+                                                     @RequestParam(required = false) List<String> none,
+                                                     @RequestParam(required = false) Long before,
+                                                     @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.min(Math.max(size, 1), 100); // 한 번에 최대 100개
+        TaggedArticlePage page = tagService.findTagged(all, any, none, before, pageSize);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(articleJsonCache.page(page.articles(), page.next()));
+    }
+
+    @GetMapping("/api/articles/{id}/tags")
+    public ResponseEntity<List<String>> findArticleTags(@PathVariable long id) {
+        return ResponseEntity.ok()
+                .body(tagService.findTags(id));
+    }
+
+    // 글의 태그를 통째로 바꾼다. : ["java", "spring"]
+    @PutMapping("/api/articles/{id}/tags")
+    public ResponseEntity<List<String>> updateArticleTags(@PathVariable long id, @RequestBody List<String> tags,
+                                                         Principal principal) {
+        return ResponseEntity.ok()
+                .body(tagService.updateTags(id, tags, editor(principal)));
+    }
+
+    private User author(Principal principal) {
+        return principal == null ? null : userService.findByEmail(principal.getName());
+    }
+
+    // 로그인한 사용자의 id (작성자 확인에 사용, 이메일은 작성자로 저장하지 않는다)
+    private Long editor(Principal principal) {
+        return principal == null ? null : userService.findIdByEmail(principal.getName());
+    }
 }
@@ -1,17 +1,26 @@
 package me.minsic.springbootdeveloper.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import me.minsic.springbootdeveloper.domain.Article;
 import me.minsic.springbootdeveloper.dto.ArticleListViewResponse;
 import me.minsic.springbootdeveloper.dto.ArticleViewResponse;
 import me.minsic.springbootdeveloper.service.BlogService;
+import me.minsic.springbootdeveloper.service.CommentService;
+import me.minsic.springbootdeveloper.trending.TrendingArticles;
+import me.minsic.springbootdeveloper.view.ArticleListStreamRenderer;
+import me.minsic.springbootdeveloper.view.StreamingViewProperties;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.ModelAndView;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 //RequiredArgsConstructor는 초기화 되지않은 final 필드나, @NonNull 이 붙은 필드에 대해 생성자를 생성해 줍니다.
 @RequiredArgsConstructor
@@ -19,20 +28,31 @@ import java.util.List;
 public class BlogViewController {
 
     private final BlogService blogService;
+    private final CommentService commentService;
+    private final ArticleListStreamRenderer articleListStreamRenderer;
+    private final StreamingViewProperties streamingViewProperties;
+    private final TrendingArticles trendingArticles;
 
     @GetMapping("/articles")
-    public String getArticles(Model model) {
-        List<ArticleListViewResponse> articles = blogService.findAll().stream()
-                .map(ArticleListViewResponse::new)
-                .toList();
+    public ModelAndView getArticles(Model model, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (streamingViewProperties.isEnabled()) {
+            // 페이지 윗부분을 먼저 보내고, 글 카드는 DB에서 읽는 대로 나눠서 보낸다.
+            articleListStreamRenderer.render(request, response);
+            return null;    // 응답을 직접 작성했으므로 조회할 뷰가 없음
+        }
+
+        List<Article> found = blogService.findAll();
+        Map<Long, Long> commentCounts = commentService.countByArticleIds(found.stream().map(Article::getId).toList());
+        List<ArticleListViewResponse> articles = ArticleListViewResponse.of(found, commentCounts); // 댓글 수는 샤드마다 500개씩 쿼리 한 번
         model.addAttribute("articles",articles);    // 블로그 글 리스트 저장
 
-        return "articlesList";  // articleList.html라는 뷰 조회
+        return new ModelAndView("articlesList");  // articleList.html라는 뷰 조회
     }
 
     @GetMapping("/articles/{id}")
     public String getArticle(@PathVariable Long id, Model model) {
         Article article = blogService.findById(id);
+        trendingArticles.record(id);
         model.addAttribute("article",new ArticleViewResponse(article));
 
         return "article";
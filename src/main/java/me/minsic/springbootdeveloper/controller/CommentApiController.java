@@ -0,0 +1,63 @@
+package me.minsic.springbootdeveloper.controller;
+
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.domain.ArticleComment;
+import me.minsic.springbootdeveloper.dto.AddCommentRequest;
+import me.minsic.springbootdeveloper.dto.CommentPageResponse;
+import me.minsic.springbootdeveloper.dto.CommentResponse;
+import me.minsic.springbootdeveloper.service.CommentService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+@RestController // HTTP Response Body에 객체 데이터를 JSON 형식으로 반환하는 컨트롤러
+public class CommentApiController {
+
+    private final CommentService commentService;
+
+    // 댓글 추가 : {"content": "...", "parentId": null} (답글이면 parentId에 부모 댓글 id)
+    @PostMapping("/api/articles/{id}/comments")
+    public ResponseEntity<CommentResponse> addComment(@PathVariable long id, @RequestBody AddCommentRequest request) {
+        ArticleComment comment = commentService.add(id, request);
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new CommentResponse(comment, 0));
+    }
+
+    /*
+    * 최상위 댓글 페이지 (작성 순서, 각 댓글의 답글 수 포함)
+    * GET /api/articles/{id}/comments?after=&size=20, 응답의 next를 다음 요청의 after로 넘긴다.
+    * */
+    @GetMapping("/api/articles/{id}/comments")
+    public ResponseEntity<CommentPageResponse> findComments(@PathVariable long id,
+                                                            @RequestParam(required = false) Long after,
+                                                            @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.min(Math.max(size, 1), 100); // 한 번에 최대 100개
+        return ResponseEntity.ok()
+                .body(commentService.findComments(id, after, pageSize));
+    }
+
+    // 답글 페이지 (답글을 펼칠 때 한 단계씩 조회)
+    @GetMapping("/api/articles/{id}/comments/{commentId}/replies")
+    public ResponseEntity<CommentPageResponse> findReplies(@PathVariable long id, @PathVariable long commentId,
+                                                           @RequestParam(required = false) Long after,
+                                                           @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.min(Math.max(size, 1), 100); // 한 번에 최대 100개
+        return ResponseEntity.ok()
+                .body(commentService.findReplies(id, commentId, after, pageSize));
+    }
+
+    // 목록 페이지의 글별 댓글 수 : GET /api/articles/comment-counts?ids=1,2,3 (최대 100개, 쿼리 1번)
+    @GetMapping("/api/articles/comment-counts")
+    public ResponseEntity<Map<Long, Long>> countComments(@RequestParam List<Long> ids) {
+        if (ids.size() > 100) {
+            throw new IllegalArgumentException("at most 100 ids are allowed");
+        }
+        return ResponseEntity.ok()
+                .body(commentService.countByArticleIds(ids));
+    }
+}
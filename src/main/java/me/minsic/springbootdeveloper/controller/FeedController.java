@@ -0,0 +1,67 @@
+package me.minsic.springbootdeveloper.controller;
+
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.feed.ArticleFeed;
+import me.minsic.springbootdeveloper.feed.ArticleSitemap;
+import me.minsic.springbootdeveloper.feed.FeedDocument;
+import me.minsic.springbootdeveloper.feed.FeedProperties;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/*
+* 피드(RSS, Atom)와 사이트맵
+* 직렬화해 둔 바이트를 그대로 보내고, If-None-Match(ETag), If-Modified-Since가 맞으면 본문 없이 304
+* */
+@RequiredArgsConstructor
+@RestController
+public class FeedController {
+
+    private static final MediaType RSS = MediaType.parseMediaType("application/rss+xml;charset=UTF-8");
+    private static final MediaType ATOM = MediaType.parseMediaType("application/atom+xml;charset=UTF-8");
+    private static final MediaType XML = MediaType.parseMediaType("application/xml;charset=UTF-8");
+
+    private final ArticleFeed articleFeed;
+    private final ArticleSitemap articleSitemap;
+    private final FeedProperties feedProperties;
+
+    @GetMapping("/rss.xml")
+    public ResponseEntity<byte[]> rss(WebRequest request) {
+        return respond(articleFeed.rss(), RSS, request);
+    }
+
+    @GetMapping("/atom.xml")
+    public ResponseEntity<byte[]> atom(WebRequest request) {
+        return respond(articleFeed.atom(), ATOM, request);
+    }
+
+    @GetMapping("/sitemap.xml")
+    public ResponseEntity<byte[]> sitemap(WebRequest request) {
+        return respond(articleSitemap.root(), XML, request);
+    }
+
+    @GetMapping("/sitemap-{number}.xml")
+    public ResponseEntity<byte[]> sitemapFile(@PathVariable int number, WebRequest request) {
+        FeedDocument document = articleSitemap.numbered(number);
+        if (document == null) {
+            return ResponseEntity.notFound()
+                    .build();
+        }
+        return respond(document, XML, request);
+    }
+
+    private ResponseEntity<byte[]> respond(FeedDocument document, MediaType type, WebRequest request) {
+        // ETag, Last-Modified 헤더도 여기서 설정된다.
+        if (request.checkNotModified(document.etag(), document.lastModified())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(type)
+                .cacheControl(CacheControl.maxAge(feedProperties.getMaxAge()).cachePublic())
+                .body(document.bytes());
+    }
+}
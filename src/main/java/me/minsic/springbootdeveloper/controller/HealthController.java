@@ -0,0 +1,28 @@
+package me.minsic.springbootdeveloper.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequiredArgsConstructor
+@RestController
+public class HealthController {
+
+    private final ApplicationAvailability applicationAvailability;
+
+    /*
+    * 준비 상태 (로드 밸런서의 readiness probe)
+    * 워밍업이 끝나 ACCEPTING_TRAFFIC이면 200, 기동 중이거나 종료 중(REFUSING_TRAFFIC)이면 503
+    * */
+    @GetMapping("/health/readiness")
+    public ResponseEntity<String> readiness() {
+        ReadinessState state = applicationAvailability.getReadinessState();
+        HttpStatus status = state == ReadinessState.ACCEPTING_TRAFFIC ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status)
+                .body(state.name());
+    }
+}
@@ -0,0 +1,97 @@
+package me.minsic.springbootdeveloper.controller;
+
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.cache.ArticleJsonCache;
+import me.minsic.springbootdeveloper.config.concurrency.ConcurrencyLimitFilter;
+import me.minsic.springbootdeveloper.config.concurrency.ConcurrencyLimiter;
+import me.minsic.springbootdeveloper.config.logging.AsyncRingBufferAppender;
+import me.minsic.springbootdeveloper.config.timing.ServerTimingMetrics;
+import me.minsic.springbootdeveloper.config.timing.TimingHistogram;
+import me.minsic.springbootdeveloper.outbox.OutboxMetrics;
+import me.minsic.springbootdeveloper.suggest.TitleSuggester;
+import me.minsic.springbootdeveloper.tag.TagIndex;
+import me.minsic.springbootdeveloper.warmup.WarmupMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+// 백그라운드 작업의 처리 현황 조회 (로그인한 사용자만)
+@RequiredArgsConstructor
+@RestController
+public class MetricsApiController {
+
+    private final OutboxMetrics outboxMetrics;
+    private final ServerTimingMetrics serverTimingMetrics;
+    private final ArticleJsonCache articleJsonCache;
+    private final TagIndex tagIndex;
+    private final TitleSuggester titleSuggester;
+    private final WarmupMetrics warmupMetrics;
+    private final ObjectProvider<AsyncRingBufferAppender> asyncRingBufferAppender; // async-logging.enabled=false면 없다.
+    private final ObjectProvider<ConcurrencyLimitFilter> concurrencyLimitFilter;    // concurrency-limit.enabled=false면 없다.
+
+    @GetMapping("/api/metrics/outbox")
+    public ResponseEntity<OutboxMetrics.Snapshot> outbox() {
+        return ResponseEntity.ok()
+                .body(outboxMetrics.snapshot());
+    }
+
+    // 엔드포인트별, 단계별(auth, security, handler, db, serialize, render, total) 처리 시간 분포 (마이크로초)
+    @GetMapping("/api/metrics/timing")
+    public ResponseEntity<Map<String, Map<String, TimingHistogram.Snapshot>>> timing() {
+        return ResponseEntity.ok()
+                .body(serverTimingMetrics.snapshot());
+    }
+
+    // 비동기 로그 출력 현황 (출력한 수, 버퍼가 가득 차서 버린 수, 대기 중인 수)
+    @GetMapping("/api/metrics/logging")
+    public ResponseEntity<AsyncRingBufferAppender.Snapshot> logging() {
+        AsyncRingBufferAppender appender = asyncRingBufferAppender.getIfAvailable();
+        if (appender == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .body(appender.snapshot());
+    }
+
+    // 글 응답 JSON 캐시 현황 (적중, 미적중, 보관 중인 글 수와 바이트)
+    @GetMapping("/api/metrics/json-cache")
+    public ResponseEntity<ArticleJsonCache.Snapshot> jsonCache() {
+        return ResponseEntity.ok()
+                .body(articleJsonCache.snapshot());
+    }
+
+    // 글 API의 조회/쓰기별 동시 처리 한도, 처리 중인 요청 수, 거절한 요청 수, 응답 시간(마이크로초)
+    @GetMapping("/api/metrics/concurrency")
+    public ResponseEntity<Map<String, ConcurrencyLimiter.Snapshot>> concurrency() {
+        ConcurrencyLimitFilter filter = concurrencyLimitFilter.getIfAvailable();
+        if (filter == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .body(filter.snapshot());
+    }
+
+    // 태그 색인 현황 (번호를 붙인 글 수, 태그 수, 태그-글 쌍의 수, 대략의 메모리 바이트)
+    @GetMapping("/api/metrics/tags")
+    public ResponseEntity<TagIndex.Snapshot> tags() {
+        return ResponseEntity.ok()
+                .body(tagIndex.snapshot());
+    }
+
+    // 제목 자동 완성 색인 현황 (글 수, 키 수, 트라이 노드 수, 마지막으로 만든 시각과 걸린 시간)
+    @GetMapping("/api/metrics/suggest")
+    public ResponseEntity<TitleSuggester.Snapshot> suggest() {
+        return ResponseEntity.ok()
+                .body(titleSuggester.snapshot());
+    }
+
+    // 워밍업 시간과 준비 완료 뒤 첫 요청들의 처리 시간 분포
+    @GetMapping("/api/metrics/warmup")
+    public ResponseEntity<WarmupMetrics.Snapshot> warmup() {
+        return ResponseEntity.ok()
+                .body(warmupMetrics.snapshot());
+    }
+}
@@ -0,0 +1,74 @@
+package me.minsic.springbootdeveloper.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.profiling.ProfilingProperties;
+import me.minsic.springbootdeveloper.profiling.ProfilingRecorder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+
+/*
+* 운영 중인 서버의 JFR 기록 (profiling.admins에 있는 사용자만)
+* 1. POST /api/admin/profiling/start?seconds=60 으로 시작한다. (profiling.max-duration이 상한)
+* 2. 재현하고 싶은 요청을 보낸다.
+* 3. POST /api/admin/profiling/stop 의 응답이 .jfr 파일이다. (JDK Mission Control, jfr print로 연다)
+* */
+@RequiredArgsConstructor
+@RestController
+public class ProfilingApiController {
+
+    private final ProfilingRecorder recorder;
+    private final ProfilingProperties properties;
+
+    // 이미 기록 중이면 409와 진행 중인 기록의 상태
+    @PostMapping("/api/admin/profiling/start")
+    public ResponseEntity<ProfilingRecorder.Status> start(@RequestParam(defaultValue = "60") long seconds, Principal principal) {
+        checkAdmin(principal);
+        try {
+            return ResponseEntity.ok()
+                    .body(recorder.start(Duration.ofSeconds(Math.max(seconds, 1))));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(recorder.status());
+        }
+    }
+
+    @GetMapping("/api/admin/profiling")
+    public ResponseEntity<ProfilingRecorder.Status> status(Principal principal) {
+        checkAdmin(principal);
+        return ResponseEntity.ok()
+                .body(recorder.status());
+    }
+
+    // 기록을 멈추고 .jfr 파일을 내려받는다. (시작한 기록이 없으면 409)
+    @PostMapping("/api/admin/profiling/stop")
+    public void stop(Principal principal, HttpServletResponse response) throws IOException {
+        checkAdmin(principal);
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"blog-profiling.jfr\"");
+        try {
+            recorder.stop(response.getOutputStream());
+        } catch (IllegalStateException e) {
+            response.reset();
+            response.sendError(HttpStatus.CONFLICT.value(), e.getMessage());
+        }
+    }
+
+    // 앱에 관리자 권한이 따로 없으므로 설정의 이메일 목록으로 확인한다.
+    private void checkAdmin(Principal principal) {
+        if (principal == null || !properties.getAdmins().contains(principal.getName())) {
+            throw new AccessDeniedException("profiling is allowed for admins only");
+        }
+    }
+}
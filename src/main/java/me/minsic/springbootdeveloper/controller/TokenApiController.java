@@ -1,26 +1,102 @@
 package me.minsic.springbootdeveloper.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import me.minsic.springbootdeveloper.config.jwt.TokenProvider;
+import me.minsic.springbootdeveloper.config.TokenLoginSuccessHandler;
 import me.minsic.springbootdeveloper.dto.CreateAccessTokenRequest;
 import me.minsic.springbootdeveloper.dto.CreateAccessTokenResponse;
 import me.minsic.springbootdeveloper.service.TokenService;
+import me.minsic.springbootdeveloper.util.CookieUtil;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+
 @RequiredArgsConstructor
 @RestController
 public class TokenApiController {
+    private static final String DEFAULT_REDIRECT = "/articles";
+
     private final TokenService tokenService;
 
+    /*
+    * 리프레시 토큰으로 엑세스 토큰 재발급 (리프레시 토큰도 새 값으로 바뀐다)
+    * 요청 본문의 refreshToken, 없으면 리프레시 토큰 쿠키를 쓴다. 쿠키로 받았으면 새 토큰도 쿠키로 내려보낸다.
+    * */
     @PostMapping("/api/token")
-    public ResponseEntity<CreateAccessTokenResponse> createNewAccessToken (@RequestBody CreateAccessTokenRequest request){
-        String newAccessToken = tokenService.createNewAccessToken(request.getRefreshToken());
+    public ResponseEntity<CreateAccessTokenResponse> createNewAccessToken(@RequestBody(required = false) CreateAccessTokenRequest request,
+                                                                          HttpServletRequest servletRequest,
+                                                                          HttpServletResponse servletResponse) {
+        String refreshToken = request == null ? null : request.getRefreshToken();
+        boolean fromCookie = refreshToken == null;
+        if (fromCookie) {
+            refreshToken = CookieUtil.getCookieValue(servletRequest, TokenLoginSuccessHandler.REFRESH_TOKEN_COOKIE_NAME);
+        }
+        if (refreshToken == null) {
+            throw new IllegalArgumentException("Unexpected token");
+        }
+        TokenService.Tokens tokens = tokenService.refresh(refreshToken);
+        if (fromCookie) {
+            TokenLoginSuccessHandler.addTokenCookies(servletResponse, tokens.accessToken(), tokens.refreshToken());
+        }
 
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(new CreateAccessTokenResponse(newAccessToken));
+                .body(new CreateAccessTokenResponse(tokens.accessToken(), tokens.refreshToken()));
+    }
+
+    /*
+    * 엑세스 토큰 쿠키가 만료된 화면 요청이 거쳐 가는 곳 (TokenRefreshEntryPoint)
+    * 리프레시 토큰 쿠키로 두 토큰을 새로 발급해 쿠키에 저장하고 redirect(같은 사이트의 경로만)로 돌려보낸다.
+    * 쓸 수 없는 리프레시 토큰이면 쿠키를 지우고 로그인 화면으로 보낸다.
+    * */
+    @GetMapping("/api/token/refresh")
+    public void refreshCookies(@RequestParam(defaultValue = DEFAULT_REDIRECT) String redirect,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String refreshToken = CookieUtil.getCookieValue(request, TokenLoginSuccessHandler.REFRESH_TOKEN_COOKIE_NAME);
+        String location;
+        try {
+            if (refreshToken == null) {
+                throw new IllegalArgumentException("Unexpected token");
+            }
+            TokenService.Tokens tokens = tokenService.refresh(refreshToken);
+            TokenLoginSuccessHandler.addTokenCookies(response, tokens.accessToken(), tokens.refreshToken());
+            location = isLocalPath(redirect) ? redirect : DEFAULT_REDIRECT;
+        } catch (IllegalArgumentException e) { // 유효하지 않거나, 이미 쓴 리프레시 토큰
+            TokenLoginSuccessHandler.deleteTokenCookies(request, response);
+            location = "/login";
+        }
+
+        response.sendRedirect(request.getContextPath() + location);
+    }
+
+    /*
+    * 다른 사이트로 보내는 리다이렉트(//host, /\host, 절대 URL)는 허용하지 않는다.
+    * 브라우저는 URL의 탭, 줄바꿈을 지우고 \를 /로 읽으므로(/%09/host -> //host) 공백, 제어 문자, \가 있으면 거절하고,
+    * URI로 해석해서 스킴과 호스트(authority)가 없는 경로만 허용한다.
+    * */
+    private static boolean isLocalPath(String path) {
+        if (!path.startsWith("/") || path.startsWith("//")) {
+            return false;
+        }
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '\\' || Character.isISOControl(c) || Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                return false;
+            }
+        }
+        try {
+            URI uri = new URI(path);
+            return uri.getScheme() == null && uri.getRawAuthority() == null;
+        } catch (URISyntaxException e) {
+            return false;
+        }
     }
 }
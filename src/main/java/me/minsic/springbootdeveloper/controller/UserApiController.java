@@ -4,8 +4,10 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.config.TokenLogoutHandler;
 import me.minsic.springbootdeveloper.dto.AddUserRequest;
 import me.minsic.springbootdeveloper.service.UserService;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.logout.SecurityContextLogoutHandler;
 import org.springframework.stereotype.Controller;
@@ -16,6 +18,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 @Controller
 public class UserApiController {
     private final UserService userService;
+    private final TokenLogoutHandler tokenLogoutHandler;
     
     @PostMapping("/user")
     public String signup(AddUserRequest request) {
@@ -25,8 +28,10 @@ public class UserApiController {
 
     @GetMapping("/logout")
     public String logout(HttpServletRequest request, HttpServletResponse response) {
-        new SecurityContextLogoutHandler().logout(request,response,
-                SecurityContextHolder.getContext().getAuthentication());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        // 저장된 리프레시 토큰과 토큰 쿠키 삭제 (보통은 시큐리티의 LogoutFilter가 이 요청을 먼저 처리한다)
+        tokenLogoutHandler.logout(request, response, authentication);
+        new SecurityContextLogoutHandler().logout(request,response, authentication);
         return "redirect:/login";
     }
 }
@@ -7,25 +7,40 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Table(name = "article", indexes = @Index(name = "idx_article_author_created_id", columnList = "author_id, created_at, id")) // 작성자별 최신순 키셋 페이징
+@EntityListeners(AuditingEntityListener.class) // @CreatedDate, @LastModifiedDate 값을 채운다. (아카이브 이동이 updatedAt으로 오래된 글을 고른다)
 @Getter // getter 생성 필요없이 lombok으로 해결
 @NoArgsConstructor(access = AccessLevel.PROTECTED) // 접근 제어자가 protected 기본 생성자를 별도의 코드없이 생성 
 public class Article {
 
     @Id // id 필드를 기본키로 지정
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // 기본키를 자동으로 1씩 추가
     @Column(name = "id", updatable = false)
-    private Long id;
+    private Long id; // BlogService가 저장하기 전에 ArticleIdGenerator로 정한다. (여러 샤드에 나눠 저장해도 겹치지 않고, 저장 전에 샤드를 고를 수 있다)
 
     @Column(name = "title", nullable = false) // 'title' 이라는 not null 컬럼과 매핑
     private String title;
 
+    @Lob // 큰 본문도 저장할 수 있도록 CLOB 컬럼 (스트리밍 업로드, 조회는 BlogService.saveContent(), writeContent())
     @Column(name = "content", nullable = false) // 'content' 이라는 not null 컬럼과 매핑
     private String content;
 
+    /*
+    * 작성자 (users.id와 작성 당시의 별명, 이메일은 응답에 나가므로 저장하지 않는다)
+    * User와 @ManyToOne으로 잇지 않는다. 사용자는 기본 샤드에만 있고 글은 여러 샤드와 아카이브에 나뉘어 있어서 조인할 수 없기 때문에,
+    * 목록에 보여줄 작성자 정보를 글 행에 같이 저장해 글을 읽는 쿼리 하나로 작성자까지 가져온다. (카드마다 사용자 조회 없음)
+    * 작성자 기능 이전의 글은 둘 다 null, 고치거나 지울 수 있는지는 authorId로만 확인한다.
+    * */
+    @Column(name = "author_id", updatable = false)
+    private Long authorId;
+
+    @Column(name = "author", updatable = false)
+    private String author;
+
     @CreatedDate
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -47,9 +62,38 @@ public class Article {
     * new Article("abc","def");
     *  */
     @Builder // 빌더 패턴으로 객체 생성
-    public Article(String title, String content) {
+    public Article(Long id, String title, String content, User author) {
+        this.id = id;
         this.title = title;
         this.content = content;
+        if (author != null) {
+            this.authorId = author.getId();
+            this.author = author.getNickname();
+        }
+    }
+
+    // 아카이브(콜드 스토리지)에서 읽은 글을 객체로 만들 때 사용 (영속성 컨텍스트에서 관리되지 않는 객체)
+    public static Article restore(Long id, String title, String content, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        return restore(id, title, content, null, null, createdAt, updatedAt);
+    }
+
+    public static Article restore(Long id, String title, String content, Long authorId, String author,
+                                  LocalDateTime createdAt, LocalDateTime updatedAt) {
+        Article article = new Article(id, title, content, null);
+        article.authorId = authorId;
+        article.author = author;
+        article.createdAt = createdAt;
+        article.updatedAt = updatedAt;
+        return article;
+    }
+
+    // 작성자가 있는 글은 작성자만 고치거나 지울 수 있다. (작성자 기능 이전의 글은 누구나, userId : 로그인한 사용자의 id)
+    public boolean isEditableBy(Long userId) {
+        return isEditableBy(authorId, userId);
+    }
+
+    public static boolean isEditableBy(Long authorId, Long userId) {
+        return authorId == null || authorId.equals(userId);
     }
 
     public void update(String title, String content) {
@@ -0,0 +1,56 @@
+package me.minsic.springbootdeveloper.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/*
+* 글의 첨부 파일 (글과 같은 샤드에 저장)
+* 파일 내용은 AttachmentStore가 SHA-256 해시를 이름으로 디스크에 저장하므로, 같은 파일을 여러 글에 올려도 한 번만 저장된다.
+* 한 번 올린 첨부 파일은 바꾸지 않는다. (내용이 바뀌면 새 첨부 파일)
+* 같은 글에 같은 이름, 같은 내용의 파일은 하나만 저장한다. (uk_article_attachment, 다시 올리면 있던 첨부 파일을 돌려준다)
+* */
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+@Table(name = "article_attachment", indexes = @Index(name = "idx_article_attachment_article_id", columnList = "article_id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_article_attachment", columnNames = {"article_id", "hash", "file_name"}))
+public class ArticleAttachment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false)
+    private Long id;
+
+    @Column(name = "article_id", nullable = false, updatable = false)
+    private Long articleId;
+
+    @Column(name = "hash", nullable = false, updatable = false, length = 64)
+    private String hash; // 파일 내용의 SHA-256 (16진수), ETag로도 사용
+
+    @Column(name = "file_name", nullable = false, updatable = false)
+    private String fileName;
+
+    @Column(name = "content_type", nullable = false, updatable = false, length = 128)
+    private String contentType;
+
+    @Column(name = "size", nullable = false, updatable = false)
+    private long size; // 바이트
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Builder
+    public ArticleAttachment(Long articleId, String hash, String fileName, String contentType, long size) {
+        this.articleId = articleId;
+        this.hash = hash;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.size = size;
+        this.createdAt = LocalDateTime.now();
+    }
+}
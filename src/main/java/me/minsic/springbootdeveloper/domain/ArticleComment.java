@@ -0,0 +1,55 @@
+package me.minsic.springbootdeveloper.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/*
+* 글의 댓글 (글과 같은 샤드에 저장)
+* Article에 @OneToMany로 두지 않는다. 댓글이 수천 개인 글도 글을 읽을 때 댓글을 읽지 않고,
+* 댓글은 CommentService가 id 커서로 한 페이지씩 읽는다.
+* 답글은 parentId로 이어지고 depth는 MAX_DEPTH까지만 허용한다. (최상위 댓글이 0)
+* */
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+@Table(name = "article_comment", indexes = {
+        @Index(name = "idx_article_comment_article_parent_id", columnList = "article_id, parent_id, id"), // 최상위 댓글 페이지, 글별 댓글 수
+        @Index(name = "idx_article_comment_parent_id", columnList = "parent_id, id")                      // 답글 페이지, 답글 수
+})
+public class ArticleComment {
+
+    public static final int MAX_DEPTH = 3;
+    public static final int MAX_CONTENT_LENGTH = 2000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false)
+    private Long id;
+
+    @Column(name = "article_id", nullable = false, updatable = false)
+    private Long articleId;
+
+    @Column(name = "parent_id", updatable = false)
+    private Long parentId; // 최상위 댓글이면 null
+
+    @Column(name = "depth", nullable = false, updatable = false)
+    private int depth;
+
+    @Column(name = "content", nullable = false, length = MAX_CONTENT_LENGTH)
+    private String content;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public ArticleComment(Long articleId, ArticleComment parent, String content) {
+        this.articleId = articleId;
+        this.parentId = parent == null ? null : parent.getId();
+        this.depth = parent == null ? 0 : parent.getDepth() + 1;
+        this.content = content;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,9 @@
+package me.minsic.springbootdeveloper.domain;
+
+// 아웃박스에 기록하는 글 변경 종류
+public enum ArticleEventType {
+    CREATED,
+    UPDATED,
+    TAGGED,  // 태그만 바뀜 (글 내용은 그대로라서 태그 색인만 반영한다)
+    DELETED
+}
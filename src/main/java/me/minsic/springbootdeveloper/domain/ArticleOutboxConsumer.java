@@ -0,0 +1,42 @@
+package me.minsic.springbootdeveloper.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/*
+* 아웃박스를 읽는 노드(OutboxRelay)마다 어디까지 전달했는지 기록한다.
+* 리스너가 노드의 메모리(캐시, 색인)를 고치므로 이벤트는 모든 노드에 전달해야 한다.
+* 그래서 전달한 이벤트를 바로 지우지 않고, 살아 있는 모든 노드의 lastEventId 이하만 지운다.
+* heartbeatAt이 outbox.consumer-timeout 보다 오래된 노드는 죽은 것으로 보고 기다리지 않는다.
+* */
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+@Table(name = "article_outbox_consumer")
+public class ArticleOutboxConsumer {
+
+    @Id
+    @Column(name = "consumer_id", updatable = false, length = 64)
+    private String consumerId;
+
+    @Column(name = "last_event_id", nullable = false)
+    private long lastEventId; // 이 id 까지는 전달을 마쳤다. (실패해서 다시 전달할 이벤트가 있으면 그 앞까지)
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+
+    public ArticleOutboxConsumer(String consumerId, long lastEventId, LocalDateTime heartbeatAt) {
+        this.consumerId = consumerId;
+        this.lastEventId = lastEventId;
+        this.heartbeatAt = heartbeatAt;
+    }
+
+    public void advance(long lastEventId, LocalDateTime heartbeatAt) {
+        this.lastEventId = lastEventId;
+        this.heartbeatAt = heartbeatAt;
+    }
+}
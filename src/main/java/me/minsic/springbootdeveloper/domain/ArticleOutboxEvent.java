@@ -0,0 +1,41 @@
+package me.minsic.springbootdeveloper.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/*
+* 글 변경 이벤트 (트랜잭셔널 아웃박스)
+* 글을 바꾸는 트랜잭션 안에서 같이 저장하므로, 글 변경이 커밋되면 이벤트도 반드시 남고 롤백되면 같이 사라진다.
+* 노드마다 OutboxRelay가 백그라운드에서 읽어 자기 리스너에 전달하고, 모든 노드가 읽은 이벤트만 지운다. (ArticleOutboxConsumer)
+* */
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+@Table(name = "article_outbox")
+public class ArticleOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false)
+    private Long id;
+
+    @Column(name = "article_id", nullable = false, updatable = false)
+    private Long articleId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, updatable = false, length = 16)
+    private ArticleEventType type;
+
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+
+    public ArticleOutboxEvent(Long articleId, ArticleEventType type) {
+        this.articleId = articleId;
+        this.type = type;
+        this.occurredAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,36 @@
+package me.minsic.springbootdeveloper.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/*
+* 글에 붙은 태그 (글과 같은 샤드에 저장)
+* 여러 태그 조건의 조회는 이 테이블을 조인하지 않고 TagIndex(메모리 비트맵)로 답한다.
+* */
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+@Table(name = "article_tag",
+        uniqueConstraints = @UniqueConstraint(name = "uk_article_tag", columnNames = {"article_id", "name"}))
+public class ArticleTag {
+
+    public static final int MAX_NAME_LENGTH = 50;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false)
+    private Long id;
+
+    @Column(name = "article_id", nullable = false, updatable = false)
+    private Long articleId;
+
+    @Column(name = "name", nullable = false, updatable = false, length = MAX_NAME_LENGTH)
+    private String name;
+
+    public ArticleTag(Long articleId, String name) {
+        this.articleId = articleId;
+        this.name = name;
+    }
+}
@@ -9,6 +9,7 @@ import lombok.Setter;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Getter
 @Entity
+@Table(name = "refresh_token", indexes = @Index(name = "idx_refresh_token_value", columnList = "refresh_token")) // 로그아웃할 때 값으로 찾아서 지운다.
 public class RefreshToken {
 
     @Id
@@ -19,7 +20,7 @@ public class RefreshToken {
     @Column(name = "user_id", nullable = false, unique = true)
     private Long userId;
 
-    @Column(name = "refresh_token", nullable = false)
+    @Column(name = "refresh_token", nullable = false, length = 1024) // jti 클레임까지 들어간 JWT
     private String refreshToken;
 
     public RefreshToken(Long userId, String refreshToken) {
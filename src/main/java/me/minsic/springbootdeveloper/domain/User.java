@@ -18,6 +18,8 @@ import java.util.List;
 @Entity
 public class User implements UserDetails {  // UserDetails 클래스는 스프링 시큐리티에서 사용자의 인증정보를 담아두는 인터페이스
 
+    public static final int MAX_NICKNAME_LENGTH = 30;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id", updatable = false)
@@ -29,10 +31,19 @@ public class User implements UserDetails {  // UserDetails 클래스는 스프
     @Column(name = "password")
     private String password;
 
+    @Column(name = "nickname", length = MAX_NICKNAME_LENGTH)
+    private String nickname; // 글의 작성자로 보여주는 이름 (이메일은 보여주지 않는다)
+
     @Builder
-    public User(String email, String password, String auth) {
+    public User(String email, String password, String nickname, String auth) {
         this.email = email;
         this.password = password;
+        this.nickname = nickname;
+    }
+
+    // 별명이 없는 사용자(가입할 때 비워 둔 사용자, 별명 기능 이전의 사용자)는 "user" + id
+    public String getNickname() {
+        return nickname != null ? nickname : "user" + id;
     }
 
     @Override // 권한 반환
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.domain.User;
 
 @NoArgsConstructor  // 기본 생성자 추가
 @AllArgsConstructor // 모든 필드 값을 파라미터로 받는 생성자 추가
@@ -14,9 +15,16 @@ public class AddArticleRequest {
     private String content;
 
     public Article toEntity() {
+        return toEntity(null, null);
+    }
+
+    // id : 저장할 샤드를 고르는 글 id (BlogService가 ArticleIdGenerator로 정한다)
+    public Article toEntity(Long id, User author) {
         return Article.builder()
+                .id(id)
                 .title(title)
                 .content(content)
+                .author(author)
                 .build();
     }
 
@@ -0,0 +1,13 @@
+package me.minsic.springbootdeveloper.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+public class AddCommentRequest {
+    private String content;
+    private Long parentId; // 답글이면 부모 댓글 id
+}
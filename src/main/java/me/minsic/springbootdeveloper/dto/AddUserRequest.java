@@ -8,4 +8,5 @@ import lombok.Setter;
 public class AddUserRequest {
     private String email;
     private String password;
+    private String nickname; // 비워 두면 "user" + id
 }
@@ -0,0 +1,13 @@
+package me.minsic.springbootdeveloper.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 본문을 스트리밍으로 저장한 결과 (본문은 다시 돌려주지 않고 받은 크기만 알려준다)
+@AllArgsConstructor
+@Getter
+public class ArticleContentResponse {
+    private final Long id;
+    private final String title;
+    private final long contentBytes; // 받은 본문의 크기(UTF-8 바이트)
+}
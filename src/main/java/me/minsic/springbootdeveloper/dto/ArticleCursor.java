@@ -0,0 +1,31 @@
+package me.minsic.springbootdeveloper.dto;
+
+import me.minsic.springbootdeveloper.domain.Article;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/*
+* 작성자별 목록의 키셋 커서 : 이전 페이지 마지막 글의 (created_at, id)
+* 문자열로는 "2024-01-01T10:00:00.123456_1234567890" 모양으로 주고받는다.
+* */
+public record ArticleCursor(LocalDateTime createdAt, long id) {
+
+    public static ArticleCursor of(Article article) {
+        return new ArticleCursor(article.getCreatedAt(), article.getId());
+    }
+
+    public static ArticleCursor parse(String value) {
+        int separator = value.lastIndexOf('_');
+        try {
+            return new ArticleCursor(LocalDateTime.parse(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("invalid cursor: " + value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return createdAt + "_" + id;
+    }
+}
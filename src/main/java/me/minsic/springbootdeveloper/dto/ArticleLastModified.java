@@ -0,0 +1,7 @@
+package me.minsic.springbootdeveloper.dto;
+
+import java.time.LocalDateTime;
+
+// 글 id와 마지막 수정 시각 (사이트맵처럼 본문이 필요 없는 목록에서 사용)
+public record ArticleLastModified(Long id, LocalDateTime updatedAt) {
+}
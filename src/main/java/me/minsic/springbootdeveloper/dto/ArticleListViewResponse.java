@@ -3,16 +3,30 @@ package me.minsic.springbootdeveloper.dto;
 import lombok.Getter;
 import me.minsic.springbootdeveloper.domain.Article;
 
+import java.util.List;
+import java.util.Map;
+
 @Getter
 public class ArticleListViewResponse {
 
     private final Long id;
     private final String title;
     private final String content;
+    private final String author;
+    private final long commentCount;
 
-    public ArticleListViewResponse(Article article) {
+    public ArticleListViewResponse(Article article, long commentCount) {
         this.id = article.getId();
         this.title = article.getTitle();
         this.content = article.getContent();
+        this.author = article.getAuthor();
+        this.commentCount = commentCount;
+    }
+
+    // 목록 한 페이지(또는 스트리밍 한 묶음)의 카드 (댓글 수는 CommentService.countByArticleIds()로 한 번에 조회한 값)
+    public static List<ArticleListViewResponse> of(List<Article> articles, Map<Long, Long> commentCounts) {
+        return articles.stream()
+                .map(article -> new ArticleListViewResponse(article, commentCounts.getOrDefault(article.getId(), 0L)))
+                .toList();
     }
 }
@@ -0,0 +1,23 @@
+package me.minsic.springbootdeveloper.dto;
+
+import lombok.Getter;
+import me.minsic.springbootdeveloper.domain.Article;
+
+import java.util.List;
+
+@Getter
+public class ArticlePageResponse {
+    private final List<ArticleResponse> articles;
+    private final Long next; // 다음 페이지를 요청할 때 after로 넘길 값 (마지막 페이지면 null)
+
+    public ArticlePageResponse(List<Article> articles, int size) {
+        this.articles = articles.stream()
+                .map(ArticleResponse::new)
+                .toList();
+        this.next = next(articles, size);
+    }
+
+    public static Long next(List<Article> articles, int size) {
+        return articles.size() < size ? null : articles.get(articles.size() - 1).getId();
+    }
+}
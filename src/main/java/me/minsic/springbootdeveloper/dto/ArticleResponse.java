@@ -7,9 +7,11 @@ import me.minsic.springbootdeveloper.domain.Article;
 public class ArticleResponse {
     private final String title;
     private final String content;
+    private final String author; // 작성자 별명 (작성자 기능 이전의 글은 null)
 
     public ArticleResponse(Article article) {
         this.title = article.getTitle();
         this.content = article.getContent();
+        this.author = article.getAuthor();
     }
 }
@@ -0,0 +1,5 @@
+package me.minsic.springbootdeveloper.dto;
+
+// 글 id와 제목 (제목 자동 완성 색인을 만들 때, 자동 완성 응답에서 사용)
+public record ArticleTitle(Long id, String title) {
+}
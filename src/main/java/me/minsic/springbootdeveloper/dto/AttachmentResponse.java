@@ -0,0 +1,23 @@
+package me.minsic.springbootdeveloper.dto;
+
+import lombok.Getter;
+import me.minsic.springbootdeveloper.domain.ArticleAttachment;
+
+@Getter
+public class AttachmentResponse {
+    private final Long id;
+    private final String fileName;
+    private final String contentType;
+    private final long size;
+    private final String hash;
+    private final String url; // 파일을 내려받는 경로
+
+    public AttachmentResponse(ArticleAttachment attachment) {
+        this.id = attachment.getId();
+        this.fileName = attachment.getFileName();
+        this.contentType = attachment.getContentType();
+        this.size = attachment.getSize();
+        this.hash = attachment.getHash();
+        this.url = "/api/articles/" + attachment.getArticleId() + "/attachments/" + attachment.getId();
+    }
+}
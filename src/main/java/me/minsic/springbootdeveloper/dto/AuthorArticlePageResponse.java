@@ -0,0 +1,19 @@
+package me.minsic.springbootdeveloper.dto;
+
+import lombok.Getter;
+import me.minsic.springbootdeveloper.domain.Article;
+
+import java.util.List;
+
+@Getter
+public class AuthorArticlePageResponse {
+    private final List<ArticleResponse> articles;
+    private final String next; // 다음 페이지를 요청할 때 cursor로 넘길 값 (마지막 페이지면 null)
+
+    public AuthorArticlePageResponse(List<Article> articles, int size) {
+        this.articles = articles.stream()
+                .map(ArticleResponse::new)
+                .toList();
+        this.next = articles.size() < size ? null : ArticleCursor.of(articles.get(articles.size() - 1)).toString();
+    }
+}
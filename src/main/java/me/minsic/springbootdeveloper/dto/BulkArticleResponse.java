@@ -0,0 +1,10 @@
+package me.minsic.springbootdeveloper.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class BulkArticleResponse {
+    private final int affected; // 삭제, 수정된 글 수
+}
@@ -0,0 +1,43 @@
+package me.minsic.springbootdeveloper.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+* 여러 글을 한 번에 삭제할 대상 (ids 또는 작성일 범위 중 하나)
+* {"ids": [1, 2, 3]}
+* {"createdFrom": "2023-01-01T00:00:00", "createdTo": "2023-02-01T00:00:00"} (createdFrom 이상, createdTo 미만)
+* 범위는 양 끝을 모두 정해야 하고, 한 번에 바꾸는 글은 ids든 범위든 MAX_ARTICLES 개까지다. (넘으면 아무것도 바꾸지 않고 거절)
+* */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+public class BulkDeleteArticleRequest {
+
+    public static final int MAX_ARTICLES = 10_000;
+
+    private List<Long> ids;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+
+    public boolean hasIds() {
+        return ids != null;
+    }
+
+    public void validate() {
+        boolean range = createdFrom != null || createdTo != null;
+        if (hasIds() == range) {
+            throw new IllegalArgumentException("either ids or createdFrom/createdTo is required");
+        }
+        if (hasIds() && (ids.isEmpty() || ids.size() > MAX_ARTICLES)) {
+            throw new IllegalArgumentException("ids must have 1 to " + MAX_ARTICLES + " elements");
+        }
+        if (range && (createdFrom == null || createdTo == null || !createdFrom.isBefore(createdTo))) {
+            throw new IllegalArgumentException("createdFrom must be before createdTo and both are required");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package me.minsic.springbootdeveloper.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// 여러 글의 제목, 내용을 한 번에 수정 (대상은 BulkDeleteArticleRequest와 같고, null인 값은 바꾸지 않는다)
+@NoArgsConstructor
+@Getter
+public class BulkUpdateArticleRequest extends BulkDeleteArticleRequest {
+
+    private String title;
+    private String content;
+
+    public BulkUpdateArticleRequest(List<Long> ids, LocalDateTime createdFrom, LocalDateTime createdTo,
+                                    String title, String content) {
+        super(ids, createdFrom, createdTo);
+        this.title = title;
+        this.content = content;
+    }
+
+    @Override
+    public void validate() {
+        super.validate();
+        if (title == null && content == null) {
+            throw new IllegalArgumentException("title or content is required");
+        }
+    }
+}
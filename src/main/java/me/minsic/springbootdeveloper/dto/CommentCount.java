@@ -0,0 +1,5 @@
+package me.minsic.springbootdeveloper.dto;
+
+// 글(또는 댓글) id별 댓글(또는 답글) 수 (group by 조회 결과)
+public record CommentCount(Long id, long count) {
+}
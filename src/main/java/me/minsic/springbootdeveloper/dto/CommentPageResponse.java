@@ -0,0 +1,7 @@
+package me.minsic.springbootdeveloper.dto;
+
+import java.util.List;
+
+// 댓글 한 페이지 (작성 순서, next는 다음 요청의 after, 마지막 페이지면 null)
+public record CommentPageResponse(List<CommentResponse> comments, Long next) {
+}
@@ -0,0 +1,27 @@
+package me.minsic.springbootdeveloper.dto;
+
+import lombok.Getter;
+import me.minsic.springbootdeveloper.domain.ArticleComment;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class CommentResponse {
+    private final Long id;
+    private final Long parentId;
+    private final int depth;
+    private final String content;
+    private final LocalDateTime createdAt;
+    private final long replyCount; // 답글은 같이 보내지 않고 수만 보낸다. (펼칠 때 replies API로 조회)
+    private final boolean replyable; // 최대 깊이면 답글을 달 수 없다.
+
+    public CommentResponse(ArticleComment comment, long replyCount) {
+        this.id = comment.getId();
+        this.parentId = comment.getParentId();
+        this.depth = comment.getDepth();
+        this.content = comment.getContent();
+        this.createdAt = comment.getCreatedAt();
+        this.replyCount = replyCount;
+        this.replyable = comment.getDepth() < ArticleComment.MAX_DEPTH;
+    }
+}
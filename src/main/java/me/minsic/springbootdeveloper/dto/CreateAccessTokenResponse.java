@@ -7,4 +7,5 @@ import lombok.Getter;
 @Getter
 public class CreateAccessTokenResponse {
     private String accessToken;
+    private String refreshToken; // 요청의 리프레시 토큰은 더 쓸 수 없으므로 다음 재발급에는 이 값을 보낸다.
 }
@@ -0,0 +1,9 @@
+package me.minsic.springbootdeveloper.dto;
+
+import me.minsic.springbootdeveloper.domain.Article;
+
+import java.util.List;
+
+// 태그 조회 결과 한 페이지 (최신순, next는 다음 요청의 before, 마지막 페이지면 null)
+public record TaggedArticlePage(List<Article> articles, Long next) {
+}
@@ -0,0 +1,17 @@
+package me.minsic.springbootdeveloper.dto;
+
+import lombok.Getter;
+import me.minsic.springbootdeveloper.domain.Article;
+
+@Getter
+public class TrendingArticleResponse {
+    private final Long id;
+    private final String title;
+    private final long views; // 기간 동안의 추정 조회 수 (실제보다 조금 클 수 있다)
+
+    public TrendingArticleResponse(Article article, long views) {
+        this.id = article.getId();
+        this.title = article.getTitle();
+        this.views = views;
+    }
+}
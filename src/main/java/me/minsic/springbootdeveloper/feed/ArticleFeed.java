@@ -0,0 +1,186 @@
+package me.minsic.springbootdeveloper.feed;
+
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.domain.ArticleEventType;
+import me.minsic.springbootdeveloper.domain.ArticleOutboxEvent;
+import me.minsic.springbootdeveloper.outbox.ArticleEventListener;
+import me.minsic.springbootdeveloper.service.BlogService;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/*
+* 최근 글 피드(RSS 2.0, Atom)를 직렬화해 두고 글 변경 이벤트로 고쳐 나가는 클래스
+* - 최근 entries 개의 글마다 RSS item, Atom entry 조각을 한 번만 직렬화해서 보관한다.
+* - 문서는 머리말 + 조각들 + 맺음말을 바이트로 이어 붙여 만들고, 바뀔 때까지 같은 바이트를 내보낸다.
+* - 글이 추가, 수정되면 그 글의 조각만 다시 만들고(최근 글보다 오래된 글이면 무시), 문서는 다음 요청에서 다시 이어 붙인다.
+* - 피드 안의 글이 삭제되면 빈 자리를 채우기 위해 다음 요청에서 최근 글을 다시 읽는다.
+* - 이벤트 처리와 문서 만들기는 이 객체의 락으로 직렬화하고, 만들어 둔 문서를 읽을 때는 락을 잡지 않는다.
+* */
+@RequiredArgsConstructor
+@Component
+public class ArticleFeed implements ArticleEventListener {
+
+    private static final byte[] RSS_END = "</channel>\n</rss>\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ATOM_END = "</feed>\n".getBytes(StandardCharsets.UTF_8);
+
+    private final BlogService blogService;
+    private final FeedProperties properties;
+
+    private final NavigableMap<Long, Entry> entries = new TreeMap<>(Comparator.reverseOrder()); // 최신순
+    private boolean loaded;
+    private volatile FeedDocument rss;
+    private volatile FeedDocument atom;
+
+    // 글 하나의 직렬화된 조각
+    private record Entry(LocalDateTime updatedAt, byte[] rssItem, byte[] atomEntry) {
+    }
+
+    public FeedDocument rss() {
+        FeedDocument document = rss;
+        if (document != null) {
+            return document;
+        }
+        synchronized (this) {
+            load();
+            if (rss == null) {
+                rss = build(rssHeader(), Entry::rssItem, RSS_END);
+            }
+            return rss;
+        }
+    }
+
+    public FeedDocument atom() {
+        FeedDocument document = atom;
+        if (document != null) {
+            return document;
+        }
+        synchronized (this) {
+            load();
+            if (atom == null) {
+                atom = build(atomHeader(), Entry::atomEntry, ATOM_END);
+            }
+            return atom;
+        }
+    }
+
+    @Override
+    public synchronized void onEvent(ArticleOutboxEvent event) {
+        if (!loaded || event.getType() == ArticleEventType.TAGGED) {
+            return; // 아직 읽지 않았으면 처음 요청할 때 최신 상태로 읽는다. (피드에는 태그가 없다)
+        }
+        long id = event.getArticleId();
+        if (event.getType() == ArticleEventType.DELETED) {
+            if (entries.remove(id) != null) {
+                loaded = false;
+                invalidate();
+            }
+            return;
+        }
+        if (entries.size() >= properties.getEntries() && id < entries.lastKey()) {
+            return; // 피드에 들어가지 않는 오래된 글
+        }
+        Article article;
+        try {
+            article = blogService.findById(id);
+        } catch (IllegalArgumentException e) {
+            return; // 이미 삭제된 글 (DELETED 이벤트가 뒤따른다)
+        }
+        entries.put(id, entry(article));
+        while (entries.size() > properties.getEntries()) {
+            entries.pollLastEntry();
+        }
+        invalidate();
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        entries.clear();
+        for (Article article : blogService.findLatest(properties.getEntries())) {
+            entries.put(article.getId(), entry(article));
+        }
+        loaded = true;
+        invalidate();
+    }
+
+    private void invalidate() {
+        rss = null;
+        atom = null;
+    }
+
+    private FeedDocument build(String header, Function<Entry, byte[]> fragment, byte[] end) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(header.length() + entries.size() * 512);
+        out.writeBytes(header.getBytes(StandardCharsets.UTF_8));
+        for (Entry entry : entries.values()) {
+            out.writeBytes(fragment.apply(entry));
+        }
+        out.writeBytes(end);
+        return FeedDocument.of(out.toByteArray(), lastUpdated().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    // 피드 안의 글 중 가장 최근 수정 시각 (글이 없으면 2023-01-01)
+    private LocalDateTime lastUpdated() {
+        return entries.values().stream()
+                .map(Entry::updatedAt)
+                .max(Comparator.naturalOrder())
+                .orElse(LocalDateTime.of(2023, 1, 1, 0, 0));
+    }
+
+    private String rssHeader() {
+        String base = properties.getBaseUrl();
+        return FeedXml.DECLARATION
+                + "<rss version=\"2.0\" xmlns:atom=\"http://www.w3.org/2005/Atom\">\n<channel>\n"
+                + "<title>" + FeedXml.escape(properties.getTitle()) + "</title>\n"
+                + "<link>" + FeedXml.escape(base + "/articles") + "</link>\n"
+                + "<description>" + FeedXml.escape(properties.getDescription()) + "</description>\n"
+                + "<atom:link href=\"" + FeedXml.escape(base + "/rss.xml") + "\" rel=\"self\" type=\"application/rss+xml\"/>\n"
+                + "<lastBuildDate>" + FeedXml.rfc1123(lastUpdated()) + "</lastBuildDate>\n";
+    }
+
+    private String atomHeader() {
+        String base = properties.getBaseUrl();
+        return FeedXml.DECLARATION
+                + "<feed xmlns=\"http://www.w3.org/2005/Atom\">\n"
+                + "<title>" + FeedXml.escape(properties.getTitle()) + "</title>\n"
+                + "<id>" + FeedXml.escape(base + "/atom.xml") + "</id>\n"
+                + "<link rel=\"self\" href=\"" + FeedXml.escape(base + "/atom.xml") + "\"/>\n"
+                + "<link href=\"" + FeedXml.escape(base + "/articles") + "\"/>\n"
+                + "<author><name>" + FeedXml.escape(properties.getTitle()) + "</name></author>\n"
+                + "<updated>" + FeedXml.w3c(lastUpdated()) + "</updated>\n";
+    }
+
+    private Entry entry(Article article) {
+        String link = FeedXml.escape(properties.getBaseUrl() + "/articles/" + article.getId());
+        String title = FeedXml.escape(article.getTitle());
+        String summary = FeedXml.escape(FeedXml.summary(article.getContent(), properties.getSummaryLength()));
+        LocalDateTime createdAt = article.getCreatedAt() != null ? article.getCreatedAt() : LocalDateTime.now();
+        LocalDateTime updatedAt = article.getUpdatedAt() != null ? article.getUpdatedAt() : createdAt;
+
+        String rssItem = "<item>"
+                + "<title>" + title + "</title>"
+                + "<link>" + link + "</link>"
+                + "<guid isPermaLink=\"true\">" + link + "</guid>"
+                + "<pubDate>" + FeedXml.rfc1123(createdAt) + "</pubDate>"
+                + "<description>" + summary + "</description>"
+                + "</item>\n";
+        String atomEntry = "<entry>"
+                + "<title>" + title + "</title>"
+                + "<id>" + link + "</id>"
+                + "<link href=\"" + link + "\"/>"
+                + "<published>" + FeedXml.w3c(createdAt) + "</published>"
+                + "<updated>" + FeedXml.w3c(updatedAt) + "</updated>"
+                + "<summary>" + summary + "</summary>"
+                + "</entry>\n";
+        return new Entry(updatedAt, rssItem.getBytes(StandardCharsets.UTF_8), atomEntry.getBytes(StandardCharsets.UTF_8));
+    }
+}
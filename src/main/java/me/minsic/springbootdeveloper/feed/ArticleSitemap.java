@@ -0,0 +1,162 @@
+package me.minsic.springbootdeveloper.feed;
+
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.domain.ArticleOutboxEvent;
+import me.minsic.springbootdeveloper.dto.ArticleLastModified;
+import me.minsic.springbootdeveloper.outbox.ArticleEventListener;
+import me.minsic.springbootdeveloper.service.BlogService;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+* 사이트맵(sitemap.xml)을 id 구간별 파일로 나눠 직렬화해 두고, 글 변경 이벤트가 온 구간만 다시 만드는 클래스
+* - 파일 하나에 urlsPerFile 개까지 넣고, 넘으면 sitemap.xml은 sitemap-1.xml, sitemap-2.xml ...을 가리키는 색인 파일이 된다.
+* - 파일 i는 id가 [files[i].firstId, files[i+1].firstId) 인 글을 담는다. id는 시간 순서라서 새 글은 마지막 파일에 들어가고,
+*   마지막 파일이 가득 차면 넘친 글부터 새 파일로 나눈다. 앞 파일은 삭제로 줄어들기만 한다.
+* - 글이 추가, 수정, 삭제되면 그 id가 속한 파일만 비우고(다음 요청에서 그 구간만 다시 조회) 나머지 파일의 바이트는 그대로 쓴다.
+* - 크롤러 요청은 드물어서 조회도 이 객체의 락 안에서 한다.
+* */
+@RequiredArgsConstructor
+@Component
+public class ArticleSitemap implements ArticleEventListener {
+
+    private static final String NAMESPACE = "http://www.sitemaps.org/schemas/sitemap/0.9";
+    private static final LocalDateTime EMPTY = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+    private final BlogService blogService;
+    private final FeedProperties properties;
+
+    private final List<SitemapFile> files = new ArrayList<>(); // firstId 오름차순
+    private boolean loaded;
+    private FeedDocument index;
+
+    private static final class SitemapFile {
+        private final long firstId;
+        private FeedDocument document; // null이면 다시 만들어야 한다.
+        private LocalDateTime lastModified;
+
+        private SitemapFile(long firstId) {
+            this.firstId = firstId;
+        }
+    }
+
+    // 파일이 하나면 그 파일, 여러 개면 색인 파일
+    public synchronized FeedDocument root() {
+        refresh();
+        if (files.size() == 1) {
+            return files.get(0).document;
+        }
+        if (index == null) {
+            index = buildIndex();
+        }
+        return index;
+    }
+
+    // sitemap-{number}.xml (1부터, 파일이 하나뿐이면 sitemap.xml만 있으므로 없는 번호와 같이 null)
+    public synchronized FeedDocument numbered(int number) {
+        refresh();
+        if (files.size() == 1 || number < 1 || number > files.size()) {
+            return null;
+        }
+        return files.get(number - 1).document;
+    }
+
+    @Override
+    public synchronized void onEvent(ArticleOutboxEvent event) {
+        if (!loaded) {
+            return;
+        }
+        int position = find(event.getArticleId());
+        files.get(position).document = null;
+        index = null;
+    }
+
+    // 비워진 파일만 다시 만든다. (마지막 파일이 넘치면 files가 늘어난다)
+    private void refresh() {
+        load();
+        for (int i = 0; i < files.size(); i++) {
+            file(i);
+        }
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        files.clear();
+        files.add(new SitemapFile(0));
+        index = null;
+        loaded = true;
+    }
+
+    private FeedDocument file(int position) {
+        SitemapFile file = files.get(position);
+        if (file.document != null) {
+            return file.document;
+        }
+        int limit = properties.getUrlsPerFile();
+        boolean last = position == files.size() - 1;
+        long to = last ? Long.MAX_VALUE : files.get(position + 1).firstId;
+        List<ArticleLastModified> urls = blogService.findLastModified(file.firstId, to, limit + 1);
+        if (urls.size() > limit) {
+            // 마지막 파일만 넘칠 수 있다. 넘친 글부터 새 파일
+            files.add(position + 1, new SitemapFile(urls.get(limit).id()));
+            urls = urls.subList(0, limit);
+            index = null;
+        }
+
+        StringBuilder xml = new StringBuilder(FeedXml.DECLARATION.length() + urls.size() * 120);
+        xml.append(FeedXml.DECLARATION).append("<urlset xmlns=\"").append(NAMESPACE).append("\">\n");
+        LocalDateTime lastModified = EMPTY;
+        for (ArticleLastModified url : urls) {
+            xml.append("<url><loc>").append(FeedXml.escape(properties.getBaseUrl() + "/articles/" + url.id())).append("</loc>");
+            if (url.updatedAt() != null) {
+                xml.append("<lastmod>").append(FeedXml.w3c(url.updatedAt())).append("</lastmod>");
+                lastModified = url.updatedAt().isAfter(lastModified) ? url.updatedAt() : lastModified;
+            }
+            xml.append("</url>\n");
+        }
+        xml.append("</urlset>\n");
+        file.lastModified = lastModified;
+        file.document = FeedDocument.of(xml.toString().getBytes(StandardCharsets.UTF_8), epochMillis(lastModified));
+        return file.document;
+    }
+
+    private FeedDocument buildIndex() {
+        StringBuilder xml = new StringBuilder(FeedXml.DECLARATION);
+        xml.append("<sitemapindex xmlns=\"").append(NAMESPACE).append("\">\n");
+        LocalDateTime lastModified = EMPTY;
+        for (int i = 0; i < files.size(); i++) {
+            SitemapFile file = files.get(i);
+            xml.append("<sitemap><loc>").append(FeedXml.escape(properties.getBaseUrl() + "/sitemap-" + (i + 1) + ".xml"))
+                    .append("</loc><lastmod>").append(FeedXml.w3c(file.lastModified)).append("</lastmod></sitemap>\n");
+            lastModified = file.lastModified.isAfter(lastModified) ? file.lastModified : lastModified;
+        }
+        xml.append("</sitemapindex>\n");
+        return FeedDocument.of(xml.toString().getBytes(StandardCharsets.UTF_8), epochMillis(lastModified));
+    }
+
+    // id가 들어가는 파일 (firstId <= id 인 마지막 파일)
+    private int find(long id) {
+        int low = 0;
+        int high = files.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (files.get(middle).firstId <= id) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
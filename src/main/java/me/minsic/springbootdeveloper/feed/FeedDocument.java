@@ -0,0 +1,15 @@
+package me.minsic.springbootdeveloper.feed;
+
+import org.springframework.util.DigestUtils;
+
+/*
+* 직렬화해 둔 피드, 사이트맵 문서 (UTF-8 XML 바이트)
+* etag는 내용의 MD5라서 서버를 다시 시작해도 내용이 같으면 같다.
+* bytes는 여러 요청이 공유하므로 수정하면 안 된다.
+* */
+public record FeedDocument(byte[] bytes, String etag, long lastModified) {
+
+    public static FeedDocument of(byte[] bytes, long lastModified) {
+        return new FeedDocument(bytes, "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"", lastModified);
+    }
+}
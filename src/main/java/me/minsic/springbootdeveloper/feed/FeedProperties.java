@@ -0,0 +1,22 @@
+package me.minsic.springbootdeveloper.feed;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("feed") // application.yml의 feed 값을 가져온다.
+public class FeedProperties {
+    private String title = "블로그";                   // 피드 제목
+    private String description = "최근 글";            // RSS 채널 설명
+    private String baseUrl = "http://localhost:8080"; // 피드, 사이트맵의 링크에 붙이는 주소 (절대 주소가 필요하다)
+    private int entries = 50;                          // 피드에 넣는 최근 글 수
+    private int summaryLength = 200;                   // 피드의 본문 요약 길이(문자)
+    private int urlsPerFile = 50_000;                  // 사이트맵 파일 하나의 최대 URL 수 (프로토콜 한도 50,000개, 50MB)
+    private Duration maxAge = Duration.ofMinutes(5);   // 피드, 사이트맵 응답의 Cache-Control max-age
+}
@@ -0,0 +1,60 @@
+package me.minsic.springbootdeveloper.feed;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+// 피드, 사이트맵 XML을 직접 쓸 때 사용하는 값 변환
+final class FeedXml {
+
+    static final String DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n";
+
+    private FeedXml() {
+    }
+
+    // 텍스트, 속성 값에 넣을 수 있도록 특수 문자를 바꾸고, XML에서 쓸 수 없는 제어 문자는 뺀다.
+    static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                case '\'' -> escaped.append("&apos;");
+                default -> {
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+    // 앞에서 length 문자까지만 남긴 요약 (서로게이트 쌍을 자르지 않는다)
+    static String summary(String content, int length) {
+        if (content.length() <= length) {
+            return content;
+        }
+        int end = Character.isHighSurrogate(content.charAt(length - 1)) ? length - 1 : length;
+        return content.substring(0, end) + "…";
+    }
+
+    static ZonedDateTime zoned(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.SECONDS).atZone(ZoneId.systemDefault());
+    }
+
+    // Atom, 사이트맵 (W3C Datetime, 2023-01-01T09:00:00+09:00)
+    static String w3c(LocalDateTime time) {
+        return zoned(time).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+    }
+
+    // RSS (RFC 1123, Sun, 1 Jan 2023 09:00:00 +0900)
+    static String rfc1123(LocalDateTime time) {
+        return zoned(time).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+    }
+}
@@ -0,0 +1,15 @@
+package me.minsic.springbootdeveloper.outbox;
+
+import me.minsic.springbootdeveloper.domain.ArticleOutboxEvent;
+
+/*
+* 글 변경 이벤트를 받는 리스너 (캐시 무효화, 검색 색인, 피드 갱신 등)
+* 빈으로 등록하면 노드마다 OutboxRelay가 요청 처리와 별개로 호출한다. (모든 노드의 리스너가 모든 이벤트를 받는다)
+* - 같은 글의 이벤트는 발생한 순서대로 전달된다.
+* - 최소 한 번 전달(at-least-once)이므로 같은 이벤트를 다시 받아도 결과가 같도록 구현한다.
+* - 예외를 던지면 그 이벤트와 같은 글의 이후 이벤트는 다음 주기에 다시 전달된다.
+* */
+public interface ArticleEventListener {
+
+    void onEvent(ArticleOutboxEvent event);
+}
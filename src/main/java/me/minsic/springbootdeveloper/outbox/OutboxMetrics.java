@@ -0,0 +1,48 @@
+package me.minsic.springbootdeveloper.outbox;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+* 아웃박스 전달 현황
+* 지연(lag) : 이벤트가 기록된 시각부터 리스너에 전달을 마친 시각까지의 시간
+* */
+@Component
+public class OutboxMetrics {
+
+    private final LongAdder dispatched = new LongAdder(); // 이 노드에서 전달을 마친 이벤트 수
+    private final LongAdder failed = new LongAdder();     // 리스너가 실패해서 다시 전달할 이벤트 수 (누적)
+    private final LongAdder dropped = new LongAdder();    // maxAttempts 를 넘겨 버린 이벤트 수
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+
+    void recordDispatched(long lagMillis) {
+        dispatched.increment();
+        lastLagMillis.set(lagMillis);
+        maxLagMillis.accumulateAndGet(lagMillis, Math::max);
+    }
+
+    void recordFailed() {
+        failed.increment();
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    void recordBatch(int size) {
+        lastBatchSize.set(size);
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(dispatched.sum(), failed.sum(), dropped.sum(),
+                lastLagMillis.get(), maxLagMillis.get(), lastBatchSize.get());
+    }
+
+    public record Snapshot(long dispatched, long failed, long dropped,
+                           long lastLagMillis, long maxLagMillis, long lastBatchSize) {
+    }
+}
@@ -0,0 +1,21 @@
+package me.minsic.springbootdeveloper.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("outbox") // application.yml의 outbox 값을 가져온다.
+public class OutboxProperties {
+    private int batchSize = 500;   // 한 번에 읽어서 전달하는 이벤트 수
+    private int lanes = 4;         // 리스너를 동시에 호출하는 스레드 수 (같은 글은 항상 같은 스레드)
+    private int maxAttempts = 10;  // 이 횟수만큼 실패한 이벤트는 로그를 남기고 버린다.
+    private String consumerId = ""; // 노드 이름 (비우면 실행할 때마다 새로 정한다. 정해 두면 재시작 후 이어서 전달한다)
+    private Duration visibilityTimeout = Duration.ofMinutes(1); // 건너뛴 id의 이벤트가 늦게 커밋되기를 기다리는 시간 (가장 긴 트랜잭션보다 길게)
+    private Duration consumerTimeout = Duration.ofMinutes(5); // 이 시간 동안 기록이 없는 노드는 기다리지 않고 이벤트를 지운다.
+}
@@ -0,0 +1,362 @@
+package me.minsic.springbootdeveloper.outbox;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.minsic.springbootdeveloper.domain.ArticleOutboxConsumer;
+import me.minsic.springbootdeveloper.domain.ArticleOutboxEvent;
+import me.minsic.springbootdeveloper.repository.ArticleOutboxConsumerRepository;
+import me.minsic.springbootdeveloper.repository.ArticleOutboxRepository;
+import me.minsic.springbootdeveloper.shard.ShardTemplate;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+* 아웃박스 테이블의 이벤트를 백그라운드에서 이 노드의 리스너에 전달하는 작업
+* - 리스너가 노드의 메모리(캐시, 색인)를 고치므로 모든 노드가 모든 이벤트를 받는다. (팬아웃)
+* - 샤드마다 이 노드가 마지막으로 읽은 id(오프셋) 다음부터 batchSize 개씩 읽는다.
+* - id는 저장할 때 받지만 커밋은 순서가 바뀔 수 있다. (10번을 저장한 트랜잭션이 11번보다 늦게 커밋)
+*   그래서 읽다가 건너뛴 id(빈 구간)는 기억해 두고 주기마다 다시 찾는다. visibility-timeout 이 지나도 없으면
+*   롤백된 것으로 보고 잊는다. 빈 구간이 남아 있는 동안에는 그 앞까지만 전달을 마친 것으로 기록한다. (지우지 않는다)
+* - 글 id로 레인(스레드)을 나눠 레인끼리는 동시에, 레인 안에서는 id 순서대로 전달한다. (같은 글의 순서 보장)
+* - 실패한 이벤트와 그 글의 이후 이벤트는 이 노드의 메모리에 두었다가 다음 주기에 다시 전달한다. (at-least-once)
+* - 전달을 마친 위치를 ArticleOutboxConsumer에 기록하고, 살아 있는 모든 노드가 지나간 이벤트만 지운다.
+* */
+@Slf4j
+@Component
+public class OutboxRelay implements SmartLifecycle {
+
+    private final ArticleOutboxRepository outboxRepository;
+    private final ArticleOutboxConsumerRepository consumerRepository;
+    private final List<ArticleEventListener> listeners;
+    private final ShardTemplate shardTemplate;
+    private final OutboxProperties outboxProperties;
+    private final OutboxMetrics outboxMetrics;
+    private final ExecutorService lanes;
+    private final String consumerId;
+    private final boolean fixedConsumerId; // 이름을 정해 둔 노드는 재시작 후 이어서 읽도록 종료할 때 기록을 남긴다.
+    private volatile Cursor[] cursors; // start() 전에는 null
+
+    public OutboxRelay(ArticleOutboxRepository outboxRepository, ArticleOutboxConsumerRepository consumerRepository,
+                       List<ArticleEventListener> listeners, ShardTemplate shardTemplate,
+                       OutboxProperties outboxProperties, OutboxMetrics outboxMetrics) {
+        this.outboxRepository = outboxRepository;
+        this.consumerRepository = consumerRepository;
+        this.listeners = listeners;
+        this.shardTemplate = shardTemplate;
+        this.outboxProperties = outboxProperties;
+        this.outboxMetrics = outboxMetrics;
+        this.fixedConsumerId = StringUtils.hasText(outboxProperties.getConsumerId());
+        this.consumerId = fixedConsumerId ? outboxProperties.getConsumerId() : UUID.randomUUID().toString();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.lanes = Executors.newFixedThreadPool(outboxProperties.getLanes(), runnable -> {
+            Thread thread = new Thread(runnable, "outbox-lane-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /*
+    * 샤드마다 읽기 시작할 위치를 정한다.
+    * 처음 뜬 노드는 지금 있는 이벤트를 건너뛴다. (리스너는 이미 그 변경이 반영된 DB에서 상태를 만든다)
+    * 이름을 정해 둔 노드가 consumer-timeout 안에 다시 뜨면 기록한 위치부터 이어서 읽는다.
+    * 모든 샤드에 테이블이 만들어진 뒤, 요청을 받기 전에 실행한다. (웹 서버보다 phase가 작다)
+    * */
+    @Override
+    public synchronized void start() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = now.minus(outboxProperties.getConsumerTimeout());
+        Cursor[] cursors = new Cursor[shardTemplate.shardCount()];
+        for (int shard = 0; shard < cursors.length; shard++) {
+            long offset = shardTemplate.inTransaction(shard, () -> {
+                ArticleOutboxConsumer consumer = consumerRepository.findById(consumerId)
+                        .filter(found -> found.getHeartbeatAt().isAfter(since))
+                        .orElse(null);
+                long lastEventId = consumer != null ? consumer.getLastEventId() : outboxRepository.findMaxId();
+                consumerRepository.save(new ArticleOutboxConsumer(consumerId, lastEventId, now));
+                return lastEventId;
+            });
+            cursors[shard] = new Cursor(offset, now);
+        }
+        this.cursors = cursors;
+    }
+
+    // 이름이 없는 노드는 다시 오지 않으므로 기록을 지워 다른 노드가 timeout 까지 기다리지 않게 한다.
+    @Override
+    public synchronized void stop() {
+        cursors = null;
+        if (fixedConsumerId) {
+            return;
+        }
+        for (int shard = 0; shard < shardTemplate.shardCount(); shard++) {
+            try {
+                shardTemplate.inTransaction(shard, () -> consumerRepository.findById(consumerId).ifPresent(consumerRepository::delete));
+            } catch (RuntimeException e) {
+                // 남은 기록은 consumer-timeout 이 지나면 다른 노드가 지운다.
+                log.warn("Failed to remove outbox consumer {} from shard {}: {}", consumerId, shard, e.toString());
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return cursors != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @PreDestroy
+    public void close() {
+        lanes.shutdown();
+    }
+
+    // 시작 직후에는 실행하지 않는다. (기동과 동시에 도는 첫 실행이 테스트나 초기 작업과 겹치지 않도록)
+    @Scheduled(fixedDelayString = "${outbox.poll-interval}", initialDelayString = "${outbox.poll-interval}")
+    public synchronized void relay() {
+        Cursor[] current = cursors;
+        if (current == null) {
+            return;
+        }
+        for (int shard = 0; shard < current.length; shard++) {
+            int target = shard;
+            shardTemplate.execute(target, () -> relayShard(target, current[target]));
+        }
+    }
+
+    // 가득 찬 묶음을 읽으면 바로 다음 묶음을 읽는다.
+    private void relayShard(int shard, Cursor cursor) {
+        retryPending(cursor);
+        retryGaps(cursor);
+        int batchSize = outboxProperties.getBatchSize();
+        List<ArticleOutboxEvent> batch;
+        do {
+            batch = outboxRepository.findByIdGreaterThanOrderByIdAsc(cursor.offset, PageRequest.of(0, batchSize));
+            outboxMetrics.recordBatch(batch.size());
+            if (batch.isEmpty()) {
+                break;
+            }
+            cursor.addGaps(cursor.offset, batch, LocalDateTime.now());
+            dispatch(cursor, batch);
+            cursor.offset = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == batchSize);
+        commit(shard, cursor);
+    }
+
+    private void dispatch(Cursor cursor, List<ArticleOutboxEvent> batch) {
+        int laneCount = outboxProperties.getLanes();
+        List<List<ArticleOutboxEvent>> partitions = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (ArticleOutboxEvent event : batch) {
+            Deque<Pending> waiting = cursor.pending.get(event.getArticleId());
+            if (waiting != null) {
+                waiting.addLast(new Pending(event)); // 앞선 이벤트가 다시 전달되기를 기다리는 글
+                continue;
+            }
+            int hash = (int) ((event.getArticleId() * 0x9E3779B97F4A7C15L) >>> 32); // id의 아래 비트가 몰려 있어 섞어서 나눈다.
+            partitions.get(Math.floorMod(hash, laneCount)).add(event);
+        }
+
+        List<CompletableFuture<List<Pending>>> futures = partitions.stream()
+                .filter(partition -> !partition.isEmpty())
+                .map(partition -> CompletableFuture.supplyAsync(() -> deliver(partition), lanes))
+                .toList();
+        for (CompletableFuture<List<Pending>> future : futures) {
+            for (Pending failed : future.join()) {
+                cursor.pending.computeIfAbsent(failed.event.getArticleId(), articleId -> new ArrayDeque<>()).addLast(failed);
+            }
+        }
+    }
+
+    /*
+    * 한 레인의 이벤트를 순서대로 전달하고, 다시 전달할 이벤트를 돌려준다.
+    * 어떤 글의 이벤트가 실패하면 그 글의 이후 이벤트는 전달하지 않고 같이 돌려준다.
+    * */
+    private List<Pending> deliver(List<ArticleOutboxEvent> events) {
+        List<Pending> failed = new ArrayList<>();
+        Set<Long> blockedArticles = new HashSet<>();
+        for (ArticleOutboxEvent event : events) {
+            Pending pending = new Pending(event);
+            if (blockedArticles.contains(event.getArticleId())) {
+                failed.add(pending);
+            } else if (!pending.attempt()) {
+                failed.add(pending);
+                blockedArticles.add(event.getArticleId());
+            }
+        }
+        return failed;
+    }
+
+    /*
+    * 빈 구간에 늦게 커밋된 이벤트가 있으면 전달하고, 찾은 이벤트 사이와 뒤는 계속 빈 구간으로 둔다.
+    * visibility-timeout 보다 오래된 빈 구간은 버린다. (롤백된 트랜잭션, DB가 건너뛴 id)
+    * 같은 글의 이벤트는 커밋 순서대로 id를 받으므로 늦게 커밋된 이벤트보다 먼저 전달한 같은 글의 이벤트는 없다.
+    * */
+    private void retryGaps(Cursor cursor) {
+        if (cursor.gaps.isEmpty()) {
+            return;
+        }
+        LocalDateTime expired = LocalDateTime.now().minus(outboxProperties.getVisibilityTimeout());
+        List<ArticleOutboxEvent> found = new ArrayList<>();
+        for (Map.Entry<Long, Gap> entry : new ArrayList<>(cursor.gaps.entrySet())) {
+            long from = entry.getKey();
+            Gap gap = entry.getValue();
+            List<ArticleOutboxEvent> events = outboxRepository.findByIdBetweenOrderByIdAsc(from, gap.to(),
+                    PageRequest.of(0, outboxProperties.getBatchSize()));
+            if (!events.isEmpty()) {
+                cursor.gaps.remove(from);
+                cursor.addGaps(from - 1, events, gap.since());
+                long last = events.get(events.size() - 1).getId();
+                if (last < gap.to()) {
+                    cursor.gaps.put(last + 1, gap); // 묶음이 가득 찼으면 나머지는 다음 주기에 읽는다.
+                }
+                found.addAll(events);
+            } else if (gap.since().isBefore(expired)) {
+                cursor.gaps.remove(from);
+            }
+        }
+        if (!found.isEmpty()) {
+            found.sort(Comparator.comparing(ArticleOutboxEvent::getId));
+            outboxMetrics.recordBatch(found.size());
+            dispatch(cursor, found);
+        }
+    }
+
+    // 실패한 글의 이벤트를 앞에서부터 다시 전달한다. 또 실패하면 그 글은 다음 주기로 미룬다.
+    private void retryPending(Cursor cursor) {
+        Iterator<Deque<Pending>> articles = cursor.pending.values().iterator();
+        while (articles.hasNext()) {
+            Deque<Pending> events = articles.next();
+            while (!events.isEmpty() && events.peekFirst().attempt()) {
+                events.removeFirst();
+            }
+            if (events.isEmpty()) {
+                articles.remove();
+            }
+        }
+    }
+
+    /*
+    * 전달을 마친 위치를 기록하고 모든 노드가 지나간 이벤트를 지운다.
+    * 위치가 그대로면 consumer-timeout 의 1/3 마다 한 번만 기록한다. (살아 있다는 표시)
+    * */
+    private void commit(int shard, Cursor cursor) {
+        long committed = cursor.committedOffset();
+        LocalDateTime now = LocalDateTime.now();
+        Duration timeout = outboxProperties.getConsumerTimeout();
+        if (committed == cursor.committed && cursor.committedAt.plus(timeout.dividedBy(3)).isAfter(now)) {
+            return;
+        }
+        shardTemplate.inTransaction(shard, () -> {
+            consumerRepository.findById(consumerId)
+                    .ifPresentOrElse(consumer -> consumer.advance(committed, now),
+                            () -> consumerRepository.save(new ArticleOutboxConsumer(consumerId, committed, now)));
+            LocalDateTime since = now.minus(timeout);
+            consumerRepository.deleteExpired(since);
+            Long consumedByAll = consumerRepository.findMinLastEventId(since);
+            if (consumedByAll != null) {
+                outboxRepository.deleteUpTo(consumedByAll);
+            }
+        });
+        cursor.committed = committed;
+        cursor.committedAt = now;
+    }
+
+    // 샤드 하나에서 이 노드가 읽은 위치와 다시 전달할 이벤트 (relay()를 실행하는 스레드만 바꾼다)
+    private static final class Cursor {
+
+        long offset; // 여기까지 읽었다. (빈 구간 제외)
+        long committed;
+        LocalDateTime committedAt;
+        final Map<Long, Deque<Pending>> pending = new LinkedHashMap<>(); // 글 id -> 다시 전달할 이벤트 (id 순서)
+        final TreeMap<Long, Gap> gaps = new TreeMap<>(); // 빈 구간의 첫 id -> 끝 id, 처음 발견한 시각
+
+        Cursor(long offset, LocalDateTime committedAt) {
+            this.offset = offset;
+            this.committed = offset;
+            this.committedAt = committedAt;
+        }
+
+        // after 다음부터 id 순서로 읽은 events 사이에 비어 있는 id를 빈 구간으로 기억한다.
+        void addGaps(long after, List<ArticleOutboxEvent> events, LocalDateTime since) {
+            long expected = after + 1;
+            for (ArticleOutboxEvent event : events) {
+                if (event.getId() > expected) {
+                    gaps.put(expected, new Gap(event.getId() - 1, since));
+                }
+                expected = event.getId() + 1;
+            }
+        }
+
+        // 다시 전달할 이벤트나 빈 구간이 있으면 그 앞까지만 전달을 마친 것으로 기록한다. (재시작하면 거기서부터 다시 읽는다)
+        long committedOffset() {
+            long result = gaps.isEmpty() ? offset : Math.min(offset, gaps.firstKey() - 1);
+            for (Deque<Pending> events : pending.values()) {
+                result = Math.min(result, events.peekFirst().event.getId() - 1);
+            }
+            return result;
+        }
+    }
+
+    private record Gap(long to, LocalDateTime since) {
+    }
+
+    private final class Pending {
+
+        final ArticleOutboxEvent event;
+        int attempts; // 이 노드에서 실패한 횟수
+
+        Pending(ArticleOutboxEvent event) {
+            this.event = event;
+        }
+
+        // 모든 리스너에 전달한다. 성공했거나 maxAttempts 번 실패해서 버렸으면 true
+        boolean attempt() {
+            try {
+                for (ArticleEventListener listener : listeners) {
+                    listener.onEvent(event);
+                }
+                outboxMetrics.recordDispatched(Duration.between(event.getOccurredAt(), LocalDateTime.now()).toMillis());
+                return true;
+            } catch (RuntimeException e) {
+                attempts++;
+                if (attempts >= outboxProperties.getMaxAttempts()) {
+                    log.error("Dropping outbox event {} ({} of article {}) after {} attempts",
+                            event.getId(), event.getType(), event.getArticleId(), attempts, e);
+                    outboxMetrics.recordDropped();
+                    return true;
+                }
+                log.warn("Outbox event {} ({} of article {}) failed, will retry",
+                        event.getId(), event.getType(), event.getArticleId(), e);
+                outboxMetrics.recordFailed();
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package me.minsic.springbootdeveloper.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.function.Supplier;
+
+// BlogService의 글 조회, 저장, 수정, 삭제 한 번
+@Name("me.minsic.blog.ArticleOperation")
+@Label("Article Operation")
+@Category({"Blog", "Service"})
+@StackTrace(false)
+public class ArticleOperationEvent extends BlogEvent {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Article Id")
+    long articleId;
+
+    public static <T> T record(String operation, long articleId, Supplier<T> action) {
+        ArticleOperationEvent event = new ArticleOperationEvent();
+        event.operation = operation;
+        event.articleId = articleId;
+        return event.measure(action);
+    }
+
+    public static void record(String operation, long articleId, Runnable action) {
+        record(operation, articleId, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package me.minsic.springbootdeveloper.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+import java.util.function.Supplier;
+
+/*
+* 블로그 JFR 이벤트 공통 (결과 필드, 실행 시간을 재는 도우미)
+* 기록 중이 아니면 begin(), commit()은 아무 일도 하지 않고, 이벤트 객체도 JIT이 스택에서 없앤다.
+* 그래서 필드 값은 바로 넣고, 값을 만드는 데 비용이 드는 경우에만 shouldCommit()으로 확인한다.
+* */
+@Category("Blog")
+public abstract class BlogEvent extends Event {
+
+    public static final String SUCCESS = "success";
+
+    @Label("Outcome")
+    @Description("success, 또는 실패한 예외의 클래스 이름")
+    protected String outcome;
+
+    // action 실행 시간을 기록한다. 예외는 결과에 남기고 그대로 던진다.
+    protected <T> T measure(Supplier<T> action) {
+        begin();
+        try {
+            T result = action.get();
+            outcome = SUCCESS;
+            return result;
+        } catch (RuntimeException | Error e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            commit();
+        }
+    }
+
+    protected static String outcomeOf(Throwable failure) {
+        return failure == null ? SUCCESS : failure.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,24 @@
+package me.minsic.springbootdeveloper.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// BCrypt 해시 한 번 (회원 가입의 encode, 로그인의 matches : 결과 match, mismatch)
+@Name("me.minsic.blog.PasswordHash")
+@Label("Password Hash")
+@Category({"Blog", "Security"})
+@StackTrace(false)
+public class PasswordHashEvent extends BlogEvent {
+
+    public static final String MATCH = "match";
+    public static final String MISMATCH = "mismatch";
+
+    @Label("Operation")
+    String operation;
+
+    PasswordHashEvent(String operation) {
+        this.operation = operation;
+    }
+}
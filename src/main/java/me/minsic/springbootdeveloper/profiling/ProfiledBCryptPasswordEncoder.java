@@ -0,0 +1,28 @@
+package me.minsic.springbootdeveloper.profiling;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+// BCrypt 해시 시간을 PasswordHashEvent로 기록하는 인코더 (해시 방식은 BCryptPasswordEncoder 그대로)
+public class ProfiledBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return new PasswordHashEvent("encode").measure(() -> super.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordHashEvent event = new PasswordHashEvent("matches");
+        event.begin();
+        try {
+            boolean matched = super.matches(rawPassword, encodedPassword);
+            event.outcome = matched ? PasswordHashEvent.MATCH : PasswordHashEvent.MISMATCH;
+            return matched;
+        } catch (RuntimeException e) {
+            event.outcome = BlogEvent.outcomeOf(e);
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package me.minsic.springbootdeveloper.profiling;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// 뷰 렌더링 JFR 이벤트 설정
+@Configuration
+public class ProfilingConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new TemplateRenderInterceptor());
+    }
+}
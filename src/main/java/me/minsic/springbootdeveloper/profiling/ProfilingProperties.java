@@ -0,0 +1,23 @@
+package me.minsic.springbootdeveloper.profiling;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("profiling") // application.yml의 profiling 값을 가져온다.
+public class ProfilingProperties {
+    private List<String> admins = new ArrayList<>();          // 기록을 시작, 중지할 수 있는 사용자 이메일
+    private String settings = "default";                      // JDK 기본 이벤트 설정 (default : 1% 안팎, profile : 2% 안팎의 부하)
+    private Duration maxDuration = Duration.ofMinutes(5);     // 한 번에 기록할 수 있는 최대 시간 (지나면 스스로 멈춘다)
+    private DataSize maxSize = DataSize.ofMegabytes(64);      // 기록 파일의 최대 크기 (넘으면 오래된 데이터부터 버린다)
+    private Duration threshold = Duration.ZERO;               // 블로그 이벤트를 남기는 최소 실행 시간
+}
@@ -0,0 +1,115 @@
+package me.minsic.springbootdeveloper.profiling;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/*
+* 요청으로 시작하고 멈추는 JFR 기록 (한 번에 하나)
+* - 기록 시간(maxDuration)과 파일 크기(maxSize)에 상한이 있어서 멈추는 것을 잊어도 스스로 끝난다.
+* - JDK 기본 설정(settings)에 블로그 이벤트(글 작업, 토큰 검증, BCrypt, 템플릿 렌더링)를 더해서 기록한다.
+* - 멈추면 임시 파일에 쓴 .jfr을 응답으로 복사한 뒤 지운다. 기록 중이 아닐 때는 이벤트를 남기지 않으므로 부하가 없다.
+* */
+@RequiredArgsConstructor
+@Component
+public class ProfilingRecorder {
+
+    private static final List<Class<? extends BlogEvent>> EVENTS = List.of(ArticleOperationEvent.class,
+            TokenVerificationEvent.class, PasswordHashEvent.class, TemplateRenderEvent.class);
+
+    private final ProfilingProperties properties;
+    private Recording recording;
+    private Path file;
+
+    public record Status(long id, String state, Instant startTime, Duration duration, long maxSize) {
+    }
+
+    // duration 동안 기록을 시작한다. (maxDuration보다 길면 maxDuration)
+    public synchronized Status start(Duration duration) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("a recording is already running: " + recording.getId());
+        }
+        discard();
+
+        Duration bounded = duration.compareTo(properties.getMaxDuration()) > 0 ? properties.getMaxDuration() : duration;
+        try {
+            Recording created = new Recording(Configuration.getConfiguration(properties.getSettings()));
+            for (Class<? extends BlogEvent> event : EVENTS) {
+                created.enable(event).withThreshold(properties.getThreshold());
+            }
+            created.setName("blog-profiling");
+            created.setDuration(bounded);
+            created.setMaxSize(properties.getMaxSize().toBytes());
+            created.setToDisk(true);
+            file = Files.createTempFile("blog-profiling-", ".jfr");
+            created.setDestination(file);
+            created.start();
+            recording = created;
+        } catch (IOException e) {
+            discard();
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("invalid jfr settings: " + properties.getSettings(), e);
+        }
+        return status();
+    }
+
+    public synchronized Status status() {
+        if (recording == null) {
+            return new Status(0, RecordingState.CLOSED.name(), null, null, 0);
+        }
+        return new Status(recording.getId(), recording.getState().name(), recording.getStartTime(),
+                recording.getDuration(), recording.getMaxSize());
+    }
+
+    // 기록을 멈추고(시간이 지나 이미 멈췄으면 그대로) .jfr 파일을 output에 쓴 뒤 지운다.
+    public void stop(OutputStream output) throws IOException {
+        Path written;
+        synchronized (this) {
+            if (recording == null) {
+                throw new IllegalStateException("no recording");
+            }
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop(); // destination 파일에 쓴다.
+            }
+            recording.close();
+            recording = null;
+            written = file;
+            file = null;
+        }
+        try {
+            Files.copy(written, output);
+        } finally {
+            Files.deleteIfExists(written);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // 임시 디렉터리의 파일이라 남아도 다음 정리 때 지워진다.
+            }
+            file = null;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package me.minsic.springbootdeveloper.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// 타임리프 템플릿 렌더링 한 번 (글 화면이면 URL의 글 id, 아니면 0)
+@Name("me.minsic.blog.TemplateRender")
+@Label("Template Render")
+@Category({"Blog", "View"})
+@StackTrace(false)
+public class TemplateRenderEvent extends BlogEvent {
+
+    @Label("Template")
+    String template;
+
+    @Label("Article Id")
+    long articleId;
+
+    public TemplateRenderEvent(String template, long articleId) {
+        this.template = template;
+        this.articleId = articleId;
+    }
+
+    // 렌더링이 끝나면 실패 원인(없으면 null)과 함께 호출한다.
+    public void finish(Throwable failure) {
+        outcome = outcomeOf(failure);
+        commit();
+    }
+}
@@ -0,0 +1,52 @@
+package me.minsic.springbootdeveloper.profiling;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.Map;
+
+/*
+* 컨트롤러가 돌려준 뷰의 렌더링을 TemplateRenderEvent로 기록하는 인터셉터
+* postHandle(렌더링 직전)에 시작하고 afterCompletion(렌더링 직후)에 끝낸다.
+* 기록 중이 아니면 이벤트를 요청에 남기지 않는다. 응답을 직접 쓰는 스트리밍 목록은 렌더러에서 따로 기록한다.
+* */
+public class TemplateRenderInterceptor implements HandlerInterceptor {
+
+    private static final String EVENT_ATTRIBUTE = TemplateRenderInterceptor.class.getName() + ".EVENT";
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView == null || modelAndView.getViewName() == null || modelAndView.getViewName().startsWith("redirect:")) {
+            return;
+        }
+        TemplateRenderEvent event = new TemplateRenderEvent(modelAndView.getViewName(), 0);
+        if (event.isEnabled()) {
+            event.articleId = articleId(request);
+            event.begin();
+            request.setAttribute(EVENT_ATTRIBUTE, event);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(EVENT_ATTRIBUTE) instanceof TemplateRenderEvent event) {
+            request.removeAttribute(EVENT_ATTRIBUTE);
+            event.finish(ex);
+        }
+    }
+
+    // /articles/{id} 처럼 URL에 글 id가 있으면 그 값, 글 수정 화면은 ?id=
+    private static long articleId(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String id = variables instanceof Map<?, ?> map && map.get("id") instanceof String value ? value : request.getParameter("id");
+        try {
+            return id == null ? 0 : Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package me.minsic.springbootdeveloper.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.function.BooleanSupplier;
+
+// TokenProvider의 JWT 서명 검증 한 번 (결과 : valid, invalid)
+@Name("me.minsic.blog.TokenVerification")
+@Label("Token Verification")
+@Category({"Blog", "Security"})
+@StackTrace(false)
+public class TokenVerificationEvent extends BlogEvent {
+
+    public static final String VALID = "valid";
+    public static final String INVALID = "invalid";
+
+    public static boolean record(BooleanSupplier verification) {
+        TokenVerificationEvent event = new TokenVerificationEvent();
+        event.begin();
+        boolean valid = verification.getAsBoolean(); // 검증 실패는 예외가 아니라 false로 온다.
+        event.outcome = valid ? VALID : INVALID;
+        event.commit();
+        return valid;
+    }
+}
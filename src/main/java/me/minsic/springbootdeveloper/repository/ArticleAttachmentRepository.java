@@ -0,0 +1,20 @@
+package me.minsic.springbootdeveloper.repository;
+
+import me.minsic.springbootdeveloper.domain.ArticleAttachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ArticleAttachmentRepository extends JpaRepository<ArticleAttachment, Long> {
+
+    List<ArticleAttachment> findByArticleIdOrderByIdAsc(long articleId);
+
+    Optional<ArticleAttachment> findByIdAndArticleId(long id, long articleId);
+
+    // uk_article_attachment로 이미 저장된 첨부 파일
+    Optional<ArticleAttachment> findByArticleIdAndHashAndFileName(long articleId, String hash, String fileName);
+
+    // 같은 내용(해시)을 가리키는 첨부 파일 수 (0이면 디스크의 파일을 지워도 된다)
+    long countByHash(String hash);
+}
@@ -0,0 +1,39 @@
+package me.minsic.springbootdeveloper.repository;
+
+import me.minsic.springbootdeveloper.domain.ArticleComment;
+import me.minsic.springbootdeveloper.dto.CommentCount;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ArticleCommentRepository extends JpaRepository<ArticleComment, Long> {
+
+    Optional<ArticleComment> findByIdAndArticleId(long id, long articleId);
+
+    // 커서(after) 다음 최상위 댓글을 작성 순서로 조회 (article_id, parent_id, id 인덱스 범위 조회)
+    @Query("select c from ArticleComment c where c.articleId = :articleId and c.parentId is null and c.id > :after order by c.id")
+    List<ArticleComment> findTopLevel(@Param("articleId") long articleId, @Param("after") long after, Pageable pageable);
+
+    // 커서(after) 다음 답글을 작성 순서로 조회
+    @Query("select c from ArticleComment c where c.parentId = :parentId and c.id > :after order by c.id")
+    List<ArticleComment> findReplies(@Param("parentId") long parentId, @Param("after") long after, Pageable pageable);
+
+    // 목록 페이지의 글별 댓글 수를 한 번에 조회 (댓글이 없는 글은 결과에 없다)
+    @Query("select new me.minsic.springbootdeveloper.dto.CommentCount(c.articleId, count(c)) from ArticleComment c " +
+            "where c.articleId in :articleIds group by c.articleId")
+    List<CommentCount> countByArticleIds(@Param("articleIds") List<Long> articleIds);
+
+    // 댓글 페이지의 댓글별 답글 수를 한 번에 조회
+    @Query("select new me.minsic.springbootdeveloper.dto.CommentCount(c.parentId, count(c)) from ArticleComment c " +
+            "where c.parentId in :parentIds group by c.parentId")
+    List<CommentCount> countByParentIds(@Param("parentIds") List<Long> parentIds);
+
+    @Modifying
+    @Query("delete from ArticleComment c where c.articleId = :articleId")
+    int deleteByArticleId(@Param("articleId") long articleId);
+}
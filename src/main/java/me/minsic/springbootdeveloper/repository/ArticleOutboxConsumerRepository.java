@@ -0,0 +1,20 @@
+package me.minsic.springbootdeveloper.repository;
+
+import me.minsic.springbootdeveloper.domain.ArticleOutboxConsumer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface ArticleOutboxConsumerRepository extends JpaRepository<ArticleOutboxConsumer, String> {
+
+    // 살아 있는 노드가 모두 전달을 마친 마지막 이벤트 id (노드가 없으면 null)
+    @Query("select min(c.lastEventId) from ArticleOutboxConsumer c where c.heartbeatAt > :since")
+    Long findMinLastEventId(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("delete from ArticleOutboxConsumer c where c.heartbeatAt <= :since")
+    int deleteExpired(@Param("since") LocalDateTime since);
+}
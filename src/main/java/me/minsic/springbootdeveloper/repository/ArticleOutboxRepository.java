@@ -0,0 +1,35 @@
+package me.minsic.springbootdeveloper.repository;
+
+import me.minsic.springbootdeveloper.domain.ArticleOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ArticleOutboxRepository extends JpaRepository<ArticleOutboxEvent, Long> {
+
+    // id 다음의 이벤트를 오래된(id가 작은) 것부터 한 묶음 조회
+    List<ArticleOutboxEvent> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    // 빈 구간(from ~ to)에 늦게 커밋된 이벤트를 id 순서로 조회
+    List<ArticleOutboxEvent> findByIdBetweenOrderByIdAsc(long from, long to, Pageable pageable);
+
+    @Query("select coalesce(max(e.id), 0) from ArticleOutboxEvent e")
+    long findMaxId();
+
+    // 모든 노드가 전달을 마친 이벤트를 지운다.
+    @Modifying
+    @Query("delete from ArticleOutboxEvent e where e.id <= :id")
+    int deleteUpTo(@Param("id") long id);
+
+    // 테이블에 있는 글마다 같은 종류의 이벤트를 한 문장으로 기록 (글을 엔티티로 읽어오지 않는다)
+    @Modifying
+    @Query(value = "insert into article_outbox (article_id, type, occurred_at) " +
+            "select id, cast(:type as varchar(16)), cast(:now as timestamp) from article where id in (:ids) order by id",
+            nativeQuery = true)
+    int insertAll(@Param("ids") List<Long> ids, @Param("type") String type, @Param("now") LocalDateTime now);
+}
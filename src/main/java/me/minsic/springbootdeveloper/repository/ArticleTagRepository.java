@@ -0,0 +1,20 @@
+package me.minsic.springbootdeveloper.repository;
+
+import me.minsic.springbootdeveloper.domain.ArticleTag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ArticleTagRepository extends JpaRepository<ArticleTag, Long> {
+
+    @Query("select t.name from ArticleTag t where t.articleId = :articleId order by t.name")
+    List<String> findNamesByArticleId(@Param("articleId") long articleId);
+
+    // 새 태그를 넣기 전에 바로 지운다. (flush 순서상 delete가 insert보다 늦게 실행되면 유니크 키에 걸린다)
+    @Modifying
+    @Query("delete from ArticleTag t where t.articleId = :articleId")
+    int deleteByArticleId(@Param("articleId") long articleId);
+}
@@ -1,7 +1,103 @@
 package me.minsic.springbootdeveloper.repository;
 
+import jakarta.persistence.LockModeType;
 import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.dto.ArticleLastModified;
+import me.minsic.springbootdeveloper.dto.ArticleTitle;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 public interface BlogRepository extends JpaRepository<Article, Long> {
+
+    // 커서(after) 다음 글을 id 순서로 조회 (샤드마다 실행한 뒤 합친다)
+    List<Article> findByIdGreaterThanOrderByIdAsc(long after, Pageable pageable);
+
+    // 최근 글 (id가 시간 순서라서 id 내림차순 = 최신순)
+    List<Article> findByOrderByIdDesc(Pageable pageable);
+
+    // id가 from 이상 to 미만인 글의 id, 수정 시각만 id 순서로 조회 (본문을 읽지 않는다)
+    @Query("select new me.minsic.springbootdeveloper.dto.ArticleLastModified(a.id, a.updatedAt) from Article a " +
+            "where a.id >= :from and a.id < :to order by a.id")
+    List<ArticleLastModified> findLastModified(@Param("from") long from, @Param("to") long to, Pageable pageable);
+
+    // 모든 글의 id만 id 순서로 조회 (태그 색인을 만들 때 사용)
+    @Query("select a.id from Article a order by a.id")
+    List<Long> findAllIds();
+
+    // 글 하나의 id, 수정 시각만 조회 (본문을 읽지 않는다)
+    @Query("select new me.minsic.springbootdeveloper.dto.ArticleLastModified(a.id, a.updatedAt) from Article a where a.id = :id")
+    Optional<ArticleLastModified> findLastModifiedById(@Param("id") long id);
+
+    // id가 after보다 큰 글의 id, 제목만 id 순서로 조회 (본문을 읽지 않는다)
+    @Query("select new me.minsic.springbootdeveloper.dto.ArticleTitle(a.id, a.title) from Article a " +
+            "where a.id > :after order by a.id")
+    List<ArticleTitle> findTitles(@Param("after") long after, Pageable pageable);
+
+    // 작성자의 글을 최신순(created_at, id 내림차순)으로 (author_id, created_at, id) 인덱스를 따라 조회
+    List<Article> findByAuthorIdOrderByCreatedAtDescIdDesc(long authorId, Pageable pageable);
+
+    // 커서(이전 페이지 마지막 글의 created_at, id) 다음 글
+    @Query("select a from Article a where a.authorId = :authorId " +
+            "and (a.createdAt < :createdAt or (a.createdAt = :createdAt and a.id < :id)) " +
+            "order by a.createdAt desc, a.id desc")
+    List<Article> findByAuthorBefore(@Param("authorId") long authorId, @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") long id, Pageable pageable);
+
+    // 태그 색인에서 찾은 글을 한 번에 조회 (순서는 호출한 쪽에서 맞춘다)
+    List<Article> findByIdIn(List<Long> ids);
+
+    // 아카이브로 옮길 글 조회 (update_at 기준으로 오래된 글을 id 순서로 최대 100개)
+    List<Article> findTop100ByUpdatedAtBeforeOrderByIdAsc(LocalDateTime cutoff);
+
+    // 조회한 뒤에 수정된 글은 지우지 않도록 update_at 조건을 한 번 더 건다.
+    @Modifying
+    @Query("delete from Article a where a.id in :ids and a.updatedAt < :cutoff")
+    int deleteArchived(@Param("ids") List<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+
+    // 아카이브에 있던 글을 원래 id 그대로 다시 테이블에 넣는다.
+    @Modifying
+    @Query(value = "insert into article (id, title, content, author_id, author, created_at, update_at) " +
+            "values (:#{#article.id}, :#{#article.title}, :#{#article.content}, :#{#article.authorId}, :#{#article.author}, " +
+            ":#{#article.createdAt}, :#{#article.updatedAt})",
+            nativeQuery = true)
+    void insertRestored(@Param("article") Article article);
+
+    // 일괄 변경할 글의 id를 잠그면서 조회 (잠근 뒤에 이벤트를 기록해야 같은 글의 이벤트 순서가 커밋 순서와 같다)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a.id from Article a where a.id in :ids order by a.id")
+    List<Long> lockIds(@Param("ids") List<Long> ids);
+
+    // editor(로그인한 사용자의 id, 없으면 null)가 고칠 수 있는 글(작성자가 editor이거나 없는 글)의 id만 잠그면서 조회
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a.id from Article a where a.id in :ids and (a.authorId is null or a.authorId = :editor) order by a.id")
+    List<Long> lockEditableIds(@Param("ids") List<Long> ids, @Param("editor") Long editor);
+
+    // 작성일이 from 이상, to 미만이고 editor가 고칠 수 있는 글의 id를 잠그면서 최대 pageable 크기만큼 조회
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a.id from Article a where a.createdAt >= :from and a.createdAt < :to " +
+            "and (a.authorId is null or a.authorId = :editor) order by a.id")
+    List<Long> lockEditableIdsCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                             @Param("editor") Long editor, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Article a where a.id in :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
+
+    // null인 값은 그대로 두고, 감사(auditing)를 거치지 않으므로 update_at은 직접 바꾼다. (JSON 캐시는 update_at으로 갱신 여부를 판단)
+    @Modifying
+    @Query("update Article a set a.title = coalesce(:title, a.title), a.content = coalesce(:content, a.content), " +
+            "a.updatedAt = :now where a.id in :ids")
+    int updateAllByIdIn(@Param("ids") List<Long> ids, @Param("title") String title,
+                        @Param("content") String content, @Param("now") LocalDateTime now);
+
+    @Query("select a.title from Article a where a.id = :id")
+    Optional<String> findTitleById(@Param("id") long id);
 }
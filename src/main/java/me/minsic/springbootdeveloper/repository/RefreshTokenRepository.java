@@ -2,10 +2,26 @@ package me.minsic.springbootdeveloper.repository;
 
 import me.minsic.springbootdeveloper.domain.RefreshToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
     Optional<RefreshToken> findByUserId(Long userId);
     Optional<RefreshToken> findByRefreshToken(String refreshToken);
+
+    // 저장된 값이 oldToken일 때만 newToken으로 바꾼다. (이미 쓴 리프레시 토큰이면 0)
+    @Modifying
+    @Query("update RefreshToken r set r.refreshToken = :newToken where r.userId = :userId and r.refreshToken = :oldToken")
+    int rotate(@Param("userId") Long userId, @Param("oldToken") String oldToken, @Param("newToken") String newToken);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.refreshToken = :refreshToken")
+    int deleteByRefreshToken(@Param("refreshToken") String refreshToken);
 }
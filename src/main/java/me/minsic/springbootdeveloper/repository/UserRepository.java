@@ -2,6 +2,8 @@ package me.minsic.springbootdeveloper.repository;
 
 import me.minsic.springbootdeveloper.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -11,4 +13,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     * Optional<T>는 null이 올 수 있는 값을 감싸는 Wrapper 클래스
     * */
     Optional<User> findByEmail(String email);   // 현재 이메일이 pk처럼 사용
+
+    // 글 작성자 확인용으로 id만 조회
+    @Query("select u.id from User u where u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
 }
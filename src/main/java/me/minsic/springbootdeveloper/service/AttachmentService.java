@@ -0,0 +1,185 @@
+package me.minsic.springbootdeveloper.service;
+
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.attachment.AttachmentProperties;
+import me.minsic.springbootdeveloper.attachment.AttachmentStore;
+import me.minsic.springbootdeveloper.content.ContentTooLargeException;
+import me.minsic.springbootdeveloper.content.SizeLimitedInputStream;
+import me.minsic.springbootdeveloper.domain.ArticleAttachment;
+import me.minsic.springbootdeveloper.domain.ArticleEventType;
+import me.minsic.springbootdeveloper.domain.ArticleOutboxEvent;
+import me.minsic.springbootdeveloper.outbox.ArticleEventListener;
+import me.minsic.springbootdeveloper.repository.ArticleAttachmentRepository;
+import me.minsic.springbootdeveloper.shard.ShardTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/*
+* 글의 첨부 파일 추가, 조회, 삭제
+* 파일 내용은 AttachmentStore(디스크), 첨부 파일 정보는 글과 같은 샤드의 article_attachment 테이블에 저장한다.
+* 글이 삭제되면 아웃박스의 DELETED 이벤트를 받아서 그 글의 첨부 파일도 지운다. (일괄 삭제 포함)
+* */
+@RequiredArgsConstructor
+@Service
+public class AttachmentService implements ArticleEventListener {
+
+    private static final int MAX_FILE_NAME_LENGTH = 255;
+    private static final int MAX_CONTENT_TYPE_LENGTH = 128;
+    private static final String DEFAULT_FILE_NAME = "attachment";
+
+    private final ArticleAttachmentRepository attachmentRepository;
+    private final AttachmentStore attachmentStore;
+    private final AttachmentProperties attachmentProperties;
+    private final BlogService blogService;
+    private final ShardTemplate shardTemplate;
+
+    /*
+    * 요청 본문을 그대로 디스크에 쓰면서 해시를 계산하고, 해시 경로로 옮긴 뒤 첨부 파일 정보를 저장한다.
+    * attachment.max-size를 넘으면 쓰던 임시 파일을 지우고 ContentTooLargeException
+    * declaredLength : 요청의 Content-Length (모르면 -1), 한도보다 크면 읽기 전에 거절한다.
+    * editor : 로그인한 사용자의 id, 작성자가 있는 글에는 작성자만 올릴 수 있다.
+    * */
+    public ArticleAttachment upload(long articleId, String fileName, String contentType, InputStream body, long declaredLength,
+                                    Long editor) {
+        if (!blogService.exists(articleId)) {
+            throw new IllegalArgumentException("not found: " + articleId);
+        }
+        long maxBytes = attachmentProperties.getMaxSize().toBytes();
+        if (declaredLength > maxBytes) {
+            throw new ContentTooLargeException(maxBytes);
+        }
+
+        SizeLimitedInputStream limited = new SizeLimitedInputStream(body, maxBytes);
+        AttachmentStore.Upload upload;
+        try {
+            upload = attachmentStore.write(limited);
+        } catch (IOException e) {
+            if (limited.isExceeded()) {
+                throw new ContentTooLargeException(maxBytes);
+            }
+            throw new UncheckedIOException(e);
+        }
+
+        ArticleAttachment attachment = ArticleAttachment.builder()
+                .articleId(articleId)
+                .hash(upload.hash())
+                .fileName(fileName(fileName))
+                .contentType(contentType(contentType))
+                .size(upload.size())
+                .build();
+        try {
+            return attachmentStore.withLock(upload.hash(), () -> {
+                try {
+                    attachmentStore.commit(upload);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                try {
+                    return save(attachment, editor);
+                } catch (RuntimeException e) {
+                    release(upload.hash()); // 행을 저장하지 못했으면 방금 옮긴 파일도 지운다. (다른 첨부 파일이 참조하면 남는다)
+                    throw e;
+                }
+            });
+        } finally {
+            attachmentStore.discard(upload.file()); // 옮기지 못했으면 임시 파일 삭제
+        }
+    }
+
+    /*
+    * 글을 잠그고 다시 확인한 뒤 저장 (위의 exists 확인과 저장 사이에 글이 삭제되면 주인 없는 행이 남으므로)
+    * 같은 글에 같은 이름, 같은 내용이 이미 있으면(동시에 올린 경우 포함) uk_article_attachment 위반이므로 있던 행을 돌려준다.
+    * */
+    private ArticleAttachment save(ArticleAttachment attachment, Long editor) {
+        int shard = shardTemplate.shardFor(attachment.getArticleId());
+        try {
+            return shardTemplate.inTransaction(shard, () -> {
+                blogService.lockEditable(attachment.getArticleId(), editor);
+                return attachmentRepository.save(attachment);
+            });
+        } catch (DataIntegrityViolationException e) {
+            return shardTemplate.execute(shard, () -> attachmentRepository.findByArticleIdAndHashAndFileName(
+                            attachment.getArticleId(), attachment.getHash(), attachment.getFileName()))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    public List<ArticleAttachment> findAll(long articleId) {
+        return shardTemplate.execute(shardTemplate.shardFor(articleId),
+                () -> attachmentRepository.findByArticleIdOrderByIdAsc(articleId));
+    }
+
+    public ArticleAttachment find(long articleId, long attachmentId) {
+        return shardTemplate.execute(shardTemplate.shardFor(articleId),
+                        () -> attachmentRepository.findByIdAndArticleId(attachmentId, articleId))
+                .orElseThrow(() -> new IllegalArgumentException("not found: " + attachmentId));
+    }
+
+    public Path path(ArticleAttachment attachment) {
+        return attachmentStore.path(attachment.getHash());
+    }
+
+    // editor : 로그인한 사용자의 id, 작성자가 있는 글의 첨부 파일은 작성자만 지울 수 있다.
+    public void delete(long articleId, long attachmentId, Long editor) {
+        ArticleAttachment attachment = find(articleId, attachmentId);
+        shardTemplate.inTransaction(shardTemplate.shardFor(articleId), () -> {
+            blogService.lockEditable(articleId, editor);
+            attachmentRepository.delete(attachment);
+        });
+        release(attachment.getHash());
+    }
+
+    // 글이 삭제되면 첨부 파일도 삭제 (다시 받아도 지울 것이 없으므로 결과가 같다)
+    @Override
+    public void onEvent(ArticleOutboxEvent event) {
+        if (event.getType() != ArticleEventType.DELETED) {
+            return;
+        }
+        for (ArticleAttachment attachment : findAll(event.getArticleId())) {
+            shardTemplate.inTransaction(shardTemplate.shardFor(attachment.getArticleId()),
+                    () -> attachmentRepository.deleteById(attachment.getId()));
+            release(attachment.getHash());
+        }
+    }
+
+    // 어느 샤드에서도 참조하지 않는 파일이면 디스크에서 지운다.
+    private void release(String hash) {
+        attachmentStore.withLock(hash, () -> {
+            long references = shardTemplate.scatter(() -> List.of(attachmentRepository.countByHash(hash))).stream()
+                    .mapToLong(counts -> counts.get(0))
+                    .sum();
+            if (references == 0) {
+                attachmentStore.delete(hash);
+            }
+            return references;
+        });
+    }
+
+    // 경로를 뺀 파일 이름만 사용 (제어 문자 제거)
+    private static String fileName(String fileName) {
+        String name = StringUtils.getFilename(StringUtils.cleanPath(fileName == null ? "" : fileName));
+        name = name == null ? "" : name.replaceAll("\\p{Cntrl}", "").strip();
+        if (name.isEmpty()) {
+            return DEFAULT_FILE_NAME;
+        }
+        return name.length() > MAX_FILE_NAME_LENGTH ? name.substring(0, MAX_FILE_NAME_LENGTH) : name;
+    }
+
+    private static String contentType(String contentType) {
+        try {
+            String type = contentType == null ? MediaType.APPLICATION_OCTET_STREAM_VALUE : MediaType.parseMediaType(contentType).toString();
+            return type.length() > MAX_CONTENT_TYPE_LENGTH ? MediaType.APPLICATION_OCTET_STREAM_VALUE : type;
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+    }
+}
@@ -1,50 +1,640 @@
 package me.minsic.springbootdeveloper.service;
 
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.archive.ArticleArchive;
+import me.minsic.springbootdeveloper.content.ArticleContentProperties;
+import me.minsic.springbootdeveloper.content.ContentBuffer;
+import me.minsic.springbootdeveloper.content.ContentTooLargeException;
+import me.minsic.springbootdeveloper.content.SizeLimitedInputStream;
 import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.domain.ArticleEventType;
+import me.minsic.springbootdeveloper.domain.ArticleOutboxEvent;
+import me.minsic.springbootdeveloper.domain.User;
 import me.minsic.springbootdeveloper.dto.AddArticleRequest;
+import me.minsic.springbootdeveloper.dto.ArticleContentResponse;
+import me.minsic.springbootdeveloper.dto.ArticleCursor;
+import me.minsic.springbootdeveloper.dto.ArticleLastModified;
+import me.minsic.springbootdeveloper.dto.ArticleTitle;
+import me.minsic.springbootdeveloper.dto.BulkDeleteArticleRequest;
+import me.minsic.springbootdeveloper.dto.BulkUpdateArticleRequest;
 import me.minsic.springbootdeveloper.dto.UpdateArticleRequest;
+import me.minsic.springbootdeveloper.profiling.ArticleOperationEvent;
+import me.minsic.springbootdeveloper.repository.ArticleOutboxRepository;
 import me.minsic.springbootdeveloper.repository.BlogRepository;
+import me.minsic.springbootdeveloper.shard.ArticleIdGenerator;
+import me.minsic.springbootdeveloper.shard.ShardTemplate;
+import me.minsic.springbootdeveloper.util.SingleFlight;
+import org.hibernate.Session;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.beans.Transient;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
 
 @RequiredArgsConstructor    // final이 붙거나 @NotNull이 붙은 필드의 생성자 추가
 @Service // 빈으로 등록
 public class BlogService {
 
+    private static final Comparator<Article> BY_ID = Comparator.comparing(Article::getId);
+    private static final Comparator<Article> NEWEST_FIRST = Comparator.comparing(Article::getCreatedAt)
+            .thenComparing(Article::getId)
+            .reversed();
+    private static final int BULK_CHUNK_SIZE = 500; // 일괄 변경 한 문장의 in (...)에 넣는 id 수
+
     private final BlogRepository blogRepository;
+    private final EntityManager entityManager;
+    private final ArticleArchive articleArchive; // 오래된 글을 보관하는 콜드 스토리지
+    private final ShardTemplate shardTemplate;   // 글 id로 샤드(DB)를 골라서 실행
+    private final ArticleIdGenerator articleIdGenerator; // 샤드가 여러 개여도 겹치지 않는 글 id
+    private final ArticleOutboxRepository outboxRepository; // 글 변경 이벤트를 같은 트랜잭션으로 기록
+    private final ArticleContentProperties contentProperties; // 스트리밍 본문의 크기 한도
+    private final SingleFlight<Long, Article> articleLoads = new SingleFlight<>(); // 같은 글의 동시 조회를 한 번으로 합친다.
 
-    //블로그 글 추가 메서드
+    //블로그 글 추가 메서드 (id가 미리 정해져 있으므로 merge 전 조회 없이 바로 persist)
     public Article save(AddArticleRequest request) {
-        return blogRepository.save(request.toEntity());
+        return save(request, null);
+    }
+
+    // author : 로그인한 사용자 (작성자 id, 별명을 글 행에 같이 저장한다)
+    public Article save(AddArticleRequest request, User author) {
+        Article article = request.toEntity(articleIdGenerator.nextId(), author);
+        return ArticleOperationEvent.record("save", article.getId(), () ->
+                shardTemplate.inTransaction(shardTemplate.shardFor(article.getId()), () -> {
+                    entityManager.persist(article);
+                    publish(article.getId(), ArticleEventType.CREATED);
+                    return article;
+                }));
     }
 
+    // 모든 샤드와 아카이브의 글을 id 순서로 합쳐서 반환 (아카이브로 옮기는 중이라 양쪽에 있는 글은 테이블 쪽만 사용)
     public List<Article> findAll() {
-        return blogRepository.findAll();
+        List<List<Article>> sources = new ArrayList<>(shardTemplate.scatter(() -> blogRepository.findAll(Sort.by("id"))));
+        if (articleArchive.size() > 0) {
+            sources.add(articleArchive.findAll());
+        }
+        return ShardTemplate.mergeSorted(sources, BY_ID, Integer.MAX_VALUE);
+    }
+
+    /*
+    * 커서 페이징 : after(이전 페이지의 마지막 id) 다음 글을 id 순서로 최대 size 개 반환
+    * 각 샤드와 아카이브에서 size 개씩 가져와 합친 뒤 앞에서부터 size 개만 사용한다.
+    * id가 전역에서 유일하고 시간 순서라서 샤드가 몇 개든 마지막 id 하나로 다음 위치를 정할 수 있다.
+    * */
+    public List<Article> findPage(Long after, int size) {
+        long cursor = after == null ? 0 : after;
+        List<List<Article>> sources = new ArrayList<>(shardTemplate.scatter(
+                () -> blogRepository.findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, size))));
+        if (articleArchive.size() > 0) {
+            sources.add(articleArchive.findAfter(cursor, size));
+        }
+        return ShardTemplate.mergeSorted(sources, BY_ID, size);
+    }
+
+    /*
+    * 작성자의 글을 최신순(created_at, id 내림차순)으로 cursor 다음부터 size 개 반환 (아카이브 포함)
+    * 샤드마다 (author_id, created_at, id) 인덱스를 따라 size 개씩 읽고 합친다.
+    * */
+    public List<Article> findByAuthor(long authorId, ArticleCursor cursor, int size) {
+        PageRequest page = PageRequest.of(0, size);
+        List<List<Article>> sources = new ArrayList<>(shardTemplate.scatter(() -> cursor == null
+                ? blogRepository.findByAuthorIdOrderByCreatedAtDescIdDesc(authorId, page)
+                : blogRepository.findByAuthorBefore(authorId, cursor.createdAt(), cursor.id(), page)));
+        if (articleArchive.size() > 0) {
+            sources.add(articleArchive.findByAuthor(authorId, cursor == null ? null : cursor.createdAt(),
+                    cursor == null ? null : cursor.id(), size));
+        }
+        return ShardTemplate.mergeSorted(sources, NEWEST_FIRST, size);
+    }
+
+    // 최근 글 size 개를 최신순으로 반환 (피드에서 사용, 아카이브의 오래된 글은 포함하지 않는다)
+    public List<Article> findLatest(int size) {
+        List<List<Article>> sources = shardTemplate.scatter(
+                () -> blogRepository.findByOrderByIdDesc(PageRequest.of(0, size)));
+        return ShardTemplate.mergeSorted(sources, BY_ID.reversed(), size);
+    }
+
+    // 모든 샤드와 아카이브의 글 id를 순서대로 반환 (본문, 수정 시각은 읽지 않는다)
+    public List<Long> findAllIds() {
+        List<List<Long>> sources = new ArrayList<>(shardTemplate.scatter(blogRepository::findAllIds));
+        if (articleArchive.size() > 0) {
+            sources.add(articleArchive.findIds());
+        }
+        return ShardTemplate.mergeSorted(sources, Comparator.naturalOrder(), Integer.MAX_VALUE);
+    }
+
+    // 글(아카이브 포함)의 id, 수정 시각 (테이블에 있으면 본문을 읽지 않는다)
+    public Optional<ArticleLastModified> findLastModified(long id) {
+        Optional<ArticleLastModified> found = shardTemplate.execute(shardTemplate.shardFor(id),
+                () -> blogRepository.findLastModifiedById(id));
+        return found.isPresent() ? found : articleArchive.findLastModified(id);
+    }
+
+    // id가 from 이상 to 미만인 글(아카이브 포함)의 id, 수정 시각을 id 순서로 최대 size 개 반환 (사이트맵에서 사용)
+    public List<ArticleLastModified> findLastModified(long from, long to, int size) {
+        List<List<ArticleLastModified>> sources = new ArrayList<>(shardTemplate.scatter(
+                () -> blogRepository.findLastModified(from, to, PageRequest.of(0, size))));
+        if (articleArchive.size() > 0) {
+            sources.add(articleArchive.findLastModifiedAfter(from - 1, size).stream()
+                    .filter(article -> article.id() < to)
+                    .toList());
+        }
+        return ShardTemplate.mergeSorted(sources, Comparator.comparing(ArticleLastModified::id), size);
+    }
+
+    // id가 after보다 큰 글(아카이브 포함)의 id, 제목을 id 순서로 최대 size 개 반환 (제목 자동 완성 색인에서 사용)
+    public List<ArticleTitle> findTitles(long after, int size) {
+        List<List<ArticleTitle>> sources = new ArrayList<>(shardTemplate.scatter(
+                () -> blogRepository.findTitles(after, PageRequest.of(0, size))));
+        if (articleArchive.size() > 0) {
+            Iterator<ArticleTitle> titles = articleArchive.titles(after);
+            List<ArticleTitle> archived = new ArrayList<>();
+            while (archived.size() < size && titles.hasNext()) {
+                archived.add(titles.next());
+            }
+            sources.add(archived);
+        }
+        return ShardTemplate.mergeSorted(sources, Comparator.comparing(ArticleTitle::id), size);
+    }
+
+    /*
+    * 모든 샤드와 아카이브의 글 id, 제목을 id 순서로 chunkSize 개씩 consumer에 넘긴다. (제목 자동 완성 색인을 만들 때 사용)
+    * 아카이브는 처음에 한 번 정렬해 둔 반복자를 따라 제목만 읽는다. (findTitles()를 반복하면 페이지마다 다시 정렬한다)
+    * */
+    public void forEachTitleChunk(int chunkSize, Consumer<List<ArticleTitle>> consumer) {
+        forEachMergedChunk(chunkSize, after -> blogRepository.findTitles(after, PageRequest.of(0, chunkSize)),
+                articleArchive.titles(0), ArticleTitle::id, consumer);
+    }
+
+    /*
+    * 전체 글을 id 순서로 chunkSize 개씩 consumer에 넘기는 메서드 (아카이브 포함, findAll(), findPage()와 같은 순서)
+    * 샤드의 글은 키셋 페이지로 읽으므로 consumer가 묶음을 클라이언트에 보내는 동안에는 커넥션을 잡고 있지 않다.
+    * 메모리에는 한 묶음(과 샤드마다 한 페이지)만 남는다.
+    * */
+    public void forEachChunk(int chunkSize, Consumer<List<Article>> consumer) {
+        forEachMergedChunk(chunkSize, after -> blogRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, chunkSize)),
+                articleArchive.articles(0), Article::getId, consumer);
     }
 
+    /*
+    * 샤드마다 after 다음 페이지(shardPage)를 읽고 아카이브 반복자의 값과 id 순서로 합쳐서 chunkSize 개씩 넘긴다.
+    * 커넥션은 샤드의 페이지를 읽는 동안만 잡는다. 아카이브로 옮기는 중이라 양쪽에 있는 글은 테이블 쪽만 넘긴다.
+    * */
+    private <T> void forEachMergedChunk(int chunkSize, LongFunction<List<T>> shardPage, Iterator<T> archived,
+                                        Function<T, Long> idOf, Consumer<List<T>> consumer) {
+        Comparator<T> byId = Comparator.comparing(idOf);
+        Deque<T> pending = new ArrayDeque<>(); // 아카이브에서 읽었지만 아직 넘기지 않은 값
+        long after = 0;
+        while (true) {
+            while (pending.size() < chunkSize && archived.hasNext()) {
+                pending.add(archived.next());
+            }
+            long cursor = after;
+            List<List<T>> sources = new ArrayList<>(shardTemplate.scatter(() -> shardPage.apply(cursor)));
+            sources.add(List.copyOf(pending));
+            List<T> chunk = ShardTemplate.mergeSorted(sources, byId, chunkSize);
+            if (chunk.isEmpty()) {
+                return;
+            }
+            after = idOf.apply(chunk.get(chunk.size() - 1));
+            while (!pending.isEmpty() && idOf.apply(pending.peek()) <= after) {
+                pending.poll();
+            }
+            consumer.accept(chunk);
+        }
+    }
+
+    /*
+    * 글이 있는 샤드에서 조회하고, 테이블에 없으면 아카이브에서 조회
+    * 인기 글에 조회가 몰리면 같은 id의 동시 조회는 DB에 한 번만 보내고 결과를 나눠 받는다. (없는 글의 예외도 같이 받는다)
+    * */
     public Article findById(long id) {
-        return blogRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("not found: " + id));
+        return ArticleOperationEvent.record("findById", id, () ->
+                articleLoads.load(id, () -> shardTemplate.execute(shardTemplate.shardFor(id), () -> blogRepository.findById(id))
+                        .or(() -> articleArchive.find(id))
+                        .orElseThrow(() -> new IllegalArgumentException("not found: " + id))));
+    }
+
+    // 작성자가 있는 글을 다른 사용자가 고치거나 지우려고 하면 예외 (editor : 로그인한 사용자의 id, 없으면 null)
+    public void checkEditable(long id, Long editor) {
+        Article article = findById(id);
+        if (!article.isEditableBy(editor)) {
+            throw new AccessDeniedException("not the author of article " + id);
+        }
+    }
+
+    // 글이 테이블이나 아카이브에 있는지 확인 (본문을 읽지 않는다)
+    public boolean exists(long id) {
+        return shardTemplate.execute(shardTemplate.shardFor(id), () -> blogRepository.existsById(id))
+                || articleArchive.contains(id);
+    }
+
+    /*
+    * 글에 딸린 행(첨부 파일 등)을 저장하기 전에 같은 샤드 트랜잭션 안에서 호출한다.
+    * 테이블에 있는 글은 행을 잠가서 커밋할 때까지 삭제를 막는다. 먼저 삭제됐으면 IllegalArgumentException
+    * (삭제가 기다렸다가 커밋되면 DELETED 이벤트가 방금 저장한 행도 지운다. 아카이브의 글은 잠그지 않고 있는지만 확인한다.)
+    * */
+    public void lockExisting(long id) {
+        if (blogRepository.lockIds(List.of(id)).isEmpty() && !articleArchive.contains(id)) {
+            throw new IllegalArgumentException("not found: " + id);
+        }
+    }
+
+    // lockExisting()과 같고, editor(로그인한 사용자의 id)가 고칠 수 없는 글이면 AccessDeniedException (태그, 첨부 파일 변경)
+    public void lockEditable(long id, Long editor) {
+        if (!blogRepository.lockEditableIds(List.of(id), editor).isEmpty()) {
+            return;
+        }
+        if (blogRepository.existsById(id)
+                || (articleArchive.contains(id) && !Article.isEditableBy(articleArchive.findAuthorId(id), editor))) {
+            throw new AccessDeniedException("not the author of article " + id);
+        }
+        if (!articleArchive.contains(id)) {
+            throw new IllegalArgumentException("not found: " + id);
+        }
+    }
+
+    // ids 순서대로 글을 반환 (샤드마다 한 번씩 조회하고 테이블에 없으면 아카이브, 어디에도 없는 id는 건너뛴다)
+    public List<Article> findAllById(List<Long> ids) {
+        Map<Integer, List<Long>> byShard = new TreeMap<>();
+        ids.forEach(id -> byShard.computeIfAbsent(shardTemplate.shardFor(id), shard -> new ArrayList<>()).add(id));
+        Map<Long, Article> found = new HashMap<>();
+        byShard.forEach((shard, shardIds) -> shardTemplate.execute(shard, () -> blogRepository.findByIdIn(shardIds))
+                .forEach(article -> found.put(article.getId(), article)));
+
+        List<Article> articles = new ArrayList<>(ids.size());
+        for (long id : ids) {
+            Article article = found.get(id);
+            if (article == null) {
+                article = articleArchive.find(id).orElse(null);
+            }
+            if (article != null) {
+                articles.add(article);
+            }
+        }
+        return articles;
+    }
+
+    public void delete(long id, Long editor) {
+        checkEditable(id, editor);
+        delete(id);
     }
 
     public void delete(long id) {
-        blogRepository.deleteById(id);
+        ArticleOperationEvent.record("delete", id, () -> shardTemplate.inTransaction(shardTemplate.shardFor(id), () -> {
+            boolean archived = articleArchive.contains(id);
+            if (!archived || blogRepository.existsById(id)) {
+                blogRepository.deleteById(id);
+            }
+            if (archived) {
+                deleteArchivedAfterCommit(List.of(id)); // 삭제가 커밋된 뒤에 아카이브에 삭제 기록 추가
+            }
+            publish(id, ArticleEventType.DELETED);
+        }));
     }
-    
-    @Transactional // 트랜젝션 메서드
-    //Transactional 애너테이션은 매칭한 메서드를 하나의 트랜잭션으로 묶는 역할을 한다. 만약 중간에 에러가 발생하도 제대로 된 값수정 보장
+
+    /*
+    * 글이 있는 샤드에서 트랜잭션을 시작해 수정한다.
+    * 트랜잭션은 매칭한 작업을 하나로 묶는 역할을 한다. 만약 중간에 에러가 발생해도 제대로 된 값수정 보장
+    * (커넥션은 트랜잭션이 시작될 때 정해지므로 @Transactional 대신 샤드를 먼저 고른 뒤 트랜잭션을 시작한다)
+    * */
     public Article update(long id, UpdateArticleRequest request) {
-        Article article = blogRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("not found: " + id));
-        
-        article.update(request.getTitle(), request.getContent());
-        
-        return article;
+        return update(id, request, article -> true);
+    }
+
+    // editor : 로그인한 사용자의 id (작성자가 있는 글은 작성자만 고칠 수 있다, 수정할 때 읽은 글로 확인하므로 쿼리가 늘지 않는다)
+    public Article update(long id, UpdateArticleRequest request, Long editor) {
+        return update(id, request, article -> article.isEditableBy(editor));
     }
 
+    private Article update(long id, UpdateArticleRequest request, Predicate<Article> editable) {
+        return ArticleOperationEvent.record("update", id, () -> shardTemplate.inTransaction(shardTemplate.shardFor(id), () -> {
+            Article article = blogRepository.findById(id)
+                    .orElseGet(() -> restoreArchived(id));
+            if (!editable.test(article)) {
+                throw new AccessDeniedException("not the author of article " + id);
+            }
 
+            article.update(request.getTitle(), request.getContent());
+            publish(id, ArticleEventType.UPDATED);
+
+            return article;
+        }));
+    }
+    /*
+    * 여러 글을 한 번에 삭제하고 삭제한 글 수를 반환 (ids 또는 작성일 범위)
+    * 샤드마다 한 트랜잭션에서 대상 글을 잠그며 id만 조회한 뒤, BULK_CHUNK_SIZE 개씩 이벤트 기록과 삭제를 각각 한 문장으로 실행한다.
+    * 아카이브에 있는 대상도 같이 삭제한다. (아카이브의 삭제 기록은 샤드 트랜잭션이 커밋된 뒤에 추가)
+    * 대상이 MAX_ARTICLES 개를 넘으면 그 샤드는 바꾸지 않고 IllegalArgumentException
+    * 샤드 사이에는 트랜잭션이 나뉘므로 중간 샤드에서 실패하면 앞 샤드의 삭제는 남는다.
+    * editor(로그인한 사용자의 id, 없으면 null)가 고칠 수 없는 글(다른 사용자가 작성한 글)은 대상에서 빠진다.
+    * */
+    public int deleteAll(BulkDeleteArticleRequest request, Long editor) {
+        request.validate();
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = 0;
+        for (BulkTarget target : bulkTargets(request)) {
+            int limit = BulkDeleteArticleRequest.MAX_ARTICLES - deleted;
+            deleted += shardTemplate.inTransaction(target.shard(), () -> {
+                List<Long> locked = lockBulkTargets(request, target.ids(), editor, limit);
+                List<Long> archived = archivedTargets(target, locked, editor, limit);
+                for (List<Long> chunk : partition(locked)) {
+                    outboxRepository.insertAll(chunk, ArticleEventType.DELETED.name(), now); // 지우기 전에 기록
+                    blogRepository.deleteAllByIdIn(chunk);
+                }
+                for (long id : archived) {
+                    publish(id, ArticleEventType.DELETED);
+                }
+                deleteArchivedAfterCommit(archived);
+                return locked.size() + archived.size();
+            });
+        }
+        return deleted;
+    }
+
+    /*
+    * 여러 글의 제목, 내용을 한 번에 수정하고 수정한 글 수를 반환 (대상, 한도, 트랜잭션은 deleteAll()과 같다)
+    * 글을 엔티티로 읽어오지 않고 update 문으로 바꾼다. 아카이브에 있는 대상은 테이블로 옮긴 뒤에 같이 바꾼다.
+    * */
+    public int updateAll(BulkUpdateArticleRequest request, Long editor) {
+        request.validate();
+        LocalDateTime now = LocalDateTime.now();
+        int updated = 0;
+        for (BulkTarget target : bulkTargets(request)) {
+            int limit = BulkDeleteArticleRequest.MAX_ARTICLES - updated;
+            updated += shardTemplate.inTransaction(target.shard(), () -> {
+                List<Long> locked = new ArrayList<>(lockBulkTargets(request, target.ids(), editor, limit));
+                List<Long> archived = archivedTargets(target, locked, editor, limit);
+                for (long id : archived) {
+                    articleArchive.find(id).ifPresent(blogRepository::insertRestored);
+                }
+                deleteArchivedAfterCommit(archived);
+                locked.addAll(archived);
+                int count = 0;
+                for (List<Long> chunk : partition(locked)) {
+                    count += blogRepository.updateAllByIdIn(chunk, request.getTitle(), request.getContent(), now);
+                    outboxRepository.insertAll(chunk, ArticleEventType.UPDATED.name(), now);
+                }
+                return count;
+            });
+        }
+        return updated;
+    }
+
+    // 일괄 변경을 실행할 샤드와 그 샤드의 대상 (ids면 샤드별 id 목록, 작성일 범위면 모든 샤드에 null과 아카이브에서 찾은 id 목록)
+    private List<BulkTarget> bulkTargets(BulkDeleteArticleRequest request) {
+        Map<Integer, List<Long>> ids = new TreeMap<>();
+        if (request.hasIds()) {
+            request.getIds().stream().distinct().sorted()
+                    .forEach(id -> ids.computeIfAbsent(shardTemplate.shardFor(id), shard -> new ArrayList<>()).add(id));
+            return ids.entrySet().stream()
+                    .map(entry -> new BulkTarget(entry.getKey(), entry.getValue(), entry.getValue()))
+                    .toList();
+        }
+        for (long id : articleArchive.findIdsCreatedBetween(request.getCreatedFrom(), request.getCreatedTo())) {
+            ids.computeIfAbsent(shardTemplate.shardFor(id), shard -> new ArrayList<>()).add(id);
+        }
+        List<BulkTarget> targets = new ArrayList<>();
+        for (int shard = 0; shard < shardTemplate.shardCount(); shard++) {
+            targets.add(new BulkTarget(shard, null, ids.getOrDefault(shard, List.of())));
+        }
+        return targets;
+    }
+
+    // ids : 샤드 테이블에서 찾을 id (null이면 작성일 범위), archived : 아카이브에서 찾을 id
+    private record BulkTarget(int shard, List<Long> ids, List<Long> archived) {
+    }
+
+    // 대상 글을 id 순서로 잠그면서 테이블에 있고 editor가 고칠 수 있는 id만 조회 (순서를 맞춰서 일괄 변경끼리 교착 상태가 생기지 않게 한다)
+    private List<Long> lockBulkTargets(BulkDeleteArticleRequest request, List<Long> ids, Long editor, int limit) {
+        if (ids == null) {
+            List<Long> locked = blogRepository.lockEditableIdsCreatedBetween(request.getCreatedFrom(), request.getCreatedTo(),
+                    editor, PageRequest.of(0, limit + 1));
+            checkBulkLimit(locked.size(), limit);
+            return locked;
+        }
+        List<Long> locked = new ArrayList<>(ids.size());
+        for (List<Long> chunk : partition(ids)) {
+            locked.addAll(blogRepository.lockEditableIds(chunk, editor));
+        }
+        return locked;
+    }
+
+    /*
+    * 테이블에 없고 아카이브에 있는 대상 중 editor가 고칠 수 있는 글 (작성자 id는 레코드 헤더에서만 읽는다)
+    * 테이블로 옮기는 중이라 양쪽에 있는 글은 테이블 쪽으로 센다.
+    * */
+    private List<Long> archivedTargets(BulkTarget target, List<Long> locked, Long editor, int limit) {
+        Set<Long> inTable = new HashSet<>(locked);
+        List<Long> archived = target.archived().stream()
+                .filter(id -> !inTable.contains(id) && articleArchive.contains(id))
+                .filter(id -> Article.isEditableBy(articleArchive.findAuthorId(id), editor))
+                .toList();
+        checkBulkLimit(locked.size() + archived.size(), limit);
+        return archived;
+    }
+
+    private static void checkBulkLimit(int count, int limit) {
+        if (count > limit) {
+            throw new IllegalArgumentException("more than " + BulkDeleteArticleRequest.MAX_ARTICLES
+                    + " articles match, narrow createdFrom/createdTo");
+        }
+    }
+
+    private static List<List<Long>> partition(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    /*
+    * 본문을 스트림으로 받아서 글을 추가 (큰 글도 요청 본문 전체를 String으로 만들지 않는다)
+    * 요청 스트림을 UTF-8 Reader로 감싸서 JDBC setCharacterStream으로 CLOB 컬럼에 바로 넘기고,
+    * 읽는 도중 article-content.max-size를 넘으면 롤백하고 ContentTooLargeException을 던진다.
+    * declaredLength : 요청의 Content-Length (모르면 -1), 한도보다 크면 읽기 전에 거절한다.
+    * */
+    public ArticleContentResponse saveContent(String title, InputStream body, long declaredLength) {
+        return saveContent(title, null, body, declaredLength);
+    }
+
+    public ArticleContentResponse saveContent(String title, User author, InputStream body, long declaredLength) {
+        SizeLimitedInputStream content = limitContent(body, declaredLength);
+        long id = articleIdGenerator.nextId();
+        LocalDateTime now = LocalDateTime.now();
+        return ArticleOperationEvent.record("saveContent", id, () -> shardTemplate.inTransaction(shardTemplate.shardFor(id), () -> {
+            executeWithContent(content, "insert into article (content, id, title, author_id, author, created_at, update_at) " +
+                            "values (?, ?, ?, ?, ?, ?, ?)",
+                    id, title, author == null ? null : author.getId(), author == null ? null : author.getNickname(), now, now);
+            publish(id, ArticleEventType.CREATED);
+            return new ArticleContentResponse(id, title, content.getCount());
+        }));
+    }
+
+    // 글 본문만 스트림으로 바꾼다. (제목은 그대로, 아카이브에 있는 글은 테이블로 옮긴 뒤에 바꾼다)
+    public ArticleContentResponse updateContent(long id, InputStream body, long declaredLength) {
+        SizeLimitedInputStream content = limitContent(body, declaredLength);
+        return ArticleOperationEvent.record("updateContent", id, () -> shardTemplate.inTransaction(shardTemplate.shardFor(id), () -> {
+            if (blogRepository.lockIds(List.of(id)).isEmpty()) {
+                restoreArchived(id);
+            }
+            executeWithContent(content, "update article set content = ?, update_at = ? where id = ?", LocalDateTime.now(), id);
+            publish(id, ArticleEventType.UPDATED);
+            String title = blogRepository.findTitleById(id) // 본문(CLOB)은 읽지 않는다.
+                    .orElseThrow(() -> new IllegalArgumentException("not found: " + id));
+            return new ArticleContentResponse(id, title, content.getCount());
+        }));
+    }
+
+    /*
+    * 글 본문을 CLOB에서 Reader로 읽어 article-content.buffer-size 문자씩 writer에 복사 (본문 전체를 String으로 만들지 않는다)
+    * 트랜잭션 안에서는 ContentBuffer(메모리, 길면 임시 파일)에 옮겨 두기만 하고 커넥션을 놓은 뒤에 writer로 보낸다.
+    * 클라이언트가 느려도 샤드의 커넥션을 잡고 있지 않는다. 없는 글이면 아무것도 쓰기 전에 예외를 던진다.
+    * */
+    public void writeContent(long id, Writer writer) {
+        ArticleOperationEvent.record("writeContent", id, () -> {
+            try (ContentBuffer buffer = new ContentBuffer(contentProperties.getMemoryLimit())) {
+                boolean found = shardTemplate.inTransaction(shardTemplate.shardFor(id), () -> readContent(id, buffer));
+                if (!found) {
+                    Article archived = articleArchive.find(id)
+                            .orElseThrow(() -> new IllegalArgumentException("not found: " + id));
+                    copy(new StringReader(archived.getContent()), writer);
+                    return;
+                }
+                buffer.writeTo(writer, contentProperties.getBufferSize());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // 테이블에 있는 글의 본문을 buffer에 복사 (없는 글이면 false)
+    private boolean readContent(long id, ContentBuffer buffer) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("select content from article where id = ?")) {
+                statement.setLong(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        return false;
+                    }
+                    try (Reader reader = resultSet.getCharacterStream(1)) {
+                        copy(reader, buffer);
+                    }
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+    }
+
+    private SizeLimitedInputStream limitContent(InputStream body, long declaredLength) {
+        long maxBytes = contentProperties.getMaxSize().toBytes();
+        if (declaredLength > maxBytes) {
+            throw new ContentTooLargeException(maxBytes);
+        }
+        return new SizeLimitedInputStream(body, maxBytes);
+    }
+
+    // sql의 첫 번째 파라미터에 본문을 스트림으로 넘기고 나머지 파라미터를 채워서 실행
+    private int executeWithContent(SizeLimitedInputStream content, String sql, Object... parameters) {
+        Reader reader = new InputStreamReader(content, StandardCharsets.UTF_8);
+        try {
+            return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    statement.setCharacterStream(1, reader);
+                    for (int i = 0; i < parameters.length; i++) {
+                        statement.setObject(i + 2, parameters[i]);
+                    }
+                    return statement.executeUpdate();
+                }
+            });
+        } catch (RuntimeException e) {
+            // 드라이버가 읽는 도중에 난 예외는 SQLException으로 감싸지므로 한도를 넘었는지 따로 확인한다.
+            if (content.isExceeded()) {
+                throw new ContentTooLargeException(contentProperties.getMaxSize().toBytes());
+            }
+            throw e;
+        }
+    }
+
+    private void copy(Reader reader, Writer writer) {
+        char[] buffer = new char[contentProperties.getBufferSize()];
+        try {
+            int read;
+            while ((read = reader.read(buffer)) >= 0) {
+                writer.write(buffer, 0, read);
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /*
+    * 글 변경 이벤트를 아웃박스에 기록한다. (글 변경과 같은 트랜잭션)
+    * 글 변경을 먼저 flush 해서 행 잠금을 잡은 뒤에 이벤트 id를 받으므로, 같은 글의 이벤트 id는 커밋 순서와 같다.
+    * 캐시, 검색 색인 같은 후속 작업은 OutboxRelay가 요청 처리와 별개로 ArticleEventListener에 전달한다.
+    * */
+    private void publish(long articleId, ArticleEventType type) {
+        entityManager.flush();
+        outboxRepository.save(new ArticleOutboxEvent(articleId, type));
+    }
+
+    /*
+    * 아카이브에 있는 글을 수정하려면 먼저 테이블로 다시 옮긴다.
+    * 아카이브의 삭제 기록은 트랜잭션이 커밋된 뒤에 남겨서, 롤백되더라도 글이 사라지지 않게 한다.
+    * */
+    private Article restoreArchived(long id) {
+        Article archived = articleArchive.find(id)
+                .orElseThrow(() -> new IllegalArgumentException("not found: " + id));
+        blogRepository.insertRestored(archived);
+        deleteArchivedAfterCommit(List.of(id));
+        return blogRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("not found: " + id));
+    }
+
+    // 샤드 트랜잭션이 커밋된 뒤에 아카이브에서 지운다. (롤백되면 아카이브의 글이 그대로 남는다)
+    private void deleteArchivedAfterCommit(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(articleArchive::delete);
+            }
+        });
+    }
 }
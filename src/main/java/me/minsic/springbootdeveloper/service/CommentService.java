@@ -0,0 +1,115 @@
+package me.minsic.springbootdeveloper.service;
+
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.domain.ArticleComment;
+import me.minsic.springbootdeveloper.domain.ArticleEventType;
+import me.minsic.springbootdeveloper.domain.ArticleOutboxEvent;
+import me.minsic.springbootdeveloper.dto.AddCommentRequest;
+import me.minsic.springbootdeveloper.dto.CommentCount;
+import me.minsic.springbootdeveloper.dto.CommentPageResponse;
+import me.minsic.springbootdeveloper.dto.CommentResponse;
+import me.minsic.springbootdeveloper.outbox.ArticleEventListener;
+import me.minsic.springbootdeveloper.repository.ArticleCommentRepository;
+import me.minsic.springbootdeveloper.shard.ShardTemplate;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+* 댓글 저장, 조회
+* - 댓글은 글과 같은 샤드에 저장하므로 한 글의 댓글 조회는 샤드 하나에서 끝난다.
+* - 한 페이지를 읽을 때 쿼리는 댓글 페이지 1번 + 답글 수 1번 (댓글마다 답글을 조회하지 않는다)
+* - 답글은 펼칠 때 findReplies()로 따로 읽는다. 깊이는 ArticleComment.MAX_DEPTH까지
+* - 글이 삭제되면 DELETED 이벤트를 받아서 그 글의 댓글을 지운다. (일괄 삭제 포함)
+* */
+@RequiredArgsConstructor
+@Service
+public class CommentService implements ArticleEventListener {
+
+    private static final int COUNT_CHUNK_SIZE = 500; // 댓글 수 조회 한 문장의 in (...)에 넣는 글 id 수
+
+    private final ArticleCommentRepository commentRepository;
+    private final BlogService blogService;
+    private final ShardTemplate shardTemplate;
+
+    public ArticleComment add(long articleId, AddCommentRequest request) {
+        String content = request.getContent() == null ? "" : request.getContent().strip();
+        if (content.isEmpty() || content.length() > ArticleComment.MAX_CONTENT_LENGTH) {
+            throw new IllegalArgumentException("comment must be 1 to " + ArticleComment.MAX_CONTENT_LENGTH + " characters");
+        }
+        return shardTemplate.inTransaction(shardTemplate.shardFor(articleId), () -> {
+            blogService.lockExisting(articleId); // 저장하기 전에 글이 삭제되면 주인 없는 댓글이 남으므로 글을 잠그고 확인한다.
+            ArticleComment parent = null;
+            if (request.getParentId() != null) {
+                parent = commentRepository.findByIdAndArticleId(request.getParentId(), articleId)
+                        .orElseThrow(() -> new IllegalArgumentException("not found: " + request.getParentId()));
+                if (parent.getDepth() >= ArticleComment.MAX_DEPTH) {
+                    throw new IllegalArgumentException("replies are limited to depth " + ArticleComment.MAX_DEPTH);
+                }
+            }
+            return commentRepository.save(new ArticleComment(articleId, parent, content));
+        });
+    }
+
+    // 최상위 댓글을 after(댓글 id) 다음부터 size 개
+    public CommentPageResponse findComments(long articleId, Long after, int size) {
+        return shardTemplate.execute(shardTemplate.shardFor(articleId), () ->
+                page(commentRepository.findTopLevel(articleId, after == null ? 0 : after, PageRequest.of(0, size)), size));
+    }
+
+    // 댓글의 답글을 after(댓글 id) 다음부터 size 개
+    public CommentPageResponse findReplies(long articleId, long commentId, Long after, int size) {
+        return shardTemplate.execute(shardTemplate.shardFor(articleId), () -> {
+            commentRepository.findByIdAndArticleId(commentId, articleId)
+                    .orElseThrow(() -> new IllegalArgumentException("not found: " + commentId));
+            return page(commentRepository.findReplies(commentId, after == null ? 0 : after, PageRequest.of(0, size)), size);
+        });
+    }
+
+    // 글 목록의 글별 댓글 수 (샤드마다 COUNT_CHUNK_SIZE 개씩 쿼리 1번, 댓글이 없는 글은 0)
+    public Map<Long, Long> countByArticleIds(List<Long> articleIds) {
+        Map<Integer, List<Long>> byShard = new TreeMap<>();
+        articleIds.forEach(id -> byShard.computeIfAbsent(shardTemplate.shardFor(id), shard -> new ArrayList<>()).add(id));
+        Map<Long, Long> counts = new HashMap<>();
+        articleIds.forEach(id -> counts.put(id, 0L));
+        byShard.forEach((shard, shardIds) -> {
+            for (int from = 0; from < shardIds.size(); from += COUNT_CHUNK_SIZE) {
+                List<Long> chunk = shardIds.subList(from, Math.min(from + COUNT_CHUNK_SIZE, shardIds.size()));
+                shardTemplate.execute(shard, () -> commentRepository.countByArticleIds(chunk))
+                        .forEach(count -> counts.put(count.id(), count.count()));
+            }
+        });
+        return counts;
+    }
+
+    @Override
+    public void onEvent(ArticleOutboxEvent event) {
+        if (event.getType() == ArticleEventType.DELETED) {
+            long articleId = event.getArticleId();
+            shardTemplate.inTransaction(shardTemplate.shardFor(articleId), () -> {
+                commentRepository.deleteByArticleId(articleId);
+            });
+        }
+    }
+
+    private CommentPageResponse page(List<ArticleComment> comments, int size) {
+        Map<Long, Long> replyCounts = new HashMap<>();
+        List<Long> ids = comments.stream()
+                .filter(comment -> comment.getDepth() < ArticleComment.MAX_DEPTH) // 최대 깊이의 댓글은 답글이 없다.
+                .map(ArticleComment::getId)
+                .toList();
+        if (!ids.isEmpty()) {
+            commentRepository.countByParentIds(ids).forEach(count -> replyCounts.put(count.id(), count.count()));
+        }
+        List<CommentResponse> responses = comments.stream()
+                .map(comment -> new CommentResponse(comment, replyCounts.getOrDefault(comment.getId(), 0L)))
+                .toList();
+        Long next = comments.size() < size ? null : comments.get(comments.size() - 1).getId();
+        return new CommentPageResponse(responses, next);
+    }
+}
@@ -1,5 +1,6 @@
 package me.minsic.springbootdeveloper.service;
 
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import me.minsic.springbootdeveloper.domain.RefreshToken;
 import me.minsic.springbootdeveloper.repository.RefreshTokenRepository;
@@ -14,4 +15,36 @@ public class RefreshTokenService {
         return refreshTokenRepository.findByRefreshToken(refreshToken)
                 .orElseThrow(() -> new IllegalArgumentException("Unexpected token"));
     }
+
+    // 유저의 리프레시 토큰이 이미 있으면 새 값으로 수정, 없으면 새로 저장
+    @Transactional
+    public RefreshToken saveRefreshToken(Long userId, String newRefreshToken) {
+        RefreshToken refreshToken = refreshTokenRepository.findByUserId(userId)
+                .map(entity -> entity.update(newRefreshToken))
+                .orElse(new RefreshToken(userId, newRefreshToken));
+
+        return refreshTokenRepository.save(refreshToken);
+    }
+
+    /*
+    * 리프레시 토큰을 한 번 쓰면 새 값으로 바꾼다. (조회와 수정을 update 한 문장으로)
+    * 저장된 값이 oldRefreshToken이 아니면(이미 교체됐거나 로그아웃한 토큰) 예외를 던진다.
+    * */
+    @Transactional
+    public void rotate(Long userId, String oldRefreshToken, String newRefreshToken) {
+        if (refreshTokenRepository.rotate(userId, oldRefreshToken, newRefreshToken) == 0) {
+            throw new IllegalArgumentException("Unexpected token");
+        }
+    }
+
+    // 로그아웃 : 사용자 id(엑세스 토큰) 또는 리프레시 토큰 값으로 저장된 토큰을 지운다.
+    @Transactional
+    public void delete(Long userId, String refreshToken) {
+        if (userId != null) {
+            refreshTokenRepository.deleteByUserId(userId);
+        }
+        if (refreshToken != null) {
+            refreshTokenRepository.deleteByRefreshToken(refreshToken);
+        }
+    }
 }
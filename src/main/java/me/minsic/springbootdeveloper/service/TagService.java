@@ -0,0 +1,93 @@
+package me.minsic.springbootdeveloper.service;
+
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.domain.ArticleEventType;
+import me.minsic.springbootdeveloper.domain.ArticleOutboxEvent;
+import me.minsic.springbootdeveloper.domain.ArticleTag;
+import me.minsic.springbootdeveloper.dto.TaggedArticlePage;
+import me.minsic.springbootdeveloper.outbox.ArticleEventListener;
+import me.minsic.springbootdeveloper.repository.ArticleOutboxRepository;
+import me.minsic.springbootdeveloper.repository.ArticleTagRepository;
+import me.minsic.springbootdeveloper.shard.ShardTemplate;
+import me.minsic.springbootdeveloper.tag.TagIndex;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/*
+* 글 태그 저장, 조회
+* 태그를 바꾸면 TAGGED 이벤트를 기록하고, TagIndex가 이벤트를 받아서 색인을 고친다.
+* 글이 삭제되면 DELETED 이벤트를 받아서 그 글의 태그 행도 지운다. (일괄 삭제 포함)
+* */
+@RequiredArgsConstructor
+@Service
+public class TagService implements ArticleEventListener {
+
+    public static final int MAX_TAGS = 20; // 글 하나에 붙일 수 있는 태그 수
+
+    private final ArticleTagRepository tagRepository;
+    private final ArticleOutboxRepository outboxRepository;
+    private final BlogService blogService;
+    private final ShardTemplate shardTemplate;
+    private final TagIndex tagIndex;
+
+    /*
+    * 글의 태그를 names로 바꾼다. (앞뒤 공백을 지우고 소문자로 맞춘다)
+    * editor : 로그인한 사용자의 id, 작성자가 있는 글은 작성자만 바꿀 수 있다.
+    * */
+    public List<String> updateTags(long articleId, List<String> names, Long editor) {
+        Set<String> normalized = normalize(names);
+        if (normalized.size() > MAX_TAGS) {
+            throw new IllegalArgumentException("at most " + MAX_TAGS + " tags are allowed");
+        }
+        return shardTemplate.inTransaction(shardTemplate.shardFor(articleId), () -> {
+            blogService.lockEditable(articleId, editor);
+            tagRepository.deleteByArticleId(articleId);
+            tagRepository.saveAll(normalized.stream().map(name -> new ArticleTag(articleId, name)).toList());
+            tagRepository.flush();
+            outboxRepository.save(new ArticleOutboxEvent(articleId, ArticleEventType.TAGGED));
+            return List.copyOf(normalized);
+        });
+    }
+
+    public List<String> findTags(long articleId) {
+        return shardTemplate.execute(shardTemplate.shardFor(articleId), () -> tagRepository.findNamesByArticleId(articleId));
+    }
+
+    // 태그 조건에 맞는 글을 최신순으로 before(글 id) 다음부터 size 개
+    public TaggedArticlePage findTagged(List<String> all, List<String> any, List<String> none, Long before, int size) {
+        TagIndex.Page page = tagIndex.find(normalize(all), normalize(any), normalize(none), before, size);
+        return new TaggedArticlePage(blogService.findAllById(page.ids()), page.next());
+    }
+
+    @Override
+    public void onEvent(ArticleOutboxEvent event) {
+        if (event.getType() == ArticleEventType.DELETED) {
+            long articleId = event.getArticleId();
+            shardTemplate.inTransaction(shardTemplate.shardFor(articleId), () -> {
+                tagRepository.deleteByArticleId(articleId);
+            });
+        }
+    }
+
+    private static Set<String> normalize(List<String> names) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (names == null) {
+            return normalized;
+        }
+        for (String name : names) {
+            String tag = name == null ? "" : name.strip().toLowerCase(Locale.ROOT);
+            if (tag.isEmpty()) {
+                continue;
+            }
+            if (tag.length() > ArticleTag.MAX_NAME_LENGTH) {
+                throw new IllegalArgumentException("tag is longer than " + ArticleTag.MAX_NAME_LENGTH + ": " + tag);
+            }
+            normalized.add(tag);
+        }
+        return normalized;
+    }
+}
@@ -10,19 +10,34 @@ import java.time.Duration;
 @RequiredArgsConstructor
 @Service
 public class TokenService {
+    public static final Duration ACCESS_TOKEN_DURATION = Duration.ofHours(2);
+    public static final Duration REFRESH_TOKEN_DURATION = Duration.ofDays(14);
+
     private final TokenProvider tokenProvider;
     private final RefreshTokenService refreshTokenService;
     private final UserService userService;
 
-    public String createNewAccessToken(String refreshToken) {
+    public record Tokens(String accessToken, String refreshToken) {
+    }
+
+    /*
+    * 리프레시 토큰으로 새 엑세스 토큰을 발급하고, 리프레시 토큰도 새 값으로 바꾼다. (한 번 쓴 리프레시 토큰은 다시 쓸 수 없다)
+    * 탈취한 리프레시 토큰을 먼저 쓰면 원래 사용자의 다음 재발급이 실패하고, 로그아웃하면 저장된 토큰이 지워져서 더는 쓸 수 없다.
+    * */
+    public Tokens refresh(String refreshToken) {
         // 토근 유효성 검사에 실패하면 예외 발생
         if(!tokenProvider.validToken(refreshToken)) {
             throw new IllegalArgumentException("Unexpected token");
         }
 
-        Long userId = refreshTokenService.findByRefreshToken(refreshToken).getUserId();
+        Long userId = tokenProvider.getUserId(refreshToken);
+        if (userId == null) {
+            throw new IllegalArgumentException("Unexpected token");
+        }
         User user = userService.findById(userId);
+        String newRefreshToken = tokenProvider.generateToken(user, REFRESH_TOKEN_DURATION);
+        refreshTokenService.rotate(userId, refreshToken, newRefreshToken);
 
-        return tokenProvider.generateToken(user, Duration.ofHours(2));
+        return new Tokens(tokenProvider.generateToken(user, ACCESS_TOKEN_DURATION), newRefreshToken);
     }
 }
@@ -5,6 +5,7 @@ import lombok.Setter;
 import me.minsic.springbootdeveloper.domain.User;
 import me.minsic.springbootdeveloper.dto.AddUserRequest;
 import me.minsic.springbootdeveloper.repository.UserRepository;
+import me.minsic.springbootdeveloper.util.SingleFlight;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -14,17 +15,40 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final SingleFlight<Long, User> userLoads = new SingleFlight<>(); // 토큰 재발급이 몰릴 때 같은 사용자 조회를 한 번으로 합친다.
     
     public Long save(AddUserRequest dto) {
         return userRepository.save(User.builder()
                 .email(dto.getEmail())
                 //패스워드 암호화
                 .password(bCryptPasswordEncoder.encode(dto.getPassword()))
+                .nickname(nickname(dto.getNickname()))
                 .build()).getId();
     }
 
     public User findById(Long userId) {
-        return userRepository.findById(userId)
+        return userLoads.load(userId, () -> userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("Unexpected user")));
+    }
+
+    public User findByEmail(String email) {
+        return userRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("Unexpected user"));
     }
+
+    // 로그인한 사용자의 id (글 작성자 확인에 사용, 없는 사용자면 null)
+    public Long findIdByEmail(String email) {
+        return userRepository.findIdByEmail(email).orElse(null);
+    }
+
+    private static String nickname(String nickname) {
+        String name = nickname == null ? "" : nickname.strip();
+        if (name.isEmpty()) {
+            return null;
+        }
+        if (name.length() > User.MAX_NICKNAME_LENGTH) {
+            throw new IllegalArgumentException("nickname is longer than " + User.MAX_NICKNAME_LENGTH);
+        }
+        return name;
+    }
 }
@@ -0,0 +1,44 @@
+package me.minsic.springbootdeveloper.shard;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+* 여러 DB(샤드)에 나눠 저장해도 겹치지 않는 글 id 생성기 (DB의 IDENTITY 대신 사용)
+* id 구조(53비트) : [밀리초 41비트][서버 번호 4비트][시퀀스 8비트]
+* - 자바스크립트 Number로도 정확하게 다룰 수 있도록 53비트 안에 맞췄다.
+* - 시간 순서로 증가하므로 id 순서 = 작성 순서이고, 커서 페이징의 기준으로 쓸 수 있다.
+* - 상태는 (밀리초 << 8 | 시퀀스) 하나의 AtomicLong이라 락 없이 만든다.
+*   같은 밀리초에 256개를 넘으면 다음 밀리초를 미리 당겨 쓰고, 시계가 뒤로 가도 이전 값보다 작아지지 않는다.
+* - 서버 번호와 상태는 빈마다 따로 가진다. (같은 JVM의 여러 컨텍스트가 서로의 설정을 덮어쓰지 않도록)
+* */
+@Component
+public class ArticleIdGenerator {
+
+    private static final long EPOCH = Instant.parse("2023-01-01T00:00:00Z").toEpochMilli();
+    private static final int WORKER_BITS = 4;
+    private static final int SEQUENCE_BITS = 8;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int MAX_WORKER_ID = (1 << WORKER_BITS) - 1;
+
+    private final AtomicLong state = new AtomicLong();
+    private final long workerId;
+
+    public ArticleIdGenerator(ShardProperties shardProperties) {
+        int id = shardProperties.getWorkerId();
+        if (id < 0 || id > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("worker id must be between 0 and " + MAX_WORKER_ID + ": " + id);
+        }
+        this.workerId = id;
+    }
+
+    public long nextId() {
+        long now = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+        long next = state.updateAndGet(prev -> Math.max(prev + 1, now));
+        return (next >>> SEQUENCE_BITS) << (WORKER_BITS + SEQUENCE_BITS)
+                | workerId << SEQUENCE_BITS
+                | next & SEQUENCE_MASK;
+    }
+}
@@ -0,0 +1,22 @@
+package me.minsic.springbootdeveloper.shard;
+
+// 현재 스레드가 사용할 샤드 번호 (ShardTemplate이 설정하고, ShardRoutingDataSource가 커넥션을 고를 때 읽는다)
+final class ShardContext {
+
+    private static final ThreadLocal<Integer> current = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    static Integer get() {
+        return current.get();
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) {
+            current.remove();
+        } else {
+            current.set(shard);
+        }
+    }
+}
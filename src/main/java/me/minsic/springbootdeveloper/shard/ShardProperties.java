@@ -0,0 +1,27 @@
+package me.minsic.springbootdeveloper.shard;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("sharding") // application.yml의 sharding 값을 가져온다.
+public class ShardProperties {
+    private boolean enabled = false;
+    private int workerId = 0;                    // 글 id를 만드는 서버 번호(0~15), 서버마다 다르게 설정
+    private List<Shard> shards = new ArrayList<>(); // 글을 나눠 저장할 DB 목록, 첫 번째 DB에 사용자/토큰 테이블도 둔다.
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username = "sa";
+        private String password = "";
+    }
+}
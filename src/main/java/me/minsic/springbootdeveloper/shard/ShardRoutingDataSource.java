@@ -0,0 +1,16 @@
+package me.minsic.springbootdeveloper.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/*
+* 커넥션을 가져올 때 ShardContext의 샤드 번호에 해당하는 DB를 고르는 DataSource
+* 샤드가 정해지지 않은 요청(사용자, 토큰 등)은 기본 샤드(0번)를 사용한다.
+* 트랜잭션이 시작될 때 커넥션이 정해지므로 샤드 번호는 트랜잭션 밖에서 먼저 정해야 한다.
+* */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.get();
+    }
+}
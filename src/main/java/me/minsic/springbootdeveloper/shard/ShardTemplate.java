@@ -0,0 +1,164 @@
+package me.minsic.springbootdeveloper.shard;
+
+import jakarta.annotation.PreDestroy;
+import me.minsic.springbootdeveloper.config.sql.SqlStatistics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/*
+* 글 id로 샤드를 고르고, 정해진 샤드에서 작업을 실행하는 클래스
+* - 샤드 번호 : id를 섞은(hash) 값을 샤드 개수로 나눈 나머지
+*   (id의 아래 비트는 서버 번호, 시퀀스라서 그대로 나누면 한 샤드로 몰린다)
+* - scatter() : 모든 샤드에 같은 조회를 동시에 보내고 결과를 샤드 순서대로 모은다.
+* - 샤딩을 사용하지 않으면 샤드는 1개이고 작업을 그대로 실행한다.
+* */
+@Component
+public class ShardTemplate {
+
+    private final int shardCount;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor; // 샤드별 조회를 동시에 실행하는 스레드 (샤드가 1개면 사용하지 않음)
+
+    public ShardTemplate(ShardProperties shardProperties, PlatformTransactionManager transactionManager) {
+        this.shardCount = shardProperties.isEnabled() ? shardProperties.getShards().size() : 1;
+        if (shardCount == 0) {
+            throw new IllegalStateException("sharding.shards must not be empty");
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = shardCount == 1 ? null : Executors.newFixedThreadPool(shardCount, runnable -> {
+            Thread thread = new Thread(runnable, "shard-query-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardFor(long id) {
+        if (shardCount == 1) {
+            return 0;
+        }
+        // splitmix64 finalizer
+        long hash = id;
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        hash = hash ^ (hash >>> 31);
+        return (int) Math.floorMod(hash, (long) shardCount);
+    }
+
+    /*
+    * shard 번호의 DB에서 action을 실행한다.
+    * 이미 다른 샤드의 트랜잭션 안이라면 그 트랜잭션의 커넥션을 그대로 쓰게 되므로 예외를 던진다.
+    * */
+    public <T> T execute(int shard, Supplier<T> action) {
+        if (shardCount == 1) {
+            return action.get();
+        }
+        Integer previous = ShardContext.get();
+        int current = previous == null ? 0 : previous;
+        if (current != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("cannot switch to shard " + shard + " inside a transaction of shard " + current);
+        }
+        ShardContext.set(shard);
+        try {
+            return action.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    public void execute(int shard, Runnable action) {
+        execute(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // shard 번호의 DB에서 트랜잭션을 시작해 action을 실행한다.
+    public <T> T inTransaction(int shard, Supplier<T> action) {
+        return execute(shard, () -> transactionTemplate.execute(status -> action.get()));
+    }
+
+    public void inTransaction(int shard, Runnable action) {
+        execute(shard, () -> transactionTemplate.executeWithoutResult(status -> action.run()));
+    }
+
+    // 모든 샤드에서 query를 동시에 실행하고 결과를 샤드 번호 순서대로 반환한다.
+    public <T> List<List<T>> scatter(Supplier<List<T>> query) {
+        if (shardCount == 1) {
+            return List.of(query.get());
+        }
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(SqlStatistics.propagate(() -> execute(target, query)), executor));
+        }
+        List<List<T>> results = new ArrayList<>(shardCount);
+        try {
+            for (CompletableFuture<List<T>> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /*
+    * 각각 정렬된 목록들을 하나의 정렬된 목록으로 합친다. (k-way merge, 최대 limit 개)
+    * 순서가 같은(같은 id) 항목은 앞쪽 목록의 것 하나만 남긴다.
+    * */
+    public static <T> List<T> mergeSorted(List<List<T>> sortedLists, Comparator<? super T> comparator, int limit) {
+        // 큐 원소 : [목록 번호, 목록 안의 위치]
+        PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) -> {
+            int order = comparator.compare(sortedLists.get(a[0]).get(a[1]), sortedLists.get(b[0]).get(b[1]));
+            return order != 0 ? order : Integer.compare(a[0], b[0]);
+        });
+        for (int i = 0; i < sortedLists.size(); i++) {
+            if (!sortedLists.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+
+        List<T> merged = new ArrayList<>();
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<T> list = sortedLists.get(head[0]);
+            T item = list.get(head[1]);
+            if (merged.isEmpty() || comparator.compare(merged.get(merged.size() - 1), item) != 0) {
+                merged.add(item);
+            }
+            if (++head[1] < list.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+}
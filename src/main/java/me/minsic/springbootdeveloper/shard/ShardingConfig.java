@@ -0,0 +1,101 @@
+package me.minsic.springbootdeveloper.shard;
+
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.config.sql.SqlLogger;
+import me.minsic.springbootdeveloper.config.sql.SqlStatisticsDataSource;
+import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.repository.BlogRepository;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.tool.schema.Action;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+* sharding.enabled=true 일 때 글 테이블을 여러 DB(샤드)에 나눠 저장하는 설정
+* - DataSource를 샤드별 DataSource를 고르는 ShardRoutingDataSource로 바꾼다. (JPA, 리포지터리는 그대로 사용)
+*   샤드별 DataSource는 SqlStatisticsDataSource로 감싸서 요청별 SQL 통계에 포함한다.
+* - 하이버네이트가 기본 샤드에 테이블을 만들 때 같은 DDL을 문자열로 받아 두었다가 나머지 샤드에도 실행한다.
+* - data.sql로 기본 샤드에 들어간 글 중 다른 샤드에 있어야 하는 글은 시작할 때 옮긴다.
+* */
+@RequiredArgsConstructor
+@Configuration
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    private final ShardProperties shardProperties;
+    private final StringWriter schemaScript = new StringWriter();
+
+    @Bean
+    public ShardRoutingDataSource dataSource(SqlLogger sqlLogger) {
+        Map<Object, Object> dataSources = new HashMap<>();
+        List<ShardProperties.Shard> shards = shardProperties.getShards();
+        for (int i = 0; i < shards.size(); i++) {
+            dataSources.put(i, new SqlStatisticsDataSource(DataSourceBuilder.create()
+                    .url(shards.get(i).getUrl())
+                    .username(shards.get(i).getUsername())
+                    .password(shards.get(i).getPassword())
+                    .build(), sqlLogger));
+        }
+
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource();
+        routingDataSource.setTargetDataSources(dataSources);
+        routingDataSource.setDefaultTargetDataSource(dataSources.get(0));
+        return routingDataSource;
+    }
+
+    // 스크립트 생성을 켜면 하이버네이트가 ddl-auto 값을 보지 않으므로 기본 샤드에 실행할 작업도 같이 넘긴다.
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaScriptCustomizer() {
+        return properties -> {
+            properties.put("jakarta.persistence.schema-generation.database.action",
+                    Action.interpretHbm2ddlSetting(properties.get(AvailableSettings.HBM2DDL_AUTO)));
+            properties.put("jakarta.persistence.schema-generation.scripts.action", "create");
+            properties.put("jakarta.persistence.schema-generation.scripts.create-target", schemaScript);
+            properties.put("hibernate.hbm2ddl.delimiter", ";");
+        };
+    }
+
+    @Bean
+    public SmartInitializingSingleton shardInitializer(ShardRoutingDataSource dataSource, ShardTemplate shardTemplate,
+                                                       BlogRepository blogRepository) {
+        return () -> {
+            createSchema(dataSource);
+            relocateArticles(shardTemplate, blogRepository);
+        };
+    }
+
+    private void createSchema(ShardRoutingDataSource dataSource) {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(
+                new ByteArrayResource(schemaScript.toString().getBytes(StandardCharsets.UTF_8)));
+        populator.setContinueOnError(true); // ddl-auto처럼 이미 있는 테이블은 건너뛴다.
+        dataSource.getResolvedDataSources().forEach((shard, target) -> {
+            if (!Integer.valueOf(0).equals(shard)) {
+                populator.execute(target);
+            }
+        });
+    }
+
+    private void relocateArticles(ShardTemplate shardTemplate, BlogRepository blogRepository) {
+        List<Article> misplaced = shardTemplate.execute(0, () -> blogRepository.findAll()).stream()
+                .filter(article -> shardTemplate.shardFor(article.getId()) != 0)
+                .toList();
+        for (Article article : misplaced) {
+            shardTemplate.inTransaction(shardTemplate.shardFor(article.getId()), () -> blogRepository.insertRestored(article));
+        }
+        if (!misplaced.isEmpty()) {
+            shardTemplate.inTransaction(0, () -> blogRepository.deleteAllByIdInBatch(misplaced.stream().map(Article::getId).toList()));
+        }
+    }
+}
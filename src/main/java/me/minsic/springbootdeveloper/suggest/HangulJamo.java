@@ -0,0 +1,75 @@
+package me.minsic.springbootdeveloper.suggest;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/*
+* 자동 완성 색인과 검색어를 같은 형태로 맞추는 클래스
+* - 한글 음절을 초성, 중성, 종성 자모로 풀어 쓴다. (한국 -> ㅎㅏㄴㄱㅜㄱ)
+*   입력 중인 "한"은 "하나"의 앞부분(ㅎㅏㄴ)과 같아지고, "한ㄱ"도 "한국"의 접두사가 된다.
+* - 겹받침, 겹모음도 나눈다. (닭 -> ㄷㅏㄹㄱ, 과 -> ㄱㅗㅏ) 입력 중에 "달"까지 쳐도 "닭"을 찾는다.
+* - 라틴 문자는 소문자로 맞추고, 공백은 하나로 줄인다.
+* */
+final class HangulJamo {
+
+    private static final char SYLLABLE_FIRST = '가';
+    private static final char SYLLABLE_LAST = '힣';
+    private static final char COMPATIBILITY_FIRST = 'ㄱ';
+    private static final char COMPATIBILITY_LAST = 'ㆎ';
+
+    private static final String[] CHOSEONG = {
+            "ㄱ", "ㄲ", "ㄴ", "ㄷ", "ㄸ", "ㄹ", "ㅁ", "ㅂ", "ㅃ", "ㅅ", "ㅆ", "ㅇ", "ㅈ", "ㅉ", "ㅊ", "ㅋ", "ㅌ", "ㅍ", "ㅎ"
+    };
+    private static final String[] JUNGSEONG = {
+            "ㅏ", "ㅐ", "ㅑ", "ㅒ", "ㅓ", "ㅔ", "ㅕ", "ㅖ", "ㅗ", "ㅗㅏ", "ㅗㅐ", "ㅗㅣ", "ㅛ", "ㅜ", "ㅜㅓ", "ㅜㅔ", "ㅜㅣ",
+            "ㅠ", "ㅡ", "ㅡㅣ", "ㅣ"
+    };
+    private static final String[] JONGSEONG = {
+            "", "ㄱ", "ㄲ", "ㄱㅅ", "ㄴ", "ㄴㅈ", "ㄴㅎ", "ㄷ", "ㄹ", "ㄹㄱ", "ㄹㅁ", "ㄹㅂ", "ㄹㅅ", "ㄹㅌ", "ㄹㅍ", "ㄹㅎ",
+            "ㅁ", "ㅂ", "ㅂㅅ", "ㅅ", "ㅆ", "ㅇ", "ㅈ", "ㅊ", "ㅋ", "ㅌ", "ㅍ", "ㅎ"
+    };
+    // 호환용 자모(ㄳ, ㅘ 등)를 따로 입력한 경우에도 음절에서 푼 것과 같게 나눈다. (한 글자 -> 두 자모, 세 글자씩)
+    private static final String COMPOUNDS = "ㄳㄱㅅㄵㄴㅈㄶㄴㅎㄺㄹㄱㄻㄹㅁㄼㄹㅂㄽㄹㅅㄾㄹㅌㄿㄹㅍㅀㄹㅎㅄㅂㅅ"
+            + "ㅘㅗㅏㅙㅗㅐㅚㅗㅣㅝㅜㅓㅞㅜㅔㅟㅜㅣㅢㅡㅣ";
+    private static final String[] COMPATIBILITY = new String[COMPATIBILITY_LAST - COMPATIBILITY_FIRST + 1];
+
+    static {
+        for (int i = 0; i < COMPOUNDS.length(); i += 3) {
+            COMPATIBILITY[COMPOUNDS.charAt(i) - COMPATIBILITY_FIRST] = COMPOUNDS.substring(i + 1, i + 3);
+        }
+    }
+
+    private HangulJamo() {
+    }
+
+    static String decompose(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        StringBuilder jamo = new StringBuilder(normalized.length() * 3);
+        boolean space = true; // 앞 공백은 버린다.
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (!space) {
+                    jamo.append(' ');
+                    space = true;
+                }
+                continue;
+            }
+            space = false;
+            if (c >= SYLLABLE_FIRST && c <= SYLLABLE_LAST) {
+                int index = c - SYLLABLE_FIRST;
+                jamo.append(CHOSEONG[index / 588])
+                        .append(JUNGSEONG[index % 588 / 28])
+                        .append(JONGSEONG[index % 28]);
+            } else if (c >= COMPATIBILITY_FIRST && c <= COMPATIBILITY_LAST && COMPATIBILITY[c - COMPATIBILITY_FIRST] != null) {
+                jamo.append(COMPATIBILITY[c - COMPATIBILITY_FIRST]);
+            } else {
+                jamo.append(c);
+            }
+        }
+        if (space && !jamo.isEmpty()) {
+            jamo.setLength(jamo.length() - 1); // 뒤 공백
+        }
+        return jamo.toString();
+    }
+}
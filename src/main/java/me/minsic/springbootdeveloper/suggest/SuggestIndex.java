@@ -0,0 +1,162 @@
+package me.minsic.springbootdeveloper.suggest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/*
+* 제목 접두사 -> 인기 제목 목록을 들고 있는 압축 트라이(radix tree), 만든 뒤에는 바꾸지 않는다.
+* - 제목을 자모로 풀어 쓴 문자열(HangulJamo)을 키로 쓴다. 각 단어의 시작부터 끝까지도 키로 넣어서
+*   "스프링 부트 시작하기"는 "스프", "부트", "시작"으로도 찾는다. (maxWords 단어까지)
+* - 갈라지지 않는 구간은 노드 하나로 합친다. 노드의 글자는 따로 복사하지 않고 키 문자열의 범위로 가리킨다.
+* - 노드마다 그 아래 제목 중 인기순 상위 topK 개를 만들 때 미리 골라 둔다.
+*   조회는 검색어 길이만큼 트라이를 따라 내려가서 그 노드의 목록을 그대로 돌려준다. (제목 수와 관계없다)
+* - 항목은 (인기 내림차순, 최신 글 먼저)로 정렬해 두고 번호로 가리킨다. 번호가 작을수록 앞 순위라서
+*   자식들의 상위 목록을 합칠 때 번호만 정렬하면 된다.
+* - 검색어가 MAX_KEY_LENGTH 자모보다 길면 그 앞부분으로 찾는다.
+* */
+final class SuggestIndex {
+
+    static final int MAX_KEY_LENGTH = 64;
+    static final SuggestIndex EMPTY = new SuggestIndex(new Entry[0], null, 0, 0);
+
+    private static final int[] NONE = new int[0];
+
+    private final Entry[] entries;
+    private final Node root;
+    private final int keys;
+    private final int nodes;
+
+    // 제안 항목 (weight: 인기 가중치, 클수록 앞)
+    record Entry(long id, String title, long weight) {
+    }
+
+    private record Key(String text, int entry) {
+    }
+
+    // source의 [from, to) 글자가 이 노드로 들어오는 간선
+    private record Node(String source, int from, int to, char[] labels, Node[] children, int[] top) {
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            return index < 0 ? null : children[index];
+        }
+    }
+
+    private SuggestIndex(Entry[] entries, Node root, int keys, int nodes) {
+        this.entries = entries;
+        this.root = root;
+        this.keys = keys;
+        this.nodes = nodes;
+    }
+
+    static SuggestIndex build(List<Entry> items, int maxWords, int topK) {
+        Entry[] entries = items.toArray(Entry[]::new);
+        Arrays.sort(entries, Comparator.comparingLong(Entry::weight).thenComparingLong(Entry::id).reversed());
+
+        List<Key> keys = new ArrayList<>(entries.length * 2);
+        for (int i = 0; i < entries.length; i++) {
+            String text = HangulJamo.decompose(entries[i].title());
+            int start = 0;
+            for (int word = 0; word < maxWords && start < text.length(); word++) {
+                keys.add(new Key(text.substring(start, Math.min(text.length(), start + MAX_KEY_LENGTH)), i));
+                int space = text.indexOf(' ', start);
+                if (space < 0) {
+                    break;
+                }
+                start = space + 1;
+            }
+        }
+        if (keys.isEmpty()) {
+            return EMPTY;
+        }
+        Key[] sorted = keys.toArray(Key[]::new);
+        Arrays.sort(sorted, Comparator.comparing(Key::text).thenComparingInt(Key::entry));
+        int[] nodes = new int[1];
+        Node root = node(sorted, 0, sorted.length, 0, topK, nodes);
+        return new SuggestIndex(entries, root, sorted.length, nodes[0]);
+    }
+
+    // 접두사가 prefix인 제목을 인기순으로 최대 limit 개 (limit은 topK 이하)
+    List<Entry> find(String prefix, int limit) {
+        String query = HangulJamo.decompose(prefix);
+        if (query.length() > MAX_KEY_LENGTH) {
+            query = query.substring(0, MAX_KEY_LENGTH);
+        }
+        Node node = root;
+        int matched = 0;
+        while (node != null) {
+            for (int i = node.from(); i < node.to() && matched < query.length(); i++, matched++) {
+                if (node.source().charAt(i) != query.charAt(matched)) {
+                    return List.of();
+                }
+            }
+            if (matched == query.length()) {
+                int[] top = node.top();
+                List<Entry> found = new ArrayList<>(Math.min(limit, top.length));
+                for (int i = 0; i < top.length && i < limit; i++) {
+                    found.add(entries[top[i]]);
+                }
+                return found;
+            }
+            node = node.child(query.charAt(matched));
+        }
+        return List.of();
+    }
+
+    int articles() {
+        return entries.length;
+    }
+
+    int keys() {
+        return keys;
+    }
+
+    int nodes() {
+        return nodes;
+    }
+
+    /*
+    * 정렬된 keys[lo, hi)는 depth 글자까지 같다. 첫 키와 마지막 키가 같은 데까지를 이 노드의 간선으로 합치고,
+    * 거기서 끝나는 키는 이 노드의 항목, 나머지는 다음 글자별로 자식 노드가 된다.
+    * */
+    private static Node node(Key[] keys, int lo, int hi, int depth, int topK, int[] count) {
+        count[0]++;
+        String first = keys[lo].text();
+        String last = keys[hi - 1].text();
+        int end = depth;
+        while (end < first.length() && end < last.length() && first.charAt(end) == last.charAt(end)) {
+            end++;
+        }
+
+        List<Integer> candidates = new ArrayList<>();
+        int i = lo;
+        for (; i < hi && keys[i].text().length() == end; i++) {
+            candidates.add(keys[i].entry());
+        }
+        List<Node> children = new ArrayList<>();
+        while (i < hi) {
+            char c = keys[i].text().charAt(end);
+            int j = i;
+            while (j < hi && keys[j].text().charAt(end) == c) {
+                j++;
+            }
+            Node child = node(keys, i, j, end, topK, count);
+            children.add(child);
+            for (int entry : child.top()) {
+                candidates.add(entry);
+            }
+            i = j;
+        }
+
+        char[] labels = new char[children.size()];
+        for (int k = 0; k < labels.length; k++) {
+            Node child = children.get(k);
+            labels[k] = child.source().charAt(child.from());
+        }
+        // 한 제목이 여러 단어로 들어가서 같은 항목이 여러 번 올라올 수 있다.
+        int[] top = candidates.stream().mapToInt(Integer::intValue).sorted().distinct().limit(topK).toArray();
+        return new Node(first, depth, end, labels, children.toArray(Node[]::new), top.length == 0 ? NONE : top);
+    }
+}
@@ -0,0 +1,20 @@
+package me.minsic.springbootdeveloper.suggest;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("suggest") // application.yml의 suggest 값을 가져온다.
+public class SuggestProperties {
+    private boolean enabled = true;
+    private int maxSize = 10;                          // 접두사마다 미리 골라 두는 제안 수 (한 번에 조회할 수 있는 최대 수)
+    private int maxWords = 8;                          // 제목에서 접두사로 찾을 수 있는 단어 수 (첫 단어부터)
+    private Duration interval = Duration.ofSeconds(5); // 글이 바뀌었는지 확인해서 색인을 다시 만드는 주기
+    private Duration refresh = Duration.ofMinutes(5);  // 글이 바뀌지 않아도 인기 가중치를 반영하려고 다시 만드는 주기
+}
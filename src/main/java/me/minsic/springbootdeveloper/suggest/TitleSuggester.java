@@ -0,0 +1,124 @@
+package me.minsic.springbootdeveloper.suggest;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.minsic.springbootdeveloper.domain.ArticleEventType;
+import me.minsic.springbootdeveloper.domain.ArticleOutboxEvent;
+import me.minsic.springbootdeveloper.dto.ArticleTitle;
+import me.minsic.springbootdeveloper.outbox.ArticleEventListener;
+import me.minsic.springbootdeveloper.service.BlogService;
+import me.minsic.springbootdeveloper.trending.TrendingArticles;
+import me.minsic.springbootdeveloper.trending.TrendingWindow;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+* 제목 자동 완성 (검색어로 시작하는 제목을 인기순으로)
+* - 조회는 메모리의 SuggestIndex만 읽는다. 키 입력마다 DB에 LIKE 'prefix%' 조회를 보내지 않는다.
+* - 색인은 고치지 않고 새로 만든다. 전체 글의 id, 제목을 읽어서 새 색인을 만든 뒤 참조만 바꾼다. (copy-on-write)
+*   조회는 락 없이 그 순간의 색인을 읽으므로 다시 만드는 동안에도 기다리지 않고 이전 색인으로 답한다.
+* - 글이 추가, 수정, 삭제되면 아웃박스 이벤트로 표시만 해 두고, interval마다 확인해서 별도 스레드에서 다시 만든다.
+*   바뀐 글이 없어도 refresh마다 다시 만들어서 인기 가중치(최근 1일 추정 조회 수)를 반영한다.
+* - 다시 만들기 전까지는 바뀌기 전 제목으로 답한다. 서버를 띄운 직후 첫 색인을 만들기 전에는 빈 목록이다.
+* */
+@Slf4j
+@Component
+public class TitleSuggester implements ArticleEventListener {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final SuggestProperties properties;
+    private final BlogService blogService;
+    private final TrendingArticles trendingArticles;
+    private final AtomicReference<SuggestIndex> index = new AtomicReference<>(SuggestIndex.EMPTY);
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService rebuilder;
+    private volatile boolean dirty = true;
+    private volatile long builtAt;
+    private volatile long buildMillis;
+
+    public TitleSuggester(SuggestProperties properties, BlogService blogService, TrendingArticles trendingArticles) {
+        this.properties = properties;
+        this.blogService = blogService;
+        this.trendingArticles = trendingArticles;
+        this.rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "suggest-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public record Snapshot(int articles, int keys, int nodes, long builtAt, long buildMillis) {
+    }
+
+    @PreDestroy
+    public void close() {
+        rebuilder.shutdownNow();
+    }
+
+    // 검색어로 시작하는 제목(단어 단위 포함)을 인기순으로 최대 size 개
+    public List<ArticleTitle> suggest(String query, int size) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        int limit = Math.min(Math.max(size, 1), properties.getMaxSize());
+        return index.get().find(query, limit).stream()
+                .map(entry -> new ArticleTitle(entry.id(), entry.title()))
+                .toList();
+    }
+
+    @Override
+    public void onEvent(ArticleOutboxEvent event) {
+        if (event.getType() == ArticleEventType.TAGGED) {
+            return; // 태그만 바뀐 글은 제목이 그대로다.
+        }
+        dirty = true; // 제목이 바뀌었는지는 모르므로 모든 이벤트에서 다시 만든다.
+    }
+
+    // 스케줄러 스레드는 확인만 하고, 색인은 별도 스레드에서 만든다. (아웃박스 전달, 아카이브 이동이 밀리지 않도록)
+    @Scheduled(initialDelayString = "${suggest.interval}", fixedDelayString = "${suggest.interval}")
+    public void scheduleRebuild() {
+        boolean stale = System.currentTimeMillis() - builtAt >= properties.getRefresh().toMillis();
+        if (!properties.isEnabled() || !(dirty || stale) || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        rebuilder.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                dirty = true; // 다음 주기에 다시 시도
+                log.warn("failed to rebuild title suggestions", e);
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+    }
+
+    // 전체 글의 제목으로 새 색인을 만들어서 바꾼다. 만드는 중에 온 이벤트는 다음 번에 반영한다.
+    public synchronized void rebuild() {
+        dirty = false;
+        long started = System.nanoTime();
+        List<SuggestIndex.Entry> entries = new ArrayList<>();
+        blogService.forEachTitleChunk(PAGE_SIZE, page -> {
+            for (ArticleTitle title : page) {
+                entries.add(new SuggestIndex.Entry(title.id(), title.title(),
+                        trendingArticles.views(TrendingWindow.DAY, title.id())));
+            }
+        });
+        index.set(SuggestIndex.build(entries, properties.getMaxWords(), properties.getMaxSize()));
+        builtAt = System.currentTimeMillis();
+        buildMillis = (System.nanoTime() - started) / 1_000_000;
+    }
+
+    public Snapshot snapshot() {
+        SuggestIndex current = index.get();
+        return new Snapshot(current.articles(), current.keys(), current.nodes(), builtAt, buildMillis);
+    }
+}
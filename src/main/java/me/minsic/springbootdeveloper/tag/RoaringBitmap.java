@@ -0,0 +1,470 @@
+package me.minsic.springbootdeveloper.tag;
+
+import java.util.Arrays;
+
+/*
+* 0 이상의 int 집합을 압축해서 저장하는 비트맵 (Roaring 방식)
+* - 값의 위 16비트로 구간(container)을 나누고, 구간 안의 아래 16비트만 저장한다.
+*   원소가 4096개 이하인 구간은 정렬된 char 배열(최대 8KB), 넘으면 65536비트 비트맵(8KB)으로 바꾼다.
+* - and, or, andNot은 키가 같은 구간끼리만 계산한다. 배열끼리는 병합, 비트맵끼리는 long 단위 연산
+* - 연산 결과는 새 객체이고, 한 객체를 여러 스레드에서 동시에 고치면 안 된다. (TagIndex의 락 안에서 사용)
+* */
+public class RoaringBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size; // 구간 수
+
+    public static RoaringBitmap of(int... values) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    public void add(int value) {
+        checkValue(value);
+        char key = (char) (value >>> 16);
+        int index = search(key);
+        if (index >= 0) {
+            containers[index] = containers[index].add((char) value);
+            return;
+        }
+        index = -index - 1;
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = new ArrayContainer().add((char) value);
+        size++;
+    }
+
+    public void remove(int value) {
+        checkValue(value);
+        int index = search((char) (value >>> 16));
+        if (index < 0) {
+            return;
+        }
+        Container container = containers[index].remove((char) value);
+        if (container.cardinality() > 0) {
+            containers[index] = container;
+            return;
+        }
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        containers[--size] = null;
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = search((char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // 저장에 쓰는 대략의 바이트 수 (지표용)
+    public long sizeInBytes() {
+        long bytes = size * 10L;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    public static RoaringBitmap and(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                result.append(a.keys[i], a.containers[i].and(b.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public static RoaringBitmap or(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || i < a.size && a.keys[i] < b.keys[j]) {
+                result.append(a.keys[i], a.containers[i].copy());
+                i++;
+            } else if (i == a.size || a.keys[i] > b.keys[j]) {
+                result.append(b.keys[j], b.containers[j].copy());
+                j++;
+            } else {
+                result.append(a.keys[i], a.containers[i].or(b.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    // a에서 b의 원소를 뺀 집합
+    public static RoaringBitmap andNot(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap();
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            while (j < b.size && b.keys[j] < a.keys[i]) {
+                j++;
+            }
+            boolean overlaps = j < b.size && b.keys[j] == a.keys[i];
+            result.append(a.keys[i], overlaps ? a.containers[i].andNot(b.containers[j]) : a.containers[i].copy());
+        }
+        return result;
+    }
+
+    /*
+    * below보다 작은 원소를 큰 것부터 최대 limit 개 반환 (키셋 페이징, below가 Integer.MAX_VALUE면 처음부터)
+    * 구간을 뒤에서부터 보면서 필요한 개수만 꺼내므로 결과 전체를 만들지 않는다.
+    * */
+    public int[] descendingBelow(int below, int limit) {
+        int[] values = new int[limit];
+        int count = 0;
+        for (int i = size - 1; i >= 0 && count < limit; i--) {
+            int high = keys[i] << 16;
+            if (high >= below) {
+                continue;
+            }
+            int lowBelow = below - high >= 0x10000 ? 0x10000 : below - high;
+            count = containers[i].descendingBelow(lowBelow, high, values, count, limit);
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    private void append(char key, Container container) {
+        if (container.cardinality() == 0) {
+            return;
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        keys[size] = key;
+        containers[size] = container;
+        size++;
+    }
+
+    private int search(char key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] < key) {
+                low = middle + 1;
+            } else if (keys[middle] > key) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("negative value: " + value);
+        }
+    }
+
+    private abstract static class Container {
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract long sizeInBytes();
+
+        abstract Container copy();
+
+        abstract BitmapContainer toBitmap();
+
+        // values[count..]에 below 미만의 원소를 큰 것부터 (high | 원소)로 채우고 새 count를 반환
+        abstract int descendingBelow(int below, int high, int[] values, int count, int limit);
+
+        Container and(Container other) {
+            if (this instanceof ArrayContainer array) {
+                return array.filter(other, true);
+            }
+            if (other instanceof ArrayContainer array) {
+                return array.filter(this, true);
+            }
+            return ((BitmapContainer) this).combine((BitmapContainer) other, Operation.AND);
+        }
+
+        Container or(Container other) {
+            if (this instanceof ArrayContainer a && other instanceof ArrayContainer b
+                    && a.cardinality + b.cardinality <= ARRAY_MAX) {
+                return a.union(b);
+            }
+            return toBitmap().combine(other.toBitmap(), Operation.OR);
+        }
+
+        Container andNot(Container other) {
+            if (this instanceof ArrayContainer array) {
+                return array.filter(other, false);
+            }
+            return ((BitmapContainer) this).combine(other.toBitmap(), Operation.AND_NOT);
+        }
+    }
+
+    private enum Operation {
+        AND, OR, AND_NOT
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] content;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] content, int cardinality) {
+            this.content = content;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(content, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            index = -index - 1;
+            if (cardinality == content.length) {
+                content = Arrays.copyOf(content, Math.min(ARRAY_MAX, cardinality * 2));
+            }
+            System.arraycopy(content, index, content, index + 1, cardinality - index);
+            content[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(content, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(content, index + 1, content, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(content, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 2L * content.length;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(content, Math.max(cardinality, 1)), cardinality);
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.set(content[i]);
+            }
+            return bitmap;
+        }
+
+        @Override
+        int descendingBelow(int below, int high, int[] values, int count, int limit) {
+            int index = Arrays.binarySearch(content, 0, cardinality, (char) Math.min(below, 0xFFFF));
+            int start = index >= 0 ? index : -index - 1; // below 이상인 첫 위치
+            if (below > 0xFFFF) {
+                start = cardinality;
+            }
+            for (int i = start - 1; i >= 0 && count < limit; i--) {
+                values[count++] = high | content[i];
+            }
+            return count;
+        }
+
+        // keep이 true면 other에 있는 원소만, false면 other에 없는 원소만 남긴다.
+        ArrayContainer filter(Container other, boolean keep) {
+            char[] result = new char[Math.max(cardinality, 1)];
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(content[i]) == keep) {
+                    result[count++] = content[i];
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        ArrayContainer union(ArrayContainer other) {
+            char[] result = new char[cardinality + other.cardinality];
+            int i = 0;
+            int j = 0;
+            int count = 0;
+            while (i < cardinality || j < other.cardinality) {
+                if (j == other.cardinality || i < cardinality && content[i] < other.content[j]) {
+                    result[count++] = content[i++];
+                } else if (i == cardinality || content[i] > other.content[j]) {
+                    result[count++] = other.content[j++];
+                } else {
+                    result[count++] = content[i++];
+                    j++;
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer() {
+            this(new long[1024], 0);
+        }
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        void set(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before | 1L << value;
+            if (before != words[value >>> 6]) {
+                cardinality++;
+            }
+        }
+
+        @Override
+        Container add(char value) {
+            set(value);
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before & ~(1L << value);
+            if (before != words[value >>> 6]) {
+                cardinality--;
+            }
+            return cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & 1L << value) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 8L * words.length;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            return this;
+        }
+
+        @Override
+        int descendingBelow(int below, int high, int[] values, int count, int limit) {
+            for (int value = below - 1; value >= 0 && count < limit; ) {
+                long word = words[value >>> 6] & (-1L >>> (63 - (value & 63)));
+                if (word == 0) {
+                    value = (value & ~63) - 1;
+                    continue;
+                }
+                int bit = 63 - Long.numberOfLeadingZeros(word);
+                int found = (value & ~63) | bit;
+                values[count++] = high | found;
+                value = found - 1;
+            }
+            return count;
+        }
+
+        Container combine(BitmapContainer other, Operation operation) {
+            long[] result = new long[words.length];
+            int count = 0;
+            for (int i = 0; i < words.length; i++) {
+                result[i] = switch (operation) {
+                    case AND -> words[i] & other.words[i];
+                    case OR -> words[i] | other.words[i];
+                    case AND_NOT -> words[i] & ~other.words[i];
+                };
+                count += Long.bitCount(result[i]);
+            }
+            BitmapContainer bitmap = new BitmapContainer(result, count);
+            return count <= ARRAY_MAX ? bitmap.toArray() : bitmap;
+        }
+
+        ArrayContainer toArray() {
+            char[] content = new char[Math.max(cardinality, 1)];
+            int count = 0;
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    content[count++] = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(content, count);
+        }
+    }
+}
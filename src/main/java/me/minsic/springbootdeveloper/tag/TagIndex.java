@@ -0,0 +1,200 @@
+package me.minsic.springbootdeveloper.tag;
+
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.domain.ArticleEventType;
+import me.minsic.springbootdeveloper.domain.ArticleOutboxEvent;
+import me.minsic.springbootdeveloper.domain.ArticleTag;
+import me.minsic.springbootdeveloper.outbox.ArticleEventListener;
+import me.minsic.springbootdeveloper.repository.ArticleTagRepository;
+import me.minsic.springbootdeveloper.service.BlogService;
+import me.minsic.springbootdeveloper.shard.ShardTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+* 태그 -> 글 집합을 압축 비트맵(RoaringBitmap)으로 들고 있는 메모리 색인
+* - 글 id(53비트, 시간 순서)는 듬성듬성해서 그대로 비트맵에 넣으면 압축되지 않는다.
+*   그래서 모든 글에 id 순서대로 0, 1, 2 ... 번호(ordinal)를 붙이고 비트맵에는 번호를 넣는다.
+*   번호 순서 = id 순서 = 작성 순서라서, 비트맵을 큰 번호부터 읽으면 최신순이고 커서(id)로 키셋 페이징을 할 수 있다.
+* - "A와 B가 있고 C는 없는 글"은 and(A, B) -> andNot(C) 비트맵 연산으로 답한다. (article_tag 조인 없음)
+* - 처음 조회할 때 모든 글의 id와 태그를 읽어서 만들고, 이후에는 아웃박스 이벤트(CREATED, TAGGED, DELETED)로 바뀐 글만 고친다.
+*   번호 -> 태그 역색인을 같이 들고 있어서, 이벤트 하나에 그 글이 있던 태그와 새 태그의 비트맵만 고친다.
+*   새 글은 마지막 번호 뒤에 붙는다. 다른 서버가 만든 id가 늦게 도착해서 순서가 어긋나면 다음 조회에서 다시 만든다.
+* - 조회는 읽기 락, 이벤트 반영은 쓰기 락 (이벤트가 전달되기 전까지는 바뀌기 전 태그로 답한다)
+* */
+@RequiredArgsConstructor
+@Component
+public class TagIndex implements ArticleEventListener {
+
+    private final BlogService blogService;
+    private final ArticleTagRepository tagRepository;
+    private final ShardTemplate shardTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] ids = new long[1024]; // 번호 -> 글 id (오름차순), 삭제된 글의 번호도 남는다.
+    private int idCount;
+    private final Map<String, RoaringBitmap> tags = new HashMap<>();
+    private final Map<Integer, Set<String>> tagsByOrdinal = new HashMap<>(); // 번호 -> 글의 태그 (이벤트를 반영할 때 바뀐 비트맵만 고친다)
+    private volatile boolean loaded;
+
+    // 검색 결과 한 페이지 (최신순 글 id, 다음 페이지를 요청할 때 before로 넘길 값)
+    public record Page(List<Long> ids, Long next) {
+    }
+
+    public record Snapshot(int articles, int tags, long entries, long bytes) {
+    }
+
+    /*
+    * all의 태그가 모두 있고, any가 있으면 그중 하나 이상 있고, none의 태그는 하나도 없는 글을
+    * before(글 id)보다 오래된 것부터 최신순으로 최대 size 개
+    * */
+    public Page find(Set<String> all, Set<String> any, Set<String> none, Long before, int size) {
+        if (all.isEmpty() && any.isEmpty()) {
+            throw new IllegalArgumentException("all or any tag is required");
+        }
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = null;
+            for (String tag : all) {
+                RoaringBitmap bitmap = tags.getOrDefault(tag, new RoaringBitmap());
+                result = result == null ? bitmap : RoaringBitmap.and(result, bitmap);
+            }
+            if (!any.isEmpty()) {
+                RoaringBitmap union = new RoaringBitmap();
+                for (String tag : any) {
+                    union = RoaringBitmap.or(union, tags.getOrDefault(tag, new RoaringBitmap()));
+                }
+                result = result == null ? union : RoaringBitmap.and(result, union);
+            }
+            for (String tag : none) {
+                RoaringBitmap excluded = tags.get(tag);
+                if (excluded != null) {
+                    result = RoaringBitmap.andNot(result, excluded);
+                }
+            }
+
+            int below = Integer.MAX_VALUE;
+            if (before != null) {
+                int position = Arrays.binarySearch(ids, 0, idCount, before);
+                below = position >= 0 ? position : -position - 1;
+            }
+            int[] ordinals = result.descendingBelow(below, size);
+            List<Long> page = Arrays.stream(ordinals).mapToObj(ordinal -> ids[ordinal]).toList();
+            return new Page(page, page.size() < size ? null : page.get(page.size() - 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onEvent(ArticleOutboxEvent event) {
+        if (!loaded || event.getType() == ArticleEventType.UPDATED) {
+            return; // 아직 만들지 않았으면 처음 조회할 때 최신 상태로 만든다. 내용만 바뀐 글은 태그가 그대로다.
+        }
+        long id = event.getArticleId();
+        Set<String> current = event.getType() == ArticleEventType.DELETED ? Set.of()
+                : new HashSet<>(shardTemplate.execute(shardTemplate.shardFor(id), () -> tagRepository.findNamesByArticleId(id)));
+
+        lock.writeLock().lock();
+        try {
+            int ordinal = Arrays.binarySearch(ids, 0, idCount, id);
+            if (ordinal < 0) {
+                if (event.getType() == ArticleEventType.DELETED) {
+                    return;
+                }
+                if (idCount > 0 && id < ids[idCount - 1]) {
+                    loaded = false; // 번호 순서가 어긋나므로 다음 조회에서 다시 만든다.
+                    return;
+                }
+                ordinal = append(id);
+            }
+            Set<String> previous = tagsByOrdinal.getOrDefault(ordinal, Set.of());
+            for (String tag : previous) {
+                if (!current.contains(tag)) {
+                    RoaringBitmap bitmap = tags.get(tag);
+                    bitmap.remove(ordinal);
+                    if (bitmap.isEmpty()) {
+                        tags.remove(tag);
+                    }
+                }
+            }
+            for (String tag : current) {
+                if (!previous.contains(tag)) {
+                    tags.computeIfAbsent(tag, key -> new RoaringBitmap()).add(ordinal);
+                }
+            }
+            if (current.isEmpty()) {
+                tagsByOrdinal.remove(ordinal);
+            } else {
+                tagsByOrdinal.put(ordinal, current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Snapshot snapshot() {
+        lock.readLock().lock();
+        try {
+            long entries = 0;
+            long bytes = 8L * ids.length;
+            for (RoaringBitmap bitmap : tags.values()) {
+                entries += bitmap.cardinality();
+                bytes += bitmap.sizeInBytes();
+            }
+            return new Snapshot(idCount, tags.size(), entries, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            // 먼저 loaded를 켜서 만드는 동안 커밋된 변경의 이벤트도 반영되게 한다. (같은 글을 다시 반영해도 결과가 같다)
+            loaded = true;
+            idCount = 0;
+            tags.clear();
+            tagsByOrdinal.clear();
+            for (long id : blogService.findAllIds()) {
+                append(id);
+            }
+            for (List<ArticleTag> shardTags : shardTemplate.scatter(tagRepository::findAll)) {
+                for (ArticleTag tag : shardTags) {
+                    int ordinal = Arrays.binarySearch(ids, 0, idCount, tag.getArticleId());
+                    if (ordinal >= 0) {
+                        tags.computeIfAbsent(tag.getName(), key -> new RoaringBitmap()).add(ordinal);
+                        tagsByOrdinal.computeIfAbsent(ordinal, key -> new HashSet<>()).add(tag.getName());
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            loaded = false;
+            throw e;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int append(long id) {
+        if (idCount == ids.length) {
+            ids = Arrays.copyOf(ids, idCount * 2);
+        }
+        ids[idCount] = id;
+        return idCount++;
+    }
+}
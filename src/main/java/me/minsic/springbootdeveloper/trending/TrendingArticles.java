@@ -0,0 +1,88 @@
+package me.minsic.springbootdeveloper.trending;
+
+import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.dto.TrendingArticleResponse;
+import me.minsic.springbootdeveloper.service.BlogService;
+import me.minsic.springbootdeveloper.util.SingleFlight;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+* 글 상세 조회(/articles/{id}, /api/articles/{id})를 TrendingTracker에 기록하고 기간별 인기 글을 반환
+* 조회는 DB에 남기지 않는다. 순위는 refresh 주기마다 한 번 계산해서(동시 요청은 SingleFlight로 합친다) 그대로 돌려준다.
+* 서버마다 따로 세므로 여러 대를 띄우면 각 서버가 받은 조회만으로 순위를 만든다.
+* */
+@Component
+public class TrendingArticles {
+
+    private final TrendingProperties properties;
+    private final BlogService blogService;
+    private final TrendingTracker tracker;
+    private final Map<TrendingWindow, Ranking> rankings = new EnumMap<>(TrendingWindow.class);
+    private final SingleFlight<TrendingWindow, Ranking> rankingLoads = new SingleFlight<>();
+
+    public TrendingArticles(TrendingProperties properties, BlogService blogService) {
+        this.properties = properties;
+        this.blogService = blogService;
+        this.tracker = new TrendingTracker(properties);
+    }
+
+    private record Ranking(long computedAt, List<TrendingArticleResponse> articles) {
+    }
+
+    public void record(long id) {
+        if (properties.isEnabled()) {
+            tracker.record(id, System.currentTimeMillis());
+        }
+    }
+
+    // 기간 동안 글의 추정 조회 수 (제목 자동 완성에서 인기 가중치로 사용)
+    public long views(TrendingWindow window, long id) {
+        return tracker.views(window, id, System.currentTimeMillis());
+    }
+
+    public List<TrendingArticleResponse> find(TrendingWindow window, int size) {
+        List<TrendingArticleResponse> articles = ranking(window).articles();
+        return articles.size() > size ? articles.subList(0, size) : articles;
+    }
+
+    private Ranking ranking(TrendingWindow window) {
+        long now = System.currentTimeMillis();
+        Ranking ranking;
+        synchronized (rankings) {
+            ranking = rankings.get(window);
+        }
+        if (ranking != null && now - ranking.computedAt() < properties.getRefresh().toMillis()) {
+            return ranking;
+        }
+        return rankingLoads.load(window, () -> {
+            Ranking computed = compute(window, now);
+            synchronized (rankings) {
+                rankings.put(window, computed);
+            }
+            return computed;
+        });
+    }
+
+    // 삭제된 글은 빠지고, 추정 조회 수 순서를 유지한다.
+    private Ranking compute(TrendingWindow window, long now) {
+        List<TrendingTracker.Entry> entries = tracker.top(window, properties.getMaxSize(), now);
+        Map<Long, Article> articles = blogService.findAllById(entries.stream().map(TrendingTracker.Entry::id).toList())
+                .stream()
+                .collect(Collectors.toMap(Article::getId, Function.identity()));
+        List<TrendingArticleResponse> ranked = new ArrayList<>(entries.size());
+        for (TrendingTracker.Entry entry : entries) {
+            Article article = articles.get(entry.id());
+            if (article != null) {
+                ranked.add(new TrendingArticleResponse(article, entry.views()));
+            }
+        }
+        return new Ranking(now, List.copyOf(ranked));
+    }
+}
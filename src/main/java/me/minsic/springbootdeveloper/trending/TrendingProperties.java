@@ -0,0 +1,21 @@
+package me.minsic.springbootdeveloper.trending;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("trending") // application.yml의 trending 값을 가져온다.
+public class TrendingProperties {
+    private boolean enabled = true;
+    private int width = 1024;                       // Count-Min Sketch 한 행의 카운터 수 (2의 거듭제곱)
+    private int depth = 4;                          // Count-Min Sketch 행 수 (해시 함수 수)
+    private int candidates = 256;                   // 구간마다 유지하는 인기 글 후보 수 (2의 거듭제곱)
+    private int maxSize = 100;                      // 한 번에 조회할 수 있는 최대 글 수
+    private Duration refresh = Duration.ofSeconds(10); // 순위를 다시 계산하는 주기 (그 사이에는 계산해 둔 순위를 반환)
+}
@@ -0,0 +1,98 @@
+package me.minsic.springbootdeveloper.trending;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+* 글 조회를 구간별 ViewSketch에 기록하고 기간(5분, 1시간, 1일) 동안 조회 수가 많은 글을 계산하는 클래스
+* - 1분 구간 60개, 1시간 구간 24개를 고리(ring)처럼 돌려 쓴다. 메모리는 설정한 크기로 고정이다.
+* - 조회 한 번에 현재 1분 구간과 현재 1시간 구간에 한 번씩 기록한다.
+* - 순위는 기간 안 구간들의 후보 id를 모으고, 각 id의 추정 조회 수를 구간마다 더해서 정렬한다.
+*   오래된 구간은 순위에서 빠지므로 조회가 끊긴 글은 기간이 지나면 자연스럽게 내려간다.
+* */
+public class TrendingTracker {
+
+    private final Map<TrendingWindow, ViewSketch[]> rings = new EnumMap<>(TrendingWindow.class);
+    private final ViewSketch[] minutes;
+    private final ViewSketch[] hours;
+
+    public TrendingTracker(TrendingProperties properties) {
+        if (Integer.bitCount(properties.getWidth()) != 1 || Integer.bitCount(properties.getCandidates()) != 1) {
+            throw new IllegalArgumentException("trending width and candidates must be powers of two");
+        }
+        this.minutes = ring(TrendingWindow.HOUR.getBuckets(), properties);
+        this.hours = ring(TrendingWindow.DAY.getBuckets(), properties);
+        rings.put(TrendingWindow.FIVE_MINUTES, minutes);
+        rings.put(TrendingWindow.HOUR, minutes);
+        rings.put(TrendingWindow.DAY, hours);
+    }
+
+    public record Entry(long id, long views) {
+    }
+
+    public void record(long id, long nowMillis) {
+        sketch(minutes, nowMillis / TrendingWindow.HOUR.getBucket().toMillis()).record(id);
+        sketch(hours, nowMillis / TrendingWindow.DAY.getBucket().toMillis()).record(id);
+    }
+
+    // 기간 동안 조회 수가 많은 글을 최대 limit 개 (조회 수가 같으면 최신 글 먼저)
+    public List<Entry> top(TrendingWindow window, int limit, long nowMillis) {
+        List<ViewSketch> live = live(window, nowMillis);
+        Set<Long> candidates = new HashSet<>();
+        live.forEach(sketch -> sketch.collectCandidates(candidates));
+        List<Entry> entries = new ArrayList<>(candidates.size());
+        for (long id : candidates) {
+            long views = 0;
+            for (ViewSketch sketch : live) {
+                views += sketch.estimate(id);
+            }
+            entries.add(new Entry(id, views));
+        }
+        entries.sort(Comparator.comparingLong(Entry::views).thenComparingLong(Entry::id).reversed());
+        return entries.size() > limit ? List.copyOf(entries.subList(0, limit)) : entries;
+    }
+
+    // 기간 동안 글 하나의 추정 조회 수 (후보에 없는 글도 추정할 수 있다)
+    public long views(TrendingWindow window, long id, long nowMillis) {
+        long views = 0;
+        for (ViewSketch sketch : live(window, nowMillis)) {
+            views += sketch.estimate(id);
+        }
+        return views;
+    }
+
+    // 기간 안에 있는 구간 (고리에 남아 있어도 기간이 지난 구간은 뺀다)
+    private List<ViewSketch> live(TrendingWindow window, long nowMillis) {
+        ViewSketch[] ring = rings.get(window);
+        long current = nowMillis / window.getBucket().toMillis();
+        List<ViewSketch> live = new ArrayList<>(window.getBuckets());
+        for (long epoch = current; epoch > current - window.getBuckets() && epoch >= 0; epoch--) {
+            ViewSketch sketch = ring[(int) (epoch % ring.length)];
+            if (sketch.getEpoch() == epoch) {
+                live.add(sketch);
+            }
+        }
+        return live;
+    }
+
+    private static ViewSketch sketch(ViewSketch[] ring, long epoch) {
+        ViewSketch sketch = ring[(int) (epoch % ring.length)];
+        if (sketch.getEpoch() != epoch) {
+            sketch.rotate(epoch);
+        }
+        return sketch;
+    }
+
+    private static ViewSketch[] ring(int length, TrendingProperties properties) {
+        ViewSketch[] ring = new ViewSketch[length];
+        for (int i = 0; i < length; i++) {
+            ring[i] = new ViewSketch(properties.getWidth(), properties.getDepth(), properties.getCandidates());
+        }
+        return ring;
+    }
+}
@@ -0,0 +1,30 @@
+package me.minsic.springbootdeveloper.trending;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/*
+* 인기 글을 집계하는 기간
+* 최근 5분, 1시간은 1분 구간을, 1일은 1시간 구간을 더한다. (현재 구간은 진행 중이라 기간이 구간 하나만큼 짧을 수 있다)
+* */
+@Getter
+@RequiredArgsConstructor
+public enum TrendingWindow {
+    FIVE_MINUTES("5m", Duration.ofMinutes(1), 5),
+    HOUR("1h", Duration.ofMinutes(1), 60),
+    DAY("1d", Duration.ofHours(1), 24);
+
+    private final String value;
+    private final Duration bucket;
+    private final int buckets;
+
+    public static TrendingWindow of(String value) {
+        return Arrays.stream(values())
+                .filter(window -> window.value.equals(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("unknown window: " + value));
+    }
+}
@@ -0,0 +1,122 @@
+package me.minsic.springbootdeveloper.trending;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+* 한 시간 구간(1분 또는 1시간)의 조회 수를 고정된 메모리에 세는 클래스
+* - Count-Min Sketch : depth 개의 해시로 각 행의 카운터 하나씩을 올리고, 그중 가장 작은 값을 조회 수로 본다.
+*   충돌하면 다른 글의 조회 수가 더해질 뿐 줄어들지는 않는다. (실제보다 크게 추정할 수 있다)
+* - 후보 테이블 : 조회 수가 큰 글 id만 candidates 개 남긴다. id의 해시 위치부터 4칸을 보고,
+*   빈 칸이 있으면 넣고 없으면 그중 추정치가 가장 작은 글보다 클 때 CAS로 바꾼다.
+* - 모든 갱신은 AtomicLongArray의 원자적 연산이라 요청 스레드가 락 없이 기록한다.
+* - 구간이 바뀌면 처음 기록한 스레드가 epoch를 CAS로 바꾸고 카운터를 비운다.
+*   비우는 동안 들어온 조회 몇 건이 지워질 수 있다. (근사치)
+* */
+class ViewSketch {
+
+    private static final int PROBES = 4;
+    private static final long EMPTY = 0L; // 글 id는 1부터 시작
+
+    private final AtomicLong epoch = new AtomicLong(-1);
+    private final AtomicLongArray counters;
+    private final AtomicLongArray candidates;
+    private final int width;
+    private final int depth;
+
+    ViewSketch(int width, int depth, int candidates) {
+        this.counters = new AtomicLongArray(width * depth);
+        this.candidates = new AtomicLongArray(candidates);
+        this.width = width;
+        this.depth = depth;
+    }
+
+    long getEpoch() {
+        return epoch.get();
+    }
+
+    // 이 구간이 epoch보다 이전 구간의 값을 들고 있으면 비운다.
+    void rotate(long epoch) {
+        long current = this.epoch.get();
+        if (current < epoch && this.epoch.compareAndSet(current, epoch)) {
+            for (int i = 0; i < counters.length(); i++) {
+                counters.set(i, 0);
+            }
+            for (int i = 0; i < candidates.length(); i++) {
+                candidates.set(i, EMPTY);
+            }
+        }
+    }
+
+    void record(long id) {
+        long hash = mix(id);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(hash, row)));
+        }
+        offer(id, hash, estimate);
+    }
+
+    long estimate(long id) {
+        long hash = mix(id);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    // 후보 글 id (같은 id가 경쟁으로 두 칸에 들어갈 수 있으므로 받는 쪽에서 중복을 없앤다)
+    void collectCandidates(Set<Long> into) {
+        for (int i = 0; i < candidates.length(); i++) {
+            long id = candidates.get(i);
+            if (id != EMPTY) {
+                into.add(id);
+            }
+        }
+    }
+
+    private void offer(long id, long hash, long estimate) {
+        int mask = candidates.length() - 1;
+        int start = (int) (hash >>> 40) & mask;
+        int victim = -1;
+        long victimId = EMPTY;
+        long victimEstimate = Long.MAX_VALUE;
+        for (int probe = 0; probe < PROBES; probe++) {
+            int slot = (start + probe) & mask;
+            long occupant = candidates.get(slot);
+            if (occupant == EMPTY) {
+                if (candidates.compareAndSet(slot, EMPTY, id)) {
+                    return;
+                }
+                occupant = candidates.get(slot);
+            }
+            if (occupant == id) {
+                return;
+            }
+            long occupantEstimate = estimate(occupant);
+            if (occupantEstimate < victimEstimate) {
+                victim = slot;
+                victimId = occupant;
+                victimEstimate = occupantEstimate;
+            }
+        }
+        if (victimEstimate < estimate) {
+            candidates.compareAndSet(victim, victimId, id); // 실패하면 다른 스레드가 먼저 바꾼 것이므로 다음 조회에 다시 시도
+        }
+    }
+
+    // 행마다 다른 해시 : 64비트 해시의 위 32비트와 아래 32비트를 섞는다. (double hashing)
+    private int index(long hash, int row) {
+        int combined = (int) hash + row * (int) (hash >>> 32);
+        return row * width + (combined & (width - 1));
+    }
+
+    // splitmix64의 마지막 단계 : 연속된 id도 고르게 흩어지게 한다.
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
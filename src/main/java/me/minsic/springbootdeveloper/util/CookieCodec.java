@@ -0,0 +1,10 @@
+package me.minsic.springbootdeveloper.util;
+
+// 객체를 쿠키 값(문자열)으로 변환하고 다시 객체로 복원하는 인터페이스
+public interface CookieCodec {
+
+    String encode(Object value);
+
+    // 변조되었거나 형식이 맞지 않는 값이면 IllegalArgumentException 발생
+    <T> T decode(String value, Class<T> cls);
+}
@@ -3,9 +3,6 @@ package me.minsic.springbootdeveloper.util;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.util.SerializationUtils;
-
-import java.util.Base64;
 
 public class CookieUtil {
 
@@ -17,8 +14,44 @@ public class CookieUtil {
         response.addCookie(cookie);
     }
 
+    // 자바스크립트에서 읽을 수 없는(HttpOnly) 쿠키 추가, 인증 토큰처럼 노출되면 안 되는 값에 사용
+    // SameSite=Lax로 다른 사이트에서 보내는 POST 요청에는 쿠키가 실리지 않게 한다.
+    public static void addHttpOnlyCookie(HttpServletResponse response, String name, String value, int maxAge) {
+        addHttpOnlyCookie(response, name, value, maxAge, "/");
+    }
+
+    // path 아래의 요청에만 실리는 HttpOnly 쿠키 (리프레시 토큰처럼 특정 엔드포인트에서만 쓰는 값)
+    public static void addHttpOnlyCookie(HttpServletResponse response, String name, String value, int maxAge, String path) {
+        Cookie cookie = new Cookie(name, value);
+        cookie.setPath(path);
+        cookie.setMaxAge(maxAge);
+        cookie.setHttpOnly(true);
+        cookie.setAttribute("SameSite", "Lax");
+        response.addCookie(cookie);
+    }
+
+    //쿠키의 이름으로 쿠키 값 조회, 없으면 null 반환
+    public static String getCookieValue(HttpServletRequest request, String name) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+
+        for (Cookie cookie : cookies) {
+            if (name.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
     //쿠키의 이름을 입력받아 쿠키 삭제
     public static void deleteCookie(HttpServletRequest request, HttpServletResponse response, String name) {
+        deleteCookie(request, response, name, "/");
+    }
+
+    //path로 발급한 쿠키 삭제 (브라우저는 이름과 경로가 모두 같아야 지운다)
+    public static void deleteCookie(HttpServletRequest request, HttpServletResponse response, String name, String path) {
         Cookie[] cookies = request.getCookies();
         if (cookies == null) {
             return;
@@ -27,26 +60,10 @@ public class CookieUtil {
         for (Cookie cookie : cookies) {
             if(name.equals(cookie.getName())) {
                 cookie.setValue("");
-                cookie.setPath("/");
+                cookie.setPath(path);
                 cookie.setMaxAge(0);
                 response.addCookie(cookie);
             }
         }
     }
-
-    //객체를 직렬화해 쿠키의 값으로 변환
-    public static String serialize(Object obj) {
-        return Base64.getUrlEncoder()
-                .encodeToString(SerializationUtils.serialize(obj));
-    }
-
-    //쿠키를 역직렬화해 객체로 변환
-    public static <T> T deserialize(Cookie cookie, Class<T> cls) {
-        return cls.cast(
-                SerializationUtils.deserialize(
-                        Base64.getUrlDecoder().decode(cookie.getValue())
-                )
-        );
-    }
-    
 }
@@ -0,0 +1,163 @@
+package me.minsic.springbootdeveloper.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/*
+* 자바 직렬화 대신 JSON으로 객체를 쿠키 값으로 변환하는 코덱
+* 쿠키 값의 구조 (Base64 URL, 패딩 없음)
+*   [버전 1바이트][플래그 1바이트][본문 JSON (압축 플래그가 있으면 deflate)][HMAC-SHA256 앞 16바이트]
+* 본문이 compressThreshold 보다 크면 deflate로 압축하고, 인코딩 결과가 maxLength를 넘으면 예외를 던진다.
+* 복원할 때는 HMAC을 먼저 확인하기 때문에 서버가 만든 값이 아니면 JSON 파싱까지 가지 않는다.
+* */
+public class JsonCookieCodec implements CookieCodec {
+
+    private static final byte VERSION = 1;
+    private static final byte FLAG_DEFLATED = 1;
+    private static final int HEADER_LENGTH = 2;
+    private static final int MAC_LENGTH = 16;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec secretKey;
+    private final int compressThreshold;
+    private final int maxLength;
+    private final ThreadLocal<Mac> macs; // Mac, Deflater는 스레드 안전하지 않고 생성 비용이 커서 스레드마다 하나씩 재사용
+    private final ThreadLocal<Deflater> deflaters = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED, true));
+
+    public JsonCookieCodec(ObjectMapper objectMapper, byte[] secretKey, int compressThreshold, int maxLength) {
+        this.objectMapper = objectMapper;
+        this.secretKey = new SecretKeySpec(secretKey, MAC_ALGORITHM);
+        this.compressThreshold = compressThreshold;
+        this.maxLength = maxLength;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    @Override
+    public String encode(Object value) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unserializable cookie value: " + value.getClass().getName(), e);
+        }
+
+        byte flags = 0;
+        if (body.length > compressThreshold) {
+            byte[] deflated = deflate(body);
+            if (deflated.length < body.length) {
+                body = deflated;
+                flags |= FLAG_DEFLATED;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + body.length + MAC_LENGTH);
+        buffer.put(VERSION).put(flags).put(body);
+        buffer.put(sign(buffer.array(), HEADER_LENGTH + body.length));
+
+        String encoded = Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+        if (encoded.length() > maxLength) {
+            throw new IllegalArgumentException("Cookie value too large: " + encoded.length());
+        }
+        return encoded;
+    }
+
+    @Override
+    public <T> T decode(String value, Class<T> cls) {
+        if (value == null || value.length() > maxLength) {
+            throw new IllegalArgumentException("Invalid cookie value");
+        }
+
+        byte[] bytes = Base64.getUrlDecoder().decode(value);
+        int bodyLength = bytes.length - HEADER_LENGTH - MAC_LENGTH;
+        if (bodyLength < 0 || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Invalid cookie value");
+        }
+
+        byte[] mac = Arrays.copyOfRange(bytes, HEADER_LENGTH + bodyLength, bytes.length);
+        if (!MessageDigest.isEqual(mac, sign(bytes, HEADER_LENGTH + bodyLength))) {
+            throw new IllegalArgumentException("Cookie signature mismatch");
+        }
+
+        byte[] body = Arrays.copyOfRange(bytes, HEADER_LENGTH, HEADER_LENGTH + bodyLength);
+        if ((bytes[1] & FLAG_DEFLATED) != 0) {
+            body = inflate(body);
+        }
+
+        try {
+            return objectMapper.readValue(body, cls);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unreadable cookie value", e);
+        }
+    }
+
+    private byte[] sign(byte[] bytes, int length) {
+        Mac mac = macs.get();
+        mac.update(bytes, 0, length);
+        return Arrays.copyOf(mac.doFinal(), MAC_LENGTH);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] deflate(byte[] bytes) {
+        Deflater deflater = deflaters.get();
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
+            byte[] buffer = new byte[512];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.reset();
+        }
+    }
+
+    // 압축 해제 결과도 maxLength 배수까지만 허용 (압축 폭탄 방지)
+    private byte[] inflate(byte[] bytes) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(bytes);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 4);
+            byte[] buffer = new byte[512];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated cookie value");
+                }
+                out.write(buffer, 0, count);
+                if (out.size() > maxLength * 16) {
+                    throw new IllegalArgumentException("Cookie value too large");
+                }
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Invalid cookie value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
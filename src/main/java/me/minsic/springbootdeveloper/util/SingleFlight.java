@@ -0,0 +1,52 @@
+package me.minsic.springbootdeveloper.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/*
+* 같은 키의 조회가 동시에 여러 번 들어오면 한 번만 실행하고 나머지는 그 결과를 기다려서 같이 받는 클래스 (single flight)
+* - 먼저 온 스레드가 loader를 실행하고, 실행 중에 온 스레드는 결과(또는 예외)를 그대로 받는다.
+* - 결과를 저장해 두지 않는다. 실행이 끝난 뒤에 온 요청은 다시 loader를 실행한다. (캐시가 아니라 동시 요청만 합친다)
+* - 실행 중인 조회에 합류하면 그 조회가 시작된 시점의 값을 받으므로, 그 사이에 커밋된 변경은 보이지 않을 수 있다.
+* - loader가 던진 RuntimeException, Error는 기다리던 스레드에도 같은 객체로 던진다.
+* - 여러 스레드가 같은 결과 객체를 공유하므로 결과를 수정하지 않는 조회에만 사용한다.
+* */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, created);
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            V value = loader.get();
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package me.minsic.springbootdeveloper.view;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.dto.ArticleListViewResponse;
+import me.minsic.springbootdeveloper.profiling.TemplateRenderEvent;
+import me.minsic.springbootdeveloper.service.BlogService;
+import me.minsic.springbootdeveloper.service.CommentService;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+/*
+* articlesList.html을 한 번에 그리지 않고 나눠서 보내는 렌더러
+* 1. 글 목록을 비운 채로 페이지 전체를 그린 뒤 카드 자리 표시(CARDS_MARKER)를 기준으로 앞/뒤로 나눈다.
+*    글과 상관없는 부분이라 첫 요청에서 한 번만 나누고 이후에는 그대로 쓴다. (링크는 컨텍스트 경로가 필요해서 요청으로 그린다)
+*    템플릿에 자리 표시가 없으면 서버를 띄울 때 실패한다.
+* 2. 앞부분(head)을 바로 보내고(flush) 첫 바이트가 나가게 한다.
+* 3. 키셋 페이지로 chunkSize 개씩 읽을 때마다 "cards" 프래그먼트만 그려서 보낸다. (보내는 동안 커넥션은 반납한 상태)
+* 4. 뒷부분(tail)을 보낸다.
+* 서버에는 한 묶음의 글과 서블릿 응답 버퍼만 남는다.
+* 댓글 수는 묶음마다 쿼리 한 번으로 조회한다. (글마다 조회하지 않는다)
+* */
+@RequiredArgsConstructor
+@Component
+public class ArticleListStreamRenderer {
+
+    private static final String TEMPLATE = "articlesList";
+    private static final Set<String> CARDS_FRAGMENT = Set.of("cards");
+    private static final String CARDS_MARKER = "<!--articles-->";
+
+    private final ITemplateEngine templateEngine;
+    private final BlogService blogService;
+    private final CommentService commentService;
+    private final StreamingViewProperties streamingViewProperties;
+    private final ThymeleafProperties thymeleafProperties;
+    private final ResourceLoader resourceLoader;
+    private volatile Frame frame; // 카드 앞/뒤 부분 (첫 요청에서 만든다)
+
+    // 카드 자리 표시를 기준으로 나눈 페이지
+    record Frame(String head, String tail) {
+
+        static Frame split(String page) {
+            int markerIndex = page.indexOf(CARDS_MARKER);
+            if (markerIndex < 0) {
+                throw new IllegalStateException(TEMPLATE + " has no cards marker " + CARDS_MARKER);
+            }
+            return new Frame(page.substring(0, markerIndex), page.substring(markerIndex + CARDS_MARKER.length()));
+        }
+    }
+
+    // 자리 표시(cardsMarker)가 없는 템플릿이면 요청을 받기 전에 실패한다. (응답 헤더를 보낸 뒤에 실패하지 않도록)
+    @PostConstruct
+    void checkTemplate() throws IOException {
+        Resource template = resourceLoader.getResource(thymeleafProperties.getPrefix() + TEMPLATE + thymeleafProperties.getSuffix());
+        String source = StreamUtils.copyToString(template.getInputStream(), StandardCharsets.UTF_8);
+        if (!source.contains("${cardsMarker}") || !source.contains("th:fragment=\"cards\"")) {
+            throw new IllegalStateException(TEMPLATE + " must have the cards fragment and the cardsMarker placeholder");
+        }
+    }
+
+    // 전체 렌더링 시간을 TemplateRenderEvent로 남긴다. (기록 중일 때만, 뷰를 돌려주지 않으므로 인터셉터가 재지 않는다)
+    public void render(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        TemplateRenderEvent event = new TemplateRenderEvent(TEMPLATE, 0);
+        event.begin();
+        Throwable failure = null;
+        try {
+            stream(request, response);
+        } catch (IOException | RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            event.finish(failure);
+        }
+    }
+
+    private void stream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        WebContext context = new WebContext(JakartaServletWebApplication.buildApplication(request.getServletContext())
+                .buildExchange(request, response), request.getLocale());
+        Frame page = frame(context); // 응답을 쓰기 전에 만든다.
+        response.setContentType("text/html;charset=UTF-8");
+        PrintWriter writer = response.getWriter();
+
+        writer.write(page.head());
+        response.flushBuffer();
+
+        blogService.forEachChunk(streamingViewProperties.getChunkSize(), chunk -> {
+            List<Long> ids = chunk.stream().map(Article::getId).toList();
+            context.setVariable("articles", ArticleListViewResponse.of(chunk, commentService.countByArticleIds(ids)));
+            templateEngine.process(TEMPLATE, CARDS_FRAGMENT, context, writer);
+            try {
+                response.flushBuffer();
+            } catch (IOException e) { // 클라이언트가 연결을 끊은 경우 DB 읽기도 중단
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        writer.write(page.tail());
+        writer.flush();
+    }
+
+    // 동시에 들어온 첫 요청들은 각자 만들 수 있지만 결과가 같으므로 하나만 남는다.
+    private Frame frame(WebContext context) {
+        Frame current = frame;
+        if (current == null) {
+            context.setVariable("articles", List.of());
+            context.setVariable("cardsMarker", CARDS_MARKER);
+            current = Frame.split(templateEngine.process(TEMPLATE, context));
+            context.removeVariable("cardsMarker");
+            if (thymeleafProperties.isCache()) { // 템플릿 캐시를 끈 개발 환경에서는 고친 템플릿을 바로 반영한다.
+                frame = current;
+            }
+        }
+        return current;
+    }
+}
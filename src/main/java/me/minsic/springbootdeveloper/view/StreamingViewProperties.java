@@ -0,0 +1,15 @@
+package me.minsic.springbootdeveloper.view;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("view.streaming") // application.yml의 view.streaming 값을 가져온다.
+public class StreamingViewProperties {
+    private boolean enabled = true;
+    private int chunkSize = 50;   // 한 번에 그려서 내보내는 글 카드 수
+}
@@ -0,0 +1,206 @@
+package me.minsic.springbootdeveloper.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.minsic.springbootdeveloper.config.jwt.TokenProvider;
+import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.domain.User;
+import me.minsic.springbootdeveloper.dto.AddArticleRequest;
+import me.minsic.springbootdeveloper.dto.ArticleListViewResponse;
+import me.minsic.springbootdeveloper.dto.ArticleResponse;
+import me.minsic.springbootdeveloper.service.BlogService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+* 서버를 띄운 직후 요청을 받기 전에 자주 쓰는 경로를 미리 호출하는 워밍업
+* - JIT 컴파일, Hibernate 쿼리 계획 캐시, 커넥션 풀의 커넥션, Jackson 직렬화기, 타임리프 템플릿 캐시를 채운다.
+* - ApplicationRunner라서 스프링 부트는 워밍업이 끝난 뒤에 준비 상태를 ACCEPTING_TRAFFIC으로 바꾼다.
+*   로드 밸런서는 /health/readiness가 200을 반환할 때부터 요청을 보낸다. (그 전에는 503)
+* - 조회만 한다. 글, 조회 수, 사용자를 만들거나 바꾸지 않는다. (토큰은 저장하지 않는 가상 사용자로 만든다)
+* - 화면은 내장 서버에 직접 요청을 보내서 그린다. (필터, 시큐리티, 뷰 렌더링까지 실제 요청과 같은 경로)
+*   내장 서버가 없으면(MOCK 환경 테스트) 화면 요청은 건너뛴다.
+*   이 요청에는 X-Warmup 헤더를 붙여서 서버 타이밍, SQL 통계, 첫 요청 측정에서 뺀다.
+* - 실패한 호출은 세기만 하고, timeout이 지나면 남은 호출을 건너뛴다. 워밍업 때문에 준비 완료가 막히지 않는다.
+* */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class ApplicationWarmup implements ApplicationRunner {
+
+    // 워밍업이 내장 서버에 보내는 요청에 붙이는 헤더
+    public static final String HEADER_NAME = "X-Warmup";
+
+    private static final User WARMUP_USER = User.builder().email("warmup@localhost").password("").build();
+    private static final String REQUEST_JSON = "{\"title\":\"warmup\",\"content\":\"warmup\"}";
+    private static final int PAGE_SIZE = 20;
+
+    private final WarmupProperties properties;
+    private final WarmupMetrics metrics;
+    private final BlogService blogService;
+    private final TokenProvider tokenProvider;
+    private final ObjectMapper objectMapper;
+    private final ApplicationContext applicationContext;
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    // 워밍업 요청인지 (헤더는 같은 호스트에서 보낸 요청만 믿는다. 외부 요청이 측정에서 빠지지 않도록)
+    public static boolean isWarmupRequest(HttpServletRequest request) {
+        if (request.getHeader(HEADER_NAME) == null) {
+            return false;
+        }
+        try {
+            return InetAddress.getByName(request.getRemoteAddr()).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Round {
+        void run() throws Exception;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long started = System.nanoTime();
+        long deadline = started + properties.getTimeout().toNanos();
+        AtomicLong rounds = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "warmup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            repeat(executor, properties.getRounds(), deadline, this::callServices, rounds, failures);
+            URI base = baseUri();
+            if (base != null) {
+                HttpClient client = HttpClient.newHttpClient();
+                String token = tokenProvider.generateToken(WARMUP_USER, properties.getTimeout());
+                repeat(executor, properties.getHttpRounds(), deadline, () -> callViews(client, base, token), rounds, failures);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        metrics.recordWarmup(millis, rounds.get(), failures.get());
+        log.info("warmup finished in {} ms ({} rounds, {} failures)", millis, rounds.get(), failures.get());
+    }
+
+    // 서비스(DB), 토큰 발급/검증, JSON 변환을 한 번씩
+    private void callServices() throws Exception {
+        List<Article> articles = blogService.findLatest(PAGE_SIZE);
+        blogService.findPage(null, PAGE_SIZE);
+        blogService.findTitles(0, PAGE_SIZE);
+        if (articles.isEmpty()) {
+            articles = List.of(Article.builder().title("warmup").content("warmup").build());
+        } else {
+            blogService.findById(articles.get(0).getId());
+        }
+
+        String token = tokenProvider.generateToken(WARMUP_USER, Duration.ofMinutes(1));
+        if (tokenProvider.validToken(token)) {
+            tokenProvider.getAuthentication(token);
+            tokenProvider.getUserId(token);
+        }
+
+        objectMapper.writeValueAsBytes(articles);
+        objectMapper.writeValueAsBytes(articles.stream().map(ArticleResponse::new).toList());
+        objectMapper.writeValueAsBytes(ArticleListViewResponse.of(articles, Map.of()));
+        objectMapper.readValue(REQUEST_JSON, AddArticleRequest.class);
+    }
+
+    // 로그인, 회원 가입, 글 수정 화면 (수정 화면은 글을 읽어서 그린다)
+    private void callViews(HttpClient client, URI base, String token) throws Exception {
+        List<Article> latest = blogService.findLatest(1);
+        String edit = latest.isEmpty() ? "/new-article" : "/new-article?id=" + latest.get(0).getId();
+        for (String path : List.of("/login", "/signup", edit)) {
+            HttpRequest request = HttpRequest.newBuilder(base.resolve(contextPath + path))
+                    .header("Authorization", "Bearer " + token)
+                    .header(HEADER_NAME, "true")
+                    .timeout(Duration.ofSeconds(5))
+                    .build();
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException("warmup request failed: " + response.statusCode() + " " + path);
+            }
+        }
+    }
+
+    // times 번을 스레드들이 나눠서 실행하고, 모두 끝나거나 deadline이 지날 때까지 기다린다.
+    private void repeat(ExecutorService executor, int times, long deadline, Round round,
+                        AtomicLong rounds, AtomicLong failures) {
+        AtomicInteger remaining = new AtomicInteger(times);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(times, properties.getThreads()); i++) {
+            workers.add(executor.submit(() -> {
+                while (remaining.getAndDecrement() > 0 && System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    try {
+                        round.run();
+                        rounds.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (Exception e) {
+                        if (failures.incrementAndGet() == 1) {
+                            log.warn("warmup call failed", e); // 같은 실패가 반복되므로 처음 한 번만 남긴다.
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                worker.cancel(true);
+            } catch (ExecutionException e) {
+                failures.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // 내장 서버가 떠 있으면 그 주소 (MOCK 환경이면 null)
+    private URI baseUri() {
+        if (applicationContext instanceof WebServerApplicationContext context && context.getWebServer() != null
+                && context.getWebServer().getPort() > 0) {
+            return URI.create("http://localhost:" + context.getWebServer().getPort());
+        }
+        return null;
+    }
+}
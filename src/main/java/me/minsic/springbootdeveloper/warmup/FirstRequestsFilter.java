@@ -0,0 +1,34 @@
+package me.minsic.springbootdeveloper.warmup;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// 준비 완료 뒤 첫 요청들의 전체 처리 시간을 WarmupMetrics에 기록하는 필터 (준비 상태 확인 요청, 워밍업 요청은 세지 않는다)
+@RequiredArgsConstructor
+public class FirstRequestsFilter extends OncePerRequestFilter {
+
+    private final WarmupMetrics metrics;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/health/")
+                || ApplicationWarmup.isWarmupRequest(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long started = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            metrics.recordRequest(System.nanoTime() - started);
+        }
+    }
+}
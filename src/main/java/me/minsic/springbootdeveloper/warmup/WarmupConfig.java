@@ -0,0 +1,21 @@
+package me.minsic.springbootdeveloper.warmup;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/*
+* 준비 완료 뒤 첫 요청 처리 시간 측정 설정
+* 서버 타이밍, SQL 통계 필터 다음에 실행한다. (그 두 필터의 시간은 요청마다 거의 같아서 비교에는 영향이 없다)
+* */
+@Configuration
+public class WarmupConfig {
+
+    @Bean
+    public FilterRegistrationBean<FirstRequestsFilter> firstRequestsFilter(WarmupMetrics metrics) {
+        FilterRegistrationBean<FirstRequestsFilter> registration = new FilterRegistrationBean<>(new FirstRequestsFilter(metrics));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
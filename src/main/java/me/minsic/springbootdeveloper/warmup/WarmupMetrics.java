@@ -0,0 +1,61 @@
+package me.minsic.springbootdeveloper.warmup;
+
+import me.minsic.springbootdeveloper.config.timing.TimingHistogram;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+* 워밍업 결과와 준비 완료(ACCEPTING_TRAFFIC) 뒤 첫 firstRequests 개 요청의 처리 시간 분포
+* warmup.enabled를 켠 배포와 끈 배포의 firstRequests를 비교하면 워밍업의 효과를 볼 수 있다.
+* 정해진 수를 다 채운 뒤에는 요청마다 카운터 하나만 읽고 돌아간다.
+* */
+@Component
+public class WarmupMetrics {
+
+    private final int limit;
+    private final TimingHistogram firstRequests = new TimingHistogram();
+    private final AtomicLong recorded = new AtomicLong();
+    private volatile boolean ready;
+    private volatile boolean warmedUp;
+    private volatile long warmupMillis;
+    private volatile long rounds;
+    private volatile long failures;
+
+    public WarmupMetrics(WarmupProperties properties) {
+        this.limit = properties.getFirstRequests();
+    }
+
+    public record Snapshot(boolean ready, boolean warmedUp, long warmupMillis, long rounds, long failures,
+                           TimingHistogram.Snapshot firstRequests) {
+    }
+
+    // 스프링 부트가 모든 ApplicationRunner(워밍업 포함)를 실행한 뒤에 ACCEPTING_TRAFFIC을 발행한다.
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        ready = event.getState() == ReadinessState.ACCEPTING_TRAFFIC;
+    }
+
+    void recordWarmup(long millis, long rounds, long failures) {
+        this.warmedUp = true;
+        this.warmupMillis = millis;
+        this.rounds = rounds;
+        this.failures = failures;
+    }
+
+    void recordRequest(long nanos) {
+        if (!ready || recorded.get() >= limit) {
+            return;
+        }
+        if (recorded.getAndIncrement() < limit) {
+            firstRequests.record(nanos / 1_000);
+        }
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(ready, warmedUp, warmupMillis, rounds, failures, firstRequests.snapshot());
+    }
+}
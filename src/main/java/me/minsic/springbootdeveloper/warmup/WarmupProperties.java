@@ -0,0 +1,21 @@
+package me.minsic.springbootdeveloper.warmup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("warmup") // application.yml의 warmup 값을 가져온다.
+public class WarmupProperties {
+    private boolean enabled = true;
+    private int rounds = 500;                         // 서비스, 토큰, JSON 변환을 한 바퀴씩 호출하는 횟수 (모든 스레드 합계)
+    private int httpRounds = 100;                     // 내장 서버에 화면(타임리프) 요청을 보내는 횟수
+    private int threads = 4;                          // 동시에 호출하는 스레드 수 (커넥션 풀의 커넥션도 이만큼 미리 사용)
+    private Duration timeout = Duration.ofSeconds(30); // 이 시간이 지나면 남은 호출을 건너뛰고 준비 완료로 바꾼다.
+    private int firstRequests = 1000;                 // 준비 완료 뒤 처리 시간을 따로 기록할 첫 요청 수
+}
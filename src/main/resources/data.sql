@@ -1,3 +1,3 @@
-INSERT INTO article (title, content, created_at, update_at) VALUES ('제목1', '내용1', NOW(), NOW())
-INSERT INTO article (title, content, created_at, update_at) VALUES ('제목2', '내용2', NOW(), NOW())
-INSERT INTO article (title, content, created_at, update_at) VALUES ('제목3', '내용3', NOW(), NOW())
+INSERT INTO article (id, title, content, created_at, update_at) VALUES (1, '제목1', '내용1', NOW(), NOW())
+INSERT INTO article (id, title, content, created_at, update_at) VALUES (2, '제목2', '내용2', NOW(), NOW())
+INSERT INTO article (id, title, content, created_at, update_at) VALUES (3, '제목3', '내용3', NOW(), NOW())
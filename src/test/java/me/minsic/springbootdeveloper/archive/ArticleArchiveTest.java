@@ -0,0 +1,185 @@
+package me.minsic.springbootdeveloper.archive;
+
+import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.dto.ArticleTitle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    private ArchiveProperties archiveProperties;
+    private ArticleArchive articleArchive;
+
+    @BeforeEach
+    void setUp() {
+        archiveProperties = new ArchiveProperties();
+        archiveProperties.setEnabled(true);
+        archiveProperties.setDirectory(directory.toString());
+        archiveProperties.setSegmentSize(4096); // 세그먼트가 여러 개 생기도록 작게 설정
+        articleArchive = open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        articleArchive.close();
+    }
+
+    private ArticleArchive open() {
+        ArticleArchive archive = new ArticleArchive(archiveProperties);
+        archive.open();
+        return archive;
+    }
+
+    private Article article(long id) {
+        LocalDateTime createdAt = LocalDateTime.of(2020, 1, 1, 12, 30);
+        return Article.restore(id, "제목" + id, "내용".repeat(20) + id, createdAt, createdAt.plusDays(1));
+    }
+
+    @DisplayName("appendAll(), find(): 아카이브에 저장한 글을 id로 조회할 수 있다.")
+    @Test
+    void appendAndFind() {
+        // when
+        articleArchive.appendAll(List.of(article(1), article(2)));
+
+        // then
+        Article found = articleArchive.find(2).get();
+        assertThat(found.getTitle()).isEqualTo("제목2");
+        assertThat(found.getContent()).isEqualTo(article(2).getContent());
+        assertThat(found.getCreatedAt()).isEqualTo(article(2).getCreatedAt());
+        assertThat(found.getUpdatedAt()).isEqualTo(article(2).getUpdatedAt());
+        assertThat(articleArchive.find(3)).isEmpty();
+    }
+
+    @DisplayName("findByAuthor(): 작성자를 같이 보관하고, 작성자의 글만 커서 다음부터 최신순으로 반환한다.")
+    @Test
+    void findByAuthor() {
+        // given
+        LocalDateTime createdAt = LocalDateTime.of(2020, 1, 1, 12, 30);
+        articleArchive.appendAll(List.of(
+                Article.restore(1L, "제목1", "내용", 7L, "a@test.com", createdAt, createdAt),
+                Article.restore(2L, "제목2", "내용", 8L, "b@test.com", createdAt.plusHours(1), createdAt),
+                Article.restore(3L, "제목3", "내용", 7L, "a@test.com", createdAt.plusHours(2), createdAt),
+                Article.restore(4L, "제목4", "내용", 7L, "a@test.com", createdAt.plusHours(2), createdAt),
+                article(5)));
+        articleArchive.close();
+        articleArchive = open();
+
+        // when
+        List<Article> first = articleArchive.findByAuthor(7L, null, null, 2);
+        List<Article> second = articleArchive.findByAuthor(7L, first.get(1).getCreatedAt(), first.get(1).getId(), 2);
+
+        // then
+        assertThat(first).extracting(Article::getId).containsExactly(4L, 3L);
+        assertThat(first.get(0).getAuthor()).isEqualTo("a@test.com");
+        assertThat(second).extracting(Article::getId).containsExactly(1L);
+        assertThat(articleArchive.find(5).get().getAuthorId()).isNull();
+        assertThat(articleArchive.find(5).get().getAuthor()).isNull();
+    }
+
+    @DisplayName("titles(): after 다음 글의 제목만 id 순서로 읽고, 반복 중에 삭제된 글은 건너뛴다.")
+    @Test
+    void titles() {
+        // given
+        LocalDateTime createdAt = LocalDateTime.of(2020, 1, 1, 12, 30);
+        articleArchive.appendAll(List.of(article(3), article(1),
+                Article.restore(2L, "제목2", "내용", 7L, "a@test.com", createdAt, createdAt), article(4)));
+
+        // when
+        Iterator<ArticleTitle> titles = articleArchive.titles(1);
+        ArticleTitle first = titles.next();
+        articleArchive.delete(3);
+        List<ArticleTitle> rest = new ArrayList<>();
+        titles.forEachRemaining(rest::add);
+
+        // then
+        assertThat(first).isEqualTo(new ArticleTitle(2L, "제목2"));
+        assertThat(rest).containsExactly(new ArticleTitle(4L, "제목4"));
+    }
+
+    @DisplayName("open(): 다시 열면 삭제 기록까지 반영해 인덱스를 복구하고, 쓰다가 끊긴 레코드는 버린다.")
+    @Test
+    void recover() throws IOException {
+        // given
+        articleArchive.appendAll(LongStream.rangeClosed(1, 100).mapToObj(this::article).toList());
+        articleArchive.delete(7);
+        articleArchive.close();
+
+        // 마지막 세그먼트 끝에 끊긴 레코드를 흉내낸다.
+        Path last;
+        try (Stream<Path> files = Files.list(directory)) {
+            last = files.sorted().reduce((first, second) -> second).get();
+        }
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            long end = 0;
+            while (channel.read(header.clear(), end) == 4 && header.getInt(0) != 0) {
+                channel.read(header.clear(), end + 4);
+                end += 12 + header.getInt(0);
+            }
+            channel.write(ByteBuffer.allocate(16).putInt(0x41525431).putInt(200).putInt(12345).flip(), end);
+        }
+
+        // when
+        articleArchive = open();
+        articleArchive.appendAll(List.of(article(101)));
+        articleArchive.close();
+        articleArchive = open();
+
+        // then
+        assertThat(articleArchive.size()).isEqualTo(100);
+        assertThat(articleArchive.find(7)).isEmpty();
+        assertThat(articleArchive.find(100).get().getTitle()).isEqualTo("제목100");
+        assertThat(articleArchive.find(101).get().getTitle()).isEqualTo("제목101");
+    }
+
+    @DisplayName("compact(): 지워진 레코드를 정리해도 남은 글은 그대로 조회된다.")
+    @Test
+    void compact() throws IOException {
+        // given
+        articleArchive.appendAll(LongStream.rangeClosed(1, 100).mapToObj(this::article).toList());
+        LongStream.rangeClosed(1, 80).forEach(articleArchive::delete);
+        long before;
+        try (Stream<Path> files = Files.list(directory)) {
+            before = files.count();
+        }
+
+        // when
+        assertThat(articleArchive.needsCompaction()).isTrue();
+        articleArchive.compact();
+
+        // then
+        long after;
+        try (Stream<Path> files = Files.list(directory)) {
+            after = files.count();
+        }
+        assertThat(after).isLessThan(before);
+        assertThat(articleArchive.findAll()).extracting(Article::getId)
+                .containsExactlyElementsOf(LongStream.rangeClosed(81, 100).boxed().toList());
+
+        articleArchive.close();
+        articleArchive = open();
+        assertThat(articleArchive.size()).isEqualTo(20);
+        assertThat(articleArchive.find(90).get().getTitle()).isEqualTo("제목90");
+    }
+}
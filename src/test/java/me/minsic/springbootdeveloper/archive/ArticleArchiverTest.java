@@ -0,0 +1,149 @@
+package me.minsic.springbootdeveloper.archive;
+
+import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.dto.AddArticleRequest;
+import me.minsic.springbootdeveloper.dto.BulkDeleteArticleRequest;
+import me.minsic.springbootdeveloper.dto.BulkUpdateArticleRequest;
+import me.minsic.springbootdeveloper.dto.UpdateArticleRequest;
+import me.minsic.springbootdeveloper.repository.BlogRepository;
+import me.minsic.springbootdeveloper.service.BlogService;
+import me.minsic.springbootdeveloper.shard.ShardTemplate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// cold-after 0으로 저장한 글을 바로 옮긴다. (스케줄은 돌지 않도록 주기를 길게)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archiver-test",
+        "archive.enabled=true",
+        "archive.cold-after=PT0S",
+        "archive.interval=PT1H"
+})
+class ArticleArchiverTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void archiveDirectory(DynamicPropertyRegistry registry) {
+        registry.add("archive.directory", () -> directory.toString());
+    }
+
+    @Autowired
+    ArticleArchiver articleArchiver;
+
+    @Autowired
+    ArticleArchive articleArchive;
+
+    @Autowired
+    BlogRepository blogRepository;
+
+    @Autowired
+    BlogService blogService;
+
+    @Autowired
+    ShardTemplate shardTemplate;
+
+    @DisplayName("archive(): 수정된 지 cold-after가 지난 글을 테이블에서 아카이브로 옮기고, 조회, 수정, 삭제는 아카이브의 글에도 그대로 동작한다.")
+    @Test
+    void archiveAndFallback() throws Exception {
+        // given : 저장할 때 updatedAt이 채워져야 옮길 대상이 된다.
+        Article saved = blogService.save(new AddArticleRequest("오래된 글", "오래된 내용"));
+        long id = saved.getId();
+        assertThat(blogRepository.findById(id).orElseThrow().getUpdatedAt()).isNotNull();
+        Thread.sleep(10);
+
+        // when
+        articleArchiver.archive();
+
+        // then : 테이블에는 없고 아카이브에서 읽는다.
+        assertThat(blogRepository.existsById(id)).isFalse();
+        assertThat(articleArchive.contains(id)).isTrue();
+        assertThat(blogService.findById(id).getTitle()).isEqualTo("오래된 글");
+        assertThat(blogService.findAll()).extracting(Article::getId).contains(id);
+
+        // 수정하면 같은 id로 테이블에 돌아온다.
+        blogService.update(id, new UpdateArticleRequest("고친 글", "고친 내용"));
+        assertThat(blogRepository.findById(id).orElseThrow().getTitle()).isEqualTo("고친 글");
+        assertThat(articleArchive.contains(id)).isFalse();
+
+        // 다시 옮긴 뒤 삭제하면 아카이브에도 남지 않는다.
+        Thread.sleep(10);
+        articleArchiver.archive();
+        blogService.delete(id);
+        assertThat(articleArchive.contains(id)).isFalse();
+        assertThatThrownBy(() -> blogService.findById(id))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @DisplayName("updateAll(), deleteAll(): 작성일 범위의 일괄 변경은 아카이브에 있는 글도 바꾸고, 범위의 양 끝이 없으면 거절한다.")
+    @Test
+    void bulkIncludesArchived() throws Exception {
+        // given
+        LocalDateTime from = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Article first = blogService.save(new AddArticleRequest("보관할 글1", "내용1"));
+        Article second = blogService.save(new AddArticleRequest("보관할 글2", "내용2"));
+        LocalDateTime to = LocalDateTime.now().plusSeconds(1);
+        Thread.sleep(10);
+        articleArchiver.archive();
+        assertThat(articleArchive.contains(first.getId())).isTrue();
+
+        // when
+        int updated = blogService.updateAll(new BulkUpdateArticleRequest(null, from, to, "고친 제목", null), null);
+
+        // then : 테이블로 옮긴 뒤에 바꾼다.
+        assertThat(updated).isEqualTo(2);
+        assertThat(blogRepository.findById(first.getId()).orElseThrow().getTitle()).isEqualTo("고친 제목");
+        assertThat(blogRepository.findById(second.getId()).orElseThrow().getContent()).isEqualTo("내용2");
+        assertThat(articleArchive.contains(first.getId())).isFalse();
+
+        // when : 다시 옮긴 뒤 범위로 삭제
+        Thread.sleep(10);
+        articleArchiver.archive();
+        int deleted = blogService.deleteAll(new BulkDeleteArticleRequest(null, from, to), null);
+
+        // then
+        assertThat(deleted).isEqualTo(2);
+        assertThat(articleArchive.contains(first.getId())).isFalse();
+        assertThat(articleArchive.contains(second.getId())).isFalse();
+        assertThatThrownBy(() -> blogService.findById(first.getId()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> blogService.deleteAll(new BulkDeleteArticleRequest(null, from, null), null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @DisplayName("forEachChunk(): 아카이브의 글도 테이블의 글과 id 순서로 섞어서 넘기고, 옮기는 중이라 양쪽에 있는 글은 한 번만 넘긴다.")
+    @Test
+    void forEachChunkInIdOrder() throws Exception {
+        // given : first, second는 아카이브에, third는 테이블에, first는 양쪽에
+        Article first = blogService.save(new AddArticleRequest("섞을 글1", "내용1"));
+        Article second = blogService.save(new AddArticleRequest("섞을 글2", "내용2"));
+        Thread.sleep(10);
+        articleArchiver.archive();
+        Article third = blogService.save(new AddArticleRequest("섞을 글3", "내용3"));
+        Article restored = articleArchive.find(first.getId()).orElseThrow();
+        shardTemplate.inTransaction(0, () -> blogRepository.insertRestored(restored));
+
+        // when
+        List<Long> ids = new ArrayList<>();
+        blogService.forEachChunk(2, chunk -> chunk.forEach(article -> ids.add(article.getId())));
+
+        // then
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat(ids).filteredOn(id -> id >= first.getId())
+                .containsExactly(first.getId(), second.getId(), third.getId());
+    }
+}
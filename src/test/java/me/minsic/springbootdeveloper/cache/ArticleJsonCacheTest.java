@@ -0,0 +1,123 @@
+package me.minsic.springbootdeveloper.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.domain.ArticleEventType;
+import me.minsic.springbootdeveloper.domain.ArticleOutboxEvent;
+import me.minsic.springbootdeveloper.dto.ArticleLastModified;
+import me.minsic.springbootdeveloper.dto.ArticlePageResponse;
+import me.minsic.springbootdeveloper.dto.ArticleResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleJsonCacheTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final ArticleJsonCache cache = new ArticleJsonCache(objectMapper, new JsonCacheProperties());
+
+    private static Article article(long id, String title, LocalDateTime updatedAt) {
+        return Article.restore(id, title, "내용 \"" + id + "\"", updatedAt, updatedAt);
+    }
+
+    @DisplayName("response(): 같은 updatedAt이면 직렬화한 바이트를 다시 쓰고, updatedAt이 바뀌면 다시 직렬화한다.")
+    @Test
+    void versionedByUpdatedAt() throws Exception {
+        // given
+        LocalDateTime created = LocalDateTime.of(2023, 1, 1, 0, 0);
+        Article article = article(1, "제목", created);
+        byte[] first = cache.response(article);
+
+        // when
+        byte[] again = cache.response(article(1, "제목", created));
+        byte[] updated = cache.response(article(1, "수정한 제목", created.plusSeconds(1)));
+
+        // then
+        assertThat(again).isSameAs(first);
+        assertThat(first).isEqualTo(objectMapper.writeValueAsBytes(new ArticleResponse(article)));
+        assertThat(objectMapper.readTree(updated).get("title").asText()).isEqualTo("수정한 제목");
+        assertThat(cache.snapshot().hits()).isEqualTo(1);
+
+        // when
+        cache.onEvent(new ArticleOutboxEvent(1L, ArticleEventType.DELETED));
+
+        // then
+        assertThat(cache.snapshot().entries()).isZero();
+    }
+
+    @DisplayName("responses(), page(): 글마다 캐시된 바이트를 이어 붙인 결과가 Jackson으로 직렬화한 것과 같다.")
+    @Test
+    void assembleFromFragments() throws Exception {
+        // given
+        LocalDateTime now = LocalDateTime.of(2023, 1, 1, 0, 0);
+        List<Article> articles = List.of(article(1, "제목1", now), article(2, "제목2", now), article(3, "제목3", now));
+        cache.response(articles.get(1));
+
+        // when
+        byte[] list = cache.responses(articles);
+        byte[] page = cache.page(articles, ArticlePageResponse.next(articles, 3));
+        byte[] lastPage = cache.page(List.of(), null);
+
+        // then
+        assertThat(list).isEqualTo(objectMapper.writeValueAsBytes(articles.stream().map(ArticleResponse::new).toList()));
+        assertThat(page).isEqualTo(objectMapper.writeValueAsBytes(new ArticlePageResponse(articles, 3)));
+        assertThat(lastPage).isEqualTo(objectMapper.writeValueAsBytes(new ArticlePageResponse(List.of(), 3)));
+    }
+
+    @DisplayName("page(versions, loader, next): 캐시에 없거나 수정 시각이 다른 글만 loader로 읽는다.")
+    @Test
+    void pageLoadsOnlyMissing() throws Exception {
+        // given
+        LocalDateTime now = LocalDateTime.of(2023, 1, 1, 0, 0);
+        List<Article> articles = List.of(article(1, "제목1", now), article(2, "제목2", now), article(3, "제목3", now));
+        cache.response(articles.get(0));
+        cache.response(article(2, "수정 전 제목2", now.minusSeconds(1)));
+        List<ArticleLastModified> versions = articles.stream()
+                .map(article -> new ArticleLastModified(article.getId(), article.getUpdatedAt()))
+                .toList();
+        List<List<Long>> loaded = new ArrayList<>();
+
+        // when
+        byte[] page = cache.page(versions, ids -> {
+            loaded.add(ids);
+            return articles.stream().filter(article -> ids.contains(article.getId())).toList();
+        }, 3L);
+
+        // then
+        assertThat(loaded).containsExactly(List.of(2L, 3L));
+        assertThat(page).isEqualTo(objectMapper.writeValueAsBytes(new ArticlePageResponse(articles, 3)));
+    }
+
+    @DisplayName("put(): 바이트의 합이 max-size를 넘으면 줄이고, max-entry-size보다 큰 글은 보관하지 않는다.")
+    @Test
+    void boundedByBytes() {
+        // given
+        JsonCacheProperties properties = new JsonCacheProperties();
+        properties.setMaxSize(DataSize.ofKilobytes(4));
+        properties.setMaxEntrySize(DataSize.ofBytes(512));
+        ArticleJsonCache bounded = new ArticleJsonCache(objectMapper, properties);
+        LocalDateTime now = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+        // when
+        for (long id = 1; id <= 100; id++) {
+            bounded.put(article(id, "제목" + id, now));
+        }
+        Article large = Article.restore(1000L, "긴 글", "가".repeat(1000), now, now);
+        byte[] largeJson = bounded.response(large);
+
+        // then
+        ArticleJsonCache.Snapshot snapshot = bounded.snapshot();
+        assertThat(snapshot.bytes()).isPositive().isLessThanOrEqualTo(4096);
+        assertThat(snapshot.entries()).isLessThan(100);
+        assertThat(largeJson.length).isGreaterThan(512);
+        assertThat(bounded.response(large)).isNotSameAs(largeJson); // 보관하지 않아서 다시 직렬화한다.
+        assertThat(bounded.snapshot().bytes()).isEqualTo(snapshot.bytes());
+    }
+}
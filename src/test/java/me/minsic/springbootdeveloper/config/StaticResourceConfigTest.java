@@ -0,0 +1,89 @@
+package me.minsic.springbootdeveloper.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// ResourceUrlEncodingFilter까지 포함한 MockMvc로 요청한다. (미리 압축한 .gz는 processResources가 만든다)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:static-resource-test")
+@AutoConfigureMockMvc
+class StaticResourceConfigTest {
+
+    private static final Pattern SCRIPT = Pattern.compile("src=\"(/js/article-[0-9a-f]{32}\\.js)\"");
+
+    @Autowired
+    MockMvc mockMvc;
+
+    // 글 목록 화면이 그린 article.js 링크
+    private String scriptPath() throws Exception {
+        String html = mockMvc.perform(get("/articles").with(user("static@test.com")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Matcher matcher = SCRIPT.matcher(html);
+        assertThat(matcher.find()).as("versioned article.js link in %s", html).isTrue();
+        return matcher.group(1);
+    }
+
+    private static byte[] bytes(String path) throws IOException {
+        return StreamUtils.copyToByteArray(new ClassPathResource(path).getInputStream());
+    }
+
+    @DisplayName("th:src: 템플릿의 정적 리소스 링크는 내용 해시(-md5)가 붙은 경로로 그리고, 그 경로로 파일을 받을 수 있다.")
+    @Test
+    void versionedLink() throws Exception {
+        // when
+        String path = scriptPath();
+
+        // then
+        mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(bytes("static/js/article.js")));
+    }
+
+    @DisplayName("Cache-Control: 해시가 붙은 경로는 1년 동안 다시 확인하지 않고(immutable), 해시가 없는 경로는 매번 확인한다.")
+    @Test
+    void cacheControl() throws Exception {
+        // given
+        String path = scriptPath();
+
+        // when, then
+        mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"));
+        mockMvc.perform(get("/js/article.js"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @DisplayName("Accept-Encoding: gzip을 받는 요청에는 빌드할 때 압축해 둔 .gz 파일을 보낸다.")
+    @Test
+    void precompressedGzip() throws Exception {
+        // given
+        String path = scriptPath();
+
+        // when, then
+        mockMvc.perform(get(path).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(content().bytes(bytes("static/js/article.js.gz")));
+    }
+}
@@ -0,0 +1,82 @@
+package me.minsic.springbootdeveloper.config.concurrency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+    private static final Duration WINDOW = Duration.ofSeconds(1);
+
+    private long now;
+
+    private ConcurrencyLimiter limiter(int initial, int min, int max) {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setWindow(WINDOW);
+        properties.setMinWindowSamples(1);
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitProperties.Limit(initial, min, max), properties);
+        now = System.nanoTime();
+        return limiter;
+    }
+
+    // 한 주기 동안 한도만큼 동시에 처리하고 모두 latency로 끝낸다. (한도는 다음 주기의 첫 요청이 끝날 때 다시 계산)
+    private void runWindowAtLimit(ConcurrencyLimiter limiter, long latency) {
+        now += WINDOW.toNanos();
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(latency, now);
+        }
+    }
+
+    @DisplayName("tryAcquire(): 한도만큼 처리 중이면 기다리지 않고 거절하고, 끝난 요청이 있으면 다시 허용한다.")
+    @Test
+    void rejectOverLimit() {
+        // given
+        ConcurrencyLimiter limiter = limiter(3, 1, 3);
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+
+        // then
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.snapshot().rejected()).isEqualTo(1);
+        assertThat(limiter.snapshot().inFlight()).isEqualTo(3);
+
+        // when
+        limiter.release(MILLIS, 0);
+
+        // then
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @DisplayName("release(): 응답 시간이 평소와 같으면 한도를 늘리고, 평소보다 크게 늘면 한도를 줄인다.")
+    @Test
+    void adaptToLatency() {
+        // given
+        ConcurrencyLimiter limiter = limiter(10, 2, 100);
+
+        // when : 평소 10ms
+        for (int i = 0; i < 20; i++) {
+            runWindowAtLimit(limiter, 10 * MILLIS);
+        }
+        int grown = limiter.getLimit();
+
+        // when : DB가 느려져 200ms
+        for (int i = 0; i < 5; i++) {
+            runWindowAtLimit(limiter, 200 * MILLIS);
+        }
+
+        // then
+        assertThat(grown).isGreaterThan(10);
+        assertThat(limiter.getLimit()).isLessThan(grown / 2);
+    }
+}
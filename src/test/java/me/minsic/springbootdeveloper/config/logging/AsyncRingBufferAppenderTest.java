@@ -0,0 +1,126 @@
+package me.minsic.springbootdeveloper.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncRingBufferAppenderTest {
+
+    @DisplayName("LogRingBuffer: 여러 스레드가 동시에 넣어도 빠짐없이 한 번씩, 스레드별로 넣은 순서대로 꺼낸다.")
+    @Test
+    void ringBufferConcurrentOffer() throws InterruptedException {
+        // given : 한 바퀴마다 생산자들이 동시에 버퍼를 꼭 채우고, 다 넣은 뒤에 꺼낸다. (여러 바퀴로 위치가 한 바퀴 이상 돈다)
+        int capacity = 256;
+        int producers = 4;
+        int perProducer = capacity / producers;
+        int rounds = 8;
+        LogRingBuffer<long[]> buffer = new LogRingBuffer<>(capacity);
+        int[] next = new int[producers];
+        boolean inOrder = true;
+
+        for (int round = 0; round < rounds; round++) {
+            // when
+            CountDownLatch start = new CountDownLatch(1);
+            int first = round * perProducer;
+            List<Thread> threads = IntStream.range(0, producers)
+                    .mapToObj(producer -> new Thread(() -> {
+                        awaitQuietly(start);
+                        for (int i = first; i < first + perProducer; i++) {
+                            buffer.offer(new long[]{producer, i}); // 한 바퀴에 넣는 수가 용량과 같아서 실패하지 않는다.
+                        }
+                    }))
+                    .toList();
+            threads.forEach(Thread::start);
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            boolean full = !buffer.offer(new long[]{-1, -1});
+            List<long[]> drained = new ArrayList<>();
+            int received = buffer.drain(drained::add, capacity * 2);
+
+            // then
+            assertThat(full).isTrue();
+            assertThat(received).isEqualTo(capacity);
+            for (long[] element : drained) {
+                inOrder &= element[1] == next[(int) element[0]]++;
+            }
+        }
+
+        // then
+        assertThat(inOrder).isTrue();
+        assertThat(next).containsOnly(perProducer * rounds);
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @DisplayName("append(): 출력이 막혀 버퍼가 가득 차면 INFO는 기다리지 않고 버리고, 멈출 때 남은 로그를 모두 출력한다.")
+    @Test
+    void dropWhenFull() throws InterruptedException {
+        // given
+        LoggerContext loggerContext = new LoggerContext();
+        Logger logger = loggerContext.getLogger("test");
+        BlockingAppender target = new BlockingAppender();
+        target.setContext(loggerContext);
+        target.start();
+        AsyncRingBufferAppender appender = new AsyncRingBufferAppender(8, 4, DropPolicy.DISCARD_BELOW_WARN);
+        appender.setContext(loggerContext);
+        appender.addAppender(target);
+        appender.start();
+
+        // when
+        int total = 100;
+        for (int i = 0; i < total; i++) {
+            appender.doAppend(new LoggingEvent(Logger.FQCN, logger, Level.INFO, "message " + i, null, null));
+        }
+        AsyncRingBufferAppender.Snapshot blocked = appender.snapshot();
+        target.release.countDown();
+        appender.stop();
+
+        // then
+        assertThat(blocked.dropped()).isPositive();
+        AsyncRingBufferAppender.Snapshot stopped = appender.snapshot();
+        assertThat(stopped.written() + stopped.dropped()).isEqualTo(total);
+        assertThat(target.messages).hasSize((int) stopped.written());
+        assertThat(target.messages.get(0)).isEqualTo("message 0");
+        assertThat(target.isStarted()).isFalse();
+    }
+
+    // release 전까지 출력하지 못하고 멈춰 있는 Appender
+    static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> messages = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            messages.add(event.getFormattedMessage());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package me.minsic.springbootdeveloper.config.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private RateLimitProperties properties(int capacity, int maxKeys) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setCapacity(capacity);
+        properties.setRefillInterval(Duration.ofMinutes(1));
+        properties.setMaxKeys(maxKeys);
+        return properties;
+    }
+
+    @DisplayName("tryAcquire(): 버킷의 토큰을 모두 쓰면 요청을 거절하고 대기 시간을 반환한다.")
+    @Test
+    void tryAcquire_exhausted() {
+        // given
+        RateLimiter rateLimiter = new RateLimiter(properties(3, 100));
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("ip:127.0.0.1")).isZero();
+        }
+        long waitNanos = rateLimiter.tryAcquire("ip:127.0.0.1");
+
+        // then
+        assertThat(waitNanos).isPositive();
+        assertThat(rateLimiter.tryAcquire("ip:127.0.0.2")).isZero(); // 다른 키는 영향을 받지 않는다.
+    }
+
+    @DisplayName("tryAcquire(): 키가 최대 개수를 넘으면 일부를 정리해 메모리를 제한한다.")
+    @Test
+    void tryAcquire_bounded() {
+        // given
+        RateLimiter rateLimiter = new RateLimiter(properties(3, 1_000));
+
+        // when
+        for (int i = 0; i < 10_000; i++) {
+            rateLimiter.tryAcquire("account:user" + i + "@gmail.com");
+        }
+
+        // then
+        assertThat(rateLimiter.size()).isLessThanOrEqualTo(1_000);
+    }
+}
@@ -0,0 +1,29 @@
+package me.minsic.springbootdeveloper.config.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+* 테스트에서 요청 하나가 실행하는 SQL 개수의 상한을 고정하는 도우미 (N+1 회귀 방지)
+*
+* ResultActions result = SqlAssertions.maxStatements(1, () -> mockMvc.perform(get(url)));
+* */
+public final class SqlAssertions {
+
+    private SqlAssertions() {
+    }
+
+    @FunctionalInterface
+    public interface Action<T> {
+        T run() throws Exception;
+    }
+
+    public static <T> T maxStatements(long max, Action<T> action) throws Exception {
+        try (SqlStatistics statistics = SqlStatistics.start()) {
+            T result = action.run();
+            assertThat(statistics.getStatements())
+                    .as("SQL statements (%s)", statistics)
+                    .isLessThanOrEqualTo(max);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package me.minsic.springbootdeveloper.config.sql;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlLoggerTest {
+
+    private static final String SQL = "select * from users where email = ? and id = ?";
+
+    @DisplayName("open(): 기본 설정에서는 파라미터를 모으지 않는다.")
+    @Test
+    void noParametersByDefault() {
+        // given
+        SqlLogProperties properties = new SqlLogProperties();
+        properties.setSampleRate(1.0);
+        SqlLogger sqlLogger = new SqlLogger(properties);
+
+        // when
+        StatementLog statement = sqlLogger.open(SQL);
+
+        // then
+        assertThat(statement.isSampled()).isTrue();
+        assertThat(statement.hasParameters()).isFalse();
+    }
+
+    @DisplayName("format(): 파라미터를 남겨도 문자열은 값 대신 길이만 남긴다.")
+    @Test
+    void maskStrings() {
+        // given
+        SqlLogProperties properties = new SqlLogProperties();
+        properties.setSampleRate(1.0);
+        properties.setIncludeParameters(true);
+        SqlLogger sqlLogger = new SqlLogger(properties);
+        StatementLog statement = sqlLogger.open(SQL);
+        statement.bind(1, "user@email.com");
+        statement.bind(2, 42L);
+
+        // when
+        String params = sqlLogger.format(statement);
+
+        // then
+        assertThat(params).isEqualTo("[<14 chars>, 42]").doesNotContain("user@email.com");
+    }
+
+    @DisplayName("format(): mask-strings를 끄면 문자열 값을 max-parameter-length까지 남긴다.")
+    @Test
+    void showStrings() {
+        // given
+        SqlLogProperties properties = new SqlLogProperties();
+        properties.setSampleRate(1.0);
+        properties.setIncludeParameters(true);
+        properties.setMaskStrings(false);
+        properties.setMaxParameterLength(4);
+        SqlLogger sqlLogger = new SqlLogger(properties);
+        StatementLog statement = sqlLogger.open(SQL);
+        statement.bind(1, "user@email.com");
+        statement.bind(2, 42L);
+
+        // when
+        String params = sqlLogger.format(statement);
+
+        // then
+        assertThat(params).isEqualTo("['user...', 42]");
+    }
+}
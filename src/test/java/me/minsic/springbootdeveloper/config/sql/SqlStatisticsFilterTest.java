@@ -0,0 +1,50 @@
+package me.minsic.springbootdeveloper.config.sql;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:sql-statistics-test")
+@AutoConfigureMockMvc
+class SqlStatisticsFilterTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @DisplayName("기본 설정에서는 X-SQL-Statistics 응답 헤더를 내보내지 않는다.")
+    @Test
+    void noHeaderByDefault() throws Exception {
+        // when, then
+        mockMvc.perform(get("/rss.xml"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(SqlStatisticsFilter.HEADER_NAME));
+    }
+
+    @Nested
+    @SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:sql-statistics-dev-test")
+    @AutoConfigureMockMvc
+    @ActiveProfiles("dev")
+    class DevProfile {
+
+        @Autowired
+        MockMvc mockMvc;
+
+        @DisplayName("dev 프로필에서는 요청마다 실행한 SQL 통계를 X-SQL-Statistics 응답 헤더로 내보낸다.")
+        @Test
+        void headerInDevProfile() throws Exception {
+            // when, then
+            mockMvc.perform(get("/rss.xml"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(SqlStatisticsFilter.HEADER_NAME));
+        }
+    }
+}
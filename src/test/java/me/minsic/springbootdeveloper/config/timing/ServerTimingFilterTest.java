@@ -0,0 +1,62 @@
+package me.minsic.springbootdeveloper.config.timing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:server-timing-test")
+@AutoConfigureMockMvc
+class ServerTimingFilterTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ServerTimingMetrics metrics;
+
+    @DisplayName("doFilter(): 요청의 단계별 처리 시간을 Server-Timing 응답 헤더로 내보내고 엔드포인트별로 기록한다.")
+    @Test
+    void serverTimingHeader() throws Exception {
+        // when
+        String serverTiming = mockMvc.perform(get("/rss.xml"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(ServerTimingFilter.HEADER_NAME))
+                .andReturn().getResponse().getHeader(ServerTimingFilter.HEADER_NAME);
+
+        // then
+        assertThat(serverTiming).contains("total;dur=", "handler;dur=");
+        assertThat(metrics.snapshot().get("GET /rss.xml").get("total").count()).isPositive();
+    }
+
+    @DisplayName("record(): GET, POST, PUT, DELETE 가 아닌 메서드는 OTHER 하나로 묶어서 기록한다.")
+    @Test
+    void otherMethods() throws Exception {
+        // when
+        for (String method : new String[]{"PATCH", "PROPFIND", "X-CUSTOM-1", "X-CUSTOM-2"}) {
+            mockMvc.perform(request(HttpMethod.valueOf(method), "/rss.xml"));
+        }
+
+        // then
+        Map<String, Map<String, TimingHistogram.Snapshot>> snapshot = metrics.snapshot();
+        assertThat(snapshot.keySet())
+                .allSatisfy(key -> assertThat(key).matches("(GET|POST|PUT|DELETE|OTHER) .*"))
+                .anySatisfy(key -> assertThat(key).startsWith("OTHER "));
+        long others = snapshot.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith("OTHER "))
+                .mapToLong(entry -> entry.getValue().get("total").count())
+                .sum();
+        assertThat(others).isGreaterThanOrEqualTo(4);
+    }
+}
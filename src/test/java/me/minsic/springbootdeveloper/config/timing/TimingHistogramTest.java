@@ -0,0 +1,44 @@
+package me.minsic.springbootdeveloper.config.timing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TimingHistogramTest {
+
+    @DisplayName("index(), upperBound(): 값이 들어가는 칸의 상한은 값보다 크거나 같고, 오차는 12.5% 이하다.")
+    @Test
+    void bucketBounds() {
+        for (long value = 0; value < 100_000_000L; value = value * 5 / 4 + 1) {
+            // when
+            long upperBound = TimingHistogram.upperBound(TimingHistogram.index(value));
+
+            // then
+            assertThat(upperBound).isGreaterThanOrEqualTo(value);
+            assertThat(upperBound - value).isLessThanOrEqualTo(Math.max(0, value / 8));
+        }
+    }
+
+    @DisplayName("snapshot(): 기록한 값의 개수, 최댓값, 백분위수를 반환한다.")
+    @Test
+    void percentiles() {
+        // given
+        TimingHistogram histogram = new TimingHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros);
+        }
+
+        // when
+        TimingHistogram.Snapshot snapshot = histogram.snapshot();
+
+        // then
+        assertThat(snapshot.count()).isEqualTo(1000);
+        assertThat(snapshot.maxMicros()).isEqualTo(1000);
+        assertThat(snapshot.meanMicros()).isEqualTo(500);
+        assertThat(snapshot.p50Micros()).isCloseTo(500, within(500 / 8L));
+        assertThat(snapshot.p90Micros()).isCloseTo(900, within(900 / 8L));
+        assertThat(snapshot.p99Micros()).isCloseTo(990, within(990 / 8L));
+    }
+}
@@ -0,0 +1,39 @@
+package me.minsic.springbootdeveloper.content;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentBufferTest {
+
+    @DisplayName("ContentBuffer: 한도까지는 메모리에, 넘으면 임시 파일에 담고 처음부터 그대로 다시 쓴다.")
+    @Test
+    void spillToFile() throws Exception {
+        // given
+        String small = "가나다";
+        String large = "가나다라마바사 abc\n".repeat(100);
+
+        // when
+        StringWriter smallOut = new StringWriter();
+        StringWriter largeOut = new StringWriter();
+        ContentBuffer smallBuffer = new ContentBuffer(64);
+        ContentBuffer largeBuffer = new ContentBuffer(64);
+        try (smallBuffer; largeBuffer) {
+            smallBuffer.write(small);
+            for (int i = 0; i < large.length(); i += 50) {
+                largeBuffer.write(large, i, Math.min(50, large.length() - i));
+            }
+            smallBuffer.writeTo(smallOut, 16);
+            largeBuffer.writeTo(largeOut, 16);
+        }
+
+        // then
+        assertThat(smallBuffer.isSpilled()).isFalse();
+        assertThat(largeBuffer.isSpilled()).isTrue();
+        assertThat(smallOut.toString()).isEqualTo(small);
+        assertThat(largeOut.toString()).isEqualTo(large);
+    }
+}
@@ -0,0 +1,194 @@
+package me.minsic.springbootdeveloper.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.dto.AddArticleRequest;
+import me.minsic.springbootdeveloper.dto.AddUserRequest;
+import me.minsic.springbootdeveloper.service.AttachmentService;
+import me.minsic.springbootdeveloper.service.BlogService;
+import me.minsic.springbootdeveloper.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:attachment-test")
+class AttachmentApiControllerTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void attachmentDirectory(DynamicPropertyRegistry registry) {
+        registry.add("attachment.directory", () -> directory.toString());
+    }
+
+    @Autowired
+    WebApplicationContext context;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    BlogService blogService;
+
+    @Autowired
+    AttachmentService attachmentService;
+
+    @Autowired
+    UserService userService;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void mockMvcSetUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    private JsonNode upload(long articleId, byte[] bytes) throws Exception {
+        String body = mockMvc.perform(post("/api/articles/{id}/attachments", articleId)
+                        .param("name", "photo.png")
+                        .contentType(MediaType.IMAGE_PNG)
+                        .content(bytes))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    // Given : 글 두 개에 같은 내용의 파일을 올린다.
+    // When : 전체, 범위(Range), ETag 조건부로 내려받는다.
+    // Then : 파일은 해시 경로에 한 번만 저장되고, 206 / 304 / 416이 알맞게 응답된다.
+    @DisplayName("findAttachment : 같은 내용은 한 번만 저장하고 Range, ETag 조건부 요청을 처리한다.")
+    @Test
+    void uploadAndDownload() throws Exception {
+        // given
+        Article article = blogService.save(new AddArticleRequest("사진", "내용"));
+        Article other = blogService.save(new AddArticleRequest("같은 사진", "내용"));
+        byte[] bytes = new byte[200_000];
+        Arrays.fill(bytes, (byte) 7);
+        bytes[100] = 1;
+
+        // when
+        JsonNode uploaded = upload(article.getId(), bytes);
+        JsonNode duplicated = upload(other.getId(), bytes);
+
+        // then
+        String hash = uploaded.get("hash").asText();
+        assertThat(duplicated.get("hash").asText()).isEqualTo(hash);
+        assertThat(uploaded.get("size").asLong()).isEqualTo(bytes.length);
+        try (var files = Files.walk(directory)) {
+            assertThat(files.filter(Files::isRegularFile).toList())
+                    .containsExactly(directory.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash));
+        }
+
+        String url = uploaded.get("url").asText();
+        String etag = "\"" + hash + "\"";
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(content().bytes(bytes));
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=100-109"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-109/" + bytes.length))
+                .andExpect(content().bytes(Arrays.copyOfRange(bytes, 100, 110)));
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=" + bytes.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + bytes.length));
+    }
+
+    // Given : 글에 파일을 올린다.
+    // When : 같은 글에 같은 이름, 같은 내용의 파일을 다시 올린다.
+    // Then : uk_article_attachment 위반을 처리해서 있던 첨부 파일을 돌려주고 행은 하나만 남는다.
+    @DisplayName("upload : 같은 글에 같은 파일을 다시 올리면 있던 첨부 파일을 돌려준다.")
+    @Test
+    void uploadTwice() throws Exception {
+        // given
+        Article article = blogService.save(new AddArticleRequest("두 번 올린 글", "내용"));
+        byte[] bytes = "같은 파일".getBytes();
+        JsonNode uploaded = upload(article.getId(), bytes);
+
+        // when
+        JsonNode again = upload(article.getId(), bytes);
+
+        // then
+        assertThat(again.get("id").asLong()).isEqualTo(uploaded.get("id").asLong());
+        assertThat(attachmentService.findAll(article.getId())).hasSize(1);
+    }
+
+    // Given : 작성자가 있는 글을 저장한다.
+    // When : 작성자가 아닌 사용자가 파일을 올린다.
+    // Then : AccessDeniedException, 첨부 파일 행은 저장되지 않고 작성자는 올릴 수 있다.
+    @DisplayName("upload : 작성자가 있는 글에는 작성자만 파일을 올릴 수 있다.")
+    @Test
+    void uploadByOther() {
+        // given
+        AddUserRequest owner = new AddUserRequest();
+        owner.setEmail("attachment-owner@test.com");
+        owner.setPassword("password");
+        Long ownerId = userService.save(owner);
+        Article article = blogService.save(new AddArticleRequest("남의 글", "내용"), userService.findById(ownerId));
+        byte[] bytes = "남의 글에 올린 파일".getBytes();
+
+        // when, then
+        assertThatThrownBy(() -> attachmentService.upload(article.getId(), "file.txt", "text/plain",
+                new ByteArrayInputStream(bytes), bytes.length, ownerId + 1))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThat(attachmentService.findAll(article.getId())).isEmpty();
+        assertThat(attachmentService.upload(article.getId(), "file.txt", "text/plain",
+                new ByteArrayInputStream(bytes), bytes.length, ownerId).getArticleId()).isEqualTo(article.getId());
+    }
+
+    // Given : 글에 파일을 올린다.
+    // When : 글을 삭제한다.
+    // Then : 아웃박스의 DELETED 이벤트로 첨부 파일 정보와 (다른 글이 참조하지 않는) 파일이 지워진다.
+    @DisplayName("onEvent : 글을 삭제하면 첨부 파일도 지운다.")
+    @Test
+    void deleteWithArticle() throws Exception {
+        // given
+        Article article = blogService.save(new AddArticleRequest("삭제할 글", "내용"));
+        JsonNode uploaded = upload(article.getId(), "첨부 파일".getBytes());
+        String hash = uploaded.get("hash").asText();
+        Path file = directory.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+        assertThat(file).exists();
+
+        // when
+        blogService.delete(article.getId());
+
+        // then
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (Files.exists(file) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(file).doesNotExist();
+        assertThat(attachmentService.findAll(article.getId())).isEmpty();
+    }
+}
@@ -1,11 +1,20 @@
 package me.minsic.springbootdeveloper.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import me.minsic.springbootdeveloper.cache.ArticleJsonCache;
+import me.minsic.springbootdeveloper.content.ArticleContentProperties;
+import me.minsic.springbootdeveloper.content.ContentTooLargeException;
 import me.minsic.springbootdeveloper.domain.Article;
 import me.minsic.springbootdeveloper.dto.AddArticleRequest;
+import me.minsic.springbootdeveloper.dto.AddUserRequest;
+import me.minsic.springbootdeveloper.dto.BulkDeleteArticleRequest;
+import me.minsic.springbootdeveloper.dto.BulkUpdateArticleRequest;
 import me.minsic.springbootdeveloper.dto.UpdateArticleRequest;
 import me.minsic.springbootdeveloper.repository.BlogRepository;
 import me.minsic.springbootdeveloper.service.BlogService;
+import me.minsic.springbootdeveloper.service.UserService;
+import me.minsic.springbootdeveloper.shard.ArticleIdGenerator;
+import me.minsic.springbootdeveloper.suggest.TitleSuggester;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,19 +23,28 @@ import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static me.minsic.springbootdeveloper.config.sql.SqlAssertions.maxStatements;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -51,6 +69,24 @@ class BlogApiControllerTest {
     @Autowired
     BlogRepository blogRepository;
 
+    @Autowired
+    BlogService blogService;
+
+    @Autowired
+    ArticleIdGenerator articleIdGenerator;
+
+    @Autowired
+    ArticleContentProperties contentProperties;
+
+    @Autowired
+    ArticleJsonCache articleJsonCache;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    TitleSuggester titleSuggester;
+
     @BeforeEach
     public void mockMvcSetUp() {
         this.mockMvc = MockMvcBuilders.webAppContextSetup(context)
@@ -84,9 +120,10 @@ class BlogApiControllerTest {
         * perform에 Expect 메서드를 통해서 테스트를 진행할 수 있다.
         *  */
         // 설정한 내용을 바탕으로 요청 전송
-        ResultActions result = mockMvc.perform(post(url)
+        // 글 insert, 아웃박스 insert
+        ResultActions result = maxStatements(2, () -> mockMvc.perform(post(url)
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(requestBody));
+                .content(requestBody)));
 
         // then
         /*
@@ -117,13 +154,14 @@ class BlogApiControllerTest {
         final String content = "글의 내용!!";
 
         blogRepository.save(Article.builder()
+                .id(articleIdGenerator.nextId())
                 .title(title)
                 .content(content)
                 .build());
 
         // when
-        final ResultActions resultActions = mockMvc.perform(get(url)
-                .accept(MediaType.APPLICATION_JSON));
+        final ResultActions resultActions = maxStatements(1, () -> mockMvc.perform(get(url)
+                .accept(MediaType.APPLICATION_JSON)));
 
         // then
         resultActions
@@ -144,12 +182,13 @@ class BlogApiControllerTest {
         final String content = "content";
 
         Article savedArticle = blogRepository.save(Article.builder()
+                .id(articleIdGenerator.nextId())
                 .title(title)
                 .content(content)
                 .build());
 
         // when
-        final ResultActions resultActions = mockMvc.perform(get(url, savedArticle.getId()));
+        final ResultActions resultActions = maxStatements(1, () -> mockMvc.perform(get(url, savedArticle.getId())));
 
         // then
         resultActions
@@ -158,6 +197,32 @@ class BlogApiControllerTest {
                 .andExpect(jsonPath("$.title").value(title));
     }
 
+    // Given : 블로그 글을 저장하고 한 번 조회해서 캐시에 담는다.
+    // When : 같은 글을 다시 조회한다.
+    // Then : 수정 시각만 조회하고(본문을 읽지 않고) 캐시된 바이트를 그대로 응답한다.
+    @DisplayName("findArticle : 캐시에 있는 글은 수정 시각만 확인하고 캐시된 응답을 보낸다.")
+    @Test
+    public void findCachedArticle() throws Exception {
+        // given
+        Article savedArticle = blogRepository.save(Article.builder()
+                .id(articleIdGenerator.nextId())
+                .title("title")
+                .content("content")
+                .build());
+        byte[] first = mockMvc.perform(get("/api/articles/{id}", savedArticle.getId()))
+                .andReturn().getResponse().getContentAsByteArray();
+        long hits = articleJsonCache.snapshot().hits();
+
+        // when
+        final ResultActions resultActions = maxStatements(1, () -> mockMvc.perform(get("/api/articles/{id}", savedArticle.getId())));
+
+        // then
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(first));
+        assertThat(articleJsonCache.snapshot().hits()).isEqualTo(hits + 1);
+    }
+
     // given : 블로그 글을 저장한다
     // when : 저장한 블로그 글의 id 값으로 삭제 API를 호출한다
     // Then : 응답 코드가 200 OK이고, 블로그 글 리스트를 전체 조회해 조회한 배열 크기가 0인지 확인한다.
@@ -170,12 +235,14 @@ class BlogApiControllerTest {
         final String content = "content";
 
         Article saveArticle = blogRepository.save(Article.builder()
+                .id(articleIdGenerator.nextId())
                 .title(title)
                 .content(content)
                 .build());
 
         // when
-        mockMvc.perform(delete(url, saveArticle.getId()))
+        // 존재 확인, 조회, delete, 아웃박스 insert
+        maxStatements(4, () -> mockMvc.perform(delete(url, saveArticle.getId())))
                 .andExpect(status().isOk());
 
         // then
@@ -197,6 +264,7 @@ class BlogApiControllerTest {
         final String content = "content";
 
         Article saveArticle = blogRepository.save(Article.builder()
+                .id(articleIdGenerator.nextId())
                 .title(title)
                 .content(content)
                 .build());
@@ -207,9 +275,10 @@ class BlogApiControllerTest {
         UpdateArticleRequest request = new UpdateArticleRequest(newTitle, newContent);
 
         // When
-        ResultActions result = mockMvc.perform(put(url, saveArticle.getId())
+        // 조회, update, 아웃박스 insert
+        ResultActions result = maxStatements(3, () -> mockMvc.perform(put(url, saveArticle.getId())
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
-                .content(objectMapper.writeValueAsString(request)));
+                .content(objectMapper.writeValueAsString(request))));
 
         // Then
         result.andExpect(status().isOk());
@@ -221,4 +290,272 @@ class BlogApiControllerTest {
 
     }
 
-}
\ No newline at end of file
+    // Given : 블로그 글 3개를 저장한다.
+    // When : 그중 2개의 id와 없는 id로 일괄 삭제 API를 호출한다.
+    // Then : 삭제한 글 수가 2이고, 남은 글은 1개이며, 글 수와 관계없이 SQL은 3번만 실행한다.
+    @DisplayName("deleteArticles : 여러 글을 set 기반 SQL로 한 번에 삭제한다.")
+    @Test
+    public void deleteArticles() throws Exception {
+        // given
+        final String url = "/api/articles/bulk-delete";
+        List<Article> saved = blogRepository.saveAll(List.of(
+                Article.builder().id(articleIdGenerator.nextId()).title("title1").content("content1").build(),
+                Article.builder().id(articleIdGenerator.nextId()).title("title2").content("content2").build(),
+                Article.builder().id(articleIdGenerator.nextId()).title("title3").content("content3").build()));
+
+        BulkDeleteArticleRequest request = new BulkDeleteArticleRequest(
+                List.of(saved.get(0).getId(), saved.get(1).getId(), -1L), null, null);
+
+        // when
+        // 잠그면서 id 조회, 아웃박스 insert ... select, delete
+        ResultActions result = maxStatements(3, () -> mockMvc.perform(post(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))));
+
+        // then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+
+        List<Article> articles = blogRepository.findAll();
+
+        assertThat(articles).extracting(Article::getId).containsExactly(saved.get(2).getId());
+    }
+
+    // Given : 블로그 글 2개를 저장한다.
+    // When : 작성일 범위로 제목만 바꾸는 일괄 수정 API를 호출한다.
+    // Then : 두 글의 제목만 바뀌고 내용은 그대로이며, update_at이 요청 시각 이후로 바뀐다.
+    @DisplayName("updateArticles : 작성일 범위의 글을 한 번에 수정하고 보내지 않은 값은 그대로 둔다.")
+    @Test
+    public void updateArticles() throws Exception {
+        // given
+        final String url = "/api/articles/bulk-update";
+        blogRepository.saveAll(List.of(
+                Article.builder().id(articleIdGenerator.nextId()).title("title1").content("content1").build(),
+                Article.builder().id(articleIdGenerator.nextId()).title("title2").content("content2").build()));
+        LocalDateTime requested = LocalDateTime.now();
+
+        BulkUpdateArticleRequest request = new BulkUpdateArticleRequest(
+                null, requested.minusHours(1), requested.plusHours(1), "new title", null);
+
+        // when
+        // 잠그면서 id 조회, update, 아웃박스 insert ... select
+        ResultActions result = maxStatements(3, () -> mockMvc.perform(post(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))));
+
+        // then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+
+        List<Article> articles = blogRepository.findAll();
+
+        assertThat(articles).extracting(Article::getTitle).containsOnly("new title");
+        assertThat(articles).extracting(Article::getContent).containsExactlyInAnyOrder("content1", "content2");
+        assertThat(articles).allSatisfy(article -> assertThat(article.getUpdatedAt()).isAfterOrEqualTo(requested));
+    }
+
+    // Given : 1MB가 넘는 본문을 준비한다.
+    // When : text/plain으로 큰 글 추가 API를 호출하고, 본문 조회 API로 다시 읽는다.
+    // Then : 받은 크기가 본문의 UTF-8 바이트 수와 같고, 읽은 본문이 보낸 본문과 같다.
+    @DisplayName("addArticleContent : 큰 본문을 스트리밍으로 저장하고 그대로 읽어온다.")
+    @Test
+    public void addArticleContent() throws Exception {
+        // given
+        final String body = "가나다라마바사 abcdefg\n".repeat(40_000);
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        userService.save(user("content@test.com"));
+
+        // when
+        ResultActions result = mockMvc.perform(post("/api/articles/content")
+                .principal(new UsernamePasswordAuthenticationToken("content@test.com", null))
+                .param("title", "큰 글")
+                .contentType(MediaType.TEXT_PLAIN)
+                .content(bytes));
+
+        // then
+        result.andExpect(status().isCreated())
+                .andExpect(jsonPath("$.title").value("큰 글"))
+                .andExpect(jsonPath("$.contentBytes").value(bytes.length));
+
+        Article saved = blogRepository.findAll().get(0);
+        assertThat(saved.getAuthor()).isEqualTo("content"); // 이메일이 아닌 별명
+
+        mockMvc.perform(get("/api/articles/{id}/content", saved.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+                .andExpect(content().bytes(bytes));
+    }
+
+    // Given : 본문 크기 한도를 1KB로 줄인다.
+    // When : Content-Length가 있는 요청과, 길이를 모르는 스트림으로 2KB 본문을 보낸다.
+    // Then : 둘 다 413(ContentTooLargeException)으로 거절하고 글은 저장되지 않는다.
+    @DisplayName("addArticleContent : 본문이 한도를 넘으면 읽는 도중에 거절하고 롤백한다.")
+    @Test
+    public void addArticleContentTooLarge() throws Exception {
+        // given
+        final DataSize maxSize = contentProperties.getMaxSize();
+        final byte[] bytes = "a".repeat(2048).getBytes(StandardCharsets.UTF_8);
+        contentProperties.setMaxSize(DataSize.ofKilobytes(1));
+
+        try {
+            // when
+            ResultActions result = mockMvc.perform(post("/api/articles/content")
+                    .param("title", "큰 글")
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .content(bytes));
+
+            // then
+            result.andExpect(status().isPayloadTooLarge());
+            assertThrows(ContentTooLargeException.class,
+                    () -> blogService.saveContent("큰 글", new ByteArrayInputStream(bytes), -1));
+            assertThat(blogRepository.findAll()).isEmpty();
+        } finally {
+            contentProperties.setMaxSize(maxSize);
+        }
+    }
+
+    @DisplayName("findTrendingArticles : 최근 상세 조회가 많은 글부터 반환한다.")
+    @Test
+    public void findTrendingArticles() throws Exception {
+        // given
+        Article popular = blogService.save(new AddArticleRequest("인기 글", "내용"));
+        Article other = blogService.save(new AddArticleRequest("다른 글", "내용"));
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/articles/{id}", popular.getId())).andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/articles/{id}", other.getId())).andExpect(status().isOk());
+
+        // when
+        final ResultActions resultActions = mockMvc.perform(get("/api/articles/trending").param("window", "5m"));
+
+        // then
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(popular.getId()))
+                .andExpect(jsonPath("$[0].title").value("인기 글"))
+                .andExpect(jsonPath("$[0].views").value(3))
+                .andExpect(jsonPath("$[1].id").value(other.getId()));
+    }
+
+    @DisplayName("suggestTitles : 입력 중인 검색어로 시작하는 제목을 조회가 많은 글부터 반환한다.")
+    @Test
+    public void suggestTitles() throws Exception {
+        // given
+        Article boot = blogService.save(new AddArticleRequest("스프링 부트 시작하기", "내용"));
+        Article security = blogService.save(new AddArticleRequest("스프링 시큐리티 설정", "내용"));
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/articles/{id}", boot.getId())).andExpect(status().isOk());
+        }
+        titleSuggester.rebuild(); // 백그라운드 주기를 기다리지 않고 바로 만든다.
+
+        // when : "스프링", "시큐리티"를 입력하는 중 ("슾", "싴"), "시큐리티"는 두 번째 단어
+        final ResultActions prefix = mockMvc.perform(get("/api/articles/suggest").param("q", "슾"));
+        final ResultActions word = mockMvc.perform(get("/api/articles/suggest").param("q", "싴"));
+
+        // then
+        prefix
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(boot.getId()))
+                .andExpect(jsonPath("$[0].title").value("스프링 부트 시작하기"))
+                .andExpect(jsonPath("$[1].id").value(security.getId()));
+        word
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(security.getId()));
+    }
+
+    private static AddUserRequest user(String email) {
+        AddUserRequest request = new AddUserRequest();
+        request.setEmail(email);
+        request.setPassword("password");
+        request.setNickname(email.substring(0, email.indexOf('@')));
+        return request;
+    }
+
+    @DisplayName("findAuthorArticles : 로그인한 사용자를 작성자로 저장하고, 작성자의 글을 최신순 키셋 페이지로 조회한다.")
+    @Test
+    public void findAuthorArticles() throws Exception {
+        // given
+        Long authorId = userService.save(user("author@test.com"));
+        userService.save(user("other@test.com"));
+        Principal author = new UsernamePasswordAuthenticationToken("author@test.com", null);
+        for (int i = 1; i <= 3; i++) {
+            mockMvc.perform(post("/api/articles")
+                            .principal(author)
+                            .contentType(MediaType.APPLICATION_JSON_VALUE)
+                            .content(objectMapper.writeValueAsString(new AddArticleRequest("글" + i, "내용"))))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.author").value("author")); // 이메일이 아닌 별명
+        }
+        blogService.save(new AddArticleRequest("다른 사람의 글", "내용"));
+
+        // when : 작성자 인덱스를 따라 쿼리 1번
+        final ResultActions firstPage = maxStatements(1, () -> mockMvc.perform(get("/api/users/{userId}/articles", authorId)
+                .param("size", "2")));
+        String next = objectMapper.readTree(firstPage.andReturn().getResponse().getContentAsString()).get("next").asText();
+
+        // then
+        firstPage
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articles[0].title").value("글3"))
+                .andExpect(jsonPath("$.articles[1].title").value("글2"))
+                .andExpect(jsonPath("$.articles[0].author").value("author"));
+        mockMvc.perform(get("/api/users/{userId}/articles", authorId).param("cursor", next).param("size", "2"))
+                .andExpect(jsonPath("$.articles.length()").value(1))
+                .andExpect(jsonPath("$.articles[0].title").value("글1"))
+                .andExpect(jsonPath("$.next").isEmpty());
+    }
+
+    @DisplayName("updateArticle : 작성자가 있는 글은 다른 사용자가 수정할 수 없다.")
+    @Test
+    public void updateArticleByOther() throws Exception {
+        // given
+        userService.save(user("owner@test.com"));
+        Article article = blogService.save(new AddArticleRequest("제목", "내용"), userService.findByEmail("owner@test.com"));
+        Principal other = new UsernamePasswordAuthenticationToken("intruder@test.com", null);
+        String body = objectMapper.writeValueAsString(new UpdateArticleRequest("바꾼 제목", "바꾼 내용"));
+
+        // when
+        Throwable thrown = assertThrows(Exception.class, () -> mockMvc.perform(put("/api/articles/{id}", article.getId())
+                .principal(other)
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .content(body)));
+
+        // then
+        assertThat(thrown).hasRootCauseInstanceOf(AccessDeniedException.class);
+        assertThat(blogService.findById(article.getId()).getTitle()).isEqualTo("제목");
+    }
+
+    // Given : 다른 사용자가 작성한 글, 로그인한 사용자가 작성한 글, 작성자가 없는 글을 저장한다.
+    // When : 세 글의 id로 일괄 삭제하고, 다른 사용자의 글의 태그를 바꾼다.
+    // Then : 다른 사용자의 글은 일괄 삭제에서 빠지고, 태그 변경은 AccessDeniedException
+    @DisplayName("deleteArticles, updateArticleTags : 다른 사용자가 작성한 글은 일괄 삭제하거나 태그를 바꿀 수 없다.")
+    @Test
+    public void bulkDeleteByOther() throws Exception {
+        // given
+        userService.save(user("owner2@test.com"));
+        userService.save(user("editor@test.com"));
+        Article owned = blogService.save(new AddArticleRequest("남의 글", "내용"), userService.findByEmail("owner2@test.com"));
+        Article mine = blogService.save(new AddArticleRequest("내 글", "내용"), userService.findByEmail("editor@test.com"));
+        Article anonymous = blogService.save(new AddArticleRequest("작성자 없는 글", "내용"));
+        Principal editor = new UsernamePasswordAuthenticationToken("editor@test.com", null);
+        BulkDeleteArticleRequest request = new BulkDeleteArticleRequest(
+                List.of(owned.getId(), mine.getId(), anonymous.getId()), null, null);
+
+        // when
+        ResultActions result = mockMvc.perform(post("/api/articles/bulk-delete")
+                .principal(editor)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+        Throwable thrown = assertThrows(Exception.class, () -> mockMvc.perform(put("/api/articles/{id}/tags", owned.getId())
+                .principal(editor)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"spam\"]")));
+
+        // then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+        assertThat(blogRepository.findAll()).extracting(Article::getId).containsExactly(owned.getId());
+        assertThat(thrown).hasRootCauseInstanceOf(AccessDeniedException.class);
+    }
+}
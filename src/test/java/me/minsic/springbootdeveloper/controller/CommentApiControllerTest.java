@@ -0,0 +1,139 @@
+package me.minsic.springbootdeveloper.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.domain.ArticleComment;
+import me.minsic.springbootdeveloper.dto.AddArticleRequest;
+import me.minsic.springbootdeveloper.dto.AddCommentRequest;
+import me.minsic.springbootdeveloper.service.BlogService;
+import me.minsic.springbootdeveloper.service.CommentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static me.minsic.springbootdeveloper.config.sql.SqlAssertions.maxStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:comment-test")
+class CommentApiControllerTest {
+
+    @Autowired
+    WebApplicationContext context;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    BlogService blogService;
+
+    @Autowired
+    CommentService commentService;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void mockMvcSetUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @DisplayName("findComments : 최상위 댓글을 id 커서로 나눠 읽고, 답글은 수만 쿼리 한 번으로 같이 보낸다.")
+    @Test
+    void findComments() throws Exception {
+        // given
+        Article article = blogService.save(new AddArticleRequest("댓글 많은 글", "내용"));
+        ArticleComment first = commentService.add(article.getId(), new AddCommentRequest("첫 댓글", null));
+        ArticleComment second = commentService.add(article.getId(), new AddCommentRequest("둘째 댓글", null));
+        commentService.add(article.getId(), new AddCommentRequest("셋째 댓글", null));
+        mockMvc.perform(post("/api/articles/{id}/comments", article.getId())
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(new AddCommentRequest(" 답글 ", first.getId()))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.depth").value(1))
+                .andExpect(jsonPath("$.content").value("답글"));
+        commentService.add(article.getId(), new AddCommentRequest("답글 2", first.getId()));
+
+        // when : 페이지 조회(1) + 답글 수(1)
+        ResultActions firstPage = maxStatements(2, () -> mockMvc.perform(get("/api/articles/{id}/comments", article.getId())
+                .param("size", "2")));
+
+        // then
+        firstPage.andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments.length()").value(2))
+                .andExpect(jsonPath("$.comments[0].content").value("첫 댓글"))
+                .andExpect(jsonPath("$.comments[0].replyCount").value(2))
+                .andExpect(jsonPath("$.comments[1].replyCount").value(0))
+                .andExpect(jsonPath("$.next").value(second.getId()));
+        mockMvc.perform(get("/api/articles/{id}/comments", article.getId())
+                        .param("after", second.getId().toString()).param("size", "2"))
+                .andExpect(jsonPath("$.comments.length()").value(1))
+                .andExpect(jsonPath("$.comments[0].content").value("셋째 댓글"))
+                .andExpect(jsonPath("$.next").isEmpty());
+        mockMvc.perform(get("/api/articles/{id}/comments/{commentId}/replies", article.getId(), first.getId()))
+                .andExpect(jsonPath("$.comments.length()").value(2))
+                .andExpect(jsonPath("$.comments[0].content").value("답글"));
+    }
+
+    @DisplayName("add : 답글은 최대 깊이까지만 달 수 있고, 글 목록의 댓글 수는 쿼리 한 번으로 조회한다.")
+    @Test
+    void replyDepthAndCounts() throws Exception {
+        // given
+        Article article = blogService.save(new AddArticleRequest("깊은 답글", "내용"));
+        ArticleComment comment = commentService.add(article.getId(), new AddCommentRequest("댓글", null));
+        for (int depth = 1; depth <= ArticleComment.MAX_DEPTH; depth++) {
+            comment = commentService.add(article.getId(), new AddCommentRequest("답글 " + depth, comment.getId()));
+        }
+        long deepest = comment.getId();
+
+        // then
+        assertThat(comment.getDepth()).isEqualTo(ArticleComment.MAX_DEPTH);
+        assertThatThrownBy(() -> commentService.add(article.getId(), new AddCommentRequest("너무 깊은 답글", deepest)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // when
+        Map<Long, Long> counts = maxStatements(1, () -> commentService.countByArticleIds(List.of(1L, 2L, article.getId())));
+
+        // then
+        assertThat(counts).containsEntry(article.getId(), (long) ArticleComment.MAX_DEPTH + 1)
+                .containsEntry(1L, 0L)
+                .containsEntry(2L, 0L);
+
+        // when : 글이 많으면 in (...)을 500개씩 나눠서 조회한다.
+        List<Long> many = new ArrayList<>(LongStream.rangeClosed(1, 1200).boxed().toList());
+        many.add(article.getId());
+        Map<Long, Long> manyCounts = maxStatements(3, () -> commentService.countByArticleIds(many));
+
+        // then
+        assertThat(manyCounts).hasSize(many.size())
+                .containsEntry(article.getId(), (long) ArticleComment.MAX_DEPTH + 1);
+    }
+
+    @DisplayName("add : 없는 글에는 댓글을 달 수 없다.")
+    @Test
+    void addToMissingArticle() {
+        // given
+        Article article = blogService.save(new AddArticleRequest("삭제할 글", "내용"));
+        blogService.delete(article.getId());
+
+        // when, then
+        assertThatThrownBy(() -> commentService.add(article.getId(), new AddCommentRequest("댓글", null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("not found: " + article.getId());
+    }
+}
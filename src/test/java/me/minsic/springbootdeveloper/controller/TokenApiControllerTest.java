@@ -24,6 +24,9 @@ import org.springframework.web.context.WebApplicationContext;
 
 import java.util.Map;
 
+import static me.minsic.springbootdeveloper.config.sql.SqlAssertions.maxStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -74,14 +77,22 @@ public class TokenApiControllerTest {
         final String requestBody = objectMapper.writeValueAsString(request);
 
         //when
-        ResultActions resultActions = mockMvc.perform(post(url)
+        // 사용자 조회, 리프레시 토큰 교체(update 한 문장)
+        ResultActions resultActions = maxStatements(2, () -> mockMvc.perform(post(url)
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
-                .content(requestBody));
+                .content(requestBody)));
 
         //then
         resultActions
                 .andExpect(status().isCreated())
-                .andExpect(jsonPath("$.accessToken").isNotEmpty());
+                .andExpect(jsonPath("$.accessToken").isNotEmpty())
+                .andExpect(jsonPath("$.refreshToken").isNotEmpty());
+        // 한 번 쓴 리프레시 토큰은 새 값으로 바뀌어서 다시 쓸 수 없다.
+        assertThat(refreshTokenRepository.findByUserId(testUser.getId()).get().getRefreshToken()).isNotEqualTo(refreshToken);
+        assertThatThrownBy(() -> mockMvc.perform(post(url)
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .content(requestBody)))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
     }
 
 }
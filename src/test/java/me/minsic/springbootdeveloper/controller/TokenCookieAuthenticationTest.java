@@ -0,0 +1,150 @@
+package me.minsic.springbootdeveloper.controller;
+
+import jakarta.servlet.http.Cookie;
+import me.minsic.springbootdeveloper.domain.User;
+import me.minsic.springbootdeveloper.dto.AddUserRequest;
+import me.minsic.springbootdeveloper.repository.RefreshTokenRepository;
+import me.minsic.springbootdeveloper.repository.UserRepository;
+import me.minsic.springbootdeveloper.service.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static me.minsic.springbootdeveloper.config.TokenLoginSuccessHandler.ACCESS_TOKEN_COOKIE_NAME;
+import static me.minsic.springbootdeveloper.config.TokenLoginSuccessHandler.REFRESH_TOKEN_COOKIE_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 보안 필터를 포함한 MockMvc로 폼 로그인 -> 쿠키 인증 -> 재발급 -> 로그아웃을 차례로 요청한다.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:token-cookie-test")
+@AutoConfigureMockMvc
+class TokenCookieAuthenticationTest {
+
+    private static final String EMAIL = "cookie@email.com";
+    private static final String PASSWORD = "password";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    RefreshTokenRepository refreshTokenRepository;
+
+    @DisplayName("login: 폼 로그인에 성공하면 엑세스 토큰 쿠키(/)와 리프레시 토큰 쿠키(/api/token)를 발급하고, 그 쿠키로 화면을 인증한다.")
+    @Test
+    void loginIssuesCookies() throws Exception {
+        // when
+        MockHttpServletResponse login = login();
+
+        // then
+        Cookie access = login.getCookie(ACCESS_TOKEN_COOKIE_NAME);
+        Cookie refresh = login.getCookie(REFRESH_TOKEN_COOKIE_NAME);
+        assertThat(access.getPath()).isEqualTo("/");
+        assertThat(access.isHttpOnly()).isTrue();
+        assertThat(refresh.getPath()).isEqualTo("/api/token");
+        assertThat(refresh.isHttpOnly()).isTrue();
+        assertThat(login.getRedirectedUrl()).isEqualTo("/articles");
+
+        mockMvc.perform(get("/new-article").cookie(access))
+                .andExpect(status().isOk());
+        // 쿠키가 없으면 재발급을 거쳐서 돌아오도록 보낸다.
+        mockMvc.perform(get("/new-article").queryParam("id", "1"))
+                .andExpect(redirectedUrl("/api/token/refresh?redirect=%2Fnew-article%3Fid%3D1"));
+    }
+
+    @DisplayName("refreshCookies: 리프레시 토큰 쿠키로 두 토큰을 새로 발급하고, 이미 쓴 리프레시 토큰은 거절한다.")
+    @Test
+    void refreshRotatesToken() throws Exception {
+        // given
+        Cookie refresh = login().getCookie(REFRESH_TOKEN_COOKIE_NAME);
+
+        // when
+        MockHttpServletResponse refreshed = mockMvc.perform(get("/api/token/refresh")
+                        .queryParam("redirect", "/new-article")
+                        .cookie(refresh))
+                .andExpect(redirectedUrl("/new-article"))
+                .andReturn().getResponse();
+
+        // then
+        Cookie rotated = refreshed.getCookie(REFRESH_TOKEN_COOKIE_NAME);
+        assertThat(rotated.getValue()).isNotEqualTo(refresh.getValue());
+        assertThat(refreshTokenRepository.findByRefreshToken(rotated.getValue())).isPresent();
+        mockMvc.perform(get("/new-article").cookie(refreshed.getCookie(ACCESS_TOKEN_COOKIE_NAME)))
+                .andExpect(status().isOk());
+
+        // 교체 전 값을 다시 쓰면 로그인 화면으로 보낸다. 다른 사이트로는 돌려보내지 않는다.
+        mockMvc.perform(get("/api/token/refresh").queryParam("redirect", "/new-article").cookie(refresh))
+                .andExpect(redirectedUrl("/login"));
+        mockMvc.perform(get("/api/token/refresh").queryParam("redirect", "//evil.example").cookie(rotated))
+                .andExpect(redirectedUrl("/articles"));
+    }
+
+    @DisplayName("refreshCookies: 브라우저가 다른 사이트 주소로 읽는 redirect(탭, 줄바꿈, 공백, \\, 절대 URL)는 기본 화면으로 바꾼다.")
+    @Test
+    void refreshRejectsForeignRedirect() throws Exception {
+        // given
+        Cookie refresh = login().getCookie(REFRESH_TOKEN_COOKIE_NAME);
+        String[] redirects = {"/\t/evil.example", "/\n/evil.example", "/\r\n/evil.example", "/ /evil.example",
+                "/\\evil.example", "/articles\\..\\\\evil.example", "https://evil.example", "//evil.example"};
+
+        for (String redirect : redirects) {
+            // when : 재발급할 때마다 리프레시 토큰이 바뀌므로 새 쿠키로 이어서 요청
+            MockHttpServletResponse response = mockMvc.perform(get("/api/token/refresh")
+                            .queryParam("redirect", redirect)
+                            .cookie(refresh))
+                    .andReturn().getResponse();
+
+            // then
+            assertThat(response.getRedirectedUrl()).as(redirect).isEqualTo("/articles");
+            refresh = response.getCookie(REFRESH_TOKEN_COOKIE_NAME);
+        }
+        mockMvc.perform(get("/api/token/refresh").queryParam("redirect", "/articles/1?tab=comments").cookie(refresh))
+                .andExpect(redirectedUrl("/articles/1?tab=comments"));
+    }
+
+    @DisplayName("logout: 로그아웃하면 저장된 리프레시 토큰을 지워서 쿠키를 가지고 있어도 재발급받을 수 없다.")
+    @Test
+    void logoutDeletesRefreshToken() throws Exception {
+        // given
+        MockHttpServletResponse login = login();
+        Cookie access = login.getCookie(ACCESS_TOKEN_COOKIE_NAME);
+        Cookie refresh = login.getCookie(REFRESH_TOKEN_COOKIE_NAME);
+        User user = userService.findByEmail(EMAIL);
+
+        // when
+        MockHttpServletResponse logout = mockMvc.perform(get("/api/token/logout").cookie(access, refresh))
+                .andExpect(redirectedUrl("/login"))
+                .andReturn().getResponse();
+
+        // then
+        assertThat(refreshTokenRepository.findByUserId(user.getId())).isEmpty();
+        assertThat(logout.getCookie(REFRESH_TOKEN_COOKIE_NAME).getMaxAge()).isZero();
+        assertThat(logout.getCookie(REFRESH_TOKEN_COOKIE_NAME).getPath()).isEqualTo("/api/token");
+        mockMvc.perform(get("/api/token/refresh").cookie(refresh))
+                .andExpect(redirectedUrl("/login"));
+    }
+
+    private MockHttpServletResponse login() throws Exception {
+        if (userRepository.findByEmail(EMAIL).isEmpty()) {
+            AddUserRequest request = new AddUserRequest();
+            request.setEmail(EMAIL);
+            request.setPassword(PASSWORD);
+            userService.save(request);
+        }
+        return mockMvc.perform(post("/login").param("username", EMAIL).param("password", PASSWORD))
+                .andExpect(status().is3xxRedirection())
+                .andReturn().getResponse();
+    }
+}
@@ -0,0 +1,111 @@
+package me.minsic.springbootdeveloper.feed;
+
+import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.dto.AddArticleRequest;
+import me.minsic.springbootdeveloper.dto.UpdateArticleRequest;
+import me.minsic.springbootdeveloper.service.BlogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// data.sql의 글 3개(id 1, 2, 3)로 시작한다.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:feed-test",
+        "feed.entries=2",
+        "feed.urls-per-file=2"
+})
+class ArticleFeedTest {
+
+    @Autowired
+    WebApplicationContext context;
+
+    @Autowired
+    BlogService blogService;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void mockMvcSetUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    private MockHttpServletResponse fetch(String url) throws Exception {
+        return mockMvc.perform(get(url)).andReturn().getResponse();
+    }
+
+    // 아웃박스 이벤트가 전달될 때까지 다시 요청한다.
+    private String await(String url, Predicate<String> condition) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String body = fetch(url).getContentAsString();
+        while (!condition.test(body) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            body = fetch(url).getContentAsString();
+        }
+        return body;
+    }
+
+    @DisplayName("rss(): 최근 글만 담고, 같은 ETag면 304, 글을 수정하면 그 글의 항목을 고친다.")
+    @Test
+    void feed() throws Exception {
+        // given
+        Article older = blogService.save(new AddArticleRequest("첫 글", "내용 <b>1</b>"));
+        Article newest = blogService.save(new AddArticleRequest("둘째 글", "내용 2"));
+        String rss = await("/rss.xml", body -> body.contains("둘째 글") && body.contains("첫 글"));
+        String etag = fetch("/rss.xml").getHeader(HttpHeaders.ETAG);
+
+        // then
+        assertThat(rss).contains("/articles/" + older.getId(), "/articles/" + newest.getId(), "내용 &lt;b&gt;1&lt;/b&gt;")
+                .doesNotContain("제목1");
+        mockMvc.perform(get("/rss.xml").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertThat(fetch("/atom.xml").getContentAsString()).contains("<entry><title>둘째 글</title>");
+
+        // when
+        blogService.update(newest.getId(), new UpdateArticleRequest("고친 글", "내용 2"));
+
+        // then
+        rss = await("/rss.xml", body -> body.contains("고친 글"));
+        assertThat(rss).contains("고친 글", "첫 글").doesNotContain("둘째 글");
+        assertThat(fetch("/rss.xml").getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+    }
+
+    @DisplayName("sitemap(): 파일 하나의 URL 수를 넘으면 색인 파일로 나누고, 새 글은 마지막 파일에 더한다.")
+    @Test
+    void sitemap() throws Exception {
+        // given
+        String index = fetch("/sitemap.xml").getContentAsString();
+        int files = index.split("<sitemap>").length - 1;
+
+        // then
+        assertThat(index).startsWith("<?xml").contains("<sitemapindex", "/sitemap-1.xml");
+        assertThat(fetch("/sitemap-1.xml").getContentAsString())
+                .contains("<loc>http://localhost:8080/articles/1</loc>", "/articles/2</loc>")
+                .doesNotContain("/articles/3</loc>");
+        assertThat(fetch("/sitemap-" + (files + 1) + ".xml").getStatus()).isEqualTo(404);
+
+        // when : 마지막 파일을 넘치게 한다.
+        Article first = blogService.save(new AddArticleRequest("새 글 1", "내용"));
+        Article second = blogService.save(new AddArticleRequest("새 글 2", "내용"));
+        String grown = await("/sitemap.xml", body -> body.contains("/sitemap-" + (files + 1) + ".xml"));
+
+        // then
+        assertThat(grown).contains("/sitemap-" + (files + 1) + ".xml");
+        String added = fetch("/sitemap-" + files + ".xml").getContentAsString()
+                + fetch("/sitemap-" + (files + 1) + ".xml").getContentAsString();
+        assertThat(added).contains("/articles/" + first.getId() + "</loc>", "/articles/" + second.getId() + "</loc>");
+    }
+}
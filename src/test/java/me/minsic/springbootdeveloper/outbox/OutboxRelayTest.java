@@ -0,0 +1,220 @@
+package me.minsic.springbootdeveloper.outbox;
+
+import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.domain.ArticleEventType;
+import me.minsic.springbootdeveloper.domain.ArticleOutboxEvent;
+import me.minsic.springbootdeveloper.dto.AddArticleRequest;
+import me.minsic.springbootdeveloper.dto.UpdateArticleRequest;
+import me.minsic.springbootdeveloper.repository.ArticleOutboxConsumerRepository;
+import me.minsic.springbootdeveloper.repository.ArticleOutboxRepository;
+import me.minsic.springbootdeveloper.service.BlogService;
+import me.minsic.springbootdeveloper.service.TagService;
+import me.minsic.springbootdeveloper.shard.ShardTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 스케줄러가 끼어들지 않도록 주기를 길게 두고 relay()를 직접 호출한다.
+// 다른 테스트의 컨텍스트(기본 주기로 relay 실행)가 이벤트를 가져가지 않도록 DB도 따로 둔다.
+@SpringBootTest(properties = {
+        "outbox.poll-interval=PT1H",
+        "spring.datasource.url=jdbc:h2:mem:outbox-test"
+})
+class OutboxRelayTest {
+
+    @Autowired
+    BlogService blogService;
+
+    @Autowired
+    OutboxRelay outboxRelay;
+
+    @Autowired
+    TagService tagService;
+
+    @Autowired
+    ArticleOutboxRepository outboxRepository;
+
+    @Autowired
+    ArticleOutboxConsumerRepository consumerRepository;
+
+    @Autowired
+    ShardTemplate shardTemplate;
+
+    @Autowired
+    RecordingListener listener;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay.relay();
+        listener.received.clear();
+        listener.failingArticleId.set(0);
+    }
+
+    @DisplayName("relay(): 글 추가, 수정, 태그 변경, 삭제 이벤트를 발생 순서대로 리스너에 전달하고 아웃박스에서 지운다.")
+    @Test
+    void relayInOrder() {
+        // given
+        Article article = blogService.save(new AddArticleRequest("제목", "내용"));
+        blogService.update(article.getId(), new UpdateArticleRequest("수정한 제목", "수정한 내용"));
+        tagService.updateTags(article.getId(), List.of("outbox"), null);
+        blogService.delete(article.getId());
+        assertThat(outboxRepository.count()).isEqualTo(4);
+
+        // when
+        outboxRelay.relay();
+
+        // then
+        assertThat(listener.types(article.getId()))
+                .containsExactly(ArticleEventType.CREATED, ArticleEventType.UPDATED, ArticleEventType.TAGGED, ArticleEventType.DELETED);
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    @DisplayName("relay(): 리스너가 실패한 글의 이벤트는 남겨 두었다가 다음 주기에 순서대로 다시 전달한다.")
+    @Test
+    void retryFailedArticle() {
+        // given
+        Article failing = blogService.save(new AddArticleRequest("제목1", "내용1"));
+        blogService.update(failing.getId(), new UpdateArticleRequest("수정한 제목1", "수정한 내용1"));
+        Article other = blogService.save(new AddArticleRequest("제목2", "내용2"));
+        listener.failingArticleId.set(failing.getId());
+
+        // when
+        outboxRelay.relay();
+
+        // then : 실패한 글의 이벤트부터는 전달을 마치지 않았으므로 지우지 않는다.
+        assertThat(listener.types(failing.getId())).isEmpty();
+        assertThat(listener.types(other.getId())).containsExactly(ArticleEventType.CREATED);
+        assertThat(outboxRepository.findAll()).extracting(ArticleOutboxEvent::getArticleId)
+                .containsExactly(failing.getId(), failing.getId(), other.getId());
+
+        // when
+        listener.failingArticleId.set(0);
+        outboxRelay.relay();
+
+        // then
+        assertThat(listener.types(failing.getId()))
+                .containsExactly(ArticleEventType.CREATED, ArticleEventType.UPDATED);
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    @DisplayName("relay(): id 순서와 다르게 늦게 커밋된 이벤트도 건너뛰지 않고 전달한 뒤에 지운다.")
+    @Test
+    void relayLateCommit() throws Exception {
+        // given : 먼저 id를 받은 트랜잭션이 아직 커밋하지 않은 채로 다음 id의 트랜잭션이 커밋
+        CountDownLatch saved = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> slow = executor.submit(() -> shardTemplate.inTransaction(0, () -> {
+                outboxRepository.save(new ArticleOutboxEvent(-1L, ArticleEventType.UPDATED));
+                saved.countDown();
+                await(release);
+            }));
+            await(saved);
+            shardTemplate.inTransaction(0, () -> outboxRepository.save(new ArticleOutboxEvent(-2L, ArticleEventType.UPDATED)));
+
+            // when
+            outboxRelay.relay();
+
+            // then
+            assertThat(listener.types(-2L)).containsExactly(ArticleEventType.UPDATED);
+            assertThat(listener.types(-1L)).isEmpty();
+
+            // when : 늦게 커밋
+            release.countDown();
+            slow.get(10, TimeUnit.SECONDS);
+            outboxRelay.relay();
+
+            // then
+            assertThat(listener.types(-1L)).containsExactly(ArticleEventType.UPDATED);
+            assertThat(listener.types(-2L)).containsExactly(ArticleEventType.UPDATED);
+            assertThat(outboxRepository.count()).isZero();
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DisplayName("relay(): 이벤트는 모든 노드의 리스너에 전달하고, 모든 노드가 전달한 뒤에 지운다.")
+    @Test
+    void fanOutToEveryNode() {
+        // given : 같은 DB를 보는 다른 노드
+        RecordingListener otherListener = new RecordingListener();
+        OutboxRelay otherRelay = new OutboxRelay(outboxRepository, consumerRepository, List.of(otherListener),
+                shardTemplate, new OutboxProperties(), new OutboxMetrics());
+        otherRelay.start();
+        try {
+            Article article = blogService.save(new AddArticleRequest("제목", "내용"));
+
+            // when
+            outboxRelay.relay();
+
+            // then : 다른 노드가 아직 읽지 않았으므로 남겨 둔다.
+            assertThat(listener.types(article.getId())).containsExactly(ArticleEventType.CREATED);
+            assertThat(outboxRepository.count()).isEqualTo(1);
+
+            // when
+            otherRelay.relay();
+
+            // then
+            assertThat(otherListener.types(article.getId())).containsExactly(ArticleEventType.CREATED);
+            assertThat(outboxRepository.count()).isZero();
+        } finally {
+            otherRelay.stop(); // 이 노드의 기록을 지운다.
+            otherRelay.close();
+        }
+    }
+
+    static class RecordingListener implements ArticleEventListener {
+
+        final List<ArticleOutboxEvent> received = new CopyOnWriteArrayList<>();
+        final AtomicLong failingArticleId = new AtomicLong();
+
+        @Override
+        public void onEvent(ArticleOutboxEvent event) {
+            if (event.getArticleId() == failingArticleId.get()) {
+                throw new IllegalStateException("listener failure");
+            }
+            received.add(event);
+        }
+
+        List<ArticleEventType> types(long articleId) {
+            return received.stream()
+                    .filter(event -> event.getArticleId() == articleId)
+                    .map(ArticleOutboxEvent::getType)
+                    .toList();
+        }
+    }
+
+    @TestConfiguration
+    static class ListenerConfig {
+
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package me.minsic.springbootdeveloper.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import me.minsic.springbootdeveloper.config.jwt.TokenProvider;
+import me.minsic.springbootdeveloper.domain.User;
+import me.minsic.springbootdeveloper.service.BlogService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 보안 필터를 포함한 MockMvc로 관리자 토큰을 보내서 기록을 시작, 중지한다.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:profiling-test",
+        "profiling.admins=admin@email.com"
+})
+@AutoConfigureMockMvc
+class ProfilingRecorderTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    TokenProvider tokenProvider;
+
+    @Autowired
+    BlogService blogService;
+
+    @DisplayName("stop(): 기록 중에 실행한 글 조회, 토큰 검증이 글 id, 결과와 함께 .jfr 파일에 남는다.")
+    @Test
+    void recordBlogEvents() throws Exception {
+        // given
+        String token = "Bearer " + token("admin@email.com");
+        mockMvc.perform(post("/api/admin/profiling/start").param("seconds", "60").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+        mockMvc.perform(post("/api/admin/profiling/start").header("Authorization", token))
+                .andExpect(status().isConflict());
+
+        // when
+        blogService.findById(1L);
+        tokenProvider.validToken("invalid");
+        byte[] jfr = mockMvc.perform(post("/api/admin/profiling/stop").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"blog-profiling.jfr\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // then
+        Path file = Files.createTempFile("profiling-test-", ".jfr");
+        try {
+            Files.write(file, jfr);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertThat(events).anySatisfy(event -> {
+                assertThat(event.getEventType().getName()).isEqualTo("me.minsic.blog.ArticleOperation");
+                assertThat(event.getString("operation")).isEqualTo("findById");
+                assertThat(event.getLong("articleId")).isEqualTo(1L);
+                assertThat(event.getString("outcome")).isEqualTo(BlogEvent.SUCCESS);
+            });
+            assertThat(events).anySatisfy(event -> {
+                assertThat(event.getEventType().getName()).isEqualTo("me.minsic.blog.TokenVerification");
+                assertThat(event.getString("outcome")).isEqualTo(TokenVerificationEvent.INVALID);
+            });
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        mockMvc.perform(get("/api/admin/profiling").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("CLOSED"));
+    }
+
+    @DisplayName("start(): profiling.admins에 없는 사용자는 기록을 시작할 수 없다.")
+    @Test
+    void startForbiddenForNonAdmin() throws Exception {
+        // when, then
+        mockMvc.perform(post("/api/admin/profiling/start").header("Authorization", "Bearer " + token("user@email.com")))
+                .andExpect(status().isForbidden());
+    }
+
+    private String token(String email) {
+        return tokenProvider.generateToken(User.builder().email(email).password("").build(), Duration.ofMinutes(1));
+    }
+}
@@ -0,0 +1,97 @@
+package me.minsic.springbootdeveloper.service;
+
+import me.minsic.springbootdeveloper.config.sql.SqlStatistics;
+import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.dto.AddArticleRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+* 커넥션 풀을 1개로 두고 테스트가 커넥션을 잡고 있으면, 먼저 온 조회는 커넥션을 기다리고
+* 나머지 조회는 그 조회에 합류해서 기다린다. 모두 기다리는 상태가 된 뒤에 커넥션을 놓는다.
+* */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:blog-service-test",
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "outbox.poll-interval=PT1H"
+})
+class BlogServiceTest {
+
+    private static final int CALLERS = 32;
+
+    @Autowired
+    BlogService blogService;
+
+    @Autowired
+    DataSource dataSource;
+
+    @DisplayName("findById(): 같은 글을 동시에 조회하면 SQL은 한 번만 실행하고 모두 같은 글을 받는다.")
+    @Test
+    void findByIdCoalesced() throws Exception {
+        // given
+        Article saved = blogService.save(new AddArticleRequest("인기 글", "내용"));
+        List<FutureTask<Article>> results;
+
+        // when
+        try (SqlStatistics statistics = SqlStatistics.start()) {
+            try (Connection held = dataSource.getConnection()) {
+                // 다른 스레드에서 실행한 SQL도 이 범위에 더한다.
+                results = IntStream.range(0, CALLERS)
+                        .mapToObj(i -> SqlStatistics.propagate(() -> blogService.findById(saved.getId())))
+                        .map(task -> new FutureTask<>(task::get))
+                        .toList();
+                List<Thread> threads = results.stream().map(Thread::new).toList();
+                threads.forEach(Thread::start);
+                awaitParked(threads);
+            }
+            for (FutureTask<Article> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).getTitle()).isEqualTo("인기 글");
+            }
+
+            // then
+            assertThat(statistics.getStatements()).isEqualTo(1);
+        }
+    }
+
+    @DisplayName("forEachChunk(): 묶음을 넘기는 동안에는 커넥션을 잡고 있지 않는다. (느린 클라이언트가 커넥션을 붙잡지 않도록)")
+    @Test
+    void forEachChunkReleasesConnection() throws Exception {
+        // given
+        blogService.save(new AddArticleRequest("묶음 글1", "내용"));
+        blogService.save(new AddArticleRequest("묶음 글2", "내용"));
+        List<Integer> sizes = new ArrayList<>();
+
+        // when : 풀의 커넥션 하나를 consumer가 빌린다.
+        blogService.forEachChunk(1, chunk -> {
+            try (Connection connection = dataSource.getConnection()) {
+                sizes.add(chunk.size());
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // then
+        assertThat(sizes).hasSizeGreaterThanOrEqualTo(2).containsOnly(1);
+    }
+
+    private static void awaitParked(List<Thread> threads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (threads.stream().anyMatch(thread -> thread.getState() == Thread.State.NEW
+                || thread.getState() == Thread.State.RUNNABLE) && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
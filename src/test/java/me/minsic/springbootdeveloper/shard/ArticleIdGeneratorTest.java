@@ -0,0 +1,47 @@
+package me.minsic.springbootdeveloper.shard;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArticleIdGeneratorTest {
+
+    private static ArticleIdGenerator generator(int workerId) {
+        ShardProperties properties = new ShardProperties();
+        properties.setWorkerId(workerId);
+        return new ArticleIdGenerator(properties);
+    }
+
+    @DisplayName("nextId(): 생성기마다 자기 서버 번호를 id에 넣고, 같은 생성기의 id는 계속 커진다.")
+    @Test
+    void workerIdPerGenerator() {
+        // given : 같은 JVM의 두 컨텍스트
+        ArticleIdGenerator first = generator(1);
+        ArticleIdGenerator second = generator(2);
+
+        // when
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(first.nextId());
+        }
+        long other = second.nextId();
+
+        // then : [밀리초][서버 번호 4비트][시퀀스 8비트]
+        assertThat(ids).isSorted().doesNotHaveDuplicates()
+                .allSatisfy(id -> assertThat((id >>> 8) & 0xF).isEqualTo(1));
+        assertThat((other >>> 8) & 0xF).isEqualTo(2);
+        assertThat((first.nextId() >>> 8) & 0xF).isEqualTo(1);
+    }
+
+    @DisplayName("ArticleIdGenerator(): 서버 번호가 0~15를 벗어나면 만들 때 실패한다.")
+    @Test
+    void invalidWorkerId() {
+        assertThatThrownBy(() -> generator(16))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,103 @@
+package me.minsic.springbootdeveloper.shard;
+
+import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.dto.AddArticleRequest;
+import me.minsic.springbootdeveloper.dto.UpdateArticleRequest;
+import me.minsic.springbootdeveloper.service.BlogService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 인메모리 H2 DB 3개를 샤드로 사용 (다른 테스트의 testdb와 겹치지 않도록 이름을 따로 둔다)
+@SpringBootTest(properties = {
+        "sharding.enabled=true",
+        "sharding.shards[0].url=jdbc:h2:mem:sharding-test-0",
+        "sharding.shards[1].url=jdbc:h2:mem:sharding-test-1",
+        "sharding.shards[2].url=jdbc:h2:mem:sharding-test-2"
+})
+class ShardingTest {
+
+    @Autowired
+    BlogService blogService;
+
+    @Autowired
+    ShardTemplate shardTemplate;
+
+    @Autowired
+    ShardRoutingDataSource dataSource;
+
+    private List<Long> idsInShard(int shard) {
+        DataSource target = dataSource.getResolvedDataSources().get(shard);
+        return new JdbcTemplate(target).queryForList("select id from article order by id", Long.class);
+    }
+
+    @DisplayName("save(), findById(): 글은 id로 정해진 샤드에만 저장되고, id로 다시 조회할 수 있다.")
+    @Test
+    void saveToOwnShard() {
+        // given
+        List<Article> saved = IntStream.range(0, 60)
+                .mapToObj(i -> blogService.save(new AddArticleRequest("제목" + i, "내용" + i)))
+                .toList();
+
+        // then
+        for (int shard = 0; shard < shardTemplate.shardCount(); shard++) {
+            List<Long> ids = idsInShard(shard);
+            assertThat(ids).isNotEmpty(); // 한 샤드로 몰리지 않는다.
+            for (long id : ids) {
+                assertThat(shardTemplate.shardFor(id)).isEqualTo(shard);
+            }
+        }
+        for (Article article : saved) {
+            assertThat(blogService.findById(article.getId()).getTitle()).isEqualTo(article.getTitle());
+        }
+
+        // when
+        Article target = saved.get(0);
+        blogService.update(target.getId(), new UpdateArticleRequest("수정한 제목", "수정한 내용"));
+        blogService.delete(saved.get(1).getId());
+
+        // then
+        assertThat(blogService.findById(target.getId()).getTitle()).isEqualTo("수정한 제목");
+        assertThat(idsInShard(shardTemplate.shardFor(saved.get(1).getId()))).doesNotContain(saved.get(1).getId());
+    }
+
+    @DisplayName("findAll(), findPage(): 모든 샤드의 글을 id 순서로 합치고, 커서로 빠짐없이 중복없이 넘긴다.")
+    @Test
+    void scatterGatherAndCursor() {
+        // given
+        IntStream.range(0, 45).forEach(i -> blogService.save(new AddArticleRequest("제목" + i, "내용" + i)));
+
+        // when
+        List<Article> all = blogService.findAll();
+        List<Long> paged = new ArrayList<>();
+        Long after = null;
+        List<Article> page;
+        while (!(page = blogService.findPage(after, 10)).isEmpty()) {
+            assertThat(page).hasSizeLessThanOrEqualTo(10);
+            page.forEach(article -> paged.add(article.getId()));
+            after = page.get(page.size() - 1).getId();
+        }
+
+        // then
+        List<Long> ids = all.stream().map(Article::getId).toList();
+        Set<Long> stored = new HashSet<>();
+        for (int shard = 0; shard < shardTemplate.shardCount(); shard++) {
+            stored.addAll(idsInShard(shard));
+        }
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat(ids).containsExactlyInAnyOrderElementsOf(stored);
+        assertThat(paged).containsExactlyElementsOf(ids);
+        assertThat(ids).contains(1L, 2L, 3L); // data.sql의 글도 각자의 샤드로 옮겨져 조회된다.
+    }
+}
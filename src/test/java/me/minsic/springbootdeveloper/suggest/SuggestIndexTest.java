@@ -0,0 +1,56 @@
+package me.minsic.springbootdeveloper.suggest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestIndexTest {
+
+    private static List<Long> ids(List<SuggestIndex.Entry> entries) {
+        return entries.stream().map(SuggestIndex.Entry::id).toList();
+    }
+
+    @DisplayName("find(): 한글은 자모 단위로 맞춰서 입력 중인 음절(받침, 겹받침 포함)로도 제목을 찾는다.")
+    @Test
+    void jamoPrefix() {
+        // given
+        SuggestIndex index = SuggestIndex.build(List.of(
+                new SuggestIndex.Entry(1, "한국어 문법", 0),
+                new SuggestIndex.Entry(2, "하나의 글", 0),
+                new SuggestIndex.Entry(3, "닭가슴살 요리", 0),
+                new SuggestIndex.Entry(4, "Spring Boot", 0)), 8, 10);
+
+        // then
+        assertThat(ids(index.find("한", 10))).containsExactly(2L, 1L); // ㅎㅏㄴ : 한국어, 하나
+        assertThat(ids(index.find("한ㄱ", 10))).containsExactly(1L);
+        assertThat(ids(index.find("하넝", 10))).isEmpty();
+        assertThat(ids(index.find("달", 10))).containsExactly(3L);      // 닭 = ㄷㅏㄹㄱ
+        assertThat(ids(index.find("다ㄺ", 10))).containsExactly(3L);
+        assertThat(ids(index.find("  spring  b", 10))).containsExactly(4L);
+        assertThat(ids(index.find("문", 10))).containsExactly(1L);      // 두 번째 단어
+        assertThat(ids(index.find("법", 10))).isEmpty();                // 단어 중간은 찾지 않는다.
+    }
+
+    @DisplayName("find(): 인기 가중치가 큰 제목부터 최대 limit 개를 반환하고, 여러 단어가 맞아도 글은 한 번만 나온다.")
+    @Test
+    void weighted() {
+        // given
+        List<SuggestIndex.Entry> entries = IntStream.rangeClosed(1, 30)
+                .mapToObj(i -> new SuggestIndex.Entry(i, "스프링 스프링 " + i, i % 3))
+                .toList();
+        SuggestIndex index = SuggestIndex.build(entries, 8, 5);
+
+        // when
+        List<SuggestIndex.Entry> found = index.find("슾", 10);
+
+        // then : 가중치 2인 글 중 최신(큰 id) 5개
+        assertThat(ids(found)).containsExactly(29L, 26L, 23L, 20L, 17L);
+        assertThat(ids(index.find("스프링 2", 3))).containsExactly(29L, 26L, 23L);
+        assertThat(index.articles()).isEqualTo(30);
+        assertThat(index.keys()).isEqualTo(90);
+    }
+}
@@ -0,0 +1,86 @@
+package me.minsic.springbootdeveloper.tag;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoaringBitmapTest {
+
+    private static final int RANGE = 300_000; // 구간 5개 정도
+
+    // 배열 구간과 비트맵 구간이 모두 생기도록 한쪽 구간에는 값을 많이 넣는다.
+    private static TreeSet<Integer> randomSet(Random random, int count) {
+        TreeSet<Integer> set = new TreeSet<>();
+        while (set.size() < count) {
+            set.add(random.nextBoolean() ? random.nextInt(0x10000) : random.nextInt(RANGE));
+        }
+        return set;
+    }
+
+    private static RoaringBitmap bitmapOf(TreeSet<Integer> set) {
+        return RoaringBitmap.of(set.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static int[] descending(TreeSet<Integer> set) {
+        return set.descendingSet().stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @DisplayName("add(), remove(): 무작위로 넣고 뺀 결과가 TreeSet과 같다.")
+    @Test
+    void addAndRemove() {
+        // given
+        Random random = new Random(42);
+        RoaringBitmap bitmap = new RoaringBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        // when
+        for (int i = 0; i < 50_000; i++) {
+            int value = random.nextInt(RANGE);
+            if (random.nextInt(3) == 0) {
+                bitmap.remove(value);
+                expected.remove(value);
+            } else {
+                bitmap.add(value);
+                expected.add(value);
+            }
+        }
+
+        // then
+        assertThat(bitmap.cardinality()).isEqualTo(expected.size());
+        assertThat(bitmap.descendingBelow(Integer.MAX_VALUE, RANGE)).containsExactly(descending(expected));
+        assertThat(bitmap.contains(expected.first())).isTrue();
+        assertThat(bitmap.contains(RANGE)).isFalse();
+    }
+
+    @DisplayName("and(), or(), andNot(): 집합 연산 결과가 TreeSet과 같고, descendingBelow()는 기준보다 작은 값만 큰 것부터 반환한다.")
+    @Test
+    void setOperations() {
+        // given
+        Random random = new Random(7);
+        TreeSet<Integer> a = randomSet(random, 20_000);
+        TreeSet<Integer> b = randomSet(random, 3_000);
+        RoaringBitmap left = bitmapOf(a);
+        RoaringBitmap right = bitmapOf(b);
+
+        TreeSet<Integer> and = new TreeSet<>(a);
+        and.retainAll(b);
+        TreeSet<Integer> or = new TreeSet<>(a);
+        or.addAll(b);
+        TreeSet<Integer> andNot = new TreeSet<>(a);
+        andNot.removeAll(b);
+
+        // then
+        assertThat(RoaringBitmap.and(left, right).descendingBelow(Integer.MAX_VALUE, RANGE)).containsExactly(descending(and));
+        assertThat(RoaringBitmap.or(left, right).descendingBelow(Integer.MAX_VALUE, RANGE)).containsExactly(descending(or));
+        assertThat(RoaringBitmap.andNot(left, right).descendingBelow(Integer.MAX_VALUE, RANGE)).containsExactly(descending(andNot));
+        assertThat(left.cardinality()).isEqualTo(a.size()); // 연산은 원본을 바꾸지 않는다.
+
+        int below = 0x10000 + 123;
+        int[] page = left.descendingBelow(below, 10);
+        assertThat(page).containsExactly(a.headSet(below, false).descendingSet().stream().limit(10).mapToInt(Integer::intValue).toArray());
+    }
+}
@@ -0,0 +1,102 @@
+package me.minsic.springbootdeveloper.tag;
+
+import me.minsic.springbootdeveloper.domain.Article;
+import me.minsic.springbootdeveloper.dto.AddArticleRequest;
+import me.minsic.springbootdeveloper.dto.TaggedArticlePage;
+import me.minsic.springbootdeveloper.service.BlogService;
+import me.minsic.springbootdeveloper.service.TagService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:tag-test")
+class TagIndexTest {
+
+    @Autowired
+    BlogService blogService;
+
+    @Autowired
+    TagService tagService;
+
+    // 아웃박스 이벤트가 전달될 때까지 다시 조회한다.
+    private static <T> T await(Supplier<T> query, Predicate<T> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        T result = query.get();
+        while (!condition.test(result) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            result = query.get();
+        }
+        return result;
+    }
+
+    private static List<Long> ids(TaggedArticlePage page) {
+        return page.articles().stream().map(Article::getId).toList();
+    }
+
+    private Article saveTagged(String title, String... tags) {
+        Article article = blogService.save(new AddArticleRequest(title, "내용"));
+        tagService.updateTags(article.getId(), List.of(tags), null);
+        return article;
+    }
+
+    @DisplayName("findTagged(): all, any, none 조건을 모두 만족하는 글을 최신순으로 before 다음부터 반환하고, 태그를 바꾸면 결과도 바뀐다.")
+    @Test
+    void findTagged() throws Exception {
+        // given
+        Article javaSpring = saveTagged("자바 스프링", "Java", " spring ");
+        Article javaDraft = saveTagged("자바 초안", "java", "spring", "draft");
+        Article javaOnly = saveTagged("자바", "java", "jpa");
+        Article newest = saveTagged("스프링 최신", "java", "spring");
+
+        // when
+        TaggedArticlePage first = await(() -> tagService.findTagged(List.of("java", "spring"), null, List.of("draft"), null, 1),
+                page -> ids(page).equals(List.of(newest.getId())));
+        TaggedArticlePage second = tagService.findTagged(List.of("java", "spring"), null, List.of("draft"), first.next(), 1);
+        TaggedArticlePage any = tagService.findTagged(null, List.of("jpa", "draft"), null, null, 10);
+
+        // then
+        assertThat(tagService.findTags(javaSpring.getId())).containsExactly("java", "spring");
+        assertThat(ids(first)).containsExactly(newest.getId());
+        assertThat(ids(second)).containsExactly(javaSpring.getId());
+        assertThat(ids(any)).containsExactly(javaOnly.getId(), javaDraft.getId());
+
+        // when : 초안 태그를 뗀다.
+        tagService.updateTags(javaDraft.getId(), List.of("java", "spring"), null);
+        TaggedArticlePage published = await(() -> tagService.findTagged(List.of("spring"), null, List.of("draft"), null, 10),
+                page -> page.articles().size() == 3);
+
+        // then
+        assertThat(ids(published)).containsExactly(newest.getId(), javaDraft.getId(), javaSpring.getId());
+        assertThat(published.next()).isNull();
+    }
+
+    @DisplayName("updateTags(): 글을 삭제하면 색인과 태그 행에서 빠지고, 태그 수가 한도를 넘으면 예외가 발생한다.")
+    @Test
+    void deleteAndLimit() throws Exception {
+        // given
+        Article article = saveTagged("삭제할 글", "temporary");
+        await(() -> tagService.findTagged(List.of("temporary"), null, null, null, 10), page -> !page.articles().isEmpty());
+
+        // when
+        blogService.delete(article.getId());
+        TaggedArticlePage page = await(() -> tagService.findTagged(List.of("temporary"), null, null, null, 10),
+                result -> result.articles().isEmpty());
+
+        // then
+        assertThat(page.articles()).isEmpty();
+        await(() -> tagService.findTags(article.getId()), List::isEmpty);
+        assertThat(tagService.findTags(article.getId())).isEmpty();
+        List<String> tooMany = IntStream.rangeClosed(0, TagService.MAX_TAGS).mapToObj(i -> "tag" + i).toList();
+        assertThatThrownBy(() -> tagService.updateTags(1L, tooMany, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
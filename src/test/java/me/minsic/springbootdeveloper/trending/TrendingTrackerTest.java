@@ -0,0 +1,75 @@
+package me.minsic.springbootdeveloper.trending;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrendingTrackerTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long START = TimeUnit.DAYS.toMillis(20_000); // 정각에서 시작
+
+    private final TrendingTracker tracker = new TrendingTracker(new TrendingProperties());
+
+    private static List<Long> ids(List<TrendingTracker.Entry> entries) {
+        return entries.stream().map(TrendingTracker.Entry::id).toList();
+    }
+
+    @DisplayName("top(): 한 번씩 조회된 글이 후보 수보다 훨씬 많아도 조회가 몰린 글을 조회 수 순서대로 찾는다.")
+    @Test
+    void heavyHitters() {
+        // given : 글 1~5는 (6 - id) * 200번, 글 1000~20999는 한 번씩 섞어서 조회
+        Random random = new Random(1);
+        List<Long> views = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            for (int i = 0; i < (6 - id) * 200; i++) {
+                views.add(id);
+            }
+        }
+        IntStream.range(1000, 21_000).forEach(id -> views.add((long) id));
+        Collections.shuffle(views, random);
+
+        // when
+        views.parallelStream().forEach(id -> tracker.record(id, START + MINUTE / 2));
+        List<TrendingTracker.Entry> top = tracker.top(TrendingWindow.FIVE_MINUTES, 5, START + MINUTE / 2);
+
+        // then
+        assertThat(ids(top)).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(top.get(0).views()).isGreaterThanOrEqualTo(1000);
+        assertThat(top.get(4).views()).isGreaterThanOrEqualTo(200).isLessThan(400);
+    }
+
+    @DisplayName("top(): 기간이 지난 구간의 조회는 빠지고, 긴 기간에는 남는다.")
+    @Test
+    void slidingWindows() {
+        // given : 글 1은 0분에, 글 2는 30분에 조회
+        for (int i = 0; i < 50; i++) {
+            tracker.record(1L, START);
+        }
+        for (int i = 0; i < 10; i++) {
+            tracker.record(2L, START + 30 * MINUTE);
+        }
+        long now = START + 32 * MINUTE;
+
+        // then
+        assertThat(ids(tracker.top(TrendingWindow.FIVE_MINUTES, 10, now))).containsExactly(2L);
+        assertThat(ids(tracker.top(TrendingWindow.HOUR, 10, now))).containsExactly(1L, 2L);
+
+        // when : 2시간 뒤 (1분 구간들은 다른 시각의 조회로 다시 쓰인다)
+        long later = START + 125 * MINUTE;
+        tracker.record(3L, later);
+
+        // then
+        assertThat(ids(tracker.top(TrendingWindow.HOUR, 10, later))).containsExactly(3L);
+        assertThat(tracker.top(TrendingWindow.DAY, 10, later))
+                .containsExactly(new TrendingTracker.Entry(1L, 50), new TrendingTracker.Entry(2L, 10), new TrendingTracker.Entry(3L, 1));
+    }
+}
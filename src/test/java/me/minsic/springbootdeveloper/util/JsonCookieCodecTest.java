@@ -0,0 +1,130 @@
+package me.minsic.springbootdeveloper.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.jackson2.SecurityJackson2Modules;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.util.SerializationUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonCookieCodecTest {
+
+    private JsonCookieCodec cookieCodec;
+    private OAuth2AuthorizationRequest authorizationRequest;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModules(SecurityJackson2Modules.getModules(getClass().getClassLoader()));
+        cookieCodec = new JsonCookieCodec(objectMapper,
+                "test-secret".getBytes(StandardCharsets.UTF_8), 256, 4096);
+
+        authorizationRequest = OAuth2AuthorizationRequest.authorizationCode()
+                .authorizationUri("https://accounts.google.com/o/oauth2/v2/auth")
+                .clientId("blog-client-id")
+                .redirectUri("http://localhost:8080/login/oauth2/code/google")
+                .scopes(Set.of("email", "profile"))
+                .state("mtxXp5rWVrWquQyIdgfEPtV6p3iHP8Fd5a6WjsMaBQE=")
+                .attributes(Map.of("registration_id", "google"))
+                .build();
+    }
+
+    @DisplayName("encode(), decode(): OAuth2 인가 요청을 쿠키 값으로 변환하고 다시 복원할 수 있다.")
+    @Test
+    void encodeAndDecode() {
+        // when
+        String value = cookieCodec.encode(authorizationRequest);
+        OAuth2AuthorizationRequest decoded = cookieCodec.decode(value, OAuth2AuthorizationRequest.class);
+
+        // then
+        assertThat(decoded.getState()).isEqualTo(authorizationRequest.getState());
+        assertThat(decoded.getClientId()).isEqualTo(authorizationRequest.getClientId());
+        assertThat(decoded.getScopes()).isEqualTo(authorizationRequest.getScopes());
+        assertThat(decoded.getAuthorizationRequestUri()).isEqualTo(authorizationRequest.getAuthorizationRequestUri());
+    }
+
+    @DisplayName("decode(): 변조된 쿠키 값은 복원하지 않는다.")
+    @Test
+    void decode_tampered() {
+        // given
+        char[] value = cookieCodec.encode(authorizationRequest).toCharArray();
+        value[10] = value[10] == 'A' ? 'B' : 'A';
+
+        // when, then
+        assertThatThrownBy(() -> cookieCodec.decode(new String(value), OAuth2AuthorizationRequest.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @DisplayName("encode(): 최대 길이를 넘는 값은 쿠키로 만들지 않는다.")
+    @Test
+    void encode_tooLarge() {
+        // given
+        byte[] state = new byte[8192];
+        new SecureRandom().nextBytes(state); // 압축되지 않는 값
+        OAuth2AuthorizationRequest largeRequest = OAuth2AuthorizationRequest.from(authorizationRequest)
+                .state(Base64.getEncoder().encodeToString(state))
+                .build();
+
+        // when, then
+        assertThatThrownBy(() -> cookieCodec.encode(largeRequest))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @DisplayName("encode(): 자바 직렬화(+ Base64)보다 작은 쿠키 값을 만든다.")
+    @Test
+    void encode_smallerThanJavaSerialization() {
+        // when
+        String javaValue = Base64.getUrlEncoder().encodeToString(SerializationUtils.serialize(authorizationRequest));
+        String jsonValue = cookieCodec.encode(authorizationRequest);
+
+        // then
+        assertThat(jsonValue.length()).isLessThan(javaValue.length());
+    }
+
+    // 기존 방식(자바 직렬화 + Base64)과 쿠키 크기, 변환 시간을 비교하는 마이크로벤치마크 (./gradlew benchmark 로 실행)
+    @DisplayName("benchmark: 자바 직렬화와 쿠키 크기, encode/decode 시간을 비교한다.")
+    @Tag("benchmark")
+    @Test
+    void benchmark() {
+        String javaValue = Base64.getUrlEncoder().encodeToString(SerializationUtils.serialize(authorizationRequest));
+        String jsonValue = cookieCodec.encode(authorizationRequest);
+
+        double javaEncode = measure(() -> Base64.getUrlEncoder()
+                .encodeToString(SerializationUtils.serialize(authorizationRequest)));
+        double javaDecode = measure(() -> SerializationUtils.deserialize(Base64.getUrlDecoder().decode(javaValue)));
+        double jsonEncode = measure(() -> cookieCodec.encode(authorizationRequest));
+        double jsonDecode = measure(() -> cookieCodec.decode(jsonValue, OAuth2AuthorizationRequest.class));
+
+        System.out.printf("java serialization : %5d bytes, encode %8.0f ns/op, decode %8.0f ns/op%n",
+                javaValue.length(), javaEncode, javaDecode);
+        System.out.printf("json cookie codec  : %5d bytes, encode %8.0f ns/op, decode %8.0f ns/op%n",
+                jsonValue.length(), jsonEncode, jsonDecode);
+    }
+
+    private double measure(Supplier<Object> operation) {
+        int warmup = 20_000;
+        int iterations = 20_000;
+        Object sink = null;
+        for (int i = 0; i < warmup; i++) {
+            sink = operation.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = operation.get();
+        }
+        assertThat(sink).isNotNull();
+        return (double) (System.nanoTime() - start) / iterations;
+    }
+}
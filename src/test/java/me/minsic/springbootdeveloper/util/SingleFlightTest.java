@@ -0,0 +1,89 @@
+package me.minsic.springbootdeveloper.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    // 모든 호출이 들어올 때까지 끝나지 않는 조회
+    private String slowLoad(RuntimeException failure) {
+        loads.incrementAndGet();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return "article";
+    }
+
+    // CALLERS개 스레드에서 동시에 load()를 호출하고, 모두 load() 안에서 기다리게 된 뒤에 조회를 끝낸다.
+    private List<FutureTask<String>> callConcurrently(RuntimeException failure) throws InterruptedException {
+        List<FutureTask<String>> results = IntStream.range(0, CALLERS)
+                .mapToObj(i -> new FutureTask<>(() -> singleFlight.load(1L, () -> slowLoad(failure))))
+                .toList();
+        List<Thread> threads = results.stream().map(Thread::new).toList();
+        threads.forEach(Thread::start);
+        awaitParked(threads);
+        release.countDown();
+        return results;
+    }
+
+    static void awaitParked(List<Thread> threads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (threads.stream().anyMatch(thread -> thread.getState() == Thread.State.NEW
+                || thread.getState() == Thread.State.RUNNABLE) && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    @DisplayName("load(): 같은 키의 동시 호출은 loader를 한 번만 실행하고 모두 같은 결과를 받는다.")
+    @Test
+    void coalesce() throws Exception {
+        // when
+        List<FutureTask<String>> results = callConcurrently(null);
+
+        // then
+        for (FutureTask<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("article");
+        }
+        assertThat(loads).hasValue(1);
+
+        // 끝난 조회는 저장하지 않으므로 다음 호출은 다시 실행한다.
+        assertThat(singleFlight.load(1L, () -> "reloaded")).isEqualTo("reloaded");
+    }
+
+    @DisplayName("load(): loader가 던진 예외는 기다리던 모든 호출에 그대로 전달된다.")
+    @Test
+    void propagateFailure() throws Exception {
+        // given
+        IllegalArgumentException failure = new IllegalArgumentException("not found: 1");
+
+        // when
+        List<FutureTask<String>> results = callConcurrently(failure);
+
+        // then
+        for (FutureTask<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasCause(failure);
+        }
+        assertThat(loads).hasValue(1);
+    }
+}
@@ -0,0 +1,75 @@
+package me.minsic.springbootdeveloper.view;
+
+import me.minsic.springbootdeveloper.dto.AddArticleRequest;
+import me.minsic.springbootdeveloper.service.BlogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 글 수보다 작은 chunk-size로 여러 묶음에 나눠 그린다.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:article-list-view-test",
+        "view.streaming.chunk-size=2"
+})
+class ArticleListStreamRendererTest {
+
+    @Autowired
+    WebApplicationContext context;
+
+    @Autowired
+    BlogService blogService;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void mockMvcSetUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @DisplayName("render(): /articles는 페이지 앞부분, 모든 글 카드, 뒷부분을 차례로 보내고, 요청마다 같은 앞/뒤 부분을 쓴다.")
+    @Test
+    void renderArticles() throws Exception {
+        // given
+        blogService.save(new AddArticleRequest("스트리밍 글", "스트리밍 내용"));
+
+        // when
+        String first = mockMvc.perform(get("/articles"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String second = mockMvc.perform(get("/articles"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // then
+        assertThat(first).startsWith("<!DOCTYPE html>")
+                .contains("제목1", "제목2", "제목3", "스트리밍 글")
+                .doesNotContain("<!--articles-->")
+                .endsWith("</html>");
+        assertThat(first.indexOf("My blog")).isLessThan(first.indexOf("제목1"));
+        assertThat(first.indexOf("스트리밍 글")).isLessThan(first.indexOf("글 등록"));
+        assertThat(second).isEqualTo(first);
+    }
+
+    @DisplayName("Frame.split(): 카드 자리 표시가 없는 페이지는 응답을 쓰기 전에 실패한다.")
+    @Test
+    void splitWithoutMarker() {
+        // when
+        ArticleListStreamRenderer.Frame frame = ArticleListStreamRenderer.Frame.split("<html><!--articles--></html>");
+
+        // then
+        assertThat(frame.head()).isEqualTo("<html>");
+        assertThat(frame.tail()).isEqualTo("</html>");
+        assertThatThrownBy(() -> ArticleListStreamRenderer.Frame.split("<html></html>"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
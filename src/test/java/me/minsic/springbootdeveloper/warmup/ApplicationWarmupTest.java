@@ -0,0 +1,92 @@
+package me.minsic.springbootdeveloper.warmup;
+
+import me.minsic.springbootdeveloper.config.sql.SqlStatisticsFilter;
+import me.minsic.springbootdeveloper.config.timing.ServerTimingFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 보안 필터, 첫 요청 측정 필터를 포함한 MockMvc로 요청한다. (MOCK 환경이라 화면 요청 워밍업은 건너뛴다)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:warmup-test",
+        "warmup.enabled=true",
+        "sql-statistics.header=true",
+        "warmup.rounds=40",
+        "warmup.first-requests=2"
+})
+@AutoConfigureMockMvc
+class ApplicationWarmupTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    WarmupMetrics warmupMetrics;
+
+    @Autowired
+    ApplicationContext context;
+
+    @DisplayName("run(): 기동할 때 워밍업을 모두 실행한 뒤 준비 완료가 되고, 준비 상태는 인증 없이 확인할 수 있다.")
+    @Test
+    void readyAfterWarmup() throws Exception {
+        // then
+        WarmupMetrics.Snapshot snapshot = warmupMetrics.snapshot();
+        assertThat(snapshot.ready()).isTrue();
+        assertThat(snapshot.warmedUp()).isTrue();
+        assertThat(snapshot.rounds()).isEqualTo(40);
+        assertThat(snapshot.failures()).isZero();
+        mockMvc.perform(get("/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("ACCEPTING_TRAFFIC"));
+
+        // when : 종료 중 등으로 요청을 받지 않는 상태
+        AvailabilityChangeEvent.publish(context, ReadinessState.REFUSING_TRAFFIC);
+        try {
+            mockMvc.perform(get("/health/readiness"))
+                    .andExpect(status().isServiceUnavailable());
+        } finally {
+            AvailabilityChangeEvent.publish(context, ReadinessState.ACCEPTING_TRAFFIC);
+        }
+    }
+
+    @DisplayName("recordRequest(): 준비 완료 뒤 첫 first-requests 개 요청만 처리 시간을 기록한다. (준비 상태 확인 요청은 제외)")
+    @Test
+    void recordFirstRequests() throws Exception {
+        // when
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/health/readiness")).andExpect(status().isOk());
+            mockMvc.perform(get("/login")).andExpect(status().isOk());
+        }
+
+        // then
+        assertThat(warmupMetrics.snapshot().firstRequests().count()).isEqualTo(2);
+    }
+
+    @DisplayName("isWarmupRequest(): X-Warmup 헤더를 붙인 요청은 서버 타이밍, SQL 통계, 첫 요청 측정에서 뺀다.")
+    @Test
+    void excludeWarmupRequests() throws Exception {
+        // given
+        long before = warmupMetrics.snapshot().firstRequests().count();
+
+        // when
+        mockMvc.perform(get("/login").header(ApplicationWarmup.HEADER_NAME, "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ServerTimingFilter.HEADER_NAME))
+                .andExpect(header().doesNotExist(SqlStatisticsFilter.HEADER_NAME));
+
+        // then
+        assertThat(warmupMetrics.snapshot().firstRequests().count()).isEqualTo(before);
+    }
+}